@@ -39,16 +39,12 @@ import java.net.URL;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import javax.script.Bindings;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
-import javax.script.ScriptEngineFactory;
-import javax.script.ScriptEngineManager;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.annotation.PublicAPI;
@@ -372,11 +368,13 @@ public abstract class Script<E> implements Serializable {
             }
             return new ScriptResult<>(new Exception(stack));
         }
-        ScriptEngine engine = createScriptEngine();
+        ScriptEngineRegistry registry = ScriptEngineRegistry.getInstance();
+        ScriptEngineRegistry.PreparedScript preparedScript = registry.acquire(scriptEngineLookupName, script);
 
-        if (engine == null)
+        if (preparedScript == null)
             return new ScriptResult<>(new Exception("No Script Engine Found for name or extension " +
                                                     scriptEngineLookupName));
+        ScriptEngine engine = preparedScript.getEngine();
 
         // SCHEDULING-1532: redirect script output to a buffer (keep the latest DEFAULT_OUTPUT_MAX_SIZE)
         BoundedStringWriter outputBoundedWriter = new BoundedStringWriter(outputSink, DEFAULT_OUTPUT_MAX_SIZE);
@@ -409,11 +407,12 @@ public abstract class Script<E> implements Serializable {
                 }
             }
             prepareBindings(bindings);
-            Object evalResult = engine.eval(getReader());
+            Object evalResult = preparedScript.eval(getReader());
 
             // Add output to the script result
             ScriptResult<E> result = this.getResult(evalResult, bindings);
             captureOutput(engine, outputBuffer, result);
+            registry.release(preparedScript);
 
             return result;
         } catch (javax.script.ScriptException e) {
@@ -422,6 +421,7 @@ public abstract class Script<E> implements Serializable {
             scriptException.setStackTrace(e.getStackTrace());
             ScriptResult<E> result = new ScriptResult<>(scriptException);
             captureOutput(engine, outputBuffer, result);
+            registry.release(preparedScript);
             return result;
         } catch (Throwable t) {
             String stack = Throwables.getStackTraceAsString(t);
@@ -515,54 +515,7 @@ public abstract class Script<E> implements Serializable {
 
     /** The Script Engine used to evaluate the script. */
     protected ScriptEngine createScriptEngine() {
-
-        Map<ScriptEngine, Integer> scriptEngineCandidates;
-        final boolean findByName = true;
-        scriptEngineCandidates = findScriptEngineCandidates(findByName);
-
-        if (scriptEngineCandidates.isEmpty()) {
-            scriptEngineCandidates = findScriptEngineCandidates(!findByName);
-        }
-
-        return findBestScriptEngine(scriptEngineCandidates);
-    }
-
-    private Map<ScriptEngine, Integer> findScriptEngineCandidates(boolean findByName) {
-        Map<ScriptEngine, Integer> matchPositionPerScriptEngineCandidate = new HashMap<>();
-        int matchPosition;
-        List<String> lookupCriteria;
-
-        for (ScriptEngineFactory factory : new ScriptEngineManager().getEngineFactories()) {
-            matchPosition = 0;
-            if (findByName) {
-                lookupCriteria = factory.getNames();
-            } else {
-                lookupCriteria = factory.getExtensions();
-            }
-
-            for (String criteria : lookupCriteria) {
-                if (criteria.equalsIgnoreCase(scriptEngineLookupName)) {
-                    matchPositionPerScriptEngineCandidate.put(factory.getScriptEngine(), matchPosition);
-                }
-                matchPosition++;
-            }
-        }
-
-        return matchPositionPerScriptEngineCandidate;
-    }
-
-    private ScriptEngine findBestScriptEngine(Map<ScriptEngine, Integer> scriptEngineCandidates) {
-        int minimumMatchingIndex = Integer.MAX_VALUE;
-        ScriptEngine bestScriptEngine = null;
-
-        for (Entry<ScriptEngine, Integer> candidate : scriptEngineCandidates.entrySet()) {
-            if (candidate.getValue() < minimumMatchingIndex) {
-                minimumMatchingIndex = candidate.getValue();
-                bestScriptEngine = candidate.getKey();
-            }
-        }
-
-        return bestScriptEngine;
+        return ScriptEngineRegistry.getInstance().createScriptEngine(scriptEngineLookupName);
     }
 
     /**
@@ -0,0 +1,70 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scripting;
+
+/**
+ * Statistics of the script engines and compiled scripts cached by the {@link ScriptEngineRegistry}.
+ *
+ * @author The ProActive Team
+ */
+public interface ScriptCacheMBean {
+
+    /**
+     * Returns the number of script executions which reused an engine with an already compiled script.
+     *
+     * @return the number of cache hits.
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of script executions which needed a new engine and a new compilation.
+     *
+     * @return the number of cache misses.
+     */
+    long getMissCount();
+
+    /**
+     * Returns the number of compiled scripts evicted from the cache.
+     *
+     * @return the number of evictions.
+     */
+    long getEvictionCount();
+
+    /**
+     * Returns the number of distinct scripts currently cached.
+     *
+     * @return the number of cached scripts.
+     */
+    long getCachedScriptsCount();
+
+    /**
+     * Returns the ratio of script executions served from the cache.
+     *
+     * @return the hit ratio, between 0 and 1.
+     */
+    double getHitRatio();
+
+}
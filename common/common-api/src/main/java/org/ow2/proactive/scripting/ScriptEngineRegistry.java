@@ -0,0 +1,389 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scripting;
+
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptEngineManager;
+import javax.script.SimpleScriptContext;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalCause;
+import com.google.common.collect.ImmutableSet;
+
+
+/**
+ * Registry of the script engines used to evaluate {@link Script}s in this JVM.
+ * <p>
+ * Script engine factories are looked up once per lookup name and class loader, instead of scanning
+ * every available factory for each execution. Engines are pooled per script, identified by its engine
+ * and its {@link Script#digest(String)}, together with the compiled form of the script when the engine
+ * is {@link Compilable}, so that a script executed many times, such as a selection script, is only
+ * compiled once per pooled engine. Engines isolating concurrent evaluations share a single compiled script.
+ * <p>
+ * The number of cached scripts is bounded by {@value #CACHE_SIZE_PROPERTY} (0 disables the cache)
+ * and the number of idle engines kept per script by {@value #POOL_SIZE_PROPERTY}. Cache statistics
+ * are exposed by the {@value #MBEAN_NAME} MBean.
+ *
+ * @author The ProActive Team
+ */
+public class ScriptEngineRegistry implements ScriptCacheMBean {
+
+    /** Java property defining the maximum number of distinct scripts cached */
+    public static final String CACHE_SIZE_PROPERTY = "pa.scripting.cache.size";
+
+    /** Java property defining the maximum number of idle engines kept for a script */
+    public static final String POOL_SIZE_PROPERTY = "pa.scripting.engine.pool.size";
+
+    public static final String MBEAN_NAME = "ProActiveScripting:name=ScriptCache";
+
+    private static final int DEFAULT_CACHE_SIZE = 256;
+
+    private static final int DEFAULT_POOL_SIZE = 4;
+
+    /** Values of the THREADING parameter of the engines which isolate concurrent evaluations */
+    private static final Set<String> ISOLATED_THREADING = ImmutableSet.of("THREAD-ISOLATED", "STATELESS");
+
+    private static final Logger logger = Logger.getLogger(ScriptEngineRegistry.class);
+
+    private static ScriptEngineRegistry instance = null;
+
+    /** Factories found for each lookup name, per context class loader */
+    private final LoadingCache<ClassLoader, ConcurrentMap<String, ScriptEngineFactory>> factories = CacheBuilder.newBuilder()
+                                                                                                                .weakKeys()
+                                                                                                                .build(CacheLoader.from(ConcurrentHashMap::new));
+
+    private final Cache<ScriptKey, ScriptEntry> scripts;
+
+    private final int cacheSize;
+
+    private final int poolSize;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    ScriptEngineRegistry(int cacheSize, int poolSize) {
+        this.cacheSize = cacheSize;
+        this.poolSize = poolSize;
+        this.scripts = CacheBuilder.newBuilder().maximumSize(Math.max(cacheSize, 0)).<ScriptKey, ScriptEntry> removalListener(notification -> {
+            if (notification.getCause() == RemovalCause.SIZE) {
+                evictions.incrementAndGet();
+            }
+        }).build();
+    }
+
+    public static synchronized ScriptEngineRegistry getInstance() {
+        if (instance == null) {
+            instance = new ScriptEngineRegistry(Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE),
+                                                Integer.getInteger(POOL_SIZE_PROPERTY, DEFAULT_POOL_SIZE));
+            instance.registerMBean();
+        }
+        return instance;
+    }
+
+    private void registerMBean() {
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!mbs.isRegistered(name)) {
+                mbs.registerMBean(this, name);
+            }
+        } catch (Exception e) {
+            logger.warn("Unable to register the script cache MBean", e);
+        }
+    }
+
+    /**
+     * Find the factory of the engine matching the given name, or the given extension if no engine
+     * has this name. When several engines match, the one for which the lookup name comes first
+     * in the names (or extensions) of the engine is chosen.
+     *
+     * @param lookupName name of the engine or extension of the script file
+     * @return the factory of the engine, or null if no engine matches
+     */
+    public ScriptEngineFactory findFactory(String lookupName) {
+        if (lookupName == null) {
+            return null;
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = ScriptEngineRegistry.class.getClassLoader();
+        }
+        ConcurrentMap<String, ScriptEngineFactory> factoriesByName = factories.getUnchecked(classLoader);
+        ScriptEngineFactory factory = factoriesByName.get(lookupName);
+        if (factory == null) {
+            // engines may be added to the class path later on, so a failed lookup is not cached
+            List<ScriptEngineFactory> candidates = new ScriptEngineManager(classLoader).getEngineFactories();
+            factory = findBestFactory(candidates, lookupName, true);
+            if (factory == null) {
+                factory = findBestFactory(candidates, lookupName, false);
+            }
+            if (factory != null) {
+                factoriesByName.put(lookupName, factory);
+            }
+        }
+        return factory;
+    }
+
+    private ScriptEngineFactory findBestFactory(List<ScriptEngineFactory> candidates, String lookupName,
+            boolean findByName) {
+        int minimumMatchingIndex = Integer.MAX_VALUE;
+        ScriptEngineFactory bestFactory = null;
+
+        for (ScriptEngineFactory factory : candidates) {
+            List<String> lookupCriteria = findByName ? factory.getNames() : factory.getExtensions();
+            for (int matchPosition = 0; matchPosition < lookupCriteria.size(); matchPosition++) {
+                if (lookupCriteria.get(matchPosition).equalsIgnoreCase(lookupName) &&
+                    matchPosition < minimumMatchingIndex) {
+                    minimumMatchingIndex = matchPosition;
+                    bestFactory = factory;
+                }
+            }
+        }
+        return bestFactory;
+    }
+
+    /**
+     * Create a new engine for the given lookup name.
+     *
+     * @param lookupName name of the engine or extension of the script file
+     * @return a new script engine, or null if no engine matches
+     */
+    public ScriptEngine createScriptEngine(String lookupName) {
+        ScriptEngineFactory factory = findFactory(lookupName);
+        return factory == null ? null : factory.getScriptEngine();
+    }
+
+    /**
+     * Take an engine ready to evaluate the given script. The engine must be given back using
+     * {@link #release(PreparedScript)} once the evaluation is over, unless it failed unexpectedly.
+     *
+     * @param lookupName name of the engine or extension of the script file
+     * @param script the source code of the script
+     * @return the prepared script, or null if no engine matches
+     */
+    PreparedScript acquire(String lookupName, String script) {
+        ScriptEngineFactory factory = findFactory(lookupName);
+        if (factory == null) {
+            return null;
+        }
+        if (cacheSize <= 0 || script == null) {
+            return new PreparedScript(null, factory.getScriptEngine(), null);
+        }
+
+        ScriptEntry entry;
+        try {
+            entry = scripts.get(new ScriptKey(factory, Script.digest(script)), ScriptEntry::new);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+
+        PreparedScript prepared = entry.idle.poll();
+        if (prepared != null) {
+            entry.idleCount.decrementAndGet();
+            hits.incrementAndGet();
+            prepared.resetContext();
+            return prepared;
+        }
+
+        ScriptEngine engine = factory.getScriptEngine();
+        CompiledScript compiled = entry.shared;
+        if (compiled != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            compiled = compile(engine, script);
+            if (compiled != null && ISOLATED_THREADING.contains(factory.getParameter("THREADING"))) {
+                entry.shared = compiled;
+            }
+        }
+        return new PreparedScript(entry, engine, compiled);
+    }
+
+    private CompiledScript compile(ScriptEngine engine, String script) {
+        if (!(engine instanceof Compilable)) {
+            return null;
+        }
+        try {
+            return ((Compilable) engine).compile(script);
+        } catch (javax.script.ScriptException e) {
+            // the error will be reported by the evaluation of the script
+            logger.debug("Unable to compile script", e);
+            return null;
+        }
+    }
+
+    /**
+     * Give back an engine taken with {@link #acquire(String, String)}.
+     */
+    void release(PreparedScript prepared) {
+        ScriptEntry entry = prepared.entry;
+        if (entry == null) {
+            return;
+        }
+        prepared.resetContext();
+        if (entry.idleCount.incrementAndGet() <= poolSize) {
+            entry.idle.offer(prepared);
+        } else {
+            entry.idleCount.decrementAndGet();
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public long getCachedScriptsCount() {
+        return scripts.size();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * An engine ready to evaluate a script, along with the compiled script if the engine supports it.
+     */
+    static class PreparedScript {
+
+        private final ScriptEntry entry;
+
+        private final ScriptEngine engine;
+
+        private final CompiledScript compiled;
+
+        PreparedScript(ScriptEntry entry, ScriptEngine engine, CompiledScript compiled) {
+            this.entry = entry;
+            this.engine = engine;
+            this.compiled = compiled;
+        }
+
+        ScriptEngine getEngine() {
+            return engine;
+        }
+
+        /**
+         * Evaluate the script in the current context of the engine.
+         *
+         * @param reader source of the script, used when the script could not be compiled
+         */
+        Object eval(Reader reader) throws javax.script.ScriptException {
+            if (compiled != null) {
+                return compiled.eval(engine.getContext());
+            }
+            return engine.eval(reader);
+        }
+
+        /**
+         * Give the engine a new context so that no binding or writer leaks from an evaluation to the next one.
+         */
+        private void resetContext() {
+            ScriptContext context = new SimpleScriptContext();
+            context.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+            engine.setContext(context);
+        }
+    }
+
+    private static class ScriptEntry {
+
+        /** Compiled script shared by every engine, when the engine isolates concurrent evaluations */
+        private volatile CompiledScript shared;
+
+        private final Queue<PreparedScript> idle = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger idleCount = new AtomicInteger();
+    }
+
+    private static class ScriptKey {
+
+        private final ScriptEngineFactory factory;
+
+        private final String digest;
+
+        ScriptKey(ScriptEngineFactory factory, String digest) {
+            this.factory = factory;
+            this.digest = digest;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ScriptKey)) {
+                return false;
+            }
+            ScriptKey other = (ScriptKey) o;
+            return factory == other.factory && digest.equals(other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(factory) + digest.hashCode();
+        }
+    }
+
+}
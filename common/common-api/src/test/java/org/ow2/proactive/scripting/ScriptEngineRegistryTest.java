@@ -0,0 +1,129 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scripting;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+
+
+public class ScriptEngineRegistryTest {
+
+    private static final String SCRIPT = "result = (binding.hasVariable('previous') ? 'leaked' : 'clean'); previous = 1; result";
+
+    @Test
+    public void testFactoryLookupByNameAndExtension() {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(16, 2);
+
+        assertThat(registry.findFactory("groovy"), not(nullValue()));
+        assertThat(registry.findFactory("groovy"), sameInstance(registry.findFactory("Groovy")));
+        assertThat(registry.findFactory("js"), not(nullValue()));
+        assertThat(registry.findFactory("mySuperNonExistingScriptEngine"), nullValue());
+        assertThat(registry.findFactory(null), nullValue());
+    }
+
+    @Test
+    public void testCompiledScriptIsReused() throws Exception {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(16, 2);
+
+        ScriptEngineRegistry.PreparedScript first = registry.acquire("groovy", SCRIPT);
+        assertThat(first.eval(new StringReader(SCRIPT)), is((Object) "clean"));
+        registry.release(first);
+
+        ScriptEngineRegistry.PreparedScript second = registry.acquire("groovy", SCRIPT);
+        assertThat(second, sameInstance(first));
+        // bindings of the previous evaluation are not visible anymore
+        assertThat(second.eval(new StringReader(SCRIPT)), is((Object) "clean"));
+        registry.release(second);
+
+        assertThat(registry.getMissCount(), is(1L));
+        assertThat(registry.getHitCount(), is(1L));
+        assertThat(registry.getCachedScriptsCount(), is(1L));
+    }
+
+    @Test
+    public void testConcurrentExecutionsUseDistinctEngines() throws Exception {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(16, 1);
+
+        ScriptEngineRegistry.PreparedScript first = registry.acquire("groovy", SCRIPT);
+        ScriptEngineRegistry.PreparedScript second = registry.acquire("groovy", SCRIPT);
+        assertThat(first.getEngine(), not(sameInstance(second.getEngine())));
+        assertThat(first.getEngine().getContext(), not(sameInstance(second.getEngine().getContext())));
+
+        registry.release(first);
+        registry.release(second);
+
+        // only one idle engine is kept
+        assertThat(registry.acquire("groovy", SCRIPT), sameInstance(first));
+        assertThat(registry.acquire("groovy", SCRIPT), not(sameInstance(second)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedScriptsAreEvicted() throws Exception {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(2, 1);
+
+        for (int i = 0; i < 5; i++) {
+            registry.release(registry.acquire("groovy", "result = " + i));
+        }
+
+        assertThat(registry.getCachedScriptsCount(), is(2L));
+        assertThat(registry.getEvictionCount(), is(3L));
+        assertThat(registry.getMissCount(), is(5L));
+    }
+
+    @Test
+    public void testDisabledCache() throws Exception {
+        ScriptEngineRegistry registry = new ScriptEngineRegistry(0, 1);
+
+        ScriptEngineRegistry.PreparedScript first = registry.acquire("groovy", SCRIPT);
+        registry.release(first);
+
+        assertThat(registry.acquire("groovy", SCRIPT), not(sameInstance(first)));
+        assertThat(registry.getCachedScriptsCount(), is(0L));
+        assertThat(registry.getHitCount() + registry.getMissCount(), is(0L));
+    }
+
+    @Test
+    public void testScriptExecutionUsesTheCache() throws Exception {
+        ScriptEngineRegistry registry = ScriptEngineRegistry.getInstance();
+        SimpleScript script = new SimpleScript("println 'cached'", "groovy");
+        script.execute();
+        long hits = registry.getHitCount();
+
+        ScriptResult<Object> result = script.execute();
+
+        assertThat(result.getException(), nullValue());
+        assertThat(result.getOutput().trim(), is("cached"));
+        assertThat(registry.getHitCount(), is(hits + 1));
+    }
+
+}
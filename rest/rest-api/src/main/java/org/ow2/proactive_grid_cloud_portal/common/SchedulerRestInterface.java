@@ -128,6 +128,42 @@ public interface SchedulerRestInterface {
             @QueryParam("index") @DefaultValue("-1") int index, @QueryParam("limit") @DefaultValue("-1") int limit)
             throws PermissionRestException, NotConnectedRestException;
 
+    /**
+     * Returns a page of jobs sorted by decreasing id. Contrary to
+     * <code>jobsinfo</code>, the jobs are paginated with the cursor returned
+     * with the previous page, so that the cost of a request does not depend on
+     * the position of the page. The total number of jobs is not computed.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param cursor
+     *            optional, the cursor returned with the previous page, none for
+     *            the first page
+     * @param limit
+     *            optional, the maximum number of jobs in the page
+     * @param myJobs
+     *            fetch only the jobs owned by the user making the request
+     * @param pending
+     *            fetch pending jobs
+     * @param running
+     *            fetch running jobs
+     * @param finished
+     *            fetch finished jobs
+     * @return a list of UserJobData and the cursor of the next page, null if
+     *         it is the last page
+     */
+    @GET
+    @GZIP
+    @Path("jobsinfo/cursor")
+    @Produces({ "application/json", "application/xml" })
+    RestPage<UserJobData> jobsInfoByCursor(@HeaderParam("sessionid") String sessionId,
+            @QueryParam("cursor") String cursor, @QueryParam("limit") @DefaultValue("-1") int limit,
+            @QueryParam("myjobs") @DefaultValue("false") boolean myJobs,
+            @QueryParam("pending") @DefaultValue("true") boolean pending,
+            @QueryParam("running") @DefaultValue("true") boolean running,
+            @QueryParam("finished") @DefaultValue("true") boolean finished)
+            throws PermissionRestException, NotConnectedRestException;
+
     /**
      * Returns a list of jobs info corresponding to the given job IDs (in the same order)
      *
@@ -496,6 +532,55 @@ public interface SchedulerRestInterface {
             @QueryParam("offset") @DefaultValue("0") int offset, @QueryParam("limit") @DefaultValue("-1") int limit)
             throws NotConnectedRestException, PermissionRestException;
 
+    /**
+     * Returns the names of the tasks regarding the given parameters, sorted by
+     * job id and task id. Contrary to <code>tasks</code>, the result is
+     * paginated with the cursor returned with the previous page, so that the
+     * cost of a request does not depend on the position of the page. If the
+     * <code>limit</code> parameter is not specified, the value of the
+     * <code>pa.scheduler.tasks.page.size</code> parameter is used.
+     * 
+     * @param sessionId
+     *            a valid session id.
+     * @param taskTag
+     *            optional, tag to filter the tasks. The tag should be complete
+     *            as the criteria is strict.
+     * @param from
+     *            the scheduled date to which we start fetching tasks. The
+     *            format is in Epoch time.
+     * @param to
+     *            the end scheduled end date to stop fetching tasks. The format
+     *            is in Epoch time.
+     * @param mytasks
+     *            <code>True</code> if you want to fetch only the user's tasks.
+     *            Default value is <code>False</code>.
+     * @param running
+     *            fetch running tasks. Default value is <code>True</code>.
+     * @param pending
+     *            fetch pending tasks. Default value is <code>True</code>.
+     * @param finished
+     *            fetch finished tasks. Default value is <code>True</code>.
+     * @param cursor
+     *            the cursor returned with the previous page, none for the
+     *            first page.
+     * @param limit
+     *            the maximum number of tasks in the page.
+     * @return a list of task names and the cursor of the next page, null if it
+     *         is the last page
+     */
+    @GET
+    @GZIP
+    @Path("tasks/cursor")
+    @Produces("application/json")
+    RestPage<String> getTaskIdsByCursor(@HeaderParam("sessionid") String sessionId,
+            @QueryParam("tag") String taskTag, @QueryParam("from") @DefaultValue("0") long from,
+            @QueryParam("to") @DefaultValue("0") long to, @QueryParam("mytasks") @DefaultValue("false") boolean mytasks,
+            @QueryParam("running") @DefaultValue("true") boolean running,
+            @QueryParam("pending") @DefaultValue("true") boolean pending,
+            @QueryParam("finished") @DefaultValue("true") boolean finished, @QueryParam("cursor") String cursor,
+            @QueryParam("limit") @DefaultValue("-1") int limit)
+            throws NotConnectedRestException, PermissionRestException;
+
     /**
      * Returns a list of the tags of the tasks belonging to job
      * <code>jobId</code>
@@ -752,6 +837,56 @@ public interface SchedulerRestInterface {
             @QueryParam("sortparameters") SortSpecifierContainer sortParams)
             throws NotConnectedRestException, PermissionRestException;
 
+    /**
+     * Returns a page of <code>TaskStateData</code> regarding the given
+     * parameters, sorted by job id and task id. Contrary to
+     * <code>taskstates</code>, the result is paginated with the cursor
+     * returned with the previous page, so that the cost of a request does not
+     * depend on the position of the page. If the <code>limit</code> parameter
+     * is not specified, the value of the
+     * <code>pa.scheduler.tasks.page.size</code> parameter is used.
+     * 
+     * @param sessionId
+     *            a valid session id.
+     * @param taskTag
+     *            optional, tag to filter the tasks. The tag should be complete
+     *            as the criteria is strict.
+     * @param from
+     *            the scheduled date to which we start fetching tasks. The
+     *            format is in Epoch time.
+     * @param to
+     *            the end scheduled end date to stop fetching tasks. The format
+     *            is in Epoch time.
+     * @param mytasks
+     *            <code>True</code> if you want to fetch only the user's tasks.
+     *            Default value is <code>False</code>.
+     * @param running
+     *            fetch running tasks. Default value is <code>True</code>.
+     * @param pending
+     *            fetch pending tasks. Default value is <code>True</code>.
+     * @param finished
+     *            fetch finished tasks. Default value is <code>True</code>.
+     * @param cursor
+     *            the cursor returned with the previous page, none for the
+     *            first page.
+     * @param limit
+     *            the maximum number of tasks in the page.
+     * @return a list of <code>TaskStateData</code> and the cursor of the next
+     *         page, null if it is the last page
+     */
+    @GET
+    @GZIP
+    @Path("taskstates/cursor")
+    @Produces("application/json")
+    RestPage<TaskStateData> getTaskStatesByCursor(@HeaderParam("sessionid") String sessionId,
+            @QueryParam("tag") String taskTag, @QueryParam("from") @DefaultValue("0") long from,
+            @QueryParam("to") @DefaultValue("0") long to, @QueryParam("mytasks") @DefaultValue("false") boolean mytasks,
+            @QueryParam("running") @DefaultValue("true") boolean running,
+            @QueryParam("pending") @DefaultValue("true") boolean pending,
+            @QueryParam("finished") @DefaultValue("true") boolean finished, @QueryParam("cursor") String cursor,
+            @QueryParam("limit") @DefaultValue("-1") int limit)
+            throws NotConnectedRestException, PermissionRestException;
+
     /**
      * Returns full logs generated by tasks in job.
      *
@@ -919,6 +1054,31 @@ public interface SchedulerRestInterface {
     byte[] serializedValueOfTaskResult(@HeaderParam("sessionid") String sessionId, @PathParam("jobid") String jobId,
             @PathParam("taskname") String taskname) throws Throwable;
 
+    /**
+     * Streams the serialized value of the task result of the task
+     * <code>taskName</code> of the job <code>jobId</code>. Unlike
+     * jobs/{jobid}/tasks/{taskname}/result/serializedvalue, a large value is
+     * read from the results store of the scheduler while it is sent, and is
+     * never loaded in memory.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param jobId
+     *            the id of the job
+     * @param taskname
+     *            the name of the task
+     * @return the serialized value of the task result, or no content if the
+     *         task is not finished
+     */
+    @GET
+    @GZIP
+    @Path("jobs/{jobid}/tasks/{taskname}/result/serializedvalue/stream")
+    @Produces("application/octet-stream")
+    InputStream serializedValueOfTaskResultAsStream(@HeaderParam("sessionid") String sessionId,
+            @PathParam("jobid") String jobId, @PathParam("taskname") String taskname)
+            throws NotConnectedRestException, UnknownJobRestException, UnknownTaskRestException,
+            PermissionRestException, IOException;
+
     /**
      * Returns the values of a set of tasks of the job <code>jobId</code>
      * filtered by a given tag. This method returns the result as a byte array
@@ -39,6 +39,8 @@ public class RestPage<T extends Serializable> {
 
     private ArrayList<T> list;
 
+    private String nextCursor;
+
     public RestPage() {
 
     }
@@ -48,6 +50,12 @@ public class RestPage<T extends Serializable> {
         this.size = size;
     }
 
+    public RestPage(List<T> tasks, String nextCursor) {
+        this.list = new ArrayList<T>(tasks);
+        this.size = tasks.size();
+        this.nextCursor = nextCursor;
+    }
+
     public int getSize() {
         return size;
     }
@@ -64,9 +72,18 @@ public class RestPage<T extends Serializable> {
         this.list = new ArrayList<T>(tasks);
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     @Override
     public String toString() {
-        return "RestPage{" + "size=" + size + ", tasks='" + list + '\'' + '}';
+        return "RestPage{" + "size=" + size + ", tasks='" + list + '\'' + ", nextCursor='" + nextCursor + '\'' +
+               '}';
     }
 
 }
@@ -307,6 +307,25 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         return jobInfos;
     }
 
+    @Override
+    public Page<JobInfo> getJobsByCursor(String cursor, int limit, JobFilterCriteria criteria)
+            throws NotConnectedException, PermissionException {
+        Page<JobInfo> jobInfos = null;
+        try {
+            RestPage<UserJobData> userJobDataList = restApi().jobsInfoByCursor(sid,
+                                                                               cursor,
+                                                                               limit,
+                                                                               criteria.isMyJobsOnly(),
+                                                                               criteria.isPending(),
+                                                                               criteria.isRunning(),
+                                                                               criteria.isFinished());
+            jobInfos = new Page<JobInfo>(toJobInfos(userJobDataList.getList()), userJobDataList.getNextCursor());
+        } catch (Exception e) {
+            throwNCEOrPE(e);
+        }
+        return jobInfos;
+    }
+
     @Override
     public List<JobInfo> getJobsInfoList(List<String> jobsId) throws PermissionException, NotConnectedException {
         List<JobInfo> jobsInfoList = null;
@@ -363,6 +382,14 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         return taskResult;
     }
 
+    @Override
+    public String getTaskResultValueHandle(String jobId, String taskName)
+            throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
+        // the results store of the scheduler is not shared with REST clients, which download the
+        // value with the jobs/{jobid}/tasks/{taskname}/result/serializedvalue/stream resource
+        return null;
+    }
+
     @Override
     public TaskResult getTaskResult(JobId jobId, String taskName)
             throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
@@ -1176,6 +1203,38 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         return new Page<TaskId>(lTaskIds, page.getSize());
     }
 
+    @Override
+    public Page<TaskId> getTaskIdsByCursor(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        RestPage<TaskStateData> page = null;
+        try {
+            page = restApi().getTaskStatesByCursor(sid,
+                                                   taskTag,
+                                                   from,
+                                                   to,
+                                                   mytasks,
+                                                   running,
+                                                   pending,
+                                                   finished,
+                                                   cursor,
+                                                   limit);
+        } catch (NotConnectedRestException e) {
+            throw new NotConnectedException(e);
+        } catch (PermissionRestException e) {
+            throw new PermissionException(e);
+        }
+        List<TaskId> lTaskIds = new ArrayList<TaskId>(page.getList().size());
+        for (TaskStateData taskStateData : page.getList()) {
+            TaskInfoData taskInfo = taskStateData.getTaskInfo();
+            TaskIdData taskIdData = taskInfo.getTaskId();
+            JobId jobId = new JobIdImpl(taskInfo.getJobId().getId(), taskInfo.getJobId().getReadableName());
+            TaskId taskId = TaskIdImpl.createTaskId(jobId, taskIdData.getReadableName(), taskIdData.getId());
+            lTaskIds.add(taskId);
+        }
+        return new Page<TaskId>(lTaskIds, page.getNextCursor());
+    }
+
     @Override
     public Page<TaskState> getTaskStates(String taskTag, long from, long to, boolean mytasks, boolean running,
             boolean pending, boolean finished, int offset, int limit, SortSpecifierContainer sortParams)
@@ -1205,6 +1264,34 @@ public class SchedulerClient extends ClientBase implements ISchedulerClient {
         return new Page<TaskState>(lTaskStates, page.getSize());
     }
 
+    @Override
+    public Page<TaskState> getTaskStatesByCursor(String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        RestPage<TaskStateData> page = null;
+        try {
+            page = restApi().getTaskStatesByCursor(sid,
+                                                   taskTag,
+                                                   from,
+                                                   to,
+                                                   mytasks,
+                                                   running,
+                                                   pending,
+                                                   finished,
+                                                   cursor,
+                                                   limit);
+        } catch (NotConnectedRestException e) {
+            throw new NotConnectedException(e);
+        } catch (PermissionRestException e) {
+            throw new PermissionException(e);
+        }
+        List<TaskState> lTaskStates = new ArrayList<TaskState>(page.getList().size());
+        for (TaskStateData taskStateData : page.getList()) {
+            lTaskStates.add(new TaskStateImpl(taskStateData));
+        }
+        return new Page<TaskState>(lTaskStates, page.getNextCursor());
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         JobInfoData jobInfoData = null;
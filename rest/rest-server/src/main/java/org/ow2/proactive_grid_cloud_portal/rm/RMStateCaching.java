@@ -26,6 +26,8 @@
 package org.ow2.proactive_grid_cloud_portal.rm;
 
 import java.io.File;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.api.PAActiveObject;
@@ -39,6 +41,11 @@ import org.ow2.proactive.resourcemanager.common.event.dto.RMStateFull;
 import org.ow2.proactive.resourcemanager.common.util.RMProxyUserInterface;
 import org.ow2.proactive_grid_cloud_portal.webapp.PortalConfiguration;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 
 /**
  * Creates new AO {@link RMProxyUserInterface} in order to access filtered events.
@@ -47,16 +54,33 @@ public class RMStateCaching {
 
     private static Logger logger = ProActiveLogger.getLogger(RMStateCaching.class);
 
+    private static final int MAXIMUM_CACHED_DELTAS = 1000;
+
     private static RMProxyUserInterface rm;
 
+    /**
+     * Deltas recently returned by the RM proxy, by the counter known by the client.
+     * Clients polling with the same counter share the same delta instead of
+     * each of them querying the proxy: concurrent clients wait for the delta
+     * loaded by the first one. A cached delta can thus be as old as
+     * {@link PortalConfiguration#RM_CACHE_REFRESHRATE}, the following events
+     * are received by the next poll.
+     */
+    private static Cache<Long, RMStateDelta> deltas;
+
     /**
      * Start a thread that will periodically fetch {@link RMProxyUserInterface#getMonitoring()}.
      * <p>
-     * Thread frequency can be customized using {@link PortalConfiguration#RM_CACHE_REFRESHRATE}.
+     * Deltas are cached during {@link PortalConfiguration#RM_CACHE_REFRESHRATE}.
      * <p>
      * Cached object can be retrieved using {@link #getRMStateDelta(long)}
      */
     public synchronized static void init() {
+        deltas = CacheBuilder.newBuilder()
+                             .expireAfterWrite(PortalConfiguration.RM_CACHE_REFRESHRATE.getValueAsInt(),
+                                               TimeUnit.MILLISECONDS)
+                             .maximumSize(MAXIMUM_CACHED_DELTAS)
+                             .build();
         init_();
     }
 
@@ -100,18 +124,20 @@ public class RMStateCaching {
      */
     public static RMStateDelta getRMStateDelta(long counter) {
         try {
-            long startTime = System.currentTimeMillis();
+            return deltas.get(counter, () -> {
+                long startTime = System.currentTimeMillis();
 
-            final RMStateDelta state = PAFuture.getFutureValue(rm.getRMStateDelta(counter));
+                RMStateDelta state = PAFuture.getFutureValue(rm.getRMStateDelta(counter));
 
-            long time = System.currentTimeMillis() - startTime;
+                long time = System.currentTimeMillis() - startTime;
 
-            logger.debug(String.format("Updated RM initial state in %d ms", time));
+                logger.debug(String.format("Updated RM initial state in %d ms", time));
 
-            return state;
-        } catch (Exception e) {
-            logger.error("Exception occurrend while updating RM state cache, connection reset", e);
-            throw e;
+                return state;
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            logger.error("Exception occurrend while updating RM state cache, connection reset", e.getCause());
+            throw Throwables.propagate(e.getCause());
         }
     }
 
@@ -87,6 +87,7 @@ import org.ow2.proactive.scheduler.common.util.PageBoundaries;
 import org.ow2.proactive.scheduler.common.util.Pagination;
 import org.ow2.proactive.scheduler.common.util.SchedulerProxyUserInterface;
 import org.ow2.proactive.scheduler.common.util.TaskLoggerRelativePathGenerator;
+import org.ow2.proactive.scheduler.common.util.TaskResultValueStore;
 import org.ow2.proactive.scheduler.common.util.logforwarder.LogForwardingException;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.scheduler.job.JobIdImpl;
@@ -272,6 +273,32 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    @Override
+    public RestPage<UserJobData> jobsInfoByCursor(String sessionId, String cursor, int limit, boolean myJobs,
+            boolean pending, boolean running, boolean finished)
+            throws PermissionRestException, NotConnectedRestException {
+        try {
+            Scheduler s = checkAccess(sessionId, "/scheduler/jobsinfo/cursor");
+            String user = sessionStore.get(sessionId).getUserName();
+
+            boolean onlyUserJobs = (myJobs && user != null && user.trim().length() > 0);
+
+            Page<JobInfo> page = s.getJobsByCursor(cursor,
+                                                   limit,
+                                                   new JobFilterCriteria(onlyUserJobs, pending, running, finished));
+            List<UserJobData> userJobInfoList = new ArrayList<>(page.getList().size());
+            for (JobInfo jobInfo : page.getList()) {
+                userJobInfoList.add(new UserJobData(mapper.map(jobInfo, JobInfoData.class)));
+            }
+
+            return new RestPage<>(userJobInfoList, page.getNextCursor());
+        } catch (NotConnectedException e) {
+            throw new NotConnectedRestException(e);
+        } catch (PermissionException e) {
+            throw new PermissionRestException(e);
+        }
+    }
+
     /**
      * Returns a list of jobs info corresponding to the given job IDs (in the same order)
      *
@@ -1553,6 +1580,75 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         return tr.getSerializedValue();
     }
 
+    /**
+     * Streams the serialized value of the task result of the task
+     * <code>taskName</code> of the job <code>jobId</code>. A value kept in the
+     * results store of the scheduler is read from the store while it is sent,
+     * when the store is readable from the REST server. Other values are read
+     * from the task result given by the scheduler.
+     *
+     * @param sessionId
+     *            a valid session id
+     * @param jobId
+     *            the id of the job
+     * @param taskname
+     *            the name of the task
+     * @return the serialized value of the task result, or no content if the
+     *         task is not finished
+     */
+    @Override
+    @GET
+    @GZIP
+    @Path("jobs/{jobid}/tasks/{taskname}/result/serializedvalue/stream")
+    @Produces("application/octet-stream")
+    public InputStream serializedValueOfTaskResultAsStream(@HeaderParam("sessionid") String sessionId,
+            @PathParam("jobid") String jobId, @PathParam("taskname") String taskname)
+            throws NotConnectedRestException, UnknownJobRestException, UnknownTaskRestException,
+            PermissionRestException, IOException {
+        try {
+            Scheduler s = checkAccess(sessionId,
+                                      PATH_JOBS + jobId + PATH_TASKS + taskname + "/result/serializedvalue/stream");
+            String valueHandle = s.getTaskResultValueHandle(jobId, taskname);
+            if (valueHandle != null) {
+                InputStream storedValue = openStoredValue(valueHandle);
+                if (storedValue != null) {
+                    return storedValue;
+                }
+            }
+            TaskResult taskResult = PAFuture.getFutureValue(s.getTaskResult(jobId, taskname));
+            if (taskResult == null || taskResult.getSerializedValue() == null) {
+                // will produce HTTP 204 code
+                return null;
+            }
+            return new ByteArrayInputStream(taskResult.getSerializedValue());
+        } catch (PermissionException e) {
+            throw new PermissionRestException(e);
+        } catch (UnknownJobException e) {
+            throw new UnknownJobRestException(e);
+        } catch (NotConnectedException e) {
+            throw new NotConnectedRestException(e);
+        } catch (UnknownTaskException e) {
+            throw new UnknownTaskRestException(e);
+        }
+    }
+
+    /**
+     * Opens a value of the results store of the scheduler. The store is not
+     * readable when the REST server does not run next to the scheduler or
+     * resolves the store directory differently.
+     *
+     * @return a stream on the value, or null if it cannot be read from here
+     */
+    private InputStream openStoredValue(String valueHandle) {
+        try {
+            return TaskResultValueStore.createUsingProperties().open(valueHandle);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Cannot read the task result value " + valueHandle +
+                         " from the results store, it is loaded from the scheduler", e);
+            return null;
+        }
+    }
+
     /**
      * Returns the values of a set of tasks of the job <code>jobId</code>
      * filtered by a given tag. This method returns the result as a byte array
@@ -3551,6 +3647,36 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    @Override
+    public RestPage<String> getTaskIdsByCursor(String sessionId, String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedRestException, PermissionRestException {
+        Scheduler s = checkAccess(sessionId, "tasks/cursor");
+
+        PageBoundaries boundaries = Pagination.getTasksPageBoundaries(0, limit, TASKS_PAGE_SIZE);
+
+        try {
+            Page<TaskId> page = s.getTaskIdsByCursor(taskTag,
+                                                     from,
+                                                     to,
+                                                     mytasks,
+                                                     running,
+                                                     pending,
+                                                     finished,
+                                                     cursor,
+                                                     boundaries.getLimit());
+            List<String> taskNames = new ArrayList<>(page.getList().size());
+            for (TaskId taskId : page.getList()) {
+                taskNames.add(taskId.getReadableName());
+            }
+            return new RestPage<>(taskNames, page.getNextCursor());
+        } catch (NotConnectedException e) {
+            throw new NotConnectedRestException(e);
+        } catch (PermissionException e) {
+            throw new PermissionRestException(e);
+        }
+    }
+
     @Override
     public RestPage<TaskStateData> getTaskStates(String sessionId, long from, long to, boolean mytasks, boolean running,
             boolean pending, boolean finished, int offset, int limit, SortSpecifierContainer sortParams)
@@ -3604,6 +3730,33 @@ public class SchedulerStateRest implements SchedulerRestInterface {
         }
     }
 
+    @Override
+    public RestPage<TaskStateData> getTaskStatesByCursor(String sessionId, String taskTag, long from, long to,
+            boolean mytasks, boolean running, boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedRestException, PermissionRestException {
+        Scheduler s = checkAccess(sessionId, "taskstates/cursor");
+
+        PageBoundaries boundaries = Pagination.getTasksPageBoundaries(0, limit, TASKS_PAGE_SIZE);
+
+        try {
+            Page<TaskState> page = s.getTaskStatesByCursor(taskTag,
+                                                           from,
+                                                           to,
+                                                           mytasks,
+                                                           running,
+                                                           pending,
+                                                           finished,
+                                                           cursor,
+                                                           boundaries.getLimit());
+            List<TaskStateData> tasks = map(page.getList(), TaskStateData.class);
+            return new RestPage<>(tasks, page.getNextCursor());
+        } catch (NotConnectedException e) {
+            throw new NotConnectedRestException(e);
+        } catch (PermissionException e) {
+            throw new PermissionRestException(e);
+        }
+    }
+
     /**
      * Translates the tasks attributes names that are used to sort the result
      * For example the task status is called `status` client-side, it is
@@ -307,6 +307,12 @@ public class RestSmartProxyImpl extends AbstractSmartProxy<RestJobTrackerImpl>
         return _getScheduler().getTaskResult(jobId, taskName);
     }
 
+    @Override
+    public String getTaskResultValueHandle(String jobId, String taskName)
+            throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
+        return _getScheduler().getTaskResultValueHandle(jobId, taskName);
+    }
+
     @Override
     public boolean finishInErrorTask(String jobId, String taskName)
             throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
@@ -690,6 +696,36 @@ public class RestSmartProxyImpl extends AbstractSmartProxy<RestJobTrackerImpl>
                                              sortParams);
     }
 
+    @Override
+    public Page<TaskId> getTaskIdsByCursor(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        return _getScheduler().getTaskIdsByCursor(taskTag,
+                                                  from,
+                                                  to,
+                                                  mytasks,
+                                                  running,
+                                                  pending,
+                                                  finished,
+                                                  cursor,
+                                                  limit);
+    }
+
+    @Override
+    public Page<TaskState> getTaskStatesByCursor(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        return _getScheduler().getTaskStatesByCursor(taskTag,
+                                                     from,
+                                                     to,
+                                                     mytasks,
+                                                     running,
+                                                     pending,
+                                                     finished,
+                                                     cursor,
+                                                     limit);
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         return _getScheduler().getJobInfo(jobId);
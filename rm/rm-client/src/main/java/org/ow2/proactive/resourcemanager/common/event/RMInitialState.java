@@ -26,6 +26,7 @@
 package org.ow2.proactive.resourcemanager.common.event;
 
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
@@ -73,6 +74,18 @@ public class RMInitialState implements Serializable {
      */
     private AtomicLong latestCounter = new AtomicLong(0);
 
+    /**
+     * removal events in the order they were received, the oldest ones are
+     * forgotten when there are more than {@link PAResourceManagerProperties#RM_REST_MONITORING_MAXIMUM_REMOVED_EVENTS}
+     */
+    private ArrayDeque<RMEvent> removedEvents = new ArrayDeque<>();
+
+    /**
+     * biggest counter among the forgotten removal events: clients which know
+     * an older counter may have missed a removal and receive the whole state
+     */
+    private long forgottenCounter = EMPTY_STATE;
+
     public void addAll(Collection<? extends RMEvent> toAdd) {
         toAdd.forEach(rmEvent -> events.add(rmEvent));
         latestCounter.set(Math.max(latestCounter.get(), findLargestCounter(events.getSortedItems())));
@@ -133,6 +146,28 @@ public class RMInitialState implements Serializable {
         existingEvent.ifPresent(event::updateFirstCounter);
         events.add(event);
         updateCounter(event);
+        if (!isNotRemoved(event)) {
+            removedEvents.add(event);
+            forgetOldestRemovedEvents();
+        }
+    }
+
+    /**
+     * Removal events must be kept so that clients learn about the removal of
+     * nodes they know, but they would otherwise accumulate forever with the
+     * nodes which are never added back.
+     */
+    private void forgetOldestRemovedEvents() {
+        int maximumRemovedEvents = PAResourceManagerProperties.RM_REST_MONITORING_MAXIMUM_REMOVED_EVENTS
+                                                              .getValueAsInt();
+        while (removedEvents.size() > maximumRemovedEvents) {
+            RMEvent oldest = removedEvents.removeFirst();
+            // the removal event may have been replaced since, when the node has been added back
+            if (events.get(oldest.getKey()).orElse(null) == oldest) {
+                events.remove(oldest);
+                forgottenCounter = Math.max(forgottenCounter, oldest.getCounter());
+            }
+        }
     }
 
     /**
@@ -186,7 +221,12 @@ public class RMInitialState implements Serializable {
     }
 
     private long computeActualFilter(long clientFilter) {
-        if (clientFilter <= latestCounter.get()) {
+        if (clientFilter != EMPTY_STATE && clientFilter < forgottenCounter) {
+            LOGGER.info(String.format("Client is aware of %d but removal events up to %d counter were forgotten.",
+                                      clientFilter,
+                                      forgottenCounter));
+            return EMPTY_STATE;
+        } else if (clientFilter <= latestCounter.get()) {
             return clientFilter;
         } else {
             LOGGER.info(String.format("Client is aware of %d but server knows only about %d counter. " +
@@ -62,6 +62,7 @@ import org.ow2.proactive.scripting.SelectionScript;
 import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
 import org.ow2.proactive.utils.Criteria;
 import org.ow2.proactive.utils.NodeSet;
+import org.ow2.proactive.utils.NodeSetList;
 
 
 /**
@@ -414,6 +415,11 @@ public class RMProxyUserInterface extends RMListenerProxy implements ResourceMan
         return target.getNodes(criteria);
     }
 
+    @Override
+    public NodeSetList getNodes(List<Criteria> criteria) {
+        return target.getNodes(criteria);
+    }
+
     @Override
     public List<ScriptResult<Object>> executeScript(String script, String scriptEngine, String targetType,
             Set<String> targets) {
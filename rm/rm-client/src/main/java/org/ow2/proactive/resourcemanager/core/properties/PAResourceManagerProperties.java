@@ -60,6 +60,21 @@ public enum PAResourceManagerProperties implements PACommonProperties {
     /** Ping frequency in ms used by node source for keeping a watch on handled nodes */
     RM_NODE_SOURCE_PING_FREQUENCY("pa.rm.node.source.ping.frequency", PropertyType.INTEGER, "45000"),
 
+    /**
+     * If true, node sources ping the nodes which report their availability to the resource
+     * manager only when they stop reporting it
+     */
+    RM_NODE_SOURCE_PING_SILENT_NODES_ONLY("pa.rm.node.source.ping.silent.only", PropertyType.BOOLEAN, "true"),
+
+    /**
+     * Delay in ms, added to the heartbeat period of a node, after which a node which stopped
+     * reporting its availability is considered as silent
+     */
+    RM_NODE_SOURCE_HEARTBEAT_TOLERANCE("pa.rm.node.source.heartbeat.tolerance", PropertyType.INTEGER, "10000"),
+
+    /** Frequency in ms used by node source to look for the nodes which stopped reporting their availability */
+    RM_NODE_SOURCE_HEARTBEAT_CHECK_FREQUENCY("pa.rm.node.source.heartbeat.check.frequency", PropertyType.INTEGER, "5000"),
+
     /** Ping frequency used by resource manager to ping connected clients (in ms) */
     RM_CLIENT_PING_FREQUENCY("pa.rm.client.ping.frequency", PropertyType.INTEGER, "45000"),
 
@@ -69,6 +84,14 @@ public enum PAResourceManagerProperties implements PACommonProperties {
     /** The number of selection script digests stored in the cache to predict the execution results */
     RM_SELECT_SCRIPT_CACHE_SIZE("pa.rm.select.script.cache", PropertyType.INTEGER, "10000"),
 
+    /**
+     * Defines whether the results of static selection scripts are persisted
+     * in database and reloaded on RM startup. This flag is only taken into
+     * account if the node recovery mechanism is enabled
+     * ({@link PAResourceManagerProperties#RM_NODES_RECOVERY}).
+     */
+    RM_SELECT_SCRIPT_CACHE_PERSISTENCE("pa.rm.select.script.cache.persistence", PropertyType.BOOLEAN, "true"),
+
     /**
      * The time period when a node has the same dynamic characteristics (in ms).
      * Default is 5 mins, which means that if any dynamic selection scripts returns
@@ -164,15 +187,30 @@ public enum PAResourceManagerProperties implements PACommonProperties {
     /** Max number of threads in node source for parallel task execution */
     RM_NODESOURCE_MAX_THREAD_NUMBER("pa.rm.nodesource.maxthreadnumber", PropertyType.INTEGER, "75"),
 
+    /** Max number of hosts deployed concurrently by each hosts file based infrastructure */
+    RM_NODESOURCE_INFRASTRUCTURE_DEPLOYMENT_MAX_CONCURRENCY("pa.rm.nodesource.infrastructure.deployment.maxconcurrency", PropertyType.INTEGER, "50"),
+
+    /** Max factor applied to the wait time between failures when hosts keep failing their deployment */
+    RM_NODESOURCE_INFRASTRUCTURE_DEPLOYMENT_MAX_BACKOFF_FACTOR("pa.rm.nodesource.infrastructure.deployment.max.backoff.factor", PropertyType.INTEGER, "16"),
+
     /** The full class name of the policy selected nodes */
     RM_SELECTION_POLICY("pa.rm.selection.policy", PropertyType.STRING, "org.ow2.proactive.resourcemanager.selection.policies.ShufflePolicy"),
 
     /** Max number of threads in node source for parallel task execution */
     RM_SELECTION_MAX_THREAD_NUMBER("pa.rm.selection.maxthreadnumber", PropertyType.INTEGER, "50"),
 
+    /** Max number of criteria of a batched node request which are evaluated in parallel */
+    RM_SELECTION_CRITERIA_THREAD_NUMBER("pa.rm.selection.criteria.threadnumber", PropertyType.INTEGER, "10"),
+
     /** Max number of threads in node source for parallel task execution */
     RM_MONITORING_MAX_THREAD_NUMBER("pa.rm.monitoring.maxthreadnumber", PropertyType.INTEGER, "5"),
 
+    /** Time during which events are accumulated before being sent in one call to group listeners (in ms) */
+    RM_MONITORING_EVENTS_BATCH_WINDOW("pa.rm.monitoring.events.batch.window", PropertyType.INTEGER, "50"),
+
+    /** If true, a pending state change of a node is replaced by the next one before being sent to group listeners */
+    RM_MONITORING_EVENTS_COALESCE("pa.rm.monitoring.events.coalesce", PropertyType.BOOLEAN, "true"),
+
     /** Max number of threads in the core for cleaning nodes after computations */
     RM_CLEANING_MAX_THREAD_NUMBER("pa.rm.cleaning.maxthreadnumber", PropertyType.INTEGER, "5"),
 
@@ -323,7 +361,16 @@ public enum PAResourceManagerProperties implements PACommonProperties {
     /**
      * Defines the maximum number of RMEvents which can be sent to the client in one request.
      */
-    RM_REST_MONITORING_MAXIMUM_CHUNK_SIZE("pa.rm.rest.monitoring.maximum.chunk.size", PropertyType.INTEGER, "100");
+    RM_REST_MONITORING_MAXIMUM_CHUNK_SIZE("pa.rm.rest.monitoring.maximum.chunk.size", PropertyType.INTEGER, "100"),
+
+    /**
+     * Defines the maximum number of node and node source removal events kept to be sent to the clients.
+     * Clients which did not receive the forgotten removal events receive the whole state again.
+     */
+    RM_REST_MONITORING_MAXIMUM_REMOVED_EVENTS(
+            "pa.rm.rest.monitoring.maximum.removed.events",
+            PropertyType.INTEGER,
+            "10000");
 
     /* ***************************************************************************** */
     /* ***************************************************************************** */
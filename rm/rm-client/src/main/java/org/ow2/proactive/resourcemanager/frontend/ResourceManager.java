@@ -47,6 +47,7 @@ import org.ow2.proactive.scripting.SelectionScript;
 import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
 import org.ow2.proactive.utils.Criteria;
 import org.ow2.proactive.utils.NodeSet;
+import org.ow2.proactive.utils.NodeSetList;
 
 
 /**
@@ -441,6 +442,18 @@ public interface ResourceManager {
      */
     NodeSet getNodes(Criteria criteria);
 
+    /**
+     * Finds and books nodes for several criteria at once.
+     * The criteria are evaluated in parallel by the resource manager, a node
+     * is booked for at most one of them and the criteria are served in the
+     * order of the list when they compete for the same nodes.
+     *
+     * @param criteria a list of criteria to select nodes
+     * @see Criteria
+     * @return the node sets selected for each criteria, in the order of the criteria
+     */
+    NodeSetList getNodes(List<Criteria> criteria);
+
     /**
      * Releases the node after computations. The specified node is marked as free and become
      * available to other users.
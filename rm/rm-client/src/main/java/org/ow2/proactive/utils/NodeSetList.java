@@ -0,0 +1,71 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.objectweb.proactive.annotation.PublicAPI;
+
+
+/**
+ * The node sets given by the resource manager for a batch of criteria.
+ * The node set at a given index is the one selected for the criteria
+ * at the same index in the request. A node set may be empty if no node
+ * matches its criteria, or null if it could not be booked.
+ *
+ * The class is reifiable so that a batched request can be served
+ * asynchronously by the resource manager.
+ *
+ * @author ActiveEon Team
+ */
+@PublicAPI
+public class NodeSetList extends ArrayList<NodeSet> {
+
+    /**
+     * constructor.
+     */
+    public NodeSetList() {
+        super();
+    }
+
+    /**
+     * Creates a list containing given node sets.
+     * @param nodeSets collection to put into the NodeSetList
+     */
+    public NodeSetList(Collection<NodeSet> nodeSets) {
+        super(nodeSets);
+    }
+
+    /**
+     * Constructs an empty list with the specified initial capacity.
+     * @param initialCapacity the initial capacity of the list
+     */
+    public NodeSetList(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+}
@@ -30,6 +30,7 @@ import static org.junit.Assert.assertEquals;
 import org.junit.Before;
 import org.junit.Test;
 import org.ow2.proactive.resourcemanager.common.event.dto.RMStateDelta;
+import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
 
 
 public class RMInitialStateTest {
@@ -97,4 +98,25 @@ public class RMInitialStateTest {
         assertEquals(2, rmInitialState.cloneAndFilter(RMInitialState.EMPTY_STATE).getNodeSource().size());
     }
 
+    @Test
+    public void testForgetOldestRemovedEvents() {
+        String maximumRemovedEvents = PAResourceManagerProperties.RM_REST_MONITORING_MAXIMUM_REMOVED_EVENTS
+                                                                 .getValueAsString();
+        PAResourceManagerProperties.RM_REST_MONITORING_MAXIMUM_REMOVED_EVENTS.updateProperty("1");
+        try {
+            rmInitialState.nodeRemoved(new RMNodeEvent("http://localhost:0000", counter++, RMEventType.NODE_REMOVED));
+            rmInitialState.nodeRemoved(new RMNodeEvent("http://localhost:0001", counter++, RMEventType.NODE_REMOVED));
+
+            // the client knows the first removal, it receives the second one
+            assertEquals(1, rmInitialState.cloneAndFilter(7).getNodesEvents().size());
+
+            // the client may have missed the forgotten first removal, it receives the whole state
+            final RMStateDelta rmStateDelta = rmInitialState.cloneAndFilter(6);
+            assertEquals(3, rmStateDelta.getNodesEvents().size());
+            assertEquals(2, rmStateDelta.getNodeSource().size());
+        } finally {
+            PAResourceManagerProperties.RM_REST_MONITORING_MAXIMUM_REMOVED_EVENTS.updateProperty(maximumRemovedEvents);
+        }
+    }
+
 }
@@ -0,0 +1,217 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core;
+
+import java.security.Permission;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.objectweb.proactive.core.node.Node;
+import org.ow2.proactive.authentication.principals.TokenPrincipal;
+import org.ow2.proactive.permissions.PrincipalPermission;
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+import org.ow2.proactive.utils.Criteria;
+
+
+/**
+ * The nodes of the resource manager that are eligible for selection, i.e.
+ * free and not locked, indexed by url, node source and user permission.
+ * <p>
+ * Selection requests only go through the nodes that can match their
+ * criteria: the nodes with the acceptable urls when they are specified, the
+ * nodes protected by the requested access token when a token is specified,
+ * and all the nodes otherwise. Nodes are returned in the order they became
+ * eligible.
+ * <p>
+ * The index is written by the RMCore active object thread and by immediate
+ * services, hence all its methods are synchronized.
+ */
+public class FreeNodesIndex {
+
+    private final Set<RMNode> nodes = new LinkedHashSet<>();
+
+    private final Map<String, RMNode> nodesByUrl = new HashMap<>();
+
+    private final Map<String, Set<RMNode>> nodesByNodeSource = new HashMap<>();
+
+    // the node access token is one of the principals of the user permission
+    // of the nodes it protects, nodes sharing the same token share the same
+    // permission
+    private final Map<Permission, Set<RMNode>> nodesByPermission = new HashMap<>();
+
+    public FreeNodesIndex() {
+    }
+
+    public FreeNodesIndex(Collection<RMNode> nodes) {
+        addAll(nodes);
+    }
+
+    public synchronized boolean add(RMNode node) {
+        if (!nodes.add(node)) {
+            return false;
+        }
+        nodesByUrl.put(node.getNodeURL(), node);
+        addToGroup(nodesByNodeSource, node.getNodeSourceName(), node);
+        addToGroup(nodesByPermission, node.getUserPermission(), node);
+        return true;
+    }
+
+    public synchronized void addAll(Collection<RMNode> nodes) {
+        for (RMNode node : nodes) {
+            add(node);
+        }
+    }
+
+    public synchronized boolean remove(RMNode node) {
+        if (!nodes.remove(node)) {
+            return false;
+        }
+        nodesByUrl.remove(node.getNodeURL(), node);
+        removeFromGroup(nodesByNodeSource, node.getNodeSourceName(), node);
+        removeFromGroup(nodesByPermission, node.getUserPermission(), node);
+        return true;
+    }
+
+    public synchronized boolean contains(RMNode node) {
+        return nodes.contains(node);
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @return a copy of all the eligible nodes
+     */
+    public synchronized List<RMNode> getNodes() {
+        return new ArrayList<>(nodes);
+    }
+
+    /**
+     * @return a copy of the eligible nodes of the given node source
+     */
+    public synchronized List<RMNode> getNodesByNodeSource(String nodeSourceName) {
+        Set<RMNode> group = nodesByNodeSource.get(nodeSourceName);
+        return group == null ? new ArrayList<RMNode>(0) : new ArrayList<>(group);
+    }
+
+    /**
+     * Returns the eligible nodes that can match the given criteria regarding
+     * the acceptable urls, the node access token and the black list. The
+     * permission of the client to get the nodes is not checked here.
+     *
+     * @param criteria the criteria of the selection request
+     * @return a copy of the candidate nodes
+     */
+    public synchronized List<RMNode> getCandidates(Criteria criteria) {
+        Collection<RMNode> candidates;
+        Set<String> acceptableNodesUrls = criteria.getAcceptableNodesUrls();
+        String nodeAccessToken = criteria.getNodeAccessToken();
+
+        if (acceptableNodesUrls != null) {
+            candidates = new ArrayList<>(acceptableNodesUrls.size());
+            for (String nodeUrl : acceptableNodesUrls) {
+                RMNode node = nodesByUrl.get(nodeUrl);
+                if (node != null) {
+                    candidates.add(node);
+                }
+            }
+        } else if (nodeAccessToken != null && nodeAccessToken.length() > 0) {
+            candidates = getNodesProtectedByToken(nodeAccessToken);
+        } else {
+            candidates = nodes;
+        }
+
+        Set<String> excludedNodesUrls = getUrls(criteria.getBlackList());
+        List<RMNode> result = new ArrayList<>(candidates.size());
+        for (RMNode node : candidates) {
+            if (!excludedNodesUrls.contains(node.getNodeURL())) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+
+    private Collection<RMNode> getNodesProtectedByToken(String nodeAccessToken) {
+        TokenPrincipal tokenPrincipal = new TokenPrincipal(nodeAccessToken);
+        List<RMNode> result = new ArrayList<>();
+        for (Map.Entry<Permission, Set<RMNode>> group : nodesByPermission.entrySet()) {
+            Permission permission = group.getKey();
+            if (permission instanceof PrincipalPermission &&
+                ((PrincipalPermission) permission).hasPrincipal(tokenPrincipal)) {
+                for (RMNode node : group.getValue()) {
+                    if (node.isProtectedByToken()) {
+                        result.add(node);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> getUrls(Collection<Node> nodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> urls = new HashSet<>(nodes.size());
+        for (Node node : nodes) {
+            try {
+                urls.add(node.getNodeInformation().getURL());
+            } catch (Exception e) {
+                // the node cannot match any eligible node
+            }
+        }
+        return urls;
+    }
+
+    private static <K> void addToGroup(Map<K, Set<RMNode>> groups, K key, RMNode node) {
+        Set<RMNode> group = groups.get(key);
+        if (group == null) {
+            group = new LinkedHashSet<>();
+            groups.put(key, group);
+        }
+        group.add(node);
+    }
+
+    private static <K> void removeFromGroup(Map<K, Set<RMNode>> groups, K key, RMNode node) {
+        Set<RMNode> group = groups.get(key);
+        if (group != null) {
+            group.remove(node);
+            if (group.isEmpty()) {
+                groups.remove(key);
+            }
+        }
+    }
+
+}
@@ -35,6 +35,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -103,6 +104,7 @@ import org.ow2.proactive.resourcemanager.housekeeping.NodesHouseKeepingService;
 import org.ow2.proactive.resourcemanager.nodesource.NodeSource;
 import org.ow2.proactive.resourcemanager.nodesource.NodeSourceDescriptor;
 import org.ow2.proactive.resourcemanager.nodesource.NodeSourceStatus;
+import org.ow2.proactive.resourcemanager.nodesource.NodesHeartbeats;
 import org.ow2.proactive.resourcemanager.nodesource.PluginNotFoundException;
 import org.ow2.proactive.resourcemanager.nodesource.RMNodeConfigurator;
 import org.ow2.proactive.resourcemanager.nodesource.common.ConfigurableField;
@@ -132,6 +134,7 @@ import org.ow2.proactive.scripting.SimpleScript;
 import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
 import org.ow2.proactive.utils.Criteria;
 import org.ow2.proactive.utils.NodeSet;
+import org.ow2.proactive.utils.NodeSetList;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
@@ -250,11 +253,11 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     private Map<String, RMNode> allNodes;
 
     /**
-     * List of nodes that are eligible for Scheduling.
+     * Index of nodes that are eligible for Scheduling.
      * It corresponds to nodes that are in the `FREE` state and not locked.
-     * Nodes which are locked are not part of this list.
+     * Nodes which are locked are not part of this index.
      **/
-    private List<RMNode> eligibleNodes;
+    private FreeNodesIndex eligibleNodes;
 
     private SelectionManager selectionManager;
 
@@ -338,7 +341,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         this.definedNodeSources = new HashMap<>();
         this.allNodes = new ConcurrentHashMap<>();
         this.delayedNodeSourceRemovalEvents = new ConcurrentHashMap<>();
-        this.eligibleNodes = Collections.synchronizedList(new ArrayList<RMNode>());
+        this.eligibleNodes = new FreeNodesIndex();
 
         this.accountsManager = new RMAccountsManager();
         this.jmxHelper = new RMJMXHelper(this.accountsManager);
@@ -353,7 +356,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         this.caller = caller;
         this.monitoring = monitoring;
         this.selectionManager = manager;
-        this.eligibleNodes = freeNodesList;
+        this.eligibleNodes = new FreeNodesIndex(freeNodesList);
         this.dbManager = newDataBaseManager;
     }
 
@@ -579,6 +582,39 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
             return new BooleanWrapper(true);
         }
 
+        RMNodeEvent event = setFreeAndCreateEvent(rmNode);
+
+        persistUpdatedRMNodeIfRecoveryEnabled(rmNode);
+
+        this.registerAndEmitNodeEvent(event);
+
+        return new BooleanWrapper(true);
+    }
+
+    /**
+     * Change the state of the given nodes to free at once. The nodes which are
+     * not already free are persisted together and their events are propagated
+     * to RMMonitoring in a single request.
+     *
+     * @param rmNodes nodes to set free.
+     */
+    @VisibleForTesting
+    void internalSetFreeNodes(final Collection<RMNode> rmNodes) {
+        List<RMNode> freedNodes = new ArrayList<>(rmNodes.size());
+        List<RMNodeEvent> events = new ArrayList<>(rmNodes.size());
+        for (RMNode rmNode : rmNodes) {
+            if (!rmNode.isFree()) {
+                events.add(setFreeAndCreateEvent(rmNode));
+                freedNodes.add(rmNode);
+            }
+        }
+
+        persistUpdatedRMNodesIfRecoveryEnabled(freedNodes);
+
+        this.registerAndEmitNodeEvents(events);
+    }
+
+    private RMNodeEvent setFreeAndCreateEvent(final RMNode rmNode) {
         // Get the previous state of the node needed for the event
         final NodeState previousNodeState = rmNode.getState();
 
@@ -595,13 +631,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
             this.eligibleNodes.add(rmNode);
         }
 
-        persistUpdatedRMNodeIfRecoveryEnabled(rmNode);
-
-        this.registerAndEmitNodeEvent(rmNode.createNodeEvent(RMEventType.NODE_STATE_CHANGED,
-                                                             previousNodeState,
-                                                             client.getName()));
-
-        return new BooleanWrapper(true);
+        return rmNode.createNodeEvent(RMEventType.NODE_STATE_CHANGED, previousNodeState, client.getName());
     }
 
     /**
@@ -611,14 +641,13 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
      * @return true if all successful, false if there is a down node among nodes
      */
     public BooleanWrapper setFreeNodes(List<RMNode> nodes) {
-        boolean result = true;
+        List<RMNode> rmnodes = new ArrayList<>(nodes.size());
         for (RMNode node : nodes) {
             // getting the correct instance
-            RMNode rmnode = this.getNodebyUrl(node.getNodeURL());
-            // freeing it
-            result &= internalSetFree(rmnode).getBooleanValue();
+            rmnodes.add(this.getNodebyUrl(node.getNodeURL()));
         }
-        return new BooleanWrapper(result);
+        internalSetFreeNodes(rmnodes);
+        return new BooleanWrapper(true);
     }
 
     /**
@@ -788,6 +817,9 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
 
         rmnode.setConfiguring(rmnode.getProvider());
 
+        // results of selection scripts obtained on a previous node with the same url do not hold anymore
+        selectionManager.nodeRegistered(rmnode.getNodeURL());
+
         //we add the configuring node to the collection to be able to ping it
         registerAvailableNode(rmnode);
 
@@ -948,25 +980,22 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     public void removeNodes(int number, String nodeSourceName, boolean preemptive) {
         int numberOfRemovedNodes = 0;
 
-        // temporary list to avoid concurrent modification
-        List<RMNode> nodelList = new LinkedList<>();
-        nodelList.addAll(eligibleNodes);
+        // the index returns a copy, which avoids concurrent modification
+        List<RMNode> nodelList = eligibleNodes.getNodesByNodeSource(nodeSourceName);
 
-        logger.debug("Free nodes size " + nodelList.size());
+        logger.debug("Free nodes size of node source " + nodeSourceName + " " + nodelList.size());
         for (RMNode node : nodelList) {
 
             if (numberOfRemovedNodes == number) {
                 break;
             }
 
-            if (node.getNodeSource().getName().equals(nodeSourceName)) {
-                removeNode(node.getNodeURL(), preemptive);
-                numberOfRemovedNodes++;
-            }
+            removeNode(node.getNodeURL(), preemptive);
+            numberOfRemovedNodes++;
         }
 
-        nodelList.clear();
-        nodelList.addAll(allNodes.values());
+        // temporary list to avoid concurrent modification
+        nodelList = new LinkedList<>(allNodes.values());
         logger.debug("All nodes size " + nodelList.size());
         if (numberOfRemovedNodes < number) {
             for (RMNode node : nodelList) {
@@ -1033,7 +1062,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     }
 
     public void setEligibleNodesToRecover(List<RMNode> eligibleNodes) {
-        this.eligibleNodes = eligibleNodes;
+        this.eligibleNodes.addAll(eligibleNodes);
     }
 
     private final class RemoveAllNodes implements Function<NodeSource, Void> {
@@ -1132,9 +1161,13 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         }
 
         ImmutableSet.Builder<String> nodeUrlsNotKnownByTheRM = new ImmutableSet.Builder<>();
+        long heartbeatTime = System.currentTimeMillis();
 
         for (String nodeUrl : nodeUrls) {
             RMNode node = this.allNodes.get(nodeUrl);
+            if (node != null) {
+                NodesHeartbeats.getInstance().record(nodeUrl, heartbeatTime);
+            }
 
             if (node == null) {
                 logger.warn("Cannot set node as available, the node is unknown: " + nodeUrl);
@@ -1445,6 +1478,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         if (!this.deployedNodeSources.containsKey(nodeSourceName)) {
             NodeSourceDescriptor nodeSourceDescriptor = this.getDefinedNodeSourceDescriptorOrFail(nodeSourceName);
             this.updateNodeSourceDescriptorWithStatusAndPersist(nodeSourceDescriptor, NodeSourceStatus.NODES_DEPLOYED);
+            this.selectionManager.nodeSourceDeployed(nodeSourceName);
             deployNodeSourceOrFail(nodeSourceName, nodeSourceDescriptor);
         } else {
             logger.debug(NODE_SOURCE_STRING + nodeSourceName + " is already deployed");
@@ -1768,6 +1802,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
 
         NodeSet nodesReleased = new NodeSet();
         NodeSet nodesFailedToRelease = new NodeSet();
+        List<RMNode> nodesToFree = new ArrayList<>(nodes.size());
 
         for (Node node : nodes) {
             String nodeURL = null;
@@ -1818,7 +1853,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
                                 this.monitoring.nodeSourceEvent(removedEvent);
                             }
                         } else {
-                            internalSetFree(rmnode);
+                            nodesToFree.add(rmnode);
                             nodesReleased.add(node);
                         }
                     } catch (SecurityException ex) {
@@ -1834,6 +1869,8 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
             }
         }
 
+        internalSetFreeNodes(nodesToFree);
+
         logger.info("Nodes released : " + nodesReleased);
         if (!nodesFailedToRelease.isEmpty()) {
             logger.warn("Nodes failed to release : " + nodesFailedToRelease);
@@ -1912,6 +1949,30 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         }
     }
 
+    @Override
+    public NodeSetList getNodes(List<Criteria> criteria) {
+        for (Criteria c : criteria) {
+            if (c.getSize() <= 0) {
+                throw new IllegalArgumentException("Illegal node number " + c.getSize());
+            }
+        }
+        if (this.toShutDown) {
+            // if the resource manager is about to shutdown, do not provide any node
+            NodeSetList nodeSets = new NodeSetList(criteria.size());
+            for (int i = 0; i < criteria.size(); i++) {
+                nodeSets.add(new NodeSet());
+            }
+            return nodeSets;
+        } else {
+            for (Criteria c : criteria) {
+                if (c.getTopology() == null) {
+                    c.setTopology(TopologyDescriptor.ARBITRARY);
+                }
+            }
+            return selectionManager.selectNodes(criteria, caller);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -2152,18 +2213,52 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         if (rmNode.isBusy()) {
             return;
         }
+        RMNodeEvent event = setBusyAndCreateEvent(rmNode, owner);
+
+        persistUpdatedRMNodeIfRecoveryEnabled(rmNode);
+
+        this.registerAndEmitNodeEvent(event);
+
+    }
+
+    /**
+     * Set the state of the given nodes to busy at once. The nodes are moved
+     * out of the eligible nodes, persisted together and their events are
+     * propagated to RMMonitoring in a single request.
+     *
+     * @param nodeUrls nodes to set
+     * @param owner
+     */
+    public void setBusyNodes(final Collection<String> nodeUrls, Client owner) throws NotConnectedException {
+        if (!clients.containsKey(owner.getId()) && owner != localClient) {
+            logger.warn(nodeUrls.size() + " nodes cannot be set busy as the client disconnected " + owner);
+            throw new NotConnectedException("Client " + owner + " is not connected to the resource manager");
+        }
+
+        List<RMNode> busyNodes = new ArrayList<>(nodeUrls.size());
+        List<RMNodeEvent> events = new ArrayList<>(nodeUrls.size());
+        for (String nodeUrl : nodeUrls) {
+            final RMNode rmNode = this.allNodes.get(nodeUrl);
+            if (rmNode == null) {
+                logger.error("Unknown node " + nodeUrl);
+            } else if (!rmNode.isBusy()) {
+                events.add(setBusyAndCreateEvent(rmNode, owner));
+                busyNodes.add(rmNode);
+            }
+        }
+
+        persistUpdatedRMNodesIfRecoveryEnabled(busyNodes);
+
+        this.registerAndEmitNodeEvents(events);
+    }
+
+    private RMNodeEvent setBusyAndCreateEvent(final RMNode rmNode, Client owner) {
         // Get the previous state of the node needed for the event
         final NodeState previousNodeState = rmNode.getState();
         rmNode.setBusy(owner);
         this.eligibleNodes.remove(rmNode);
 
-        persistUpdatedRMNodeIfRecoveryEnabled(rmNode);
-
-        // create the event
-        this.registerAndEmitNodeEvent(rmNode.createNodeEvent(RMEventType.NODE_STATE_CHANGED,
-                                                             previousNodeState,
-                                                             owner.getName()));
-
+        return rmNode.createNodeEvent(RMEventType.NODE_STATE_CHANGED, previousNodeState, owner.getName());
     }
 
     /**
@@ -2204,6 +2299,12 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         this.monitoring.nodeEvent(event);
     }
 
+    private void registerAndEmitNodeEvents(final List<RMNodeEvent> events) {
+        if (!events.isEmpty()) {
+            this.monitoring.nodeEvents(events);
+        }
+    }
+
     /**
      * Removed a node with given url from the internal structures of the core.
      *
@@ -2221,7 +2322,19 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
     }
 
     public List<RMNode> getFreeNodes() {
-        return eligibleNodes;
+        return eligibleNodes.getNodes();
+    }
+
+    /**
+     * Returns the free nodes that can match the given criteria regarding the
+     * acceptable urls, the node access token and the black list. Only these
+     * nodes are looked at, thanks to the index of free nodes.
+     *
+     * @param criteria the criteria of a selection request
+     * @return the candidate free nodes, the permissions of the client are not checked
+     */
+    public List<RMNode> getFreeNodes(Criteria criteria) {
+        return eligibleNodes.getCandidates(criteria);
     }
 
     /**
@@ -2337,7 +2450,7 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
      * {@inheritDoc}
      */
     public RMState getState() {
-        RMStateNodeUrls rmStateNodeUrls = new RMStateNodeUrls(nodesListToUrlsSet(eligibleNodes),
+        RMStateNodeUrls rmStateNodeUrls = new RMStateNodeUrls(nodesListToUrlsSet(eligibleNodes.getNodes()),
                                                               listAliveNodeUrls(),
                                                               nodesListToUrlsSet(allNodes.values()));
         RMState state = new RMState(rmStateNodeUrls, maximumNumberOfNodes);
@@ -2976,6 +3089,18 @@ public class RMCore implements ResourceManager, InitActive, RunActive {
         }
     }
 
+    private void persistUpdatedRMNodesIfRecoveryEnabled(Collection<RMNode> rmNodes) {
+        Map<RMNodeData, String> nodeSourceNamesByNode = new LinkedHashMap<>();
+        for (RMNode rmNode : rmNodes) {
+            if (nodesRecoveryEnabledForNode(rmNode)) {
+                nodeSourceNamesByNode.put(RMNodeData.createRMNodeData(rmNode), rmNode.getNodeSourceName());
+            }
+        }
+        if (!nodeSourceNamesByNode.isEmpty()) {
+            dbManager.updateNodes(nodeSourceNamesByNode);
+        }
+    }
+
     private boolean isNodesRecoveryEnabled() {
         return PAResourceManagerProperties.RM_NODES_RECOVERY.getValueAsBoolean();
     }
@@ -26,6 +26,7 @@
 package org.ow2.proactive.resourcemanager.core.jmx.mbean;
 
 import java.io.IOException;
+import java.util.Map;
 
 import org.objectweb.proactive.annotation.PublicAPI;
 import org.ow2.proactive.resourcemanager.common.NodeState;
@@ -47,6 +48,7 @@ import org.ow2.proactive.resourcemanager.common.NodeState;
  * <li>Maximum down nodes
  * <li>Average activity percentage
  * <li>Average inactivity percentage
+ * <li>Pending events and dispatch lag of each listener
  * </ul>
  * <p>
  *
@@ -181,4 +183,19 @@ public interface RuntimeDataMBean {
      */
     byte[] getStatisticHistory() throws IOException;
 
+    /**
+     * Returns the number of events waiting to be sent to each listener.
+     *
+     * @return the number of pending events by listener
+     */
+    Map<String, Integer> getEventListenersQueueDepth();
+
+    /**
+     * Returns the time elapsed between the creation of the last event delivered
+     * to each listener and its delivery.
+     *
+     * @return the dispatch lag in milliseconds by listener
+     */
+    Map<String, Long> getEventListenersDispatchLag();
+
 }
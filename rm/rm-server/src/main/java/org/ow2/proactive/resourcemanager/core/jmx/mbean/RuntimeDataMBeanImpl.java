@@ -26,6 +26,7 @@
 package org.ow2.proactive.resourcemanager.core.jmx.mbean;
 
 import java.io.IOException;
+import java.util.Map;
 
 import javax.management.NotCompliantMBeanException;
 import javax.management.StandardMBean;
@@ -33,6 +34,7 @@ import javax.management.StandardMBean;
 import org.objectweb.proactive.annotation.PublicAPI;
 import org.ow2.proactive.jmx.Chronological;
 import org.ow2.proactive.resourcemanager.core.jmx.RMJMXHelper;
+import org.ow2.proactive.resourcemanager.frontend.RMMonitoringImpl;
 import org.ow2.proactive.resourcemanager.utils.AtomicRMStatisticsHolder;
 
 
@@ -208,4 +210,18 @@ public class RuntimeDataMBeanImpl extends StandardMBean implements RuntimeDataMB
     public byte[] getStatisticHistory() throws IOException {
         return RMJMXHelper.getInstance().getDataStore().getBytes();
     }
+
+    /**
+     * @see org.ow2.proactive.resourcemanager.core.jmx.mbean.RuntimeDataMBean#getEventListenersQueueDepth()
+     */
+    public Map<String, Integer> getEventListenersQueueDepth() {
+        return RMMonitoringImpl.eventDispatchStatistics.getQueueDepths();
+    }
+
+    /**
+     * @see org.ow2.proactive.resourcemanager.core.jmx.mbean.RuntimeDataMBean#getEventListenersDispatchLag()
+     */
+    public Map<String, Long> getEventListenersDispatchLag() {
+        return RMMonitoringImpl.eventDispatchStatistics.getDispatchLags();
+    }
 }
@@ -31,6 +31,7 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -155,6 +156,7 @@ public class RMDBManager {
             configuration.addAnnotatedClass(NodeSourceData.class);
             configuration.addAnnotatedClass(UserHistory.class);
             configuration.addAnnotatedClass(RMNodeData.class);
+            configuration.addAnnotatedClass(SelectionScriptResultData.class);
             if (drop) {
                 configuration.setProperty("hibernate.hbm2ddl.auto", "create");
 
@@ -181,6 +183,7 @@ public class RMDBManager {
             } else if (!drop) {
                 if (dropNS) {
                     removeNodeSources();
+                    removeAllSelectionScriptResults();
                 }
 
                 recover(lastAliveTimeResult.getTime());
@@ -348,6 +351,7 @@ public class RMDBManager {
         final Collection<RMNodeData> relatedNodes = getNodesByNodeSource(sourceName);
         logger.info("Remove nodes linked to the node source " + sourceName + IN_DATABASE_STRING);
         removeNodes(relatedNodes, sourceName);
+        removeSelectionScriptResultsOfNodeSource(sourceName);
         executeReadWriteTransaction(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
@@ -422,6 +426,41 @@ public class RMDBManager {
         }
     }
 
+    /**
+     * Updates several nodes in a single database operation.
+     *
+     * @param nodeSourceNamesByNode the nodes to update with the name of their node source
+     */
+    public void updateNodes(final Map<RMNodeData, String> nodeSourceNamesByNode) {
+        if (nodeRecoveryDisabled() || nodeSourceNamesByNode.isEmpty()) {
+            return;
+        }
+
+        if (rmdbManagerBuffer.canOperateDatabaseSynchronouslyWithNodes(nodeSourceNamesByNode.keySet())) {
+            try {
+                logger.debug("Update " + nodeSourceNamesByNode.size() + " nodes" + IN_DATABASE_STRING);
+                executeReadWriteTransaction(new SessionWork<Void>() {
+                    @Override
+                    public Void doInTransaction(Session session) {
+                        for (Map.Entry<RMNodeData, String> entry : nodeSourceNamesByNode.entrySet()) {
+                            RMNodeData rmNodeData = entry.getKey();
+                            rmNodeData.setNodeSource(session.load(NodeSourceData.class, entry.getValue()));
+                            session.update(rmNodeData);
+                        }
+                        return null;
+                    }
+                });
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Exception occurred while updating " + nodeSourceNamesByNode.size() +
+                                           " nodes", e);
+            }
+        } else {
+            logger.debug(REQUEST_BUFFER_STRING + "update " + nodeSourceNamesByNode.size() + " nodes" +
+                         IN_DATABASE_STRING);
+            rmdbManagerBuffer.addUpdateNodesToPendingDatabaseOperations(nodeSourceNamesByNode);
+        }
+    }
+
     public void removeNode(RMNode rmNode) {
         if (nodeRecoveryDisabled()) {
             return;
@@ -579,6 +618,79 @@ public class RMDBManager {
         }
     }
 
+    public void saveSelectionScriptResult(SelectionScriptResultData result) {
+        logger.trace(REQUEST_BUFFER_STRING + "save selection script result " + result + IN_DATABASE_STRING);
+        rmdbManagerBuffer.addSelectionScriptResultToPendingDatabaseOperations(result);
+    }
+
+    public Collection<SelectionScriptResultData> getAllSelectionScriptResults() {
+        rmdbManagerBuffer.flushPendingSelectionScriptResults();
+        logger.debug("Retrieve all selection script results" + IN_DATABASE_STRING);
+        return executeReadTransaction(new SessionWork<Collection<SelectionScriptResultData>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Collection<SelectionScriptResultData> doInTransaction(Session session) {
+                Query query = session.getNamedQuery("getAllSelectionScriptResultData");
+                return (Collection<SelectionScriptResultData>) query.list();
+            }
+        });
+    }
+
+    public void removeSelectionScriptResultsOfNode(final String nodeUrl) {
+        logger.debug("Remove selection script results of node " + nodeUrl + IN_DATABASE_STRING);
+        SessionWork<Void> deletion = new SessionWork<Void>() {
+            @Override
+            public Void doInTransaction(Session session) {
+                session.getNamedQuery("deleteSelectionScriptResultDataByNodeUrl")
+                       .setParameter("url", nodeUrl)
+                       .executeUpdate();
+                return null;
+            }
+        };
+        rmdbManagerBuffer.removeSelectionScriptResults(result -> nodeUrl.equals(result.getNodeUrl()), deletion);
+    }
+
+    public void removeSelectionScriptResultsOfNodeSource(final String nodeSourceName) {
+        logger.debug("Remove selection script results of node source " + nodeSourceName + IN_DATABASE_STRING);
+        SessionWork<Void> deletion = new SessionWork<Void>() {
+            @Override
+            public Void doInTransaction(Session session) {
+                session.getNamedQuery("deleteSelectionScriptResultDataByNodeSource")
+                       .setParameter("name", nodeSourceName)
+                       .executeUpdate();
+                return null;
+            }
+        };
+        rmdbManagerBuffer.removeSelectionScriptResults(result -> nodeSourceName.equals(result.getNodeSourceName()),
+                                                       deletion);
+    }
+
+    public void removeSelectionScriptResultsOfScript(final String scriptDigest) {
+        logger.debug("Remove selection script results of script " + scriptDigest + IN_DATABASE_STRING);
+        SessionWork<Void> deletion = new SessionWork<Void>() {
+            @Override
+            public Void doInTransaction(Session session) {
+                session.getNamedQuery("deleteSelectionScriptResultDataByDigest")
+                       .setParameter("digest", scriptDigest)
+                       .executeUpdate();
+                return null;
+            }
+        };
+        rmdbManagerBuffer.removeSelectionScriptResults(result -> scriptDigest.equals(result.getScriptDigest()),
+                                                       deletion);
+    }
+
+    private void removeAllSelectionScriptResults() {
+        logger.info("Remove all selection script results" + IN_DATABASE_STRING);
+        executeReadWriteTransaction(new SessionWork<Void>() {
+            @Override
+            public Void doInTransaction(Session session) {
+                session.getNamedQuery("deleteAllSelectionScriptResultData").executeUpdate();
+                return null;
+            }
+        });
+    }
+
     public void saveUserHistory(final UserHistory history) {
         executeReadWriteTransaction(new SessionWork<Void>() {
             @Override
@@ -600,16 +712,25 @@ public class RMDBManager {
     }
 
     public void saveNodeHistory(final NodeHistory nodeHistory) {
+        saveNodeHistories(Collections.singletonList(nodeHistory));
+    }
+
+    /**
+     * Saves the history of several nodes in a single transaction.
+     */
+    public void saveNodeHistories(final Collection<NodeHistory> nodeHistories) {
         executeReadWriteTransaction(new SessionWork<Void>() {
             @Override
             public Void doInTransaction(Session session) {
-                session.createSQLQuery("update NodeHistory set endTime=:endTime where nodeUrl=:nodeUrl and endTime=0")
-                       .setParameter("endTime", nodeHistory.getStartTime())
-                       .setParameter("nodeUrl", nodeHistory.getNodeUrl())
-                       .executeUpdate();
+                for (NodeHistory nodeHistory : nodeHistories) {
+                    session.createSQLQuery("update NodeHistory set endTime=:endTime where nodeUrl=:nodeUrl and endTime=0")
+                           .setParameter("endTime", nodeHistory.getStartTime())
+                           .setParameter("nodeUrl", nodeHistory.getNodeUrl())
+                           .executeUpdate();
 
-                if (nodeHistory.isStoreInDataBase()) {
-                    session.save(nodeHistory);
+                    if (nodeHistory.isStoreInDataBase()) {
+                        session.save(nodeHistory);
+                    }
                 }
                 return null;
             }
@@ -44,6 +44,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
 import org.apache.log4j.Logger;
 import org.hibernate.Session;
@@ -115,12 +116,27 @@ public class RMDBManagerBuffer {
 
     private final Condition pendingNodeOperationsCondition = pendingNodeOperationsLock.newCondition();
 
+    /**
+     * The selection script results to persist in database. Only the latest
+     * result is kept per script and node.
+     */
+    private Map<SelectionScriptResultData, SelectionScriptResultData> pendingSelectionScriptResults;
+
+    /**
+     * The database transaction regarding selection script results that is
+     * currently scheduled for later.
+     */
+    private ScheduledFuture<?> scheduledSelectionScriptResultTransaction;
+
+    private final Lock pendingSelectionScriptResultsLock = new ReentrantLock();
+
     RMDBManagerBuffer(RMDBManager rmdbManager) {
         this.rmdbManager = rmdbManager;
         delayEqualsToZero = RM_NODES_DB_OPERATIONS_DELAY.getValueAsInt() == 0;
         databaseTransactionExecutor = Executors.newSingleThreadScheduledExecutor();
         pendingNodeSourceUpdates = new HashMap<>();
         pendingNodesOperations = new LinkedList<>();
+        pendingSelectionScriptResults = new HashMap<>();
         knownNodeSources = new HashSet<>();
 
         // populate the set of node source names that were existing in the
@@ -291,6 +307,20 @@ public class RMDBManagerBuffer {
         }
     }
 
+    void addUpdateNodesToPendingDatabaseOperations(Map<RMNodeData, String> nodeSourceNamesByNode) {
+        cancelScheduledNodeTransaction();
+        for (Map.Entry<RMNodeData, String> entry : nodeSourceNamesByNode.entrySet()) {
+            registerPendingNodeOperations(DatabaseOperation.UPDATE, entry.getKey(), entry.getValue());
+        }
+        if (delayEqualsToZero) {
+            logger.debug("Apply " + nodeSourceNamesByNode.size() + " update node" + IN_DATABASE_WITH_NO_DELAY_STRING);
+            buildNodesTransactionAndCommit();
+        } else {
+            logger.debug("Schedule " + nodeSourceNamesByNode.size() + " update node" + IN_DATABASE_STRING);
+            scheduleNodeTransactionOrFlush();
+        }
+    }
+
     void debounceNodeUpdatesIfNeeded() {
         if (!delayEqualsToZero) {
             pendingNodeOperationsLock.lock();
@@ -448,6 +478,100 @@ public class RMDBManagerBuffer {
         return false;
     }
 
+    ////// Selection Script Result Database Operations //////
+
+    /**
+     * Selection script results arrive at the pace of the selection threads,
+     * so the scheduled transaction is not postponed by every new result: the
+     * results received during a delay are written together.
+     */
+    void addSelectionScriptResultToPendingDatabaseOperations(SelectionScriptResultData result) {
+        pendingSelectionScriptResultsLock.lock();
+        try {
+            pendingSelectionScriptResults.put(result, result);
+            if (delayEqualsToZero || pendingSelectionScriptResults.size() >= MAXIMUM_BUFFERIZED_NODE_OPERATIONS) {
+                logger.debug("Apply " + pendingSelectionScriptResults.size() + " selection script results" +
+                             IN_DATABASE_WITH_NO_DELAY_STRING);
+                cancelScheduledSelectionScriptResultTransaction();
+                buildSelectionScriptResultsTransactionAndCommit();
+            } else if (scheduledSelectionScriptResultTransaction == null ||
+                       scheduledSelectionScriptResultTransaction.isDone()) {
+                logger.debug("Schedule save selection script results" + IN_DATABASE_STRING);
+                scheduleSelectionScriptResultTransaction();
+            }
+        } finally {
+            pendingSelectionScriptResultsLock.unlock();
+        }
+    }
+
+    /**
+     * Discards the pending selection script results matching the given
+     * predicate and runs the given deletion, so that a pending result cannot
+     * be written after the deletion of the results it belongs to.
+     */
+    void removeSelectionScriptResults(Predicate<SelectionScriptResultData> matching, SessionWork<Void> deletion) {
+        pendingSelectionScriptResultsLock.lock();
+        try {
+            pendingSelectionScriptResults.keySet().removeIf(matching);
+            rmdbManager.executeReadWriteTransaction(deletion);
+        } finally {
+            pendingSelectionScriptResultsLock.unlock();
+        }
+    }
+
+    void flushPendingSelectionScriptResults() {
+        pendingSelectionScriptResultsLock.lock();
+        try {
+            cancelScheduledSelectionScriptResultTransaction();
+            buildSelectionScriptResultsTransactionAndCommit();
+        } finally {
+            pendingSelectionScriptResultsLock.unlock();
+        }
+    }
+
+    private void cancelScheduledSelectionScriptResultTransaction() {
+        if (scheduledSelectionScriptResultTransaction != null && !scheduledSelectionScriptResultTransaction.isDone()) {
+            scheduledSelectionScriptResultTransaction.cancel(false);
+        }
+    }
+
+    private void buildSelectionScriptResultsTransactionAndCommit() {
+        if (pendingSelectionScriptResults.isEmpty()) {
+            return;
+        }
+        logger.trace("Execute save selection script results" + IN_DATABASE_STRING);
+        try {
+            rmdbManager.executeReadWriteTransaction(new SessionWork<Void>() {
+                @Override
+                public Void doInTransaction(Session session) {
+                    for (SelectionScriptResultData result : pendingSelectionScriptResults.values()) {
+                        session.saveOrUpdate(result);
+                    }
+                    return null;
+                }
+            });
+        } catch (RuntimeException e) {
+            // these results are only an optimization, they will be computed again if lost
+            logger.warn("Selection script results could not be saved" + IN_DATABASE_STRING, e);
+        } finally {
+            pendingSelectionScriptResults.clear();
+        }
+    }
+
+    private void scheduleSelectionScriptResultTransaction() {
+        scheduledSelectionScriptResultTransaction = databaseTransactionExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                pendingSelectionScriptResultsLock.lock();
+                try {
+                    buildSelectionScriptResultsTransactionAndCommit();
+                } finally {
+                    pendingSelectionScriptResultsLock.unlock();
+                }
+            }
+        }, RM_NODES_DB_OPERATIONS_DELAY.getValueAsInt(), TimeUnit.MILLISECONDS);
+    }
+
     public enum DatabaseOperation {
         CREATE,
         RETRIEVE,
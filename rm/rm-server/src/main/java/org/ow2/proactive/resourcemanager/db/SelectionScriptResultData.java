@@ -0,0 +1,149 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.db;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+
+/**
+ * Stores the result of a static selection script on a node, so that the
+ * knowledge of the selection manager survives a restart of the RM.
+ *
+ * @see org.ow2.proactive.resourcemanager.selection.statistics.ProbablisticSelectionManager
+ */
+@Entity
+@NamedQueries({ @NamedQuery(name = "deleteAllSelectionScriptResultData", query = "delete from SelectionScriptResultData"),
+                @NamedQuery(name = "deleteSelectionScriptResultDataByDigest", query = "delete from SelectionScriptResultData where scriptDigest=:digest"),
+                @NamedQuery(name = "deleteSelectionScriptResultDataByNodeSource", query = "delete from SelectionScriptResultData where nodeSourceName=:name"),
+                @NamedQuery(name = "deleteSelectionScriptResultDataByNodeUrl", query = "delete from SelectionScriptResultData where nodeUrl=:url"),
+                @NamedQuery(name = "getAllSelectionScriptResultData", query = "from SelectionScriptResultData") })
+@Table(name = "SelectionScriptResult")
+public class SelectionScriptResultData implements Serializable {
+
+    @Id
+    @Column(name = "scriptDigest", length = 32)
+    private String scriptDigest;
+
+    @Id
+    @Column(name = "nodeUrl")
+    private String nodeUrl;
+
+    @Column(name = "nodeSourceName")
+    private String nodeSourceName;
+
+    @Column(name = "passed")
+    private boolean passed;
+
+    @Column(name = "time")
+    private long time;
+
+    /**
+     * Default constructor
+     */
+    public SelectionScriptResultData() {
+        // required by Hibernate
+    }
+
+    public SelectionScriptResultData(String scriptDigest, String nodeUrl, String nodeSourceName, boolean passed) {
+        this.scriptDigest = scriptDigest;
+        this.nodeUrl = nodeUrl;
+        this.nodeSourceName = nodeSourceName;
+        this.passed = passed;
+        this.time = System.currentTimeMillis();
+    }
+
+    public String getScriptDigest() {
+        return scriptDigest;
+    }
+
+    public void setScriptDigest(String scriptDigest) {
+        this.scriptDigest = scriptDigest;
+    }
+
+    public String getNodeUrl() {
+        return nodeUrl;
+    }
+
+    public void setNodeUrl(String nodeUrl) {
+        this.nodeUrl = nodeUrl;
+    }
+
+    public String getNodeSourceName() {
+        return nodeSourceName;
+    }
+
+    public void setNodeSourceName(String nodeSourceName) {
+        this.nodeSourceName = nodeSourceName;
+    }
+
+    public boolean isPassed() {
+        return passed;
+    }
+
+    public void setPassed(boolean passed) {
+        this.passed = passed;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public void setTime(long time) {
+        this.time = time;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SelectionScriptResultData that = (SelectionScriptResultData) o;
+        return Objects.equals(scriptDigest, that.scriptDigest) && Objects.equals(nodeUrl, that.nodeUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(scriptDigest, nodeUrl);
+    }
+
+    @Override
+    public String toString() {
+        return "SelectionScriptResultData{" + "scriptDigest='" + scriptDigest + '\'' + ", nodeUrl='" + nodeUrl +
+               '\'' + ", nodeSourceName='" + nodeSourceName + '\'' + ", passed=" + passed + '}';
+    }
+
+}
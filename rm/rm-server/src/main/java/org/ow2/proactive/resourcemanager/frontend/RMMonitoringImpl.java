@@ -26,8 +26,8 @@
 package org.ow2.proactive.resourcemanager.frontend;
 
 import java.util.*;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -52,6 +52,7 @@ import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProper
 import org.ow2.proactive.resourcemanager.db.RMDBManager;
 import org.ow2.proactive.resourcemanager.exception.RMException;
 import org.ow2.proactive.resourcemanager.utils.AtomicRMStatisticsHolder;
+import org.ow2.proactive.resourcemanager.utils.RMEventDispatchStatistics;
 
 
 /**
@@ -76,11 +77,22 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
 
     private Map<UniqueID, EventDispatcher> dispatchers;
 
-    private transient ExecutorService eventDispatcherThreadPool;
+    private transient ScheduledExecutorService eventDispatcherThreadPool;
 
     /** Resource Manager's statistics */
     public static final AtomicRMStatisticsHolder rmStatistics = new AtomicRMStatisticsHolder();
 
+    /** Statistics of the events delivery to the listeners */
+    public static final RMEventDispatchStatistics eventDispatchStatistics = new RMEventDispatchStatistics();
+
+    /** Time during which events are accumulated before being sent to group listeners (in ms) */
+    private final long eventsBatchWindow = PAResourceManagerProperties.RM_MONITORING_EVENTS_BATCH_WINDOW
+                                                                      .getValueAsLong();
+
+    /** If true, only the last pending state change of a node is sent to group listeners */
+    private final boolean coalesceEvents = PAResourceManagerProperties.RM_MONITORING_EVENTS_COALESCE
+                                                                      .getValueAsBoolean();
+
     // ----------------------------------------------------------------------//
     // CONSTRUTORS
 
@@ -97,13 +109,23 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
         this.rmcore = rmcore;
     }
 
+    /**
+     * Creates the RMMonitoring without turning it active, for testing purposes.
+     * @param rmcore the RMCore
+     * @param eventDispatcherThreadPool the pool delivering the events to the listeners
+     */
+    RMMonitoringImpl(RMCore rmcore, ScheduledExecutorService eventDispatcherThreadPool) {
+        this(rmcore);
+        this.eventDispatcherThreadPool = eventDispatcherThreadPool;
+    }
+
     /**
      * @see org.objectweb.proactive.InitActive#initActivity(org.objectweb.proactive.Body)
      */
     public void initActivity(Body body) {
         try {
             PAActiveObject.registerByName(PAActiveObject.getStubOnThis(), RMConstants.NAME_ACTIVE_OBJECT_RMMONITORING);
-            eventDispatcherThreadPool = Executors.newFixedThreadPool(PAResourceManagerProperties.RM_MONITORING_MAX_THREAD_NUMBER.getValueAsInt());
+            eventDispatcherThreadPool = Executors.newScheduledThreadPool(PAResourceManagerProperties.RM_MONITORING_MAX_THREAD_NUMBER.getValueAsInt());
         } catch (ProActiveException e) {
             logger.debug("Cannot register RMMonitoring. Aborting...", e);
             PAActiveObject.terminateActiveObject(true);
@@ -146,8 +168,11 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
 
         protected long counter = 0;
 
+        protected final String statisticsKey;
+
         public EventDispatcher(Client client, RMEventListener listener, RMEventType[] eventTypes) {
             this.client = client;
+            this.statisticsKey = client.getName() + " (" + client.getId().shortString() + ")";
             this.listener = listener;
             if (eventTypes != null && eventTypes.length > 0) {
                 this.eventTypes = Arrays.asList(eventTypes);
@@ -167,17 +192,22 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
 
             while (true) {
                 RMEvent event = null;
+                int queueDepth = 0;
                 synchronized (events) {
                     if (logger.isDebugEnabled()) {
                         logger.debug(events.size() + " pending events for the client '" + client + "'");
                     }
                     if (events.size() > 0) {
                         event = events.removeFirst();
+                        queueDepth = events.size();
                     }
                 }
 
                 if (event != null) {
                     deliverEvent(event);
+                    eventDispatchStatistics.delivered(statisticsKey,
+                                                      queueDepth,
+                                                      System.currentTimeMillis() - event.getTimeStamp());
                     numberOfEventDelivered++;
                 } else {
                     break;
@@ -222,6 +252,7 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
                 logger.warn("Cannot send events to " + client, e);
                 synchronized (dispatchers) {
                     dispatchers.remove(client.getId());
+                    eventDispatchStatistics.remove(statisticsKey);
                     logger.warn(client + " was removed from listeners");
                 }
             }
@@ -235,16 +266,8 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
                         RMEvent cloneEvent = (RMEvent) event.clone();
                         cloneEvent.setCounter(++counter);
                         events.add(cloneEvent);
-
-                        if (inProcess.get()) {
-                            if (logger.isDebugEnabled()) {
-                                logger.debug("Communication to the client " + client +
-                                             " is in progress in one thread of the thread pool.");
-                            }
-                        } else {
-                            inProcess.set(true);
-                            eventDispatcherThreadPool.submit(this);
-                        }
+                        eventDispatchStatistics.queued(statisticsKey, events.size());
+                        dispatch();
                     } catch (CloneNotSupportedException ex) {
                         logger.error(ex.getMessage(), ex);
                     }
@@ -252,17 +275,83 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
             }
         }
 
+        /**
+         * Starts the delivery of the pending events unless it is already in progress.
+         * Must be called while holding the lock on the events.
+         */
+        protected void dispatch() {
+            if (inProcess.get()) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Communication to the client " + client +
+                                 " is in progress in one thread of the thread pool.");
+                }
+            } else {
+                inProcess.set(true);
+                eventDispatcherThreadPool.submit(this);
+            }
+        }
+
         public void setCounter(long counter) {
             this.counter = counter;
         }
     }
 
+    /**
+     * Sends the events to a {@link RMGroupEventListener} in batches. Events are
+     * accumulated during the events batch window before the first delivery,
+     * then while the previous batch is being delivered. A pending state change
+     * of a node is replaced by the next state change of the same node, and the
+     * counters of the events are assigned when they are sent so that the
+     * listener still receives consecutive counters.
+     */
     private class GroupEventDispatcher extends EventDispatcher {
 
+        /** pending events by coalescing key, in the order they have to be delivered */
+        private final LinkedHashMap<Object, RMEvent> pendingEvents = new LinkedHashMap<>();
+
         public GroupEventDispatcher(Client client, RMEventListener stub, RMEventType[] events) {
             super(client, stub, events);
         }
 
+        @Override
+        public void queueEvent(RMEvent event) {
+            synchronized (events) {
+                if (eventTypes == null || eventTypes.contains(event.getEventType())) {
+                    try {
+                        RMEvent cloneEvent = (RMEvent) event.clone();
+                        Object key = coalescingKey(cloneEvent);
+                        if (pendingEvents.remove(key) != null && logger.isDebugEnabled()) {
+                            logger.debug("Coalescing pending state change of node " + key + " for the client " +
+                                         client);
+                        }
+                        pendingEvents.put(key, cloneEvent);
+                        eventDispatchStatistics.queued(statisticsKey, pendingEvents.size());
+                        dispatch();
+                    } catch (CloneNotSupportedException ex) {
+                        logger.error(ex.getMessage(), ex);
+                    }
+                }
+            }
+        }
+
+        private Object coalescingKey(RMEvent event) {
+            if (coalesceEvents && event.getEventType() == RMEventType.NODE_STATE_CHANGED) {
+                return ((RMNodeEvent) event).getNodeUrl();
+            }
+            // never replaced
+            return new Object();
+        }
+
+        @Override
+        protected void dispatch() {
+            if (!inProcess.get() && eventsBatchWindow > 0) {
+                inProcess.set(true);
+                eventDispatcherThreadPool.schedule(this, eventsBatchWindow, TimeUnit.MILLISECONDS);
+            } else {
+                super.dispatch();
+            }
+        }
+
         public void run() {
 
             long timeStamp = System.currentTimeMillis();
@@ -275,18 +364,26 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
                 LinkedList<RMEvent> toDeliver = new LinkedList<>();
                 synchronized (events) {
                     if (logger.isDebugEnabled()) {
-                        logger.debug(events.size() + " pending events for the client '" + client + "'");
+                        logger.debug(pendingEvents.size() + " pending events for the client '" + client + "'");
                     }
 
-                    if (events.size() > 0) {
-                        toDeliver.clear();
-                        toDeliver.addAll(events);
-                        events.clear();
+                    for (RMEvent event : pendingEvents.values()) {
+                        event.setCounter(++counter);
+                        toDeliver.add(event);
                     }
+                    pendingEvents.clear();
                 }
 
                 if (toDeliver.size() > 0) {
                     if (deliverEvents(toDeliver)) {
+                        int queueDepth;
+                        synchronized (events) {
+                            queueDepth = pendingEvents.size();
+                        }
+                        eventDispatchStatistics.delivered(statisticsKey,
+                                                          queueDepth,
+                                                          System.currentTimeMillis() -
+                                                                      toDeliver.getFirst().getTimeStamp());
                         if (logger.isDebugEnabled()) {
                             logger.debug("Finishing delivery in " + Thread.currentThread() + " to client '" + client +
                                          "'. " + toDeliver.size() + " events were delivered in " +
@@ -323,6 +420,7 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
                 logger.warn("Cannot send events to " + client, e);
                 synchronized (dispatchers) {
                     dispatchers.remove(client.getId());
+                    eventDispatchStatistics.remove(statisticsKey);
                     logger.warn(client + " was removed from listeners");
                 }
                 return false;
@@ -343,15 +441,22 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
         UniqueID id = PAActiveObject.getContext().getCurrentRequest().getSourceBodyID();
 
         logger.debug("Adding the RM listener for " + id.shortString());
-        synchronized (dispatchers) {
-            Client client = null;
-            synchronized (RMCore.clients) {
-                client = RMCore.clients.get(id);
-            }
-            if (client == null) {
-                throw new IllegalArgumentException("Unknown client " + id.shortString());
-            }
+        Client client = null;
+        synchronized (RMCore.clients) {
+            client = RMCore.clients.get(id);
+        }
+        if (client == null) {
+            throw new IllegalArgumentException("Unknown client " + id.shortString());
+        }
+        return addRMEventListener(id, client, stub, events);
+    }
 
+    /**
+     * Registers the listener of the given client. The events it receives are numbered from the
+     * latest counter of the returned state.
+     */
+    RMInitialState addRMEventListener(UniqueID id, Client client, RMEventListener stub, RMEventType... events) {
+        synchronized (dispatchers) {
             EventDispatcher eventDispatcher = null;
             if (stub instanceof RMGroupEventListener) {
                 eventDispatcher = new GroupEventDispatcher(client, stub, events);
@@ -387,7 +492,11 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
         }
 
         synchronized (dispatchers) {
-            return dispatchers.remove(id) != null;
+            EventDispatcher dispatcher = dispatchers.remove(id);
+            if (dispatcher != null) {
+                eventDispatchStatistics.remove(dispatcher.statisticsKey);
+            }
+            return dispatcher != null;
         }
     }
 
@@ -418,6 +527,22 @@ public class RMMonitoringImpl implements RMMonitoring, RMEventListener, InitActi
         queueEvent(event);
     }
 
+    /**
+     * Handles the events of nodes which changed state together: their history
+     * is saved in a single transaction before they are queued.
+     */
+    public void nodeEvents(List<RMNodeEvent> events) {
+        List<NodeHistory> histories = new ArrayList<>(events.size());
+        for (RMNodeEvent event : events) {
+            RMMonitoringImpl.rmStatistics.nodeEvent(event);
+            histories.add(new NodeHistory(event));
+        }
+        RMDBManager.getInstance().saveNodeHistories(histories);
+        for (RMNodeEvent event : events) {
+            queueEvent(event);
+        }
+    }
+
     /**
      * @see org.ow2.proactive.resourcemanager.frontend.RMEventListener#nodeSourceEvent(org.ow2.proactive.resourcemanager.common.event.RMNodeSourceEvent)
      */
@@ -27,6 +27,7 @@ package org.ow2.proactive.resourcemanager.nodesource;
 
 import java.io.Serializable;
 import java.security.Permission;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -97,6 +98,14 @@ public class NodeSource implements InitActive, RunActive {
 
     private int pingFrequency = PAResourceManagerProperties.RM_NODE_SOURCE_PING_FREQUENCY.getValueAsInt();
 
+    private boolean pingSilentNodesOnly = PAResourceManagerProperties.RM_NODE_SOURCE_PING_SILENT_NODES_ONLY
+                                                                     .getValueAsBoolean();
+
+    private long heartbeatTolerance = PAResourceManagerProperties.RM_NODE_SOURCE_HEARTBEAT_TOLERANCE.getValueAsInt();
+
+    private long heartbeatCheckFrequency = PAResourceManagerProperties.RM_NODE_SOURCE_HEARTBEAT_CHECK_FREQUENCY
+                                                                      .getValueAsInt();
+
     /** Default name for NS with local nodes started with the Scheduler by default */
     public static final String DEFAULT_LOCAL_NODES_NODE_SOURCE_NAME = "LocalNodes";
 
@@ -278,23 +287,25 @@ public class NodeSource implements InitActive, RunActive {
     public void runActivity(Body body) {
         Service service = new Service(body);
 
-        long timeStamp = System.currentTimeMillis();
-        long delta = 0;
+        long lastCheck = System.currentTimeMillis();
+        long lastPing = lastCheck;
 
-        // recalculating nodes number only once per policy period
+        // silent nodes are looked for more often than the nodes are pinged
         while (body.isActive()) {
 
             try {
-                service.blockingServeOldest(pingFrequency);
-                delta += System.currentTimeMillis() - timeStamp;
-                timeStamp = System.currentTimeMillis();
-
-                if (delta > pingFrequency) {
-                    logger.info("[" + name + "] Pinging alive nodes : " + getAliveNodes().size());
-                    for (Node node : getAliveNodes()) {
-                        pingNode(node);
+                long checkFrequency = pingSilentNodesOnly ? Math.min(heartbeatCheckFrequency, pingFrequency)
+                                                          : pingFrequency;
+                service.blockingServeOldest(checkFrequency);
+                long timeStamp = System.currentTimeMillis();
+
+                if (timeStamp - lastCheck >= checkFrequency) {
+                    boolean pingPeriodElapsed = timeStamp - lastPing > pingFrequency;
+                    pingNodes(getAliveNodes(), timeStamp, pingPeriodElapsed);
+                    lastCheck = timeStamp;
+                    if (pingPeriodElapsed) {
+                        lastPing = timeStamp;
                     }
-                    delta = 0;
                 }
             } catch (InterruptedException e) {
                 logger.warn("runActivity interrupted", e);
@@ -661,6 +672,7 @@ public class NodeSource implements InitActive, RunActive {
             logger.error("[" + this.name + "] cannot remove node: " + nodeUrl + " because it is unknown");
             return new BooleanWrapper(false);
         } else {
+            NodesHeartbeats.getInstance().forget(nodeUrl);
             RMCore.topologyManager.removeNode(node);
             try {
                 this.infrastructureManager.internalRemoveNode(node);
@@ -847,6 +859,7 @@ public class NodeSource implements InitActive, RunActive {
         }
 
         logger.warn("[" + name + "] Detected down node: " + nodeUrl);
+        NodesHeartbeats.getInstance().forget(nodeUrl);
         Node downNode = nodes.remove(nodeUrl);
         if (downNode != null) {
             downNodes.put(nodeUrl, downNode);
@@ -888,6 +901,41 @@ public class NodeSource implements InitActive, RunActive {
         NodeSource.threadPoolHolder.execute(EXTERNAL_POOL, task);
     }
 
+    /**
+     * Pings the given nodes. When only silent nodes are to be pinged, the nodes which report
+     * their availability to the resource manager are pinged as soon as they stop reporting it,
+     * whereas the other nodes are pinged once per ping period.
+     *
+     * @param pingPeriodElapsed whether the ping period elapsed since the last time the nodes were pinged
+     * @return the number of pinged nodes
+     */
+    @VisibleForTesting
+    int pingNodes(Collection<Node> aliveNodes, long time, boolean pingPeriodElapsed) {
+        int pinged = 0;
+        NodesHeartbeats heartbeats = NodesHeartbeats.getInstance();
+        for (Node node : aliveNodes) {
+            String nodeUrl = node.getNodeInformation().getURL();
+            boolean ping;
+            if (pingSilentNodesOnly && heartbeats.isReporting(nodeUrl)) {
+                ping = heartbeats.isSilent(nodeUrl, time, heartbeatTolerance);
+                if (ping) {
+                    // pinged once per ping period until it reports its availability again
+                    heartbeats.forget(nodeUrl);
+                }
+            } else {
+                ping = pingPeriodElapsed;
+            }
+            if (ping) {
+                pingNode(node);
+                pinged++;
+            }
+        }
+        if (pingPeriodElapsed || pinged > 0) {
+            logger.info("[" + name + "] Pinging alive nodes : " + pinged + " out of " + aliveNodes.size());
+        }
+        return pinged;
+    }
+
     /**
      * Pings the node with specified url.
      * If the node is dead sends the request to the node source.
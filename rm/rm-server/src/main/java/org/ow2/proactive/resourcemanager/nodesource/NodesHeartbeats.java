@@ -0,0 +1,120 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.nodesource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * The last time each node reported its availability to the resource manager.
+ * <p>
+ * Nodes started by {@link org.ow2.proactive.resourcemanager.utils.RMNodeStarter}
+ * periodically push the urls of their workers in a single call to
+ * {@link org.ow2.proactive.resourcemanager.core.RMCore#setNodesAvailable(java.util.Set)}.
+ * Such a call is a heartbeat, sent every {@code proactive.node.ping.delay}
+ * milliseconds. As this delay is set on the node side, the heartbeat period of
+ * a node is measured between its two last heartbeats: once known, the node is
+ * considered as silent when no heartbeat was received during this period plus a
+ * tolerance, and the node sources only need to ping the silent nodes.
+ * <p>
+ * Heartbeats are received by an immediate service of the core while the
+ * node sources read them from their own active object threads, hence the
+ * concurrent map.
+ */
+public class NodesHeartbeats {
+
+    private static final NodesHeartbeats INSTANCE = new NodesHeartbeats();
+
+    private final Map<String, Heartbeat> lastHeartbeats = new ConcurrentHashMap<>();
+
+    public static NodesHeartbeats getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records a heartbeat received from the node with the given url.
+     */
+    public void record(String nodeUrl, long time) {
+        lastHeartbeats.compute(nodeUrl, (url, previous) -> {
+            if (previous == null) {
+                return new Heartbeat(time, Heartbeat.UNKNOWN_PERIOD);
+            } else if (time <= previous.time) {
+                return previous;
+            } else {
+                return new Heartbeat(time, time - previous.time);
+            }
+        });
+    }
+
+    /**
+     * @return true if the heartbeat period of the node with the given url is known,
+     * i.e. at least two heartbeats were received from this node
+     */
+    public boolean isReporting(String nodeUrl) {
+        Heartbeat heartbeat = lastHeartbeats.get(nodeUrl);
+        return heartbeat != null && heartbeat.period != Heartbeat.UNKNOWN_PERIOD;
+    }
+
+    /**
+     * @return true if the node with the given url is reporting and did not send any
+     * heartbeat during its heartbeat period plus {@code tolerance} milliseconds
+     * preceding {@code time}
+     */
+    public boolean isSilent(String nodeUrl, long time, long tolerance) {
+        Heartbeat heartbeat = lastHeartbeats.get(nodeUrl);
+        return heartbeat != null && heartbeat.period != Heartbeat.UNKNOWN_PERIOD &&
+               time - heartbeat.time > heartbeat.period + tolerance;
+    }
+
+    /**
+     * Forgets the heartbeats of a node which has been removed, detected as down
+     * or which became silent.
+     */
+    public void forget(String nodeUrl) {
+        lastHeartbeats.remove(nodeUrl);
+    }
+
+    public int size() {
+        return lastHeartbeats.size();
+    }
+
+    private static final class Heartbeat {
+
+        private static final long UNKNOWN_PERIOD = -1;
+
+        private final long time;
+
+        private final long period;
+
+        private Heartbeat(long time, long period) {
+            this.time = time;
+            this.period = period;
+        }
+
+    }
+
+}
@@ -113,7 +113,8 @@ public class AutoUpdateInfrastructure extends HostsFileBasedInfrastructureManage
         final List<String> createdNodeNames = RMNodeStarter.getWorkersNodeNames(nodeName, nbNodes);
         depNodeURLs.addAll(addMultipleDeployingNodes(createdNodeNames,
                                                      filledCommand,
-                                                     "Deploying node on host " + hostTracker.getResolvedAddress(),
+                                                     "Deploying node on host " + hostTracker.getResolvedAddress() +
+                                                     getDeploymentAttemptDescription(hostTracker),
                                                      this.nodeTimeOut));
         addTimeouts(depNodeURLs);
 
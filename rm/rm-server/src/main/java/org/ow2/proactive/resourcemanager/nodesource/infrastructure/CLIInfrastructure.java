@@ -134,7 +134,8 @@ public class CLIInfrastructure extends HostsFileBasedInfrastructureManager {
         final List<String> createdNodeNames = RMNodeStarter.getWorkersNodeNames(nodeName, nbNodes);
         depNodeURLs.addAll(addMultipleDeployingNodes(createdNodeNames,
                                                      commandLine,
-                                                     "Deploying node on host " + hostTracker.getResolvedAddress(),
+                                                     "Deploying node on host " + hostTracker.getResolvedAddress() +
+                                                     getDeploymentAttemptDescription(hostTracker),
                                                      this.nodeTimeOut));
         addTimeouts(depNodeURLs);
 
@@ -277,6 +278,7 @@ public class CLIInfrastructure extends HostsFileBasedInfrastructureManager {
      */
     @Override
     public void shutDown() {
+        super.shutDown();
         deploymentScript.delete();
 
         // checking if we need to delete the removal script
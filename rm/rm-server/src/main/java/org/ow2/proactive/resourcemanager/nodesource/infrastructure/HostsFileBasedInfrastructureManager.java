@@ -25,16 +25,25 @@
  */
 package org.ow2.proactive.resourcemanager.nodesource.infrastructure;
 
+import static org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties.RM_NODESOURCE_INFRASTRUCTURE_DEPLOYMENT_MAX_BACKOFF_FACTOR;
+import static org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties.RM_NODESOURCE_INFRASTRUCTURE_DEPLOYMENT_MAX_CONCURRENCY;
+
 import java.io.*;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.log4j.Logger;
 import org.objectweb.proactive.core.node.Node;
 import org.objectweb.proactive.core.util.ProActiveCounter;
+import org.objectweb.proactive.utils.NamedThreadFactory;
 import org.ow2.proactive.resourcemanager.exception.RMException;
 import org.ow2.proactive.resourcemanager.nodesource.common.Configurable;
 import org.ow2.proactive.utils.FileToBytesConverter;
@@ -77,8 +86,30 @@ public abstract class HostsFileBasedInfrastructureManager extends Infrastructure
      */
     private static final String PN_TIMEOUT_KEY = "pnTimeout";
 
+    /**
+     * Idle time (in ms) after which the deployment threads are released
+     */
+    private static final long DEPLOYMENT_THREAD_KEEP_ALIVE = 60 * 1000;
+
     protected NodeNameBuilder nodeNameBuilder = new NodeNameBuilder();
 
+    /**
+     * Executor deploying the hosts of this infrastructure in parallel,
+     * created at the first acquisition
+     */
+    private transient ExecutorService deploymentExecutor = null;
+
+    /**
+     * Current deployment attempt per configured host address
+     */
+    private transient Map<String, Integer> deploymentAttemptPerHost = new ConcurrentHashMap<>();
+
+    /**
+     * Duration (in ms) of the last successful deployment per configured host
+     * address, from the first attempt until the nodes are started
+     */
+    private transient Map<String, Long> deploymentDurationPerHost = new ConcurrentHashMap<>();
+
     @Override
     protected void initializePersistedInfraVariables() {
         persistedInfraVariables.put(HOST_TRACKER_PER_HOST_KEY, new HashMap<String, HostTracker>());
@@ -207,7 +238,7 @@ public abstract class HostsFileBasedInfrastructureManager extends Infrastructure
                 final int neededNodeNumber = getNeededNodesNumberWithLock(host);
                 logger.info("Acquiring " + neededNodeNumber + " nodes on host " + hostTracker);
 
-                this.nodeSource.executeInParallel(() -> {
+                getDeploymentExecutor().execute(() -> {
                     try {
                         startNodeImplWithRetries(hostTracker, neededNodeNumber, maxDeploymentFailure);
                     } catch (Exception e) {
@@ -307,29 +338,94 @@ public abstract class HostsFileBasedInfrastructureManager extends Infrastructure
 
     protected void startNodeImplWithRetries(final HostTracker hostTracker, final int nbNodes, int retries)
             throws RMException {
-        while (!isShutDown()) {
-            final List<String> depNodeURLs = new ArrayList<>(nbNodes);
-            try {
-                startNodeImpl(hostTracker, nbNodes, depNodeURLs);
-                return;
-            } catch (Exception e) {
-                logger.warn("Failed nodes deployment in host : " + hostTracker.getResolvedAddress() +
-                            ", retries left : " + retries);
-                if (isInfiniteRetries(retries) || retries > 0) {
-                    removeNodes(depNodeURLs);
-                    waitPeriodBeforeRetry();
-                    retries = getRetriesLeft(retries);
-                } else {
-                    logger.error("Tries threshold reached for host " + hostTracker.getResolvedAddress() +
-                                 ". This host is not part of the deployment process anymore.");
-
-                    throw e;
+        final String host = hostTracker.getConfiguredAddress();
+        final long deploymentStart = System.currentTimeMillis();
+        int failures = 0;
+        try {
+            while (!isShutDown()) {
+                final List<String> depNodeURLs = new ArrayList<>(nbNodes);
+                deploymentAttemptPerHost.put(host, failures + 1);
+                try {
+                    startNodeImpl(hostTracker, nbNodes, depNodeURLs);
+                    long deploymentDuration = System.currentTimeMillis() - deploymentStart;
+                    deploymentDurationPerHost.put(host, deploymentDuration);
+                    logger.info("Deployed " + nbNodes + " nodes on host " + hostTracker.getResolvedAddress() + " in " +
+                                deploymentDuration + " ms (" + (failures + 1) + " attempts)");
+                    return;
+                } catch (Exception e) {
+                    logger.warn("Failed nodes deployment in host : " + hostTracker.getResolvedAddress() +
+                                ", retries left : " + retries);
+                    if (isInfiniteRetries(retries) || retries > 0) {
+                        removeNodes(depNodeURLs);
+                        waitPeriodBeforeRetry(hostTracker, ++failures);
+                        retries = getRetriesLeft(retries);
+                    } else {
+                        logger.error("Tries threshold reached for host " + hostTracker.getResolvedAddress() +
+                                     ". This host is not part of the deployment process anymore.");
+
+                        throw e;
+                    }
                 }
             }
+        } finally {
+            deploymentAttemptPerHost.remove(host);
         }
 
     }
 
+    /**
+     * Computes the time to wait before deploying again on a host, which
+     * doubles after each consecutive failure of this host, up to
+     * {@code RM_NODESOURCE_INFRASTRUCTURE_DEPLOYMENT_MAX_BACKOFF_FACTOR} times
+     * the configured wait time between failures.
+     *
+     * @param failures number of consecutive failed deployments on the host
+     * @return the time to wait in milliseconds
+     */
+    protected long getWaitBeforeRetry(int failures) {
+        long maxFactor = Math.max(1, RM_NODESOURCE_INFRASTRUCTURE_DEPLOYMENT_MAX_BACKOFF_FACTOR.getValueAsInt());
+        long factor = 1;
+        for (int i = 1; i < failures && factor < maxFactor; i++) {
+            factor *= 2;
+        }
+        return waitBetweenDeploymentFailures * Math.min(factor, maxFactor);
+    }
+
+    /**
+     * Number of hosts this infrastructure deploys at the same time. The other
+     * hosts are queued until a deployment ends.
+     *
+     * @return the maximum number of concurrent host deployments
+     */
+    protected int getDeploymentConcurrency() {
+        return RM_NODESOURCE_INFRASTRUCTURE_DEPLOYMENT_MAX_CONCURRENCY.getValueAsInt();
+    }
+
+    /**
+     * Describes the ongoing deployment attempt on a host, so that
+     * implementations can expose it in the description of their deploying
+     * nodes.
+     *
+     * @param hostTracker the host being deployed
+     * @return an empty string for the first attempt, the attempt number
+     * otherwise
+     */
+    protected String getDeploymentAttemptDescription(HostTracker hostTracker) {
+        Integer attempt = deploymentAttemptPerHost.get(hostTracker.getConfiguredAddress());
+        if (attempt == null || attempt <= 1) {
+            return "";
+        }
+        return " (attempt " + attempt + (maxDeploymentFailure >= 0 ? "/" + (maxDeploymentFailure + 1) : "") + ")";
+    }
+
+    /**
+     * @return the duration in milliseconds of the last successful deployment
+     * of each host, including the failed attempts which preceded it
+     */
+    public Map<String, Long> getDeploymentDurationPerHost() {
+        return Collections.unmodifiableMap(new HashMap<>(deploymentDurationPerHost));
+    }
+
     protected boolean anyTimedOut(List<String> nodesUrl) {
         for (String nodeUrl : nodesUrl) {
             if (getPnTimeoutWithLock(nodeUrl)) {
@@ -376,15 +472,49 @@ public abstract class HostsFileBasedInfrastructureManager extends Infrastructure
         return retries == -1;
     }
 
-    private void waitPeriodBeforeRetry() {
+    private void waitPeriodBeforeRetry(HostTracker hostTracker, int failures) {
+        long waitTime = getWaitBeforeRetry(failures);
+        if (waitTime <= 0) {
+            return;
+        }
+        logger.info("Waiting " + waitTime + " ms before deploying again on host " + hostTracker.getResolvedAddress() +
+                    " after " + failures + " failed attempts");
         try {
-
-            Thread.sleep(waitBetweenDeploymentFailures);
+            Thread.sleep(waitTime);
         } catch (InterruptedException e1) {
             Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * Stops the pending deployments of the hosts, the ongoing ones end at
+     * their next attempt since the infrastructure is shut down.
+     * Implementations overriding this method must call it.
+     */
+    @Override
+    protected synchronized void shutDown() {
+        if (deploymentExecutor != null) {
+            deploymentExecutor.shutdownNow();
+        }
+    }
+
+    private synchronized ExecutorService getDeploymentExecutor() {
+        if (deploymentExecutor == null) {
+            int concurrency = Math.max(1, getDeploymentConcurrency());
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency,
+                                                                 concurrency,
+                                                                 DEPLOYMENT_THREAD_KEEP_ALIVE,
+                                                                 TimeUnit.MILLISECONDS,
+                                                                 new LinkedBlockingQueue<>(),
+                                                                 new NamedThreadFactory("Deployment of node source " +
+                                                                                        nodeSource.getName()));
+            // idle deployment threads do not outlive the acquisitions
+            executor.allowCoreThreadTimeOut(true);
+            deploymentExecutor = executor;
+        }
+        return deploymentExecutor;
+    }
+
     private int getRetriesLeft(int retries) {
         int retriesLeft = (retries > 0) ? --retries : retries;
         return retriesLeft;
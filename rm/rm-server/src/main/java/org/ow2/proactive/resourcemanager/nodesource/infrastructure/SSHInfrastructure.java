@@ -224,7 +224,8 @@ public class SSHInfrastructure extends HostsFileBasedInfrastructureManager {
         final List<String> createdNodeNames = RMNodeStarter.getWorkersNodeNames(nodeName, nbNodes);
         depNodeURLs.addAll(addMultipleDeployingNodes(createdNodeNames,
                                                      obfuscatedCmdLine,
-                                                     "Deploying nodes on host " + hostTracker.getResolvedAddress(),
+                                                     "Deploying nodes on host " + hostTracker.getResolvedAddress() +
+                                                     getDeploymentAttemptDescription(hostTracker),
                                                      super.nodeTimeOut));
         addTimeouts(depNodeURLs);
 
@@ -382,6 +383,7 @@ public class SSHInfrastructure extends HostsFileBasedInfrastructureManager {
 
     @Override
     public void shutDown() {
+        super.shutDown();
         setShutdownFlag(true);
     }
 
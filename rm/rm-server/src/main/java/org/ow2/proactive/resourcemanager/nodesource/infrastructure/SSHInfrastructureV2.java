@@ -228,7 +228,8 @@ public class SSHInfrastructureV2 extends HostsFileBasedInfrastructureManager {
 
         JSch jsch = new JSch();
 
-        final String msg = "deploy on " + hostTracker.getResolvedAddress();
+        final String msg = "deploy on " + hostTracker.getResolvedAddress() +
+                           getDeploymentAttemptDescription(hostTracker);
 
         final List<String> createdNodeNames = RMNodeStarter.getWorkersNodeNames(nodeName, nbNodes);
         depNodeURLs.addAll(addMultipleDeployingNodes(createdNodeNames, obfuscatedCmdLine, msg, super.nodeTimeOut));
@@ -264,6 +265,9 @@ public class SSHInfrastructureV2 extends HostsFileBasedInfrastructureManager {
                 multipleDeclareDeployingNodeLost(depNodeURLs, "unable to " + msg + "\n" + getStackTraceAsString(e));
                 throw new RMException("unable to " + msg, e);
             }
+            for (String depNodeURL : depNodeURLs) {
+                updateDeployingNodeDescription(depNodeURL, msg + ": node process started, waiting for registration");
+            }
             final ChannelExec chan = channel;
             Future<Void> deployResult = deployService.submit(new Callable<Void>() {
                 @Override
@@ -426,6 +430,7 @@ public class SSHInfrastructureV2 extends HostsFileBasedInfrastructureManager {
 
     @Override
     public void shutDown() {
+        super.shutDown();
         shutDown.set(true);
     }
 
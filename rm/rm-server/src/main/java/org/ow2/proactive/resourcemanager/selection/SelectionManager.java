@@ -69,6 +69,7 @@ import org.ow2.proactive.scripting.SelectionScript;
 import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
 import org.ow2.proactive.utils.Criteria;
 import org.ow2.proactive.utils.NodeSet;
+import org.ow2.proactive.utils.NodeSetList;
 import org.ow2.proactive.utils.appenders.MultipleFileAppender;
 
 
@@ -89,6 +90,8 @@ public abstract class SelectionManager {
 
     private ExecutorService scriptExecutorThreadPool;
 
+    private ExecutorService criteriaExecutorThreadPool;
+
     private Set<String> inProgress;
 
     protected HashSet<String> authorizedSelectionScripts = null;
@@ -106,6 +109,8 @@ public abstract class SelectionManager {
         this.rmcore = rmcore;
         this.scriptExecutorThreadPool = Executors.newFixedThreadPool(PAResourceManagerProperties.RM_SELECTION_MAX_THREAD_NUMBER.getValueAsInt(),
                                                                      new NamedThreadFactory("Selection manager threadpool"));
+        this.criteriaExecutorThreadPool = Executors.newFixedThreadPool(PAResourceManagerProperties.RM_SELECTION_CRITERIA_THREAD_NUMBER.getValueAsInt(),
+                                                                       new NamedThreadFactory("Selection manager criteria threadpool"));
         this.inProgress = Collections.synchronizedSet(new HashSet<String>());
 
         String policyClassName = PAResourceManagerProperties.RM_SELECTION_POLICY.getValueAsString();
@@ -220,6 +225,46 @@ public abstract class SelectionManager {
 
     }
 
+    /**
+     * Selects nodes for several criteria at once. The nodes of all criteria
+     * are first looked up, then matched against the selection scripts of the
+     * criteria in parallel, and finally booked in the order of the criteria
+     * so that a node is never given to two of them.
+     *
+     * If the lookup or the matching of any criteria fails (e.g. topology
+     * disabled or unauthorized script), the exception is thrown before any
+     * node is booked.
+     *
+     * @param criteria the criteria to select nodes for
+     * @param client the client requesting the nodes
+     * @return the node sets selected for each criteria, in the same order
+     */
+    public NodeSetList selectNodes(List<Criteria> criteria, Client client) {
+        List<NodeSelection> selections = new ArrayList<>(criteria.size());
+        for (Criteria c : criteria) {
+            maybeSetLoggingContext(c);
+            try {
+                selections.add(prepareSelection(c, client));
+            } finally {
+                unsetLoggingContext();
+            }
+        }
+
+        matchNodes(selections);
+
+        NodeSetList nodeSets = new NodeSetList(selections.size());
+        Set<String> bookedNodes = new HashSet<>();
+        for (NodeSelection selection : selections) {
+            maybeSetLoggingContext(selection.criteria);
+            try {
+                nodeSets.add(bookNodes(selection, client, bookedNodes));
+            } finally {
+                unsetLoggingContext();
+            }
+        }
+        return nodeSets;
+    }
+
     static void maybeSetLoggingContext(Criteria criteria) {
         if (criteria.getComputationDescriptors() != null) {
             // logging selection script execution into tasks logs
@@ -232,11 +277,125 @@ public abstract class SelectionManager {
     }
 
     private NodeSet doSelectNodes(Criteria criteria, Client client) {
-        boolean hasScripts = criteria.getScripts() != null && criteria.getScripts().size() > 0;
+        NodeSelection selection = prepareSelection(criteria, client);
+        if (selection.candidates != null) {
+            selection.matchedNodes = findMatchingNodes(selection, client);
+        }
+        return bookNodes(selection, client, new HashSet<String>());
+    }
+
+    /**
+     * Matches the nodes of the given selections. The selections running
+     * selection scripts on disjoint candidate nodes are matched in parallel,
+     * the ones sharing candidate nodes are matched one after the other as a
+     * node runs the scripts of a single selection at a time.
+     */
+    private void matchNodes(List<NodeSelection> selections) {
+        List<NodeSelection> scriptedSelections = new ArrayList<>(selections.size());
+        for (NodeSelection selection : selections) {
+            if (selection.candidates == null) {
+                continue;
+            }
+            if (!selection.hasScripts) {
+                selection.matchedNodes = findMatchingNodes(selection, selection.client);
+                continue;
+            }
+            scriptedSelections.add(selection);
+        }
+
+        List<List<NodeSelection>> groups = groupOverlappingSelections(scriptedSelections);
+        if (groups.size() == 1) {
+            matchSequentially(groups.get(0));
+            return;
+        }
+
+        List<Callable<Void>> matchers = new ArrayList<>(groups.size());
+        for (final List<NodeSelection> group : groups) {
+            matchers.add(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    matchSequentially(group);
+                    return null;
+                }
+            });
+        }
+
+        Throwable failure = null;
+        try {
+            // all the matchers are completed, the failure of a matcher fails the whole request
+            for (Future<Void> future : criteriaExecutorThreadPool.invokeAll(matchers)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Interrupting the selection manager");
+            Thread.currentThread().interrupt();
+        }
+
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new IllegalStateException("Nodes matching failed", failure);
+        }
+    }
+
+    private void matchSequentially(List<NodeSelection> selections) {
+        for (NodeSelection selection : selections) {
+            maybeSetLoggingContext(selection.criteria);
+            try {
+                selection.matchedNodes = findMatchingNodes(selection, selection.client);
+            } finally {
+                unsetLoggingContext();
+            }
+        }
+    }
+
+    /**
+     * Groups the selections whose candidate nodes overlap, directly or
+     * through other selections. The order of the selections is kept inside
+     * each group.
+     */
+    private static List<List<NodeSelection>> groupOverlappingSelections(List<NodeSelection> selections) {
+        List<List<NodeSelection>> groups = new ArrayList<>();
+        List<Set<String>> groupsCandidates = new ArrayList<>();
+        for (NodeSelection selection : selections) {
+            Set<String> candidates = new HashSet<>();
+            for (RMNode node : selection.candidates) {
+                candidates.add(node.getNodeURL());
+            }
+            List<NodeSelection> group = new ArrayList<>();
+            // merging all the groups sharing a node with the selection,
+            // the earliest group ends up first
+            for (int i = groups.size() - 1; i >= 0; i--) {
+                if (!Collections.disjoint(groupsCandidates.get(i), candidates)) {
+                    candidates.addAll(groupsCandidates.remove(i));
+                    group.addAll(0, groups.remove(i));
+                }
+            }
+            group.add(selection);
+            groups.add(group);
+            groupsCandidates.add(candidates);
+        }
+        return groups;
+    }
+
+    /**
+     * Looks up and filters the free nodes which are candidates for the
+     * criteria. Does not run any selection script nor book any node.
+     */
+    private NodeSelection prepareSelection(Criteria criteria, Client client) {
+        NodeSelection selection = new NodeSelection(criteria, client);
         boolean loggerIsDebugEnabled = logger.isDebugEnabled();
         if (loggerIsDebugEnabled) {
             logger.debug(client + " requested " + criteria.getSize() + " nodes with " + criteria.getTopology());
-            if (hasScripts) {
+            if (selection.hasScripts) {
                 logger.debug("Selection scripts:");
                 for (SelectionScript s : criteria.getScripts()) {
                     logger.debug(s);
@@ -252,31 +411,48 @@ public abstract class SelectionManager {
         }
 
         // can throw Exception if topology is disabled
-        TopologyHandler handler = RMCore.topologyManager.getHandler(criteria.getTopology());
+        selection.handler = RMCore.topologyManager.getHandler(criteria.getTopology());
 
-        int totalNumberOfAliveNodesRightNow = rmcore.getTotalAliveNodesNumber();
+        selection.totalNumberOfAliveNodes = rmcore.getTotalAliveNodesNumber();
 
-        List<RMNode> freeNodes = rmcore.getFreeNodes();
+        // the core only returns the free nodes matching the acceptable
+        // urls, the node access token and the black list
+        List<RMNode> freeNodes = rmcore.getFreeNodes(criteria);
+        selection.freeNodesNumber = freeNodes.size();
         // filtering out the "free node list"
-        // removing exclusion and checking permissions
+        // checking permissions
         List<RMNode> filteredNodes = filterOut(freeNodes, criteria, client);
+        selection.filteredNodesNumber = filteredNodes.size();
 
         if (filteredNodes.size() == 0) {
             if (loggerIsDebugEnabled) {
                 logger.debug(client + " will get 0 nodes");
             }
-            return new NodeSet();
+            return selection;
         }
 
         // arranging nodes according to the selection policy
         // if could be shuffling or node source priorities
-        List<RMNode> afterPolicyNodes = selectionPolicy.arrangeNodes(criteria.getSize(), filteredNodes, client);
+        selection.candidates = selectionPolicy.arrangeNodes(criteria.getSize(), filteredNodes, client);
+        selection.afterPolicyNodesNumber = selection.candidates.size();
 
-        List<Node> matchedNodes;
-        if (hasScripts) {
+        if (selection.hasScripts) {
             // checking if all scripts are authorized
             checkAuthorizedScripts(criteria.getScripts());
+        }
+        return selection;
+    }
 
+    /**
+     * Finds the candidate nodes of the selection which match its selection
+     * scripts.
+     */
+    private List<Node> findMatchingNodes(NodeSelection selection, Client client) {
+        Criteria criteria = selection.criteria;
+        List<RMNode> afterPolicyNodes = selection.candidates;
+
+        List<Node> matchedNodes;
+        if (selection.hasScripts) {
             // arranging nodes for script execution
             List<RMNode> arrangedNodes = arrangeNodesForScriptExecution(afterPolicyNodes,
                                                                         criteria.getScripts(),
@@ -324,7 +500,7 @@ public abstract class SelectionManager {
                         break;
                     }
                 }
-                if (loggerIsDebugEnabled) {
+                if (logger.isDebugEnabled()) {
                     logger.debug(matchedNodes.size() + " nodes found after scripts execution for " + client);
                 }
             }
@@ -335,16 +511,41 @@ public abstract class SelectionManager {
                 matchedNodes.add(node.getNode());
             }
         }
+        return matchedNodes;
+    }
+
+    /**
+     * Selects a subset of the matched nodes of the selection according to
+     * its topology and marks it as busy. The nodes already booked are not
+     * selected again, the nodes booked by this call are added to them.
+     *
+     * @return the selected nodes or null if the client has disconnected
+     */
+    private NodeSet bookNodes(NodeSelection selection, Client client, Set<String> bookedNodes) {
+        Criteria criteria = selection.criteria;
+        if (selection.candidates == null) {
+            return new NodeSet();
+        }
+
+        List<Node> matchedNodes = selection.matchedNodes;
+        if (matchedNodes == null) {
+            matchedNodes = new LinkedList<>();
+        } else if (!bookedNodes.isEmpty()) {
+            List<Node> availableNodes = new LinkedList<>();
+            for (Node node : matchedNodes) {
+                if (!bookedNodes.contains(node.getNodeInformation().getURL())) {
+                    availableNodes.add(node);
+                }
+            }
+            matchedNodes = availableNodes;
+        }
 
         // now we have a list of nodes which match to selection scripts
         // selecting subset according to topology requirements
-        // TopologyHandler handler =
-        // RMCore.topologyManager.getHandler(topologyDescriptor);
-
-        if (criteria.getTopology().isTopologyBased() && loggerIsDebugEnabled) {
+        if (criteria.getTopology().isTopologyBased() && logger.isDebugEnabled()) {
             logger.debug("Filtering nodes with topology " + criteria.getTopology());
         }
-        NodeSet selectedNodes = handler.select(criteria.getSize(), matchedNodes);
+        NodeSet selectedNodes = selection.handler.select(criteria.getSize(), matchedNodes);
 
         if (selectedNodes.size() < criteria.getSize() && !criteria.isBestEffort()) {
             selectedNodes.clear();
@@ -353,30 +554,27 @@ public abstract class SelectionManager {
             }
         }
 
-        // the nodes are selected, now mark them as busy.
+        // the nodes are selected, now mark them as busy, including the extra selected nodes
+        List<String> selectedNodesUrls = new ArrayList<>(selectedNodes.size());
         for (Node node : selectedNodes) {
+            selectedNodesUrls.add(node.getNodeInformation().getURL());
+        }
+        if (selectedNodes.size() > 0 && selectedNodes.getExtraNodes() != null) {
+            for (Node node : selectedNodes.getExtraNodes()) {
+                selectedNodesUrls.add(node.getNodeInformation().getURL());
+            }
+        }
+        if (!selectedNodesUrls.isEmpty()) {
             try {
-                // Synchronous call
-                rmcore.setBusyNode(node.getNodeInformation().getURL(), client);
+                // synchronous call
+                rmcore.setBusyNodes(selectedNodesUrls, client);
+                bookedNodes.addAll(selectedNodesUrls);
             } catch (NotConnectedException e) {
                 // client has disconnected during getNodes request
                 logger.warn(e.getMessage(), e);
                 return null;
             }
         }
-        // marking extra selected nodes as busy
-        if (selectedNodes.size() > 0 && selectedNodes.getExtraNodes() != null) {
-            for (Node node : new LinkedList<>(selectedNodes.getExtraNodes())) {
-                try {
-                    // synchronous call
-                    rmcore.setBusyNode(node.getNodeInformation().getURL(), client);
-                } catch (NotConnectedException e) {
-                    // client has disconnected during getNodes request
-                    logger.warn(e.getMessage(), e);
-                    return null;
-                }
-            }
-        }
 
         if (logger.isInfoEnabled()) {
             String extraNodes = selectedNodes.getExtraNodes() != null && selectedNodes.getExtraNodes().size() > 0
@@ -387,14 +585,14 @@ public abstract class SelectionManager {
                                                                                                                   : "";
             logger.info(client + " requested " + criteria.getSize() + " nodes with " + criteria.getTopology() +
                         " and will get " + selectedNodes.size() + " nodes " + extraNodes +
-                        " [totalNumberOfAliveNodesRightNow:" + totalNumberOfAliveNodesRightNow + ";freeNodes:" +
-                        freeNodes.size() + ";filteredNodes:" + filteredNodes.size() + ";reordered after policy:" +
-                        afterPolicyNodes.size() + ";selection script present:" + hasScripts +
-                        ";nodes filtered by selection script:" + matchedNodes.size() + ";selectedNodes:" +
-                        selectedNodes.size() + "]");
+                        " [totalNumberOfAliveNodesRightNow:" + selection.totalNumberOfAliveNodes + ";freeNodes:" +
+                        selection.freeNodesNumber + ";filteredNodes:" + selection.filteredNodesNumber +
+                        ";reordered after policy:" + selection.afterPolicyNodesNumber + ";selection script present:" +
+                        selection.hasScripts + ";nodes filtered by selection script:" + matchedNodes.size() +
+                        ";selectedNodes:" + selectedNodes.size() + "]");
         }
 
-        if (loggerIsDebugEnabled) {
+        if (logger.isDebugEnabled()) {
             for (Node n : selectedNodes) {
                 logger.debug(n.getNodeInformation().getURL());
             }
@@ -450,20 +648,24 @@ public abstract class SelectionManager {
         // creating script executors object to be run in dedicated thread pool
         List<Callable<Node>> scriptExecutors = new LinkedList<>();
         synchronized (inProgress) {
-            if (inProgress.size() > 0) {
-                logger.warn(inProgress.size() + " nodes are in process of script execution");
-                for (String nodeName : inProgress) {
-                    logger.warn(nodeName);
-
-                }
-                logger.warn("Something is wrong on these nodes");
-            }
+            // selections sharing nodes are never matched concurrently, so a
+            // candidate still running scripts did not finish a previous
+            // execution
+            List<String> stuckNodes = new LinkedList<>();
             for (RMNode node : candidates) {
-                if (!inProgress.contains(node.getNodeURL())) {
-                    inProgress.add(node.getNodeURL());
+                if (inProgress.add(node.getNodeURL())) {
                     scriptExecutors.add(new ScriptExecutor(node, criteria, this));
+                } else {
+                    stuckNodes.add(node.getNodeURL());
                 }
             }
+            if (!stuckNodes.isEmpty()) {
+                logger.warn(stuckNodes.size() + " nodes are in process of script execution");
+                for (String nodeName : stuckNodes) {
+                    logger.warn(nodeName);
+                }
+                logger.warn("Something is wrong on these nodes");
+            }
         }
 
         try {
@@ -498,10 +700,6 @@ public abstract class SelectionManager {
      */
     private List<RMNode> filterOut(List<RMNode> freeNodes, Criteria criteria, Client client) {
 
-        NodeSet exclusion = criteria.getBlackList();
-
-        Set<String> inclusion = criteria.getAcceptableNodesUrls();
-
         boolean nodeWithTokenRequested = criteria.getNodeAccessToken() != null &&
                                          criteria.getNodeAccessToken().length() > 0;
 
@@ -514,9 +712,14 @@ public abstract class SelectionManager {
         }
 
         List<RMNode> filteredList = new ArrayList<>();
+        // nodes usually share a few permissions, each of them is checked once
         HashSet<Permission> clientPermissions = new HashSet<>();
+        HashSet<Permission> deniedPermissions = new HashSet<>();
         for (RMNode node : freeNodes) {
             // checking the permission
+            if (deniedPermissions.contains(node.getUserPermission())) {
+                continue;
+            }
             try {
                 if (!clientPermissions.contains(node.getUserPermission())) {
                     client.checkPermission(node.getUserPermission(),
@@ -527,6 +730,7 @@ public abstract class SelectionManager {
             } catch (SecurityException e) {
                 // client does not have an access to this node
                 logger.debug(e.getMessage());
+                deniedPermissions.add(node.getUserPermission());
                 continue;
             }
 
@@ -551,9 +755,7 @@ public abstract class SelectionManager {
                 }
             }
 
-            if (!contains(exclusion, node) && ((inclusion != null) ? inclusion.contains(node.getNodeURL()) : true)) {
-                filteredList.add(node);
-            }
+            filteredList.add(node);
         }
         return filteredList;
     }
@@ -655,38 +857,63 @@ public abstract class SelectionManager {
     }
 
     /**
-     * Handles shut down of the selection manager
+     * Indicates that a node has been registered in the resource manager, so
+     * that any knowledge about a previous node with the same url is
+     * discarded.
      */
-    public void shutdown() {
-        // shutdown the thread pool without waiting for script execution
-        // completions
-        scriptExecutorThreadPool.shutdownNow();
-        PAActiveObject.terminateActiveObject(false);
+    public void nodeRegistered(String nodeUrl) {
     }
 
     /**
-     * Return true if node contains the node set.
-     *
-     * @param nodeset
-     *            - a list of nodes to inspect
-     * @param node
-     *            - a node to find
-     * @return true if node contains the node set.
+     * Indicates that a node source has been deployed, so that any knowledge
+     * about the nodes of its previous deployment is discarded.
+     */
+    public void nodeSourceDeployed(String nodeSourceName) {
+    }
+
+    /**
+     * The state of a node selection for a single criteria, between the
+     * lookup of its candidate nodes and their booking.
      */
-    private boolean contains(NodeSet nodeset, RMNode node) {
-        if (nodeset == null)
-            return false;
+    private static class NodeSelection {
 
-        for (Node n : nodeset) {
-            try {
-                if (n.getNodeInformation().getURL().equals(node.getNodeURL())) {
-                    return true;
-                }
-            } catch (Exception e) {
-                continue;
-            }
+        private final Criteria criteria;
+
+        private final Client client;
+
+        private final boolean hasScripts;
+
+        private TopologyHandler handler;
+
+        // null if there is no node to select from
+        private List<RMNode> candidates;
+
+        private List<Node> matchedNodes;
+
+        private int totalNumberOfAliveNodes;
+
+        private int freeNodesNumber;
+
+        private int filteredNodesNumber;
+
+        private int afterPolicyNodesNumber;
+
+        private NodeSelection(Criteria criteria, Client client) {
+            this.criteria = criteria;
+            this.client = client;
+            this.hasScripts = criteria.getScripts() != null && criteria.getScripts().size() > 0;
         }
-        return false;
+    }
+
+    /**
+     * Handles shut down of the selection manager
+     */
+    public void shutdown() {
+        // shutdown the thread pool without waiting for script execution
+        // completions
+        scriptExecutorThreadPool.shutdownNow();
+        criteriaExecutorThreadPool.shutdownNow();
+        PAActiveObject.terminateActiveObject(false);
     }
 
 }
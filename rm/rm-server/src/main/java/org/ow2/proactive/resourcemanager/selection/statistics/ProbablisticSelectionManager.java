@@ -28,24 +28,38 @@ package org.ow2.proactive.resourcemanager.selection.statistics;
 import java.io.Serializable;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
 
 import org.apache.log4j.Logger;
+import org.objectweb.proactive.Body;
+import org.objectweb.proactive.InitActive;
 import org.objectweb.proactive.extensions.annotation.ActiveObject;
 import org.ow2.proactive.resourcemanager.core.RMCore;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+import org.ow2.proactive.resourcemanager.db.RMDBManager;
+import org.ow2.proactive.resourcemanager.db.SelectionScriptResultData;
 import org.ow2.proactive.resourcemanager.rmnode.RMNode;
 import org.ow2.proactive.resourcemanager.selection.SelectionManager;
 import org.ow2.proactive.scripting.InvalidScriptException;
 import org.ow2.proactive.scripting.ScriptResult;
 import org.ow2.proactive.scripting.SelectionScript;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.io.BaseEncoding;
+
 
 /**
  * An implementation of {@link SelectionManager} interface, based on
@@ -61,31 +75,139 @@ import org.ow2.proactive.scripting.SelectionScript;
  * gives an optimal strategy for scripts execution. For several scripts join probabilities
  * are calculated for each nodes.
  *
+ * The results of static scripts are persisted in database, so that they are
+ * not executed again on the nodes recovered after a restart of the RM.
+ *
  */
 @ActiveObject
-public class ProbablisticSelectionManager extends SelectionManager {
+public class ProbablisticSelectionManager extends SelectionManager implements InitActive {
 
     private final static Logger logger = Logger.getLogger(ProbablisticSelectionManager.class);
 
     // contains an information about already executed scripts
     // script digest => node => probability
-    private HashMap<String, HashMap<String, Probability>> probabilities;
+    // the cache is split in segments, one per selection thread, so that script results
+    // for different scripts are processed concurrently.
+    // in order to avoid OOM when the number of scripts exceeds the limit, the least recently
+    // used script (either predicted or executed) is removed from the knowledge base.
+    private Cache<String, ConcurrentMap<String, Probability>> probabilities;
+
+    // node url => node source name, for the nodes having script results
+    private ConcurrentMap<String, String> nodeSources = new ConcurrentHashMap<>();
 
-    // in order to avoid OOM when the number of scripts exceeds the limit
-    // we could :
-    // 1. Reset all the probabilities for all scripts (simple but long to recover performance)
-    // 2. Remove the oldest script execution results (too expensive and complicated)
-    //	  need to store the time, update it each time, then sort when removing
-    //    the system will be too CPU consuming working on the limit
-    // 3. Removed the oldest added script. For this we have this queue. 
-    private LinkedList<String> digestQueue = new LinkedList<>();
+    // set when the results of static scripts are persisted
+    private RMDBManager dbManager;
 
     public ProbablisticSelectionManager() {
     }
 
     public ProbablisticSelectionManager(RMCore rmcore) {
         super(rmcore);
-        this.probabilities = new HashMap<>();
+        this.probabilities = CacheBuilder.newBuilder()
+                                         .maximumSize(PAResourceManagerProperties.RM_SELECT_SCRIPT_CACHE_SIZE.getValueAsInt())
+                                         .concurrencyLevel(PAResourceManagerProperties.RM_SELECTION_MAX_THREAD_NUMBER.getValueAsInt())
+                                         .<String, ConcurrentMap<String, Probability>> removalListener(this::scriptRemoved)
+                                         .build();
+    }
+
+    /**
+     * Reloads the results of static scripts persisted during the previous
+     * execution of the RM.
+     */
+    @Override
+    public void initActivity(Body body) {
+        if (PAResourceManagerProperties.RM_SELECT_SCRIPT_CACHE_PERSISTENCE.getValueAsBoolean() &&
+            PAResourceManagerProperties.RM_NODES_RECOVERY.getValueAsBoolean()) {
+            setDbManager(RMDBManager.getInstance());
+        }
+    }
+
+    void setDbManager(RMDBManager dbManager) {
+        this.dbManager = dbManager;
+        if (dbManager != null) {
+            Collection<SelectionScriptResultData> results = dbManager.getAllSelectionScriptResults();
+            for (SelectionScriptResultData result : results) {
+                try {
+                    probabilities.get(result.getScriptDigest(), ConcurrentHashMap::new)
+                                 .put(result.getNodeUrl().intern(),
+                                      result.isPassed() ? Probability.ONE : Probability.ZERO);
+                    rememberNodeSource(result.getNodeUrl(), result.getNodeSourceName());
+                } catch (ExecutionException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+            logger.info(results.size() + " static selection script results recovered");
+        }
+    }
+
+    private void scriptRemoved(RemovalNotification<String, ConcurrentMap<String, Probability>> notification) {
+        if (notification.wasEvicted()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Removing the script: " + notification.getKey().hashCode() +
+                             " from the data base because the limit is reached");
+            }
+            if (dbManager != null) {
+                dbManager.removeSelectionScriptResultsOfScript(notification.getKey());
+            }
+        }
+    }
+
+    private void rememberNodeSource(String nodeUrl, String nodeSourceName) {
+        if (nodeSourceName != null) {
+            nodeSources.put(nodeUrl, nodeSourceName);
+        }
+    }
+
+    private static String digest(SelectionScript script) throws NoSuchAlgorithmException {
+        return BaseEncoding.base16().encode(script.digest());
+    }
+
+    /**
+     * Discards the script results of a node which has been registered again.
+     */
+    @Override
+    public void nodeRegistered(String nodeUrl) {
+        if (nodeSources.remove(nodeUrl) != null) {
+            removeNodes(nodeUrl::equals);
+            if (dbManager != null) {
+                dbManager.removeSelectionScriptResultsOfNode(nodeUrl);
+            }
+        }
+    }
+
+    /**
+     * Discards the script results of the nodes of a node source which has
+     * been deployed again.
+     */
+    @Override
+    public void nodeSourceDeployed(String nodeSourceName) {
+        Set<String> nodeUrls = new HashSet<>();
+        nodeSources.forEach((nodeUrl, name) -> {
+            if (nodeSourceName.equals(name)) {
+                nodeUrls.add(nodeUrl);
+            }
+        });
+        nodeSources.keySet().removeAll(nodeUrls);
+        if (!nodeUrls.isEmpty()) {
+            removeNodes(nodeUrls::contains);
+        }
+        if (dbManager != null) {
+            dbManager.removeSelectionScriptResultsOfNodeSource(nodeSourceName);
+        }
+    }
+
+    private void removeNodes(Predicate<String> nodeUrls) {
+        for (ConcurrentMap<String, Probability> nodeProbabilities : probabilities.asMap().values()) {
+            nodeProbabilities.keySet().removeIf(nodeUrls);
+        }
+    }
+
+    /**
+     * @return the probability known for the script on the node, or null if the script has never been executed on it
+     */
+    private Probability getProbability(String digest, String nodeUrl) {
+        Map<String, Probability> nodeProbabilities = probabilities.getIfPresent(digest);
+        return nodeProbabilities == null ? null : nodeProbabilities.get(nodeUrl);
     }
 
     /**
@@ -116,10 +238,10 @@ public class ProbablisticSelectionManager extends SelectionManager {
                 double intersectionProbability = 1;
                 for (SelectionScript script : scripts) {
                     SelectionScript scriptWithReplacedBindings = replaceBindings(script, bindings);
-                    String digest = new String(scriptWithReplacedBindings.digest());
-                    if (probabilities.containsKey(digest) &&
-                        probabilities.get(digest).containsKey(rmnode.getNodeURL())) {
-                        double probability = probabilities.get(digest).get(rmnode.getNodeURL()).value();
+                    String digest = digest(scriptWithReplacedBindings);
+                    Probability knownProbability = getProbability(digest, rmnode.getNodeURL());
+                    if (knownProbability != null) {
+                        double probability = knownProbability.value();
                         if (probability == 0) {
                             intersection = false;
                             break;
@@ -169,7 +291,7 @@ public class ProbablisticSelectionManager extends SelectionManager {
      * @return true if script will pass on the node
      */
     @Override
-    public synchronized boolean isPassed(SelectionScript script, Map<String, Serializable> bindings, RMNode rmnode) {
+    public boolean isPassed(SelectionScript script, Map<String, Serializable> bindings, RMNode rmnode) {
         String digest = null;
         SelectionScript scriptWithReplacedBindings = replaceBindings(script, bindings);
         if (logger.isTraceEnabled()) {
@@ -177,9 +299,9 @@ public class ProbablisticSelectionManager extends SelectionManager {
                          scriptWithReplacedBindings.getId());
         }
         try {
-            digest = new String(scriptWithReplacedBindings.digest());
-            if (probabilities.containsKey(digest) && probabilities.get(digest).containsKey(rmnode.getNodeURL())) {
-                Probability p = probabilities.get(digest).get(rmnode.getNodeURL());
+            digest = digest(scriptWithReplacedBindings);
+            Probability p = getProbability(digest, rmnode.getNodeURL());
+            if (p != null) {
                 String scriptType = scriptWithReplacedBindings.isDynamic() ? "dynamic" : "static";
                 if (logger.isDebugEnabled())
                     logger.debug(rmnode.getNodeURL() + " : " + digest.hashCode() + " known " + scriptType + " script");
@@ -204,68 +326,70 @@ public class ProbablisticSelectionManager extends SelectionManager {
      * @return whether node is selected
      */
     @Override
-    public synchronized boolean processScriptResult(SelectionScript script, Map<String, Serializable> bindings,
+    public boolean processScriptResult(SelectionScript script, Map<String, Serializable> bindings,
             ScriptResult<Boolean> scriptResult, RMNode rmnode) {
 
-        boolean result = false;
-
         SelectionScript scriptWithReplacedBindings = replaceBindings(script, bindings);
+        boolean result = scriptResult != null && !scriptResult.errorOccured() && scriptResult.getResult();
 
         try {
-            String digest = new String(scriptWithReplacedBindings.digest());
-            Probability probability = new Probability(Probability.defaultValue());
-            if (probabilities.containsKey(digest) && probabilities.get(digest).containsKey(rmnode.getNodeURL())) {
-                probability = probabilities.get(digest).get(rmnode.getNodeURL());
-                assert (probability.value() >= 0 && probability.value() <= 1);
-            }
-
-            if (scriptResult == null || scriptResult.errorOccured() || !scriptResult.getResult()) {
-                // error during script execution or script returned false
-                if (scriptWithReplacedBindings.isDynamic()) {
-                    probability.decrease();
-                } else {
-                    probability = Probability.ZERO;
-                }
-            } else {
-                // script passed
-                result = true;
-                if (scriptWithReplacedBindings.isDynamic()) {
-                    probability.increase();
-                } else {
-                    probability = Probability.ONE;
-                }
-            }
-
-            if (!probabilities.containsKey(digest)) {
-                // checking if the number of selection script does not exceeded the maximum
-                if (probabilities.size() >= PAResourceManagerProperties.RM_SELECT_SCRIPT_CACHE_SIZE.getValueAsInt()) {
-                    String oldest = digestQueue.poll();
-                    probabilities.remove(oldest);
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Removing the script: " + scriptWithReplacedBindings.hashCode() +
-                                     " from the data base because the limit is reached");
-                    }
-                }
-                // adding a new script record
-                probabilities.put(digest, new HashMap<String, Probability>());
-                logger.debug("Scripts cache size " + probabilities.size());
-                digestQueue.offer(digest);
+            String digest = digest(scriptWithReplacedBindings);
+            ConcurrentMap<String, Probability> nodeProbabilities = probabilities.get(digest,
+                                                                                     ConcurrentHashMap::new);
+            rememberNodeSource(rmnode.getNodeURL(), rmnode.getNodeSourceName());
+
+            // the probability of a node is only updated by one thread at a time
+            boolean[] changed = new boolean[1];
+            Probability probability = nodeProbabilities.compute(rmnode.getNodeURL().intern(), (nodeUrl, previous) -> {
+                Probability updated = updateProbability(previous, scriptWithReplacedBindings.isDynamic(), result);
+                changed[0] = previous != updated;
+                return updated;
+            });
+
+            // results of static scripts are only written when they change
+            if (dbManager != null && !scriptWithReplacedBindings.isDynamic() && changed[0]) {
+                dbManager.saveSelectionScriptResult(new SelectionScriptResultData(digest,
+                                                                                  rmnode.getNodeURL(),
+                                                                                  rmnode.getNodeSourceName(),
+                                                                                  result));
             }
 
             if (logger.isDebugEnabled()) {
                 logger.debug(rmnode.getNodeURL() + " : script " + scriptWithReplacedBindings.hashCode() +
-                             ", probability " + probability);
+                             ", probability " + probability + ", scripts cache size " + probabilities.size());
             }
 
-            probabilities.get(digest).put(rmnode.getNodeURL().intern(), probability);
-
-        } catch (NoSuchAlgorithmException e) {
+        } catch (NoSuchAlgorithmException | ExecutionException e) {
             logger.error(e.getMessage(), e);
         }
 
         return result;
     }
 
+    private Probability updateProbability(Probability probability, boolean dynamic, boolean passed) {
+        if (probability == null) {
+            probability = new Probability(Probability.defaultValue());
+        }
+        assert (probability.value() >= 0 && probability.value() <= 1);
+
+        if (!passed) {
+            // error during script execution or script returned false
+            if (dynamic) {
+                probability.decrease();
+            } else {
+                probability = Probability.ZERO;
+            }
+        } else {
+            // script passed
+            if (dynamic) {
+                probability.increase();
+            } else {
+                probability = Probability.ONE;
+            }
+        }
+        return probability;
+    }
+
     /**
      * @see org.ow2.proactive.authentication.Loggable#getLogger()
      */
@@ -0,0 +1,90 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Statistics about the delivery of the Resource Manager events to each of its
+ * listeners: the number of events waiting to be sent to the listener and the
+ * lag between the creation of the last delivered event and its delivery.
+ * <p>
+ * Listeners are written by the event dispatcher threads and read by the JMX
+ * clients, hence the concurrent maps.
+ */
+public final class RMEventDispatchStatistics {
+
+    private final Map<String, Integer> queueDepths = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> dispatchLags = new ConcurrentHashMap<>();
+
+    /**
+     * Updates the number of events waiting to be sent to a listener.
+     * @param listener the name of the listener
+     * @param queueDepth the number of pending events
+     */
+    public void queued(String listener, int queueDepth) {
+        queueDepths.put(listener, queueDepth);
+    }
+
+    /**
+     * Updates the statistics of a listener after a delivery.
+     * @param listener the name of the listener
+     * @param queueDepth the number of events still pending after the delivery
+     * @param dispatchLag the time elapsed between the creation of the delivered event and its delivery
+     */
+    public void delivered(String listener, int queueDepth, long dispatchLag) {
+        queueDepths.put(listener, queueDepth);
+        dispatchLags.put(listener, dispatchLag);
+    }
+
+    /**
+     * Forgets the statistics of a removed listener.
+     * @param listener the name of the listener
+     */
+    public void remove(String listener) {
+        queueDepths.remove(listener);
+        dispatchLags.remove(listener);
+    }
+
+    /**
+     * @return the number of events waiting to be sent, by listener
+     */
+    public Map<String, Integer> getQueueDepths() {
+        return new HashMap<>(queueDepths);
+    }
+
+    /**
+     * @return the lag of the last delivery in milliseconds, by listener
+     */
+    public Map<String, Long> getDispatchLags() {
+        return new HashMap<>(dispatchLags);
+    }
+
+}
@@ -48,6 +48,7 @@ import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProper
 import org.ow2.proactive.resourcemanager.db.NodeSourceData;
 import org.ow2.proactive.resourcemanager.db.RMDBManager;
 import org.ow2.proactive.resourcemanager.db.RMNodeData;
+import org.ow2.proactive.resourcemanager.db.SelectionScriptResultData;
 
 import com.google.common.collect.Sets;
 
@@ -388,6 +389,35 @@ public class RMDBManagerTest {
         }
     }
 
+    @Test
+    public void testSaveAndRemoveSelectionScriptResults() {
+        SelectionScriptResultData result1 = new SelectionScriptResultData("digest1", NODE_URL + "1", "ns1", true);
+        SelectionScriptResultData result2 = new SelectionScriptResultData("digest1", NODE_URL + "2", "ns2", true);
+        SelectionScriptResultData result3 = new SelectionScriptResultData("digest2", NODE_URL + "2", "ns2", false);
+        dbManager.saveSelectionScriptResult(result1);
+        dbManager.saveSelectionScriptResult(result2);
+        dbManager.saveSelectionScriptResult(result3);
+        // only the latest result of a script on a node is kept
+        dbManager.saveSelectionScriptResult(new SelectionScriptResultData("digest1", NODE_URL + "1", "ns1", false));
+
+        Collection<SelectionScriptResultData> results = dbManager.getAllSelectionScriptResults();
+        assertThat(results).containsExactly(result1, result2, result3);
+        for (SelectionScriptResultData result : results) {
+            if (result.equals(result1)) {
+                assertThat(result.isPassed()).isFalse();
+            }
+        }
+
+        dbManager.removeSelectionScriptResultsOfNode(NODE_URL + "1");
+        assertThat(dbManager.getAllSelectionScriptResults()).containsExactly(result2, result3);
+
+        dbManager.removeSelectionScriptResultsOfScript("digest2");
+        assertThat(dbManager.getAllSelectionScriptResults()).containsExactly(result2);
+
+        dbManager.removeSelectionScriptResultsOfNodeSource("ns2");
+        assertThat(dbManager.getAllSelectionScriptResults()).isEmpty();
+    }
+
     private void addNodeSourceData() {
         nodeSourceData = new NodeSourceData();
         nodeSourceData.setName(NODE_SOURCE_NAME_BASE);
@@ -0,0 +1,140 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.core;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.Collections.singleton;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.security.Permission;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.core.node.Node;
+import org.objectweb.proactive.core.node.NodeInformation;
+import org.ow2.proactive.authentication.principals.TokenPrincipal;
+import org.ow2.proactive.authentication.principals.UserNamePrincipal;
+import org.ow2.proactive.permissions.PrincipalPermission;
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+import org.ow2.proactive.utils.Criteria;
+import org.ow2.proactive.utils.NodeSet;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+
+public class FreeNodesIndexTest {
+
+    private static final Permission USER_PERMISSION = new PrincipalPermission("user",
+                                                                              singleton(new UserNamePrincipal("user")));
+
+    private static final Permission TOKEN_PERMISSION = new PrincipalPermission("token",
+                                                                               singleton(new TokenPrincipal("token")));
+
+    private RMNode node1;
+
+    private RMNode node2;
+
+    private RMNode protectedNode;
+
+    private FreeNodesIndex index;
+
+    @Before
+    public void setUp() {
+        node1 = createNode("url1", "ns1", USER_PERMISSION, false);
+        node2 = createNode("url2", "ns2", USER_PERMISSION, false);
+        protectedNode = createNode("url3", "ns2", TOKEN_PERMISSION, true);
+        index = new FreeNodesIndex(Lists.newArrayList(node1, node2, protectedNode));
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.add(node1)).isFalse();
+        assertThat(index.remove(node2)).isTrue();
+        assertThat(index.remove(node2)).isFalse();
+
+        assertThat(index.contains(node2)).isFalse();
+        assertThat(index.getNodes()).containsExactly(node1, protectedNode).inOrder();
+        assertThat(index.getNodesByNodeSource("ns2")).containsExactly(protectedNode);
+        assertThat(index.getCandidates(criteria())).containsExactly(node1, protectedNode).inOrder();
+    }
+
+    @Test
+    public void testNodesByNodeSource() {
+        assertThat(index.getNodesByNodeSource("ns1")).containsExactly(node1);
+        assertThat(index.getNodesByNodeSource("ns2")).containsExactly(node2, protectedNode).inOrder();
+        assertThat(index.getNodesByNodeSource("unknown")).isEmpty();
+    }
+
+    @Test
+    public void testCandidatesWithAcceptableUrls() {
+        Criteria criteria = criteria();
+        criteria.setAcceptableNodesUrls(ImmutableSet.of("url2", "unknown"));
+
+        assertThat(index.getCandidates(criteria)).containsExactly(node2);
+    }
+
+    @Test
+    public void testCandidatesWithToken() {
+        Criteria criteria = criteria();
+        criteria.setNodeAccessToken("token");
+        assertThat(index.getCandidates(criteria)).containsExactly(protectedNode);
+
+        criteria.setNodeAccessToken("otherToken");
+        assertThat(index.getCandidates(criteria)).isEmpty();
+    }
+
+    @Test
+    public void testCandidatesWithBlackList() {
+        Criteria criteria = criteria();
+        criteria.setBlackList(new NodeSet(Lists.newArrayList(node1.getNode())));
+
+        assertThat(index.getCandidates(criteria)).containsExactly(node2, protectedNode).inOrder();
+    }
+
+    private static Criteria criteria() {
+        return new Criteria(1);
+    }
+
+    private static RMNode createNode(String url, String nodeSourceName, Permission permission,
+            boolean protectedByToken) {
+        NodeInformation nodeInformation = mock(NodeInformation.class);
+        when(nodeInformation.getURL()).thenReturn(url);
+        Node node = mock(Node.class);
+        when(node.getNodeInformation()).thenReturn(nodeInformation);
+
+        RMNode rmNode = mock(RMNode.class);
+        when(rmNode.getNode()).thenReturn(node);
+        when(rmNode.getNodeURL()).thenReturn(url);
+        when(rmNode.getNodeSourceName()).thenReturn(nodeSourceName);
+        when(rmNode.getUserPermission()).thenReturn(permission);
+        when(rmNode.isProtectedByToken()).thenReturn(protectedByToken);
+        return rmNode;
+    }
+
+}
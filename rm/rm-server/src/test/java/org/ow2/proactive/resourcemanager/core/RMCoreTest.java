@@ -30,6 +30,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
@@ -635,7 +636,7 @@ public class RMCoreTest {
         assertThat(lockResult.getBooleanValue()).isTrue();
         assertThat(rmNode.getState()).isEqualTo(nodeState);
         assertThat(rmNode.isLocked()).isTrue();
-        assertThat(freeNodes).isEmpty();
+        assertThat(rmCore.getFreeNodes()).isEmpty();
     }
 
     @Test
@@ -774,6 +775,34 @@ public class RMCoreTest {
         verify(rmCore).internalSetFree(mockedRemovableNode);
     }
 
+    @Test
+    public void testSetBusyNodesEmitsEventsInOneRequest() {
+        Client owner = new Client(null, false);
+        RMCore.clients.put(owner.getId(), owner);
+        try {
+            rmCore.setBusyNodes(ImmutableList.of(mockedRemovableNode.getNodeURL(),
+                                                 mockedFreeButLockedNode.getNodeURL(),
+                                                 "unknownNode"),
+                                owner);
+
+            verify(mockedRemovableNode).setBusy(owner);
+            verify(mockedFreeButLockedNode).setBusy(owner);
+            verify(mockedMonitoring).nodeEvents(anyListOf(RMNodeEvent.class));
+        } finally {
+            RMCore.clients.remove(owner.getId());
+        }
+    }
+
+    @Test
+    public void testSetFreeNodesEmitsEventsInOneRequest() {
+        assertThat(rmCore.setFreeNodes(ImmutableList.of(mockedUnremovableNode, mockedBusyNode))
+                         .getBooleanValue()).isTrue();
+
+        verify(mockedUnremovableNode).setFree();
+        verify(mockedBusyNode).setFree();
+        verify(mockedMonitoring).nodeEvents(anyListOf(RMNodeEvent.class));
+    }
+
     @Test
     public void testRemoveAllNodesWithUnknownNodeSource() {
         nodeSources.clear();
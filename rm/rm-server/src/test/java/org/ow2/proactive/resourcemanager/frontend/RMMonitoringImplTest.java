@@ -0,0 +1,169 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.resourcemanager.frontend;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.objectweb.proactive.core.UniqueID;
+import org.ow2.proactive.resourcemanager.authentication.Client;
+import org.ow2.proactive.resourcemanager.common.NodeState;
+import org.ow2.proactive.resourcemanager.common.event.RMEvent;
+import org.ow2.proactive.resourcemanager.common.event.RMEventType;
+import org.ow2.proactive.resourcemanager.common.event.RMInitialState;
+import org.ow2.proactive.resourcemanager.common.event.RMNodeDescriptor;
+import org.ow2.proactive.resourcemanager.common.event.RMNodeEvent;
+import org.ow2.proactive.resourcemanager.core.RMCore;
+import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+
+
+public class RMMonitoringImplTest {
+
+    private static final long INITIAL_COUNTER = 10;
+
+    private ScheduledExecutorService eventDispatcherThreadPool;
+
+    private RMMonitoringImpl monitoring;
+
+    @Before
+    public void setUp() {
+        // long enough for all the events of a test to be queued in the same batch
+        PAResourceManagerProperties.RM_MONITORING_EVENTS_BATCH_WINDOW.updateProperty("500");
+        PAResourceManagerProperties.RM_MONITORING_EVENTS_COALESCE.updateProperty("true");
+
+        eventDispatcherThreadPool = Executors.newScheduledThreadPool(1);
+        monitoring = new RMMonitoringImpl(mockedRMCore(), eventDispatcherThreadPool);
+    }
+
+    @After
+    public void tearDown() {
+        eventDispatcherThreadPool.shutdownNow();
+        PAResourceManagerProperties.RM_MONITORING_EVENTS_BATCH_WINDOW.unSet();
+        PAResourceManagerProperties.RM_MONITORING_EVENTS_COALESCE.unSet();
+    }
+
+    @Test
+    public void testGroupListenerReceivesLastStateOfEachNodeInOneBatch() throws Exception {
+        RMGroupEventListener listener = mock(RMGroupEventListener.class);
+        monitoring.addRMEventListener(new UniqueID(), client(), listener);
+
+        monitoring.queueEvent(nodeEvent("node1", RMEventType.NODE_STATE_CHANGED, NodeState.BUSY));
+        monitoring.queueEvent(nodeEvent("node2", RMEventType.NODE_ADDED, NodeState.FREE));
+        monitoring.queueEvent(nodeEvent("node1", RMEventType.NODE_STATE_CHANGED, NodeState.FREE));
+        monitoring.queueEvent(nodeEvent("node3", RMEventType.NODE_STATE_CHANGED, NodeState.BUSY));
+        monitoring.queueEvent(nodeEvent("node2", RMEventType.NODE_STATE_CHANGED, NodeState.BUSY));
+        monitoring.queueEvent(nodeEvent("node1", RMEventType.NODE_STATE_CHANGED, NodeState.DOWN));
+
+        List<RMNodeEvent> delivered = deliveredEvents(listener);
+
+        assertThat(delivered).hasSize(4);
+        assertNodeEvent(delivered.get(0), "node2", RMEventType.NODE_ADDED, NodeState.FREE);
+        assertNodeEvent(delivered.get(1), "node3", RMEventType.NODE_STATE_CHANGED, NodeState.BUSY);
+        assertNodeEvent(delivered.get(2), "node2", RMEventType.NODE_STATE_CHANGED, NodeState.BUSY);
+        assertNodeEvent(delivered.get(3), "node1", RMEventType.NODE_STATE_CHANGED, NodeState.DOWN);
+        for (int i = 0; i < delivered.size(); i++) {
+            assertThat(delivered.get(i).getCounter()).isEqualTo(INITIAL_COUNTER + 1 + i);
+        }
+    }
+
+    @Test
+    public void testGroupListenerReceivesEveryEventWithoutCoalescing() throws Exception {
+        PAResourceManagerProperties.RM_MONITORING_EVENTS_COALESCE.updateProperty("false");
+        monitoring = new RMMonitoringImpl(mockedRMCore(), eventDispatcherThreadPool);
+        RMGroupEventListener listener = mock(RMGroupEventListener.class);
+        monitoring.addRMEventListener(new UniqueID(), client(), listener);
+
+        monitoring.queueEvent(nodeEvent("node1", RMEventType.NODE_STATE_CHANGED, NodeState.BUSY));
+        monitoring.queueEvent(nodeEvent("node1", RMEventType.NODE_STATE_CHANGED, NodeState.FREE));
+
+        List<RMNodeEvent> delivered = deliveredEvents(listener);
+
+        assertThat(delivered).hasSize(2);
+        assertNodeEvent(delivered.get(0), "node1", RMEventType.NODE_STATE_CHANGED, NodeState.BUSY);
+        assertNodeEvent(delivered.get(1), "node1", RMEventType.NODE_STATE_CHANGED, NodeState.FREE);
+        assertThat(delivered.get(0).getCounter()).isEqualTo(INITIAL_COUNTER + 1);
+        assertThat(delivered.get(1).getCounter()).isEqualTo(INITIAL_COUNTER + 2);
+    }
+
+    /**
+     * Waits for the single batch sent to the listener.
+     */
+    @SuppressWarnings("unchecked")
+    private List<RMNodeEvent> deliveredEvents(RMGroupEventListener listener) throws InterruptedException {
+        ArgumentCaptor<Collection> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(listener, timeout(5000)).notify(batch.capture());
+        // no other batch is sent once the pending events are delivered
+        Thread.sleep(1000);
+        verify(listener).notify(batch.capture());
+
+        List<RMNodeEvent> events = new ArrayList<>();
+        for (RMEvent event : (Collection<RMEvent>) batch.getValue()) {
+            events.add((RMNodeEvent) event);
+        }
+        return events;
+    }
+
+    private void assertNodeEvent(RMNodeEvent event, String nodeUrl, RMEventType type, NodeState state) {
+        assertThat(event.getNodeUrl()).isEqualTo(nodeUrl);
+        assertThat(event.getEventType()).isEqualTo(type);
+        assertThat(event.getNodeState()).isEqualTo(state);
+    }
+
+    private RMCore mockedRMCore() {
+        RMCore rmCore = mock(RMCore.class);
+        RMInitialState initialState = mock(RMInitialState.class);
+        when(initialState.getLatestCounter()).thenReturn(INITIAL_COUNTER);
+        when(rmCore.getRMInitialState()).thenReturn(initialState);
+        return rmCore;
+    }
+
+    private Client client() {
+        Client client = new Client();
+        client.setId(new UniqueID());
+        return client;
+    }
+
+    private RMNodeEvent nodeEvent(String nodeUrl, RMEventType type, NodeState state) {
+        RMNodeDescriptor descriptor = new RMNodeDescriptor();
+        descriptor.setNodeURL(nodeUrl);
+        descriptor.setState(state);
+        return new RMNodeEvent(descriptor, type, null, "initiator");
+    }
+
+}
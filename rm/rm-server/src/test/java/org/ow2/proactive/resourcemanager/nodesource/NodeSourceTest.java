@@ -30,12 +30,17 @@ import static functionaltests.utils.RMFunctionalTest.NODES_NOT_RECOVERABLE;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.Serializable;
 import java.security.Permission;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -139,6 +144,41 @@ public class NodeSourceTest {
         assertThat(nodeSource.getDownNodes()).hasSize(0);
     }
 
+    @Test
+    public void testPingNodesOnlyPingsSilentNodes() {
+        Node reportingNode = createNode("protocol://reporting/");
+        Node silentNode = createNode("protocol://silent/");
+        Node notReportingNode = createNode("protocol://not-reporting/");
+        long heartbeatPeriod = 30000;
+        long tolerance = PAResourceManagerProperties.RM_NODE_SOURCE_HEARTBEAT_TOLERANCE.getValueAsInt();
+        long now = System.currentTimeMillis();
+
+        NodeSource spyNodeSource = spy(nodeSource);
+        doNothing().when(spyNodeSource).pingNode(any(Node.class));
+
+        NodesHeartbeats.getInstance().record("protocol://reporting/", now - heartbeatPeriod);
+        NodesHeartbeats.getInstance().record("protocol://reporting/", now);
+        NodesHeartbeats.getInstance().record("protocol://silent/", now - 2 * heartbeatPeriod - tolerance - 1);
+        NodesHeartbeats.getInstance().record("protocol://silent/", now - heartbeatPeriod - tolerance - 1);
+
+        List<Node> aliveNodes = Arrays.asList(reportingNode, silentNode, notReportingNode);
+        try {
+            assertThat(spyNodeSource.pingNodes(aliveNodes, now, false)).isEqualTo(1);
+            verify(spyNodeSource).pingNode(silentNode);
+            verify(spyNodeSource, never()).pingNode(reportingNode);
+            verify(spyNodeSource, never()).pingNode(notReportingNode);
+
+            // the silent node is then pinged with the nodes which do not report their availability
+            assertThat(spyNodeSource.pingNodes(aliveNodes, now, true)).isEqualTo(2);
+            verify(spyNodeSource).pingNode(notReportingNode);
+            verify(spyNodeSource, times(2)).pingNode(silentNode);
+            verify(spyNodeSource, never()).pingNode(reportingNode);
+        } finally {
+            NodesHeartbeats.getInstance().forget("protocol://reporting/");
+            NodesHeartbeats.getInstance().forget("protocol://silent/");
+        }
+    }
+
     @Test
     public void testNodeSourceReconfigurationModifiesDescriptor() {
 
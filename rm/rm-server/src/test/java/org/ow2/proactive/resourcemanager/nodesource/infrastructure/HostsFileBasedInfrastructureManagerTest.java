@@ -83,6 +83,25 @@ public class HostsFileBasedInfrastructureManagerTest {
         assertThat(retryCounter, is(retries + 1));
     }
 
+    @Test
+    public void testWaitBeforeRetryDoublesUpToMaximumFactor() {
+        hostsFileBasedInfrastructureManager.waitBetweenDeploymentFailures = 1000;
+
+        assertThat(hostsFileBasedInfrastructureManager.getWaitBeforeRetry(1), is(1000L));
+        assertThat(hostsFileBasedInfrastructureManager.getWaitBeforeRetry(2), is(2000L));
+        assertThat(hostsFileBasedInfrastructureManager.getWaitBeforeRetry(3), is(4000L));
+        // default maximum back-off factor is 16
+        assertThat(hostsFileBasedInfrastructureManager.getWaitBeforeRetry(5), is(16000L));
+        assertThat(hostsFileBasedInfrastructureManager.getWaitBeforeRetry(100), is(16000L));
+    }
+
+    @Test
+    public void testNoWaitBeforeRetryWhenWaitTimeIsZero() {
+        hostsFileBasedInfrastructureManager.waitBetweenDeploymentFailures = 0;
+
+        assertThat(hostsFileBasedInfrastructureManager.getWaitBeforeRetry(4), is(0L));
+    }
+
     private HostsFileBasedInfrastructureManager createTestClass() {
 
         return new HostsFileBasedInfrastructureManager() {
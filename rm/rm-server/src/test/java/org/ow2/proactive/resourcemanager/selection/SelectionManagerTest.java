@@ -27,18 +27,22 @@ package org.ow2.proactive.resourcemanager.selection;
 
 import static java.util.Collections.singleton;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.Serializable;
 import java.security.Permission;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.security.auth.Subject;
 
@@ -62,6 +66,7 @@ import org.ow2.proactive.scripting.SelectionScript;
 import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
 import org.ow2.proactive.utils.Criteria;
 import org.ow2.proactive.utils.NodeSet;
+import org.ow2.proactive.utils.NodeSetList;
 import org.ow2.proactive.utils.Subjects;
 
 import com.google.common.collect.Lists;
@@ -91,7 +96,7 @@ public class SelectionManagerTest {
         ArrayList<RMNode> freeNodes = new ArrayList<>();
         freeNodes.add(createMockedNode("admin"));
         freeNodes.add(createMockedNode("user"));
-        when(rmCore.getFreeNodes()).thenReturn(freeNodes);
+        when(rmCore.getFreeNodes(any(Criteria.class))).thenReturn(freeNodes);
 
         Criteria criteria = new Criteria(2);
         criteria.setTopology(TopologyDescriptor.ARBITRARY);
@@ -157,10 +162,142 @@ public class SelectionManagerTest {
         crit.setBestEffort(false);
         Client mockedClient = mock(Client.class);
         selectionManager.selectNodes(crit, mockedClient);
-        verify(rmCore, never()).setBusyNode(anyString(), any(Client.class));
+        verify(rmCore, never()).setBusyNodes(anyCollectionOf(String.class), any(Client.class));
 
     }
 
+    @Test
+    public void testSelectNodesForSeveralCriteria() {
+        RMCore rmCore = newMockedRMCore(10);
+        TopologyManager mockedTopologyManager = Mockito.mock(TopologyManager.class);
+        when(mockedTopologyManager.getHandler(Matchers.any(TopologyDescriptor.class))).thenReturn(selectFirstTopology());
+        RMCore.topologyManager = mockedTopologyManager;
+        SelectionManager selectionManager = createSelectionManager(rmCore);
+
+        List<Criteria> criteria = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Criteria crit = new Criteria(4);
+            crit.setTopology(TopologyDescriptor.ARBITRARY);
+            crit.setBestEffort(true);
+            criteria.add(crit);
+        }
+
+        Client mockedClient = mock(Client.class);
+        NodeSetList nodeSets = selectionManager.selectNodes(criteria, mockedClient);
+
+        assertEquals(3, nodeSets.size());
+        assertEquals(4, nodeSets.get(0).size());
+        assertEquals(4, nodeSets.get(1).size());
+        assertEquals(2, nodeSets.get(2).size());
+        Set<String> selectedUrls = new HashSet<>();
+        for (NodeSet nodeSet : nodeSets) {
+            selectedUrls.addAll(nodeSet.getAllNodesUrls());
+        }
+        assertEquals(10, selectedUrls.size());
+        verify(rmCore, times(3)).setBusyNodes(anyCollectionOf(String.class), any(Client.class));
+    }
+
+    @Test
+    public void testSelectNodesForSeveralCriteriaWithOverlappingCandidatesAndScripts() {
+        RMCore rmCore = newMockedRMCore(4);
+        TopologyManager mockedTopologyManager = Mockito.mock(TopologyManager.class);
+        when(mockedTopologyManager.getHandler(Matchers.any(TopologyDescriptor.class))).thenReturn(selectFirstTopology());
+        RMCore.topologyManager = mockedTopologyManager;
+        SelectionManager selectionManager = createSlowlyMatchingSelectionManager(rmCore);
+
+        // both criteria are candidates for the same 4 nodes
+        List<Criteria> criteria = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Criteria crit = new Criteria(2);
+            crit.setTopology(TopologyDescriptor.ARBITRARY);
+            crit.setScripts(Lists.newArrayList(new SelectionScript()));
+            crit.setBestEffort(false);
+            criteria.add(crit);
+        }
+
+        Client mockedClient = mock(Client.class);
+        NodeSetList nodeSets = selectionManager.selectNodes(criteria, mockedClient);
+
+        assertEquals(2, nodeSets.size());
+        assertEquals(2, nodeSets.get(0).size());
+        assertEquals(2, nodeSets.get(1).size());
+        Set<String> selectedUrls = new HashSet<>();
+        for (NodeSet nodeSet : nodeSets) {
+            selectedUrls.addAll(nodeSet.getAllNodesUrls());
+        }
+        assertEquals(4, selectedUrls.size());
+    }
+
+    @Test
+    public void testSelectNodesForSeveralCriteriaFailsWhenMatchingFails() {
+        RMCore rmCore = newMockedRMCore(4);
+        SelectionManager selectionManager = new SelectionManager(rmCore) {
+            @Override
+            public List<RMNode> arrangeNodesForScriptExecution(List<RMNode> nodes, List<SelectionScript> scripts,
+                    Map<String, Serializable> bindings) {
+                throw new IllegalStateException("matching failure");
+            }
+
+            @Override
+            public boolean isPassed(SelectionScript script, Map<String, Serializable> bindings, RMNode rmnode) {
+                return true;
+            }
+
+            @Override
+            public boolean processScriptResult(SelectionScript script, Map<String, Serializable> bindings,
+                    ScriptResult<Boolean> scriptResult, RMNode rmnode) {
+                return true;
+            }
+        };
+
+        List<Criteria> criteria = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Criteria crit = new Criteria(2);
+            crit.setTopology(TopologyDescriptor.ARBITRARY);
+            crit.setScripts(Lists.newArrayList(new SelectionScript()));
+            crit.setBestEffort(false);
+            criteria.add(crit);
+        }
+
+        try {
+            selectionManager.selectNodes(criteria, mock(Client.class));
+            fail("The failure of the nodes matching should fail the request");
+        } catch (IllegalStateException e) {
+            assertEquals("matching failure", e.getMessage());
+        }
+        verify(rmCore, never()).setBusyNodes(anyCollectionOf(String.class), any(Client.class));
+    }
+
+    /**
+     * Creates a selection manager whose scripts pass on every node after a
+     * while, so that the scripts of concurrent selections overlap in time.
+     */
+    private static SelectionManager createSlowlyMatchingSelectionManager(final RMCore rmCore) {
+        return new SelectionManager(rmCore) {
+            @Override
+            public List<RMNode> arrangeNodesForScriptExecution(List<RMNode> nodes, List<SelectionScript> scripts,
+                    Map<String, Serializable> bindings) {
+                return new ArrayList<>(nodes);
+            }
+
+            @Override
+            public boolean isPassed(SelectionScript script, Map<String, Serializable> bindings, RMNode rmnode) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+
+            @Override
+            public boolean processScriptResult(SelectionScript script, Map<String, Serializable> bindings,
+                    ScriptResult<Boolean> scriptResult, RMNode rmnode) {
+                return true;
+            }
+        };
+    }
+
     private SecurityManager securityManagerRejectingUser() {
         return new SecurityManager() {
 
@@ -209,6 +346,15 @@ public class SelectionManagerTest {
         };
     }
 
+    private static TopologyHandler selectFirstTopology() {
+        return new TopologyHandler() {
+            @Override
+            public NodeSet select(int number, List<Node> matchedNodes) {
+                return new NodeSet(matchedNodes.subList(0, Math.min(number, matchedNodes.size())));
+            }
+        };
+    }
+
     public static RMCore newMockedRMCore() {
         return newMockedRMCore(0);
     }
@@ -224,7 +370,7 @@ public class SelectionManagerTest {
             for (int i = 0; i < nbNodes; i++) {
                 freeNodes.add(createMockeNode("user", "mocked-node-" + (i + 1), "mocked-node-" + (i + 1)));
             }
-            when(mockedRMCore.getFreeNodes()).thenReturn(freeNodes);
+            when(mockedRMCore.getFreeNodes(any(Criteria.class))).thenReturn(freeNodes);
         }
 
         return mockedRMCore;
@@ -26,6 +26,11 @@
 package org.ow2.proactive.resourcemanager.selection.statistics;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.Serializable;
@@ -34,6 +39,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.log4j.BasicConfigurator;
 import org.apache.log4j.Level;
@@ -42,8 +50,11 @@ import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.ow2.proactive.resourcemanager.core.RMCore;
 import org.ow2.proactive.resourcemanager.core.properties.PAResourceManagerProperties;
+import org.ow2.proactive.resourcemanager.db.RMDBManager;
+import org.ow2.proactive.resourcemanager.db.SelectionScriptResultData;
 import org.ow2.proactive.resourcemanager.rmnode.RMNode;
 import org.ow2.proactive.resourcemanager.selection.SelectionManager;
 import org.ow2.proactive.resourcemanager.selection.SelectionManagerTest;
@@ -305,12 +316,131 @@ public class ProbabilisticSelectionManagerTest {
         Assert.assertFalse(selectionManager.isPassed(script, bindings, freeNodes.get(0)));
     }
 
+    @Test
+    public void testLeastRecentlyUsedScriptIsEvicted() throws Exception {
+        PAResourceManagerProperties.RM_SELECT_SCRIPT_CACHE_SIZE.updateProperty("2");
+        try {
+            SelectionScript first = new SelectionScript("first", "groovy", false);
+            SelectionScript second = new SelectionScript("second", "groovy", false);
+            SelectionScript third = new SelectionScript("third", "groovy", false);
+            ManagerObjects managerObjects = new ManagerObjects(1).invoke();
+            SelectionManager selectionManager = managerObjects.getSelectionManager();
+            RMNode node = managerObjects.getFreeNodes().get(0);
+
+            selectionManager.processScriptResult(first, Collections.EMPTY_MAP, new ScriptResult<>(true), node);
+            selectionManager.processScriptResult(second, Collections.EMPTY_MAP, new ScriptResult<>(true), node);
+            // the first script is now the most recently used one
+            Assert.assertTrue(selectionManager.isPassed(first, Collections.EMPTY_MAP, node));
+            selectionManager.processScriptResult(third, Collections.EMPTY_MAP, new ScriptResult<>(true), node);
+
+            Assert.assertTrue(selectionManager.isPassed(first, Collections.EMPTY_MAP, node));
+            Assert.assertFalse(selectionManager.isPassed(second, Collections.EMPTY_MAP, node));
+            Assert.assertTrue(selectionManager.isPassed(third, Collections.EMPTY_MAP, node));
+        } finally {
+            PAResourceManagerProperties.RM_SELECT_SCRIPT_CACHE_SIZE.updateProperty("10000");
+        }
+    }
+
+    @Test
+    public void testConcurrentScriptResults() throws Exception {
+        int nbNodes = 20;
+        int nbScripts = 10;
+        ManagerObjects managerObjects = new ManagerObjects(nbNodes).invoke();
+        SelectionManager selectionManager = managerObjects.getSelectionManager();
+        ArrayList<RMNode> freeNodes = managerObjects.getFreeNodes();
+        List<SelectionScript> scripts = new ArrayList<>(nbScripts);
+        for (int i = 0; i < nbScripts; i++) {
+            scripts.add(new SelectionScript("script" + i, "groovy", false));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (SelectionScript script : scripts) {
+            for (RMNode node : freeNodes) {
+                futures.add(executor.submit(() -> selectionManager.processScriptResult(script,
+                                                                                       Collections.EMPTY_MAP,
+                                                                                       new ScriptResult<>(true),
+                                                                                       node)));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        for (SelectionScript script : scripts) {
+            for (RMNode node : freeNodes) {
+                Assert.assertTrue(selectionManager.isPassed(script, Collections.EMPTY_MAP, node));
+            }
+        }
+    }
+
+    @Test
+    public void testStaticScriptResultsArePersistedAndRecovered() throws Exception {
+        SelectionScript staticScript = new SelectionScript("static", "groovy", false);
+        SelectionScript dynamicScript = new SelectionScript("dynamic", "groovy", true);
+        RMDBManager dbManager = mock(RMDBManager.class);
+        ManagerObjects managerObjects = new ManagerObjects(1).invoke();
+        ProbablisticSelectionManager selectionManager = managerObjects.getSelectionManager();
+        selectionManager.setDbManager(dbManager);
+        RMNode node = managerObjects.getFreeNodes().get(0);
+        when(node.getNodeSourceName()).thenReturn("ns");
+
+        selectionManager.processScriptResult(staticScript, Collections.EMPTY_MAP, new ScriptResult<>(true), node);
+        selectionManager.processScriptResult(staticScript, Collections.EMPTY_MAP, new ScriptResult<>(true), node);
+        selectionManager.processScriptResult(dynamicScript, Collections.EMPTY_MAP, new ScriptResult<>(true), node);
+
+        // only the first result of the static script is a change to persist
+        ArgumentCaptor<SelectionScriptResultData> savedResult;
+        savedResult = ArgumentCaptor.forClass(SelectionScriptResultData.class);
+        verify(dbManager, times(1)).saveSelectionScriptResult(savedResult.capture());
+        assertEquals("ns", savedResult.getValue().getNodeSourceName());
+        assertEquals(node.getNodeURL(), savedResult.getValue().getNodeUrl());
+        Assert.assertTrue(savedResult.getValue().isPassed());
+
+        // a new selection manager knows the static script result
+        RMDBManager recoveredDbManager = mock(RMDBManager.class);
+        when(recoveredDbManager.getAllSelectionScriptResults())
+                                                               .thenReturn(Collections.singletonList(savedResult.getValue()));
+        ProbablisticSelectionManager recoveredSelectionManager = new ManagerObjects(1).invoke().getSelectionManager();
+        recoveredSelectionManager.setDbManager(recoveredDbManager);
+        Assert.assertTrue(recoveredSelectionManager.isPassed(staticScript, Collections.EMPTY_MAP, node));
+        Assert.assertFalse(recoveredSelectionManager.isPassed(dynamicScript, Collections.EMPTY_MAP, node));
+
+        // until the node registers again
+        recoveredSelectionManager.nodeRegistered(node.getNodeURL());
+        Assert.assertFalse(recoveredSelectionManager.isPassed(staticScript, Collections.EMPTY_MAP, node));
+        verify(recoveredDbManager).removeSelectionScriptResultsOfNode(node.getNodeURL());
+        verify(recoveredDbManager, never()).saveSelectionScriptResult(any(SelectionScriptResultData.class));
+    }
+
+    @Test
+    public void testScriptResultsAreDiscardedWhenNodeSourceIsDeployed() throws Exception {
+        SelectionScript script = new SelectionScript("static", "groovy", false);
+        RMDBManager dbManager = mock(RMDBManager.class);
+        ManagerObjects managerObjects = new ManagerObjects(2).invoke();
+        ProbablisticSelectionManager selectionManager = managerObjects.getSelectionManager();
+        selectionManager.setDbManager(dbManager);
+        RMNode node1 = managerObjects.getFreeNodes().get(0);
+        RMNode node2 = managerObjects.getFreeNodes().get(1);
+        when(node1.getNodeSourceName()).thenReturn("ns1");
+        when(node2.getNodeSourceName()).thenReturn("ns2");
+
+        selectionManager.processScriptResult(script, Collections.EMPTY_MAP, new ScriptResult<>(true), node1);
+        selectionManager.processScriptResult(script, Collections.EMPTY_MAP, new ScriptResult<>(true), node2);
+        selectionManager.nodeSourceDeployed("ns1");
+
+        Assert.assertFalse(selectionManager.isPassed(script, Collections.EMPTY_MAP, node1));
+        Assert.assertTrue(selectionManager.isPassed(script, Collections.EMPTY_MAP, node2));
+        verify(dbManager).removeSelectionScriptResultsOfNodeSource("ns1");
+    }
+
     private class ManagerObjects {
         private int nbNodes;
 
         private ArrayList<RMNode> freeNodes;
 
-        private SelectionManager selectionManager;
+        private ProbablisticSelectionManager selectionManager;
 
         public ManagerObjects(int nbNodes) {
             this.nbNodes = nbNodes;
@@ -320,7 +450,7 @@ public class ProbabilisticSelectionManagerTest {
             return freeNodes;
         }
 
-        public SelectionManager getSelectionManager() {
+        public ProbablisticSelectionManager getSelectionManager() {
             return selectionManager;
         }
 
@@ -333,7 +463,7 @@ public class ProbabilisticSelectionManagerTest {
                                                                    "mocked-node-" + (i + 1),
                                                                    "mocked-node-" + (i + 1)));
             }
-            when(rmCore.getFreeNodes()).thenReturn(freeNodes);
+            when(rmCore.getFreeNodes(any(Criteria.class))).thenReturn(freeNodes);
 
             selectionManager = new ProbablisticSelectionManager(rmCore);
 
@@ -36,6 +36,8 @@ public class Page<T extends Serializable> implements Serializable {
 
     private ArrayList<T> list;
 
+    private String nextCursor;
+
     public Page() {
 
     }
@@ -45,6 +47,18 @@ public class Page<T extends Serializable> implements Serializable {
         this.size = size;
     }
 
+    /**
+     * Creates a page of a cursor (keyset) paginated list. The total number of elements
+     * is not computed for such lists, the size of the page is the number of elements it contains.
+     *
+     * @param list the elements of the page
+     * @param nextCursor the cursor to use to get the next page, null if this page is the last one
+     */
+    public Page(List<T> list, String nextCursor) {
+        this(list, list.size());
+        this.nextCursor = nextCursor;
+    }
+
     public int getSize() {
         return size;
     }
@@ -61,9 +75,21 @@ public class Page<T extends Serializable> implements Serializable {
         this.list = new ArrayList<T>(list);
     }
 
+    /**
+     * @return the cursor to use to get the page following this one, or null if this page is the
+     * last one or if the list is not paginated with a cursor
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     @Override
     public String toString() {
-        return "TaskPage{" + "size=" + size + ", list='" + list + '\'' + '}';
+        return "TaskPage{" + "size=" + size + ", list='" + list + '\'' + ", nextCursor=" + nextCursor + '}';
     }
 
 }
@@ -659,6 +659,32 @@ public interface Scheduler extends SchedulerUsage, ThirdPartyCredentials {
     TaskResult getTaskResult(String jobId, String taskName)
             throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException;
 
+    /**
+     * Get the handle of the value of the last result of the given task, when
+     * this value is large enough to be kept in the results store of the
+     * scheduler rather than in its database.<br>
+     * The handle allows a process sharing the results store directory of the
+     * scheduler, such as the REST server, to stream the serialized value
+     * without loading it in memory.
+     *
+     * @param jobId
+     *            the job in which the task result is.
+     * @param taskName
+     *            the name of the task in which the result is.
+     * @return the handle of the serialized value, or null if the task is not
+     *         terminated or if its value is kept in the database.
+     * @throws NotConnectedException
+     *             if you are not authenticated.
+     * @throws UnknownJobException
+     *             if the job does not exist.
+     * @throws UnknownTaskException
+     *             if this task does not exist in the job.
+     * @throws PermissionException
+     *             if you can't access to this particular job.
+     */
+    String getTaskResultValueHandle(String jobId, String taskName)
+            throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException;
+
     /**
      * Get the results for a set of tasks in the given jobId and filtered by a
      * given tag. A user can only get HIS result back.<br>
@@ -1358,6 +1384,30 @@ public interface Scheduler extends SchedulerUsage, ThirdPartyCredentials {
     Page<JobInfo> getJobs(int offset, int limit, JobFilterCriteria filterCriteria,
             List<SortParameter<JobSortParameter>> sortParameters) throws NotConnectedException, PermissionException;
 
+    /**
+     * Retrieves a job list of the scheduler, paginated with a cursor: unlike
+     * {@link #getJobs(int, int, JobFilterCriteria, List)}, the cost of fetching
+     * a page does not depend on its position in the list. Jobs are sorted by
+     * decreasing id, and the total number of jobs is not computed.
+     *
+     * @param cursor
+     *            the cursor returned with the previous page (see
+     *            {@link Page#getNextCursor()}), or null to get the first page
+     * @param limit
+     *            max number of jobs to retrieve
+     * @param filterCriteria
+     *            defines types of job (myonly, pending, running, finished),
+     *            see {@link #getJobs(int, int, JobFilterCriteria, List)}
+     *
+     * @return jobs list according to all criteria and the cursor of the next page
+     * @throws NotConnectedException
+     *             if you are not authenticated.
+     * @throws PermissionException
+     *             if you have not enough permission to access this method.
+     */
+    Page<JobInfo> getJobsByCursor(String cursor, int limit, JobFilterCriteria filterCriteria)
+            throws NotConnectedException, PermissionException;
+
     /**
      * Returns a list of jobs info corresponding to the given job IDs (in the same order)
      *
@@ -1416,6 +1466,42 @@ public interface Scheduler extends SchedulerUsage, ThirdPartyCredentials {
     Page<TaskId> getTaskIds(String taskTag, long from, long to, boolean mytasks, boolean running, boolean pending,
             boolean finished, int offset, int limit) throws NotConnectedException, PermissionException;
 
+    /**
+     * Retrieve a tasks names list from the scheduler, paginated with a cursor.
+     * Tasks are sorted by job id and task id, and the total number of tasks
+     * is not computed.
+     *
+     * @param taskTag
+     *            a complete tag to use to filter tasks
+     * @param from
+     *            the starting date to fetch tasks from. The format is in Epoch
+     *            time.
+     * @param to
+     *            the end date to stop fetching tasks. The format is in Epoch
+     *            time.
+     * @param mytasks
+     *            <code>True</code> will only fetch the user tasks,
+     *            <code>False</code> will fetch everyones.
+     * @param running
+     *            fetch the running tasks.
+     * @param pending
+     *            fetch the pending tasks.
+     * @param finished
+     *            fetch the finished tasks.
+     * @param cursor
+     *            the cursor returned with the previous page (see
+     *            {@link Page#getNextCursor()}), or null to get the first page
+     * @param limit
+     *            the maximum number of tasks in the page.
+     * @return the page of tasks names satisfying the given criterias, and the
+     *         cursor of the next page.
+     * @throws NotConnectedException
+     * @throws PermissionException
+     */
+    Page<TaskId> getTaskIdsByCursor(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException;
+
     /**
      * Retrieve a taskstates list from the scheduler.
      * 
@@ -1450,6 +1536,42 @@ public interface Scheduler extends SchedulerUsage, ThirdPartyCredentials {
             boolean finished, int offset, int limit, SortSpecifierContainer sortParams)
             throws NotConnectedException, PermissionException;
 
+    /**
+     * Retrieve a taskstates list from the scheduler, paginated with a cursor.
+     * Tasks are sorted by job id and task id, and the total number of tasks
+     * is not computed.
+     *
+     * @param taskTag
+     *            a complete tag to use to filter tasks
+     * @param from
+     *            the starting date to fetch tasks from. The format is in Epoch
+     *            time.
+     * @param to
+     *            the end date to stop fetching tasks. The format is in Epoch
+     *            time.
+     * @param mytasks
+     *            <code>True</code> will only fetch the user tasks,
+     *            <code>False</code> will fetch everyones.
+     * @param running
+     *            fetch the running tasks.
+     * @param pending
+     *            fetch the pending tasks.
+     * @param finished
+     *            fetch the finished tasks.
+     * @param cursor
+     *            the cursor returned with the previous page (see
+     *            {@link Page#getNextCursor()}), or null to get the first page
+     * @param limit
+     *            the maximum number of tasks in the page.
+     * @return the page of taskstates satisfying the given criterias, and the
+     *         cursor of the next page.
+     * @throws NotConnectedException
+     * @throws PermissionException
+     */
+    Page<TaskState> getTaskStatesByCursor(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException;
+
     /**
      * Retrieve a job info by it id.
      * 
@@ -0,0 +1,264 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+
+
+/**
+ * Content-addressed store of the serialized values of task results, used to keep
+ * the large values out of the database.
+ * <p>
+ * A value is deflated into a file named after the SHA-256 digest of its content.
+ * The digest is the handle kept in the database instead of the value, and a value
+ * stored several times is written once. Values are written and read as streams,
+ * so that a value is never held in memory to be downloaded.
+ * <p>
+ * Storing a value which is already stored updates the modification time of its
+ * file. A task result referencing a value is not visible to the other
+ * transactions before it is committed, so the values are only deleted when they
+ * were not stored again during {@link #UNUSED_VALUE_GRACE_PERIOD}.
+ *
+ * @author ActiveEon Team
+ */
+public class TaskResultValueStore {
+
+    private static final Logger logger = Logger.getLogger(TaskResultValueStore.class);
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final Pattern HANDLE_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String REMOVED_FILE_SUFFIX = ".removed";
+
+    /**
+     * Time (in ms) during which a value is kept after being stored, even when no task result references it
+     */
+    public static final long UNUSED_VALUE_GRACE_PERIOD = TimeUnit.MINUTES.toMillis(10);
+
+    private final File directory;
+
+    private final int threshold;
+
+    /**
+     * @param directory the directory of the store, created on the first write
+     * @param threshold size in bytes from which a value is written to the store, 0 or less to keep all values in the database
+     */
+    public TaskResultValueStore(File directory, int threshold) {
+        this.directory = directory;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Creates the store configured by pa.scheduler.db.results.store.dir and pa.scheduler.db.results.store.threshold.
+     */
+    public static TaskResultValueStore createUsingProperties() {
+        String directory = PASchedulerProperties.getAbsolutePath(PASchedulerProperties.SCHEDULER_DB_RESULTS_STORE_DIR.getValueAsString());
+        return new TaskResultValueStore(new File(directory),
+                                        PASchedulerProperties.SCHEDULER_DB_RESULTS_STORE_THRESHOLD.getValueAsInt());
+    }
+
+    /**
+     * @return true if the given serialized value must be written to the store rather than to the database
+     */
+    public boolean accepts(byte[] serializedValue) {
+        return serializedValue != null && threshold > 0 && serializedValue.length >= threshold;
+    }
+
+    public String store(byte[] serializedValue) throws IOException {
+        return store(new ByteArrayInputStream(serializedValue));
+    }
+
+    /**
+     * Writes the given value to the store, the stream is read until its end but not closed.
+     *
+     * @param serializedValue the content of the value
+     * @return the handle of the value
+     * @throws IOException if the value cannot be written
+     */
+    public String store(InputStream serializedValue) throws IOException {
+        Files.createDirectories(directory.toPath());
+        Path temporaryFile = Files.createTempFile(directory.toPath(), "value", ".tmp");
+        try {
+            DigestInputStream digestStream = new DigestInputStream(serializedValue, newDigest());
+            try (OutputStream output = new DeflaterOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile),
+                                                                                         BUFFER_SIZE))) {
+                IOUtils.copyLarge(digestStream, output, new byte[BUFFER_SIZE]);
+            }
+            String handle = DatatypeConverter.printHexBinary(digestStream.getMessageDigest().digest()).toLowerCase();
+            Path file = path(handle);
+            // same content already stored, unless it is being deleted
+            if (!touch(file)) {
+                Files.createDirectories(file.getParent());
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return handle;
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Opens the value of the given handle, the caller is responsible for closing the stream.
+     *
+     * @param handle the handle returned when the value was stored
+     * @return a stream on the uncompressed content of the value
+     * @throws FileNotFoundException if the store does not contain the value
+     * @throws IOException if the value cannot be read
+     */
+    public InputStream open(String handle) throws IOException {
+        Path file = path(handle);
+        if (!Files.exists(file)) {
+            throw new FileNotFoundException("Task result value " + handle + " not found in " + directory);
+        }
+        return new InflaterInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+    }
+
+    /**
+     * Reads the whole value of the given handle in memory.
+     */
+    public byte[] read(String handle) throws IOException {
+        try (InputStream input = open(handle)) {
+            return IOUtils.toByteArray(input);
+        }
+    }
+
+    /**
+     * Deletes the value of the given handle, the handle must not be referenced anymore.
+     *
+     * @return true if the value was deleted, false if it did not exist
+     */
+    public boolean delete(String handle) {
+        try {
+            return Files.deleteIfExists(path(handle));
+        } catch (IOException e) {
+            logger.warn("Could not delete task result value " + handle, e);
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the value of the given handle unless it was stored again since the given time. The handle
+     * must not be referenced anymore by the committed task results.
+     *
+     * @param handle the handle of the value
+     * @param time the time from which a stored value is kept
+     * @return true if the value was deleted, false if it did not exist or was stored since the given time
+     */
+    public boolean deleteIfUnusedSince(String handle, long time) {
+        Path file = path(handle);
+        Path removedFile = file.resolveSibling(handle + REMOVED_FILE_SUFFIX);
+        try {
+            if (Files.getLastModifiedTime(file).toMillis() >= time) {
+                return false;
+            }
+            // moved aside before being checked again, the value may be stored again meanwhile
+            Files.move(file, removedFile, StandardCopyOption.ATOMIC_MOVE);
+            if (Files.getLastModifiedTime(removedFile).toMillis() >= time) {
+                if (!Files.exists(file)) {
+                    Files.move(removedFile, file, StandardCopyOption.ATOMIC_MOVE);
+                }
+                Files.deleteIfExists(removedFile);
+                return false;
+            }
+            Files.delete(removedFile);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            logger.warn("Could not delete task result value " + handle, e);
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the store contains the value of the given handle
+     */
+    public boolean contains(String handle) {
+        return Files.exists(path(handle));
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private Path path(String handle) {
+        if (handle == null || !HANDLE_PATTERN.matcher(handle).matches()) {
+            throw new IllegalArgumentException("Invalid task result value handle: " + handle);
+        }
+        // spreads the files over sub directories named after the first bytes of the digest
+        return directory.toPath().resolve(handle.substring(0, 2)).resolve(handle);
+    }
+
+    /**
+     * Updates the modification time of the given file.
+     *
+     * @return false if the file does not exist
+     */
+    private static boolean touch(Path file) throws IOException {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
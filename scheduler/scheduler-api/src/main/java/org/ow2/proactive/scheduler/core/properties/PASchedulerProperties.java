@@ -106,6 +106,12 @@ public enum PASchedulerProperties implements PACommonProperties {
     /** The timeout - to be used in minutes - for the scheduler state to be fully recovered */
     SCHEDULER_PARALLEL_SCHEDULER_STATE_RECOVER_TIMEOUT("pa.scheduler.core.parallel.scheduler.state.recover.timeout", PropertyType.INTEGER, "60"),
 
+    /** The number of threads used to load the pages of jobs from the database in parallel at scheduler start up */
+    SCHEDULER_PARALLEL_SCHEDULER_STATE_RECOVER_LOAD_NBTHREAD("pa.scheduler.core.parallel.scheduler.state.recover.load.nbthreads", PropertyType.INTEGER, "4"),
+
+    /** Whether finished jobs are recovered in background once the scheduler is started, instead of before it starts */
+    SCHEDULER_RECOVER_FINISHED_JOBS_LAZILY("pa.scheduler.core.recover.finished.jobs.lazily", PropertyType.BOOLEAN, "true"),
+
     /** Name of the JMX MBean for the scheduler */
     SCHEDULER_JMX_CONNECTOR_NAME("pa.scheduler.core.jmx.connectorname", PropertyType.STRING, "JMXSchedulerAgent"),
 
@@ -132,6 +138,20 @@ public enum PASchedulerProperties implements PACommonProperties {
      * until the scheduling loop will block as well.*/
     SCHEDULER_STARTTASK_THREADNUMBER("pa.scheduler.core.starttask.threadnumber", PropertyType.INTEGER, "5"),
 
+    /** Maximum number of task launchers created concurrently by a scheduling loop */
+    SCHEDULER_STARTTASK_DEPLOYMENT_THREADNUMBER(
+            "pa.scheduler.core.starttask.deployment.threadnumber",
+            PropertyType.INTEGER,
+            "10"),
+
+    /** Maximum number of groups of compatible tasks whose nodes are requested in a single call to the resource manager */
+    SCHEDULER_RM_GETNODES_BATCH_SIZE("pa.scheduler.core.rm.getnodes.batchsize", PropertyType.INTEGER, "10"),
+
+    /** Reserve nodes for the oldest multi-node task which cannot be started, and only backfill tasks which,
+     * according to their walltime, will terminate before enough nodes are available for the reserved task.
+     * When disabled, tasks needing more nodes than currently available are skipped and may starve. */
+    SCHEDULER_MULTINODE_BACKFILLING("pa.scheduler.core.multinode.backfilling", PropertyType.BOOLEAN, "false"),
+
     /** Maximum number of threads used to send events to clients. This property defines the number of clients
      * than can block at the same time. If this number is reached, every clients won't receive events until
      * a thread unlock. */
@@ -198,6 +218,12 @@ public enum PASchedulerProperties implements PACommonProperties {
 
     SCHEDULER_FINISHED_JOBS_LRU_CACHE_SIZE("pa.scheduler.finishedjobs.lru.cache.size", PropertyType.INTEGER, "1000"),
 
+    /** Maximum number of tasks of the finished jobs stored in the LRU cache */
+    SCHEDULER_FINISHED_JOBS_LRU_CACHE_MAX_TASKS("pa.scheduler.finishedjobs.lru.cache.max.tasks", PropertyType.INTEGER, "100000"),
+
+    /** If true, finished jobs are kept in memory as summaries, without their tasks */
+    SCHEDULER_FINISHED_JOBS_SUMMARIES("pa.scheduler.finishedjobs.summaries", PropertyType.BOOLEAN, "false"),
+
     /* ***************************************************************** */
     /* ************************ TASKS PROPERTIES *********************** */
     /* ***************************************************************** */
@@ -373,6 +399,58 @@ public enum PASchedulerProperties implements PACommonProperties {
 
     SCHEDULER_DB_FETCH_TASK_RESULTS_BATCH_SIZE("pa.scheduler.db.fetch.batch_size", PropertyType.INTEGER, "50"),
 
+    /**
+     * Number of statements grouped in a single JDBC batch when writing to the database
+     * (used when hibernate.jdbc.batch_size is not set in the hibernate configuration).
+     * A value of 0 or less disables JDBC batching.
+     */
+    SCHEDULER_DB_JDBC_BATCH_SIZE("pa.scheduler.db.jdbc.batch_size", PropertyType.INTEGER, "50"),
+
+    /**
+     * Delay in milliseconds during which the task state updates of the scheduling loop (job counters
+     * of started tasks, scheduled, start and finished times) are buffered in order to be written in batches.
+     * Updates which matter for recovery (task started, termination, restart, job state changes) are
+     * always written synchronously, together with the pending updates of their job.
+     * A value of 0 writes every update synchronously.
+     */
+    SCHEDULER_DB_TASK_UPDATES_DELAY("pa.scheduler.db.task.updates.delay", PropertyType.INTEGER, "100"),
+
+    /** Number of pending task state updates above which they are written without waiting for the delay */
+    SCHEDULER_DB_TASK_UPDATES_MAX_PENDING("pa.scheduler.db.task.updates.max.pending", PropertyType.INTEGER, "1000"),
+
+    /**
+     * Maximum number of jobs removed from the database in a single transaction by the housekeeping.
+     * Removals are executed in the background, chunk by chunk.
+     */
+    SCHEDULER_DB_HOUSEKEEPING_CHUNK_SIZE("pa.scheduler.db.housekeeping.chunk.size", PropertyType.INTEGER, "50"),
+
+    /** Delay in milliseconds between two chunks of jobs removed by the housekeeping */
+    SCHEDULER_DB_HOUSEKEEPING_CHUNK_DELAY("pa.scheduler.db.housekeeping.chunk.delay", PropertyType.INTEGER, "100"),
+
+    /**
+     * Delay in milliseconds between two chunks of jobs removed by the housekeeping, used instead of
+     * pa.scheduler.db.housekeeping.chunk.delay while task state updates of the scheduling loop are waiting to be written.
+     */
+    SCHEDULER_DB_HOUSEKEEPING_BUSY_DELAY("pa.scheduler.db.housekeeping.busy.delay", PropertyType.INTEGER, "1000"),
+
+    /** Directory (relative to home directory) where the large task result values are stored out of the database */
+    SCHEDULER_DB_RESULTS_STORE_DIR("pa.scheduler.db.results.store.dir", PropertyType.STRING, "data/results"),
+
+    /**
+     * Size in bytes from which a serialized task result value is written to the results store instead of the database.
+     * 0 or a negative value keeps all the values in the database.
+     */
+    SCHEDULER_DB_RESULTS_STORE_THRESHOLD("pa.scheduler.db.results.store.threshold", PropertyType.INTEGER, "1048576"),
+
+    /**
+     * Time in milliseconds during which the statistics of the scheduler read from the database are cached.
+     * The cache is also invalidated by each write to the database. 0 disables the cache.
+     */
+    SCHEDULER_DB_STATISTICS_CACHE_TTL("pa.scheduler.db.statistics.cache.ttl", PropertyType.INTEGER, "1000"),
+
+    /** Maximum number of finished jobs whose statistics are cached until the jobs are removed */
+    SCHEDULER_DB_STATISTICS_CACHE_FINISHED_JOBS("pa.scheduler.db.statistics.cache.finished.jobs", PropertyType.INTEGER, "10000"),
+
     /* ***************************************************************** */
     /* ***************** EMAIL NOTIFICATION PROPERTIES ***************** */
     /* ***************************************************************** */
@@ -402,9 +480,16 @@ public enum PASchedulerProperties implements PACommonProperties {
     /* ***************** SYNCHRONIZATION STORE PROPERTIES ************** */
     /* ***************************************************************** */
 
-    /** location of the jdbm database for persistent channels */
+    /** location of the database for persistent channels */
     SCHEDULER_SYNCHRONIZATION_DATABASE("pa.scheduler.synchronization.db", PropertyType.STRING, "data/synchronization"),
 
+    /** maximum delay in milliseconds before a modification of a persistent channel is written to disk, the
+     * modifications made during this delay are written together. 0 writes each modification before returning. */
+    SCHEDULER_SYNCHRONIZATION_DATABASE_COMMIT_PERIOD(
+            "pa.scheduler.synchronization.db.commit.period",
+            PropertyType.INTEGER,
+            "10"),
+
     /* ***************************************************************** */
     /* ******************* PORTAL DISPLAY PROPERTIES ******************* */
     /* ***************************************************************** */
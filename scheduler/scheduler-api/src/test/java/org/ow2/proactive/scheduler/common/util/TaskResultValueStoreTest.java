@@ -0,0 +1,139 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.common.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+/**
+ * Unit tests related to {@link TaskResultValueStore}.
+ *
+ * @author ActiveEon Team
+ */
+public class TaskResultValueStoreTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private TaskResultValueStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new TaskResultValueStore(new File(tmpFolder.getRoot(), "results"), 1024);
+    }
+
+    @Test
+    public void testAccepts() {
+        assertThat(store.accepts(null)).isFalse();
+        assertThat(store.accepts(new byte[1023])).isFalse();
+        assertThat(store.accepts(new byte[1024])).isTrue();
+        assertThat(new TaskResultValueStore(tmpFolder.getRoot(), 0).accepts(new byte[1024])).isFalse();
+    }
+
+    @Test
+    public void testStoreAndOpen() throws Exception {
+        byte[] value = randomValue(100000);
+
+        String handle = store.store(value);
+
+        try (InputStream input = store.open(handle)) {
+            assertThat(Arrays.equals(IOUtils.toByteArray(input), value)).isTrue();
+        }
+        assertThat(Arrays.equals(store.read(handle), value)).isTrue();
+    }
+
+    @Test
+    public void testSameValueIsStoredOnce() throws Exception {
+        byte[] value = randomValue(5000);
+
+        String handle = store.store(value);
+
+        assertThat(store.store(value.clone())).isEqualTo(handle);
+        assertThat(store.store(randomValue(5000))).isNotEqualTo(handle);
+        assertThat(new File(store.getDirectory(), handle.substring(0, 2)).list()).hasLength(1);
+    }
+
+    @Test
+    public void testValueIsCompressed() throws Exception {
+        String handle = store.store(new byte[100000]);
+
+        File file = new File(new File(store.getDirectory(), handle.substring(0, 2)), handle);
+        assertThat(file.length()).isLessThan(1000L);
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testDelete() throws Exception {
+        String handle = store.store(randomValue(2000));
+
+        assertThat(store.delete(handle)).isTrue();
+        assertThat(store.delete(handle)).isFalse();
+
+        store.open(handle);
+    }
+
+    @Test
+    public void testRecentlyStoredValueIsNotDeleted() throws Exception {
+        byte[] value = randomValue(2000);
+        String handle = store.store(value);
+        File file = new File(new File(store.getDirectory(), handle.substring(0, 2)), handle);
+        assertThat(file.setLastModified(System.currentTimeMillis() - 60000)).isTrue();
+        long unusedSince = System.currentTimeMillis() - 30000;
+
+        // stored again by another result
+        store.store(value.clone());
+        assertThat(store.deleteIfUnusedSince(handle, unusedSince)).isFalse();
+        assertThat(store.contains(handle)).isTrue();
+
+        assertThat(file.setLastModified(System.currentTimeMillis() - 60000)).isTrue();
+        assertThat(store.deleteIfUnusedSince(handle, unusedSince)).isTrue();
+        assertThat(store.contains(handle)).isFalse();
+        assertThat(store.deleteIfUnusedSince(handle, unusedSince)).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidHandle() throws Exception {
+        store.open("../../etc/passwd");
+    }
+
+    private static byte[] randomValue(int size) {
+        byte[] value = new byte[size];
+        new Random().nextBytes(value);
+        return value;
+    }
+
+}
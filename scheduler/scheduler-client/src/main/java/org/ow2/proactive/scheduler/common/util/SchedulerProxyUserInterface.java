@@ -294,6 +294,13 @@ public class SchedulerProxyUserInterface implements Scheduler, Serializable {
         return uischeduler.getTaskResult(jobId, taskName);
     }
 
+    @Override
+    public String getTaskResultValueHandle(String jobId, String taskName)
+            throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
+        checkSchedulerConnection();
+        return uischeduler.getTaskResultValueHandle(jobId, taskName);
+    }
+
     @Override
     public TaskResult getTaskResult(JobId jobId, String taskName)
             throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
@@ -593,6 +600,12 @@ public class SchedulerProxyUserInterface implements Scheduler, Serializable {
         return uischeduler.getJobs(index, range, filterCriteria, sortParameters);
     }
 
+    @Override
+    public Page<JobInfo> getJobsByCursor(String cursor, int limit, JobFilterCriteria filterCriteria)
+            throws NotConnectedException, PermissionException {
+        return uischeduler.getJobsByCursor(cursor, limit, filterCriteria);
+    }
+
     @Override
     public List<JobInfo> getJobsInfoList(List<String> jobsId) throws PermissionException, NotConnectedException {
         return uischeduler.getJobsInfoList(jobsId);
@@ -659,6 +672,20 @@ public class SchedulerProxyUserInterface implements Scheduler, Serializable {
                                          sortParams);
     }
 
+    @Override
+    public Page<TaskId> getTaskIdsByCursor(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        return uischeduler.getTaskIdsByCursor(taskTag, from, to, mytasks, running, pending, finished, cursor, limit);
+    }
+
+    @Override
+    public Page<TaskState> getTaskStatesByCursor(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        return uischeduler.getTaskStatesByCursor(taskTag, from, to, mytasks, running, pending, finished, cursor, limit);
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         return uischeduler.getJobInfo(jobId);
@@ -70,9 +70,20 @@ public class ClientJobState extends JobState {
 
     private int maxNumberOfExecution;
 
+    private boolean summary;
+
     public ClientJobState(JobState jobState) {
-        List<TaskState> taskStates = jobState.getTasks();
+        this(jobState, true);
+    }
+
+    /**
+     * @param jobState the job state to copy
+     * @param withTasks if false, the tasks are not copied and the created state is only a summary of the job
+     */
+    public ClientJobState(JobState jobState, boolean withTasks) {
+        List<TaskState> taskStates = withTasks ? jobState.getTasks() : new ArrayList<>(0);
         this.tasks = new HashMap<>(taskStates.size());
+        this.summary = !withTasks;
 
         // converting internal job into a light job descriptor
         jobInfo = (JobInfoImpl) jobState.getJobInfo();
@@ -148,7 +159,7 @@ public class ClientJobState extends JobState {
         }
         // add new or modify existing tasks
         // additions and modifications can be caused by control flow actions
-        if (this.jobInfo.getModifiedTasks() != null) {
+        if (this.jobInfo.getModifiedTasks() != null && !summary) {
             addTasks(this.jobInfo.getModifiedTasks());
         }
 
@@ -159,6 +170,13 @@ public class ClientJobState extends JobState {
         return jobInfo;
     }
 
+    /**
+     * @return true if this state does not contain the tasks of the job, only its information
+     */
+    public boolean isSummary() {
+        return summary;
+    }
+
     @Override
     public ArrayList<TaskState> getTasks() {
         return new ArrayList<>(tasks.values());
@@ -404,6 +404,13 @@ public class SchedulerNodeClient implements ISchedulerClient, Serializable {
         return client.getTaskResult(jobId, taskName);
     }
 
+    @Override
+    public String getTaskResultValueHandle(String jobId, String taskName)
+            throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
+        renewSession();
+        return client.getTaskResultValueHandle(jobId, taskName);
+    }
+
     @Override
     public List<TaskResult> getTaskResultsByTag(JobId jobId, String taskTag)
             throws NotConnectedException, UnknownJobException, PermissionException {
@@ -631,6 +638,13 @@ public class SchedulerNodeClient implements ISchedulerClient, Serializable {
         return client.getJobs(offset, limit, filterCriteria, sortParameters);
     }
 
+    @Override
+    public Page<JobInfo> getJobsByCursor(String cursor, int limit, JobFilterCriteria filterCriteria)
+            throws NotConnectedException, PermissionException {
+        renewSession();
+        return client.getJobsByCursor(cursor, limit, filterCriteria);
+    }
+
     @Override
     public List<JobInfo> getJobsInfoList(List<String> jobsId) throws PermissionException, NotConnectedException {
         renewSession();
@@ -665,6 +679,22 @@ public class SchedulerNodeClient implements ISchedulerClient, Serializable {
         return client.getTaskStates(taskTag, from, to, mytasks, running, pending, finished, offset, limit, sortParams);
     }
 
+    @Override
+    public Page<TaskId> getTaskIdsByCursor(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        renewSession();
+        return client.getTaskIdsByCursor(taskTag, from, to, mytasks, running, pending, finished, cursor, limit);
+    }
+
+    @Override
+    public Page<TaskState> getTaskStatesByCursor(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        renewSession();
+        return client.getTaskStatesByCursor(taskTag, from, to, mytasks, running, pending, finished, cursor, limit);
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         renewSession();
@@ -0,0 +1,120 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Counters describing the memory used by the finished jobs of the frontend state. They are
+ * updated by {@link SchedulerFrontendState} and read by the JMX runtime MBean.
+ *
+ * @author The ProActive Team
+ */
+public class FinishedJobsStatistics {
+
+    private static FinishedJobsStatistics instance = null;
+
+    /** Number of finished jobs which are only kept in memory as summaries */
+    private final AtomicLong summarizedJobs = new AtomicLong();
+
+    /** Number of task states which are not kept in memory because their job is summarized */
+    private final AtomicLong summarizedTasks = new AtomicLong();
+
+    /** Number of full finished job states currently held by the cache */
+    private volatile int cachedJobs;
+
+    /** Number of task states currently held by the cache */
+    private volatile long cachedTasks;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    FinishedJobsStatistics() {
+    }
+
+    public static synchronized FinishedJobsStatistics getInstance() {
+        if (instance == null) {
+            instance = new FinishedJobsStatistics();
+        }
+        return instance;
+    }
+
+    /**
+     * @param tasks the number of tasks of the job which are not kept in memory
+     */
+    void jobSummarized(int tasks) {
+        summarizedJobs.incrementAndGet();
+        summarizedTasks.addAndGet(tasks);
+    }
+
+    /**
+     * @param tasks the number of tasks of the removed job summary
+     */
+    void summaryRemoved(int tasks) {
+        summarizedJobs.decrementAndGet();
+        summarizedTasks.addAndGet(-tasks);
+    }
+
+    void cacheUpdated(int jobs, long tasks) {
+        cachedJobs = jobs;
+        cachedTasks = tasks;
+    }
+
+    void cacheHit() {
+        cacheHits.incrementAndGet();
+    }
+
+    void cacheMiss() {
+        cacheMisses.incrementAndGet();
+    }
+
+    public long getSummarizedJobsCount() {
+        return summarizedJobs.get();
+    }
+
+    public long getSummarizedTasksCount() {
+        return summarizedTasks.get();
+    }
+
+    public int getCachedJobsCount() {
+        return cachedJobs;
+    }
+
+    public long getCachedTasksCount() {
+        return cachedTasks;
+    }
+
+    public long getCacheHitsCount() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMissesCount() {
+        return cacheMisses.get();
+    }
+
+}
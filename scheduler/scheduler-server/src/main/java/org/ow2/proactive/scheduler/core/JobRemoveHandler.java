@@ -25,6 +25,7 @@
  */
 package org.ow2.proactive.scheduler.core;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -96,9 +97,13 @@ public class JobRemoveHandler implements Callable<Boolean> {
 
             job.setRemovedTime(System.currentTimeMillis());
 
-            boolean removeFromDb = PASchedulerProperties.JOB_REMOVE_FROM_DB.getValueAsBoolean();
+            // the job is marked as removed right away, the deletion of its data, which can be long
+            // for large jobs, is left to the housekeeping executed in the background
+            dbManager.removeJob(jobId, job.getRemovedTime(), false);
 
-            dbManager.removeJob(jobId, job.getRemovedTime(), removeFromDb);
+            if (PASchedulerProperties.JOB_REMOVE_FROM_DB.getValueAsBoolean()) {
+                dbManager.executeHousekeepingInDB(Collections.singletonList(jobId.longValue()), true);
+            }
 
             ServerJobAndTaskLogs.getInstance().remove(jobId, job.getOwner());
 
@@ -112,7 +117,7 @@ public class JobRemoveHandler implements Callable<Boolean> {
                                     new NotificationData<JobInfo>(SchedulerEvent.JOB_REMOVE_FINISHED,
                                                                   new JobInfoImpl((JobInfoImpl) job.getJobInfo())));
 
-            service.wakeUpSchedulingThread();
+            service.wakeUpSchedulingThread(SchedulingTrigger.JOBS_REMOVED);
         } catch (Exception e) {
             logger.error("Error while removing job " + jobId, e);
             throw e;
@@ -0,0 +1,139 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+/**
+ * Reservation of nodes for a multi-node task which cannot be started because not enough nodes are free.
+ * <p>
+ * The reservation is planned on each scheduling loop, from the free nodes and the walltime of the running
+ * tasks: the shadow time is the estimated time at which enough nodes will be free to start the reserved task,
+ * and the extra nodes are the nodes which will still be free at that time besides those needed by the
+ * reserved task. Another task can then be backfilled if it only uses extra nodes, or if its walltime
+ * guarantees that it terminates before the shadow time. When the shadow time cannot be estimated (some
+ * running tasks have no walltime), only extra nodes can be used.
+ */
+class MultiNodeReservation {
+
+    private final InternalTask task;
+
+    private final int neededNodes;
+
+    private final long creationTime;
+
+    private long shadowTime = Long.MAX_VALUE;
+
+    private int extraNodes;
+
+    MultiNodeReservation(InternalTask task) {
+        this.task = task;
+        this.neededNodes = task.getNumberOfNodesNeeded();
+        this.creationTime = System.currentTimeMillis();
+    }
+
+    InternalTask getTask() {
+        return task;
+    }
+
+    long getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * @return true while the reserved task is waiting to be started
+     */
+    boolean isActive() {
+        return task.getStatus() == TaskStatus.PENDING || task.getStatus() == TaskStatus.SUBMITTED;
+    }
+
+    /**
+     * Computes the shadow time and the extra nodes of the reservation.
+     *
+     * @param freeNodes the number of free nodes
+     * @param runningTasks the tasks currently running
+     * @param now the current time
+     */
+    void plan(int freeNodes, Collection<RunningTaskData> runningTasks, long now) {
+        if (freeNodes >= neededNodes) {
+            shadowTime = now;
+            extraNodes = freeNodes - neededNodes;
+            return;
+        }
+        List<long[]> releases = new ArrayList<>(runningTasks.size());
+        for (RunningTaskData taskData : runningTasks) {
+            InternalTask runningTask = taskData.getTask();
+            long end = Long.MAX_VALUE;
+            if (runningTask.getWallTime() > 0 && runningTask.getStartTime() > 0) {
+                end = runningTask.getStartTime() + runningTask.getWallTime();
+            }
+            releases.add(new long[] { end, Math.max(1, taskData.getNodes().getTotalNumberOfNodes()) });
+        }
+        releases.sort((release1, release2) -> Long.compare(release1[0], release2[0]));
+
+        int availableNodes = freeNodes;
+        shadowTime = Long.MAX_VALUE;
+        for (long[] release : releases) {
+            if (release[0] == Long.MAX_VALUE) {
+                break;
+            }
+            availableNodes += release[1];
+            if (availableNodes >= neededNodes) {
+                shadowTime = release[0];
+                break;
+            }
+        }
+        extraNodes = shadowTime == Long.MAX_VALUE ? 0 : Math.min(freeNodes, availableNodes - neededNodes);
+    }
+
+    /**
+     * Decides if a task can be started without delaying the reserved task. Extra nodes used by the
+     * task are accounted for the rest of the scheduling loop.
+     *
+     * @param candidate the task to start
+     * @param nodes the number of nodes needed by the task
+     * @param now the current time
+     * @return true if the task can be started
+     */
+    boolean canBackfill(InternalTask candidate, int nodes, long now) {
+        if (shadowTime != Long.MAX_VALUE && candidate.getWallTime() > 0 &&
+            now + candidate.getWallTime() <= shadowTime) {
+            return true;
+        }
+        if (nodes <= extraNodes) {
+            extraNodes -= nodes;
+            return true;
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import org.objectweb.proactive.extensions.annotation.ActiveObject;
+import org.ow2.proactive.resourcemanager.common.NodeState;
+import org.ow2.proactive.resourcemanager.common.event.RMEvent;
+import org.ow2.proactive.resourcemanager.common.event.RMEventType;
+import org.ow2.proactive.resourcemanager.common.event.RMNodeEvent;
+import org.ow2.proactive.resourcemanager.common.event.RMNodeSourceEvent;
+import org.ow2.proactive.resourcemanager.frontend.RMGroupEventListener;
+
+
+/**
+ * Listener of the resource manager waking up the scheduling loop when nodes are added or become free,
+ * e.g. a node added to a node source or released by another client of the resource manager.
+ */
+@ActiveObject
+public class NodeEventsListener extends RMGroupEventListener {
+
+    private SchedulingService schedulingService;
+
+    public NodeEventsListener() {
+    }
+
+    NodeEventsListener(SchedulingService schedulingService) {
+        this.schedulingService = schedulingService;
+    }
+
+    @Override
+    public void rmEvent(RMEvent event) {
+        // only node events are listened to
+    }
+
+    @Override
+    public void nodeSourceEvent(RMNodeSourceEvent event) {
+        // only node events are listened to
+    }
+
+    @Override
+    public void nodeEvent(RMNodeEvent event) {
+        if (isNodeAvailable(event)) {
+            schedulingService.wakeUpSchedulingThread(SchedulingTrigger.NODES_AVAILABLE);
+        }
+    }
+
+    static boolean isNodeAvailable(RMNodeEvent event) {
+        return event.getNodeState() == NodeState.FREE && (event.getEventType() == RMEventType.NODE_ADDED ||
+                                                          event.getEventType() == RMEventType.NODE_STATE_CHANGED);
+    }
+
+}
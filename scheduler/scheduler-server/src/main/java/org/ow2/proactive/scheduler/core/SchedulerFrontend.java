@@ -317,10 +317,16 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
             this.jmxHelper.boot(authentication);
             SynchronizationInternal publicStore = startSynchronizationService();
 
-            RecoveredSchedulerState recoveredState = new SchedulerStateRecoverHelper(dbManager).recover(loadJobPeriod,
-                                                                                                        rmProxy);
+            SchedulerStateRecoverHelper recoverHelper = new SchedulerStateRecoverHelper(dbManager);
+            boolean recoverFinishedJobsLazily = PASchedulerProperties.SCHEDULER_RECOVER_FINISHED_JOBS_LAZILY.getValueAsBoolean();
+            RecoveredSchedulerState recoveredState = recoverHelper.recover(loadJobPeriod,
+                                                                           rmProxy,
+                                                                           recoverFinishedJobsLazily);
 
             this.frontendState = new SchedulerFrontendState(recoveredState.getSchedulerState(), jmxHelper, dbManager);
+            if (recoverFinishedJobsLazily) {
+                frontendState.finishedJobsRecoveryStarted();
+            }
 
             SchedulingInfrastructure infrastructure = new SchedulingInfrastructureImpl(dbManager,
                                                                                        rmProxiesManager,
@@ -345,6 +351,10 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
             recoveredState.enableLiveLogsForRunningTasks(schedulingService);
             releaseBusyNodesWithNoRunningTask(rmProxy, recoveredState);
 
+            if (recoverFinishedJobsLazily) {
+                recoverFinishedJobsInBackground(recoverHelper, loadJobPeriod);
+            }
+
             logger.debug("Registering scheduler...");
             PAActiveObject.registerByName(authentication, SchedulerConstants.SCHEDULER_DEFAULT_NAME);
             authentication.setActivated(true);
@@ -391,6 +401,28 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
         return publicStore;
     }
 
+    /**
+     * Finished jobs are not needed to schedule, they are recovered once the scheduler is started.
+     * Until then, they are loaded on demand by the frontend state.
+     */
+    private void recoverFinishedJobsInBackground(SchedulerStateRecoverHelper recoverHelper, long loadJobPeriod) {
+        ExecutorService finishedJobsRecoveryThread = Executors.newSingleThreadExecutor(new NamedThreadFactory("FinishedJobsRecoveryThread"));
+        finishedJobsRecoveryThread.submit(() -> {
+            try {
+                recoverHelper.recoverFinishedJobs(loadJobPeriod, finishedJobs -> {
+                    // the jobs removed in the meantime must not be scheduled for removal again
+                    List<InternalJob> recoveredJobs = frontendState.finishedJobsRecovered(finishedJobs);
+                    schedulingService.finishedJobsRecovered(recoveredJobs);
+                });
+            } catch (Exception e) {
+                logger.error("Failed to recover finished jobs, they will be loaded on demand", e);
+            } finally {
+                frontendState.finishedJobsRecoveryTerminated();
+            }
+        });
+        finishedJobsRecoveryThread.shutdown();
+    }
+
     private void releaseBusyNodesWithNoRunningTask(RMProxy rmProxy, RecoveredSchedulerState recoveredState) {
         List<InternalJob> runningJobs = recoveredState.getRunningJobs();
         List<NodeSet> busyNodesWithTask = findBusyNodesCorrespondingToRunningTasks(runningJobs);
@@ -560,6 +592,27 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
         return this.getTaskResult(JobIdImpl.makeJobId(jobId), taskName);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @ImmediateService
+    public String getTaskResultValueHandle(String jobId, String taskName)
+            throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
+        JobId id = JobIdImpl.makeJobId(jobId);
+
+        // checking permissions
+        frontendState.checkPermissions("getTaskResultValueHandle",
+                                       frontendState.getIdentifiedJob(id),
+                                       YOU_DO_NOT_HAVE_PERMISSION_TO_GET_THE_TASK_RESULT_OF_THIS_JOB);
+
+        try {
+            return dbManager.loadTaskResultValueHandle(id, taskName);
+        } catch (DatabaseManagerException e) {
+            throw new UnknownTaskException("Unknown task " + taskName + ", job: " + jobId);
+        }
+    }
+
     @Override
     @ImmediateService
     public List<TaskResult> getTaskResultsByTag(JobId jobId, String taskTag)
@@ -1313,6 +1366,30 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
                                  sortParameters);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @ImmediateService
+    public Page<JobInfo> getJobsByCursor(String cursor, int limit, JobFilterCriteria filterCriteria)
+            throws NotConnectedException, PermissionException {
+        UserIdentificationImpl ident = frontendState.checkPermission("getJobs",
+                                                                     "You don't have permissions to load jobs");
+
+        String user;
+        if (filterCriteria.isMyJobsOnly()) {
+            user = ident.getUsername();
+        } else {
+            user = null;
+        }
+        return dbManager.getJobsByCursor(cursor,
+                                         limit,
+                                         user,
+                                         filterCriteria.isPending(),
+                                         filterCriteria.isRunning(),
+                                         filterCriteria.isFinished());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1475,6 +1552,67 @@ public class SchedulerFrontend implements InitActive, Scheduler, RunActive {
 
     }
 
+    @Override
+    @ImmediateService
+    public Page<TaskId> getTaskIdsByCursor(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        RestPageParameters params = new RestPageParameters(frontendState,
+                                                           "getTaskIds",
+                                                           from,
+                                                           to,
+                                                           mytasks,
+                                                           running,
+                                                           pending,
+                                                           finished,
+                                                           0,
+                                                           limit,
+                                                           taskTag,
+                                                           SortSpecifierContainer.EMPTY_CONTAINER);
+        Page<TaskInfo> pTaskInfo = dbManager.getTasksByCursor(params.getFrom(),
+                                                              params.getTo(),
+                                                              params.getTag(),
+                                                              cursor,
+                                                              params.getLimit(),
+                                                              params.getUserName(),
+                                                              params.isPending(),
+                                                              params.isRunning(),
+                                                              params.isFinished());
+        List<TaskId> lTaskId = new ArrayList<>(pTaskInfo.getList().size());
+        for (TaskInfo taskInfo : pTaskInfo.getList()) {
+            lTaskId.add(taskInfo.getTaskId());
+        }
+        return new Page<>(lTaskId, pTaskInfo.getNextCursor());
+    }
+
+    @Override
+    @ImmediateService
+    public Page<TaskState> getTaskStatesByCursor(String taskTag, long from, long to, boolean mytasks,
+            boolean running, boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        RestPageParameters params = new RestPageParameters(frontendState,
+                                                           "getTaskStates",
+                                                           from,
+                                                           to,
+                                                           mytasks,
+                                                           running,
+                                                           pending,
+                                                           finished,
+                                                           0,
+                                                           limit,
+                                                           taskTag,
+                                                           SortSpecifierContainer.EMPTY_CONTAINER);
+        return dbManager.getTaskStatesByCursor(params.getFrom(),
+                                               params.getTo(),
+                                               params.getTag(),
+                                               cursor,
+                                               params.getLimit(),
+                                               params.getUserName(),
+                                               params.isPending(),
+                                               params.isRunning(),
+                                               params.isFinished());
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         return getJobState(JobIdImpl.makeJobId(jobId)).getJobInfo();
@@ -25,7 +25,9 @@
  */
 package org.ow2.proactive.scheduler.core;
 
+import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_FINISHED_JOBS_LRU_CACHE_MAX_TASKS;
 import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_FINISHED_JOBS_LRU_CACHE_SIZE;
+import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_FINISHED_JOBS_SUMMARIES;
 
 import java.lang.reflect.Method;
 import java.util.*;
@@ -214,22 +216,32 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
 
     private final Map<JobId, ClientJobState> jobsMap;
 
+    /**
+     * Full states of the finished jobs which are not in jobsMap, or only as summaries.
+     * Bounded by its number of jobs and by the number of tasks of these jobs.
+     */
     private final LinkedHashMap<JobId, ClientJobState> finishedJobsLRUCache;
 
+    /** Number of tasks of the jobs stored in finishedJobsLRUCache */
+    private long finishedJobsLRUCacheTasks = 0;
+
+    /** If true, finished jobs are stored in jobsMap and in the scheduler state as summaries */
+    private final boolean finishedJobsSummaries = SCHEDULER_FINISHED_JOBS_SUMMARIES.getValueAsBoolean();
+
+    private final FinishedJobsStatistics finishedJobsStatistics = FinishedJobsStatistics.getInstance();
+
     private SchedulerDBManager dbManager = null;
 
+    /** Finished jobs removed while the finished jobs are recovered in background, null otherwise */
+    private Set<JobId> jobsRemovedDuringFinishedJobsRecovery = null;
+
     SchedulerFrontendState(SchedulerStateImpl sState, SchedulerJMXHelper jmxHelper) {
         this.identifications = new HashMap<>();
         this.credentials = new HashMap<>();
         this.dirtyList = new HashSet<>();
         this.jmxHelper = jmxHelper;
         this.jobsMap = new HashMap<>();
-        this.finishedJobsLRUCache = new LinkedHashMap<JobId, ClientJobState>(10, 0.75f, true) {
-            @Override
-            public boolean removeEldestEntry(Map.Entry eldest) {
-                return size() > SCHEDULER_FINISHED_JOBS_LRU_CACHE_SIZE.getValueAsInt();
-            }
-        };
+        this.finishedJobsLRUCache = new LinkedHashMap<>(10, 0.75f, true);
         this.jobs = new HashMap<>();
         this.sessionTimer = new Timer("SessionTimer");
         this.sState = sState;
@@ -264,11 +276,66 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         for (ClientJobState js : runningJobs) {
             prepare(jobStates, js, false);
         }
-        for (ClientJobState js : finishedJobs) {
+        for (ListIterator<ClientJobState> iterator = finishedJobs.listIterator(); iterator.hasNext();) {
+            ClientJobState js = toFinishedJobState(iterator.next());
+            iterator.set(js);
             prepare(jobStates, js, true);
         }
     }
 
+    /**
+     * @return the state of the finished job to keep in jobsMap and in the scheduler state
+     */
+    private ClientJobState toFinishedJobState(ClientJobState js) {
+        if (finishedJobsSummaries && !js.isSummary()) {
+            ClientJobState summary = new ClientJobState(js, false);
+            finishedJobsStatistics.jobSummarized(js.getJobInfo().getTotalNumberOfTasks());
+            return summary;
+        } else {
+            return js;
+        }
+    }
+
+    /**
+     * Replaces the state of a job which has just finished by its summary, the full state
+     * is kept in the cache as it is likely to be requested soon.
+     */
+    private void summarizeFinishedJob(ClientJobState js) {
+        ClientJobState summary = toFinishedJobState(js);
+        if (summary != js) {
+            Vector<ClientJobState> finishedJobs = sState.getFinishedJobs();
+            synchronized (finishedJobs) {
+                finishedJobs.set(finishedJobs.lastIndexOf(js), summary);
+            }
+            jobsMap.put(js.getId(), summary);
+            cacheFinishedJob(js);
+        }
+    }
+
+    private void cacheFinishedJob(ClientJobState js) {
+        uncacheFinishedJob(js.getId());
+        finishedJobsLRUCache.put(js.getId(), js);
+        finishedJobsLRUCacheTasks += js.getHMTasks().size();
+
+        // the last cached job is kept even if it exceeds the maximum number of tasks by itself
+        Iterator<ClientJobState> eldest = finishedJobsLRUCache.values().iterator();
+        while (finishedJobsLRUCache.size() > 1 &&
+               (finishedJobsLRUCache.size() > SCHEDULER_FINISHED_JOBS_LRU_CACHE_SIZE.getValueAsInt() ||
+                finishedJobsLRUCacheTasks > SCHEDULER_FINISHED_JOBS_LRU_CACHE_MAX_TASKS.getValueAsInt())) {
+            finishedJobsLRUCacheTasks -= eldest.next().getHMTasks().size();
+            eldest.remove();
+        }
+        finishedJobsStatistics.cacheUpdated(finishedJobsLRUCache.size(), finishedJobsLRUCacheTasks);
+    }
+
+    private void uncacheFinishedJob(JobId jobId) {
+        ClientJobState js = finishedJobsLRUCache.remove(jobId);
+        if (js != null) {
+            finishedJobsLRUCacheTasks -= js.getHMTasks().size();
+            finishedJobsStatistics.cacheUpdated(finishedJobsLRUCache.size(), finishedJobsLRUCacheTasks);
+        }
+    }
+
     /**
      * Prepare the job in the frontend
      *
@@ -287,6 +354,44 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
         ij.setFinished(finished);
     }
 
+    /**
+     * Must be called before the finished jobs are recovered in background, so that the
+     * jobs removed in the meantime are not added back to the state.
+     */
+    synchronized void finishedJobsRecoveryStarted() {
+        jobsRemovedDuringFinishedJobsRecovery = new HashSet<>();
+    }
+
+    /**
+     * Adds a page of finished jobs recovered in background to the state. Until then,
+     * these jobs are loaded on demand from the database, see {@link #getClientJobState(JobId)}.
+     *
+     * @param finishedJobs the recovered finished jobs
+     * @return the jobs added to the state, i.e. neither removed nor already known in the meantime
+     */
+    synchronized List<InternalJob> finishedJobsRecovered(List<InternalJob> finishedJobs) {
+        Set<JobState> jobStates = new HashSet<>(finishedJobs.size());
+        List<InternalJob> addedJobs = new ArrayList<>(finishedJobs.size());
+        for (InternalJob job : finishedJobs) {
+            if (!jobsMap.containsKey(job.getId()) && !jobsRemovedDuringFinishedJobsRecovery.contains(job.getId())) {
+                ClientJobState js = new ClientJobState(job, !finishedJobsSummaries);
+                if (js.isSummary()) {
+                    finishedJobsStatistics.jobSummarized(job.getJobInfo().getTotalNumberOfTasks());
+                } else {
+                    uncacheFinishedJob(js.getId());
+                }
+                sState.getFinishedJobs().add(js);
+                prepare(jobStates, js, true);
+                addedJobs.add(job);
+            }
+        }
+        return addedJobs;
+    }
+
+    synchronized void finishedJobsRecoveryTerminated() {
+        jobsRemovedDuringFinishedJobsRecovery = null;
+    }
+
     /**
      * Connect a new user on the scheduler. This user can interact with the
      * scheduler according to his right.
@@ -1115,7 +1220,7 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
 
     @Override
     public synchronized void jobStateUpdated(String owner, NotificationData<JobInfo> notification) {
-        ClientJobState js = getClientJobState(notification.getData().getJobId());
+        ClientJobState js = getClientJobStateOrSummary(notification.getData().getJobId());
         boolean withAttachment = false;
         synchronized (js) {
             js.update(notification.getData());
@@ -1135,20 +1240,28 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
                     sState.pendingToFinished(js);
                     // set this job finished, user can get its result
                     jobs.remove(notification.getData().getJobId()).setFinished(true);
+                    summarizeFinishedJob(js);
                     withAttachment = true;
                     break;
                 case JOB_RUNNING_TO_FINISHED:
                     sState.runningToFinished(js);
                     // set this job finished, user can get its result
                     jobs.remove(notification.getData().getJobId()).setFinished(true);
+                    summarizeFinishedJob(js);
                     withAttachment = true;
                     break;
                 case JOB_REMOVE_FINISHED:
                     // removing jobs from the global list : this job is no more managed
                     sState.removeFinished(js);
                     jobsMap.remove(js.getId());
-                    finishedJobsLRUCache.remove(js.getId());
+                    uncacheFinishedJob(js.getId());
+                    if (js.isSummary()) {
+                        finishedJobsStatistics.summaryRemoved(js.getJobInfo().getTotalNumberOfTasks());
+                    }
                     jobs.remove(notification.getData().getJobId());
+                    if (jobsRemovedDuringFinishedJobsRecovery != null) {
+                        jobsRemovedDuringFinishedJobsRecovery.add(js.getId());
+                    }
                     logger.debug("HOUSEKEEPING removed the finished job " + js.getId() +
                                  " from the SchedulerFrontEndState");
                     break;
@@ -1254,21 +1367,34 @@ class SchedulerFrontendState implements SchedulerStateUpdate {
     }
 
     synchronized ClientJobState getClientJobState(JobId jobId) {
-        if (!jobsMap.containsKey(jobId)) {
+        ClientJobState js = jobsMap.get(jobId);
+        if (js == null || js.isSummary()) {
             if (!finishedJobsLRUCache.containsKey(jobId)) {
+                finishedJobsStatistics.cacheMiss();
                 List<InternalJob> internalJobs = dbManager.loadInternalJob(jobId.longValue());
                 if (!internalJobs.isEmpty()) {
                     InternalJob internalJob = internalJobs.get(0);
                     ClientJobState clientJobState = new ClientJobState(internalJob);
-                    finishedJobsLRUCache.put(jobId, clientJobState);
+                    cacheFinishedJob(clientJobState);
                 }
+            } else {
+                finishedJobsStatistics.cacheHit();
             }
             return finishedJobsLRUCache.get(jobId);
         } else {
-            return jobsMap.get(jobId);
+            return js;
         }
     }
 
+    /**
+     * Same as {@link #getClientJobState(JobId)}, but returns the summary of the job if it is
+     * summarized, without loading its tasks.
+     */
+    private ClientJobState getClientJobStateOrSummary(JobId jobId) {
+        ClientJobState js = jobsMap.get(jobId);
+        return js != null ? js : getClientJobState(jobId);
+    }
+
     IdentifiedJob toIdentifiedJob(ClientJobState clientJobState) {
         UserIdentificationImpl uIdent = new UserIdentificationImpl(clientJobState.getOwner());
         return new IdentifiedJob(clientJobState.getId(), uIdent, clientJobState.getGenericInformation());
@@ -0,0 +1,206 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+
+/**
+ * Counters describing the activity of the scheduling loop. They are updated by the scheduling
+ * thread and read by the JMX runtime MBean.
+ *
+ * @author The ProActive Team
+ */
+public class SchedulingLoopStatistics {
+
+    private static SchedulingLoopStatistics instance = null;
+
+    /** Number of triggers posted to the scheduling loop */
+    private final AtomicLong triggers = new AtomicLong();
+
+    /** Number of triggers merged into an already pending wake-up */
+    private final AtomicLong coalescedTriggers = new AtomicLong();
+
+    /** Number of iterations which were started because the scheduling timeout elapsed */
+    private final AtomicLong timeoutIterations = new AtomicLong();
+
+    /** Number of iterations which were started by a trigger and started at least one task */
+    private final AtomicLong triggeredStarts = new AtomicLong();
+
+    private final AtomicLong totalTriggerToStartLatency = new AtomicLong();
+
+    private final LongAccumulator maxTriggerToStartLatency = new LongAccumulator(Math::max, 0);
+
+    /** Number of reservations made for blocked multi-node tasks */
+    private final AtomicLong reservations = new AtomicLong();
+
+    /** Number of reserved multi-node tasks which were eventually started */
+    private final AtomicLong satisfiedReservations = new AtomicLong();
+
+    private final AtomicLong totalReservationWaitTime = new AtomicLong();
+
+    /** Number of tasks selected while a reservation was active, without delaying it */
+    private final AtomicLong backfilledTasks = new AtomicLong();
+
+    /** Free nodes left unused at the end of the last scheduling loop because of a reservation */
+    private volatile int reservedIdleNodes;
+
+    /** Number of tasks started by the parallel deployment of the scheduling loop */
+    private final AtomicLong deployedTasks = new AtomicLong();
+
+    /** Number of task launchers which could not be created or started */
+    private final AtomicLong failedDeployments = new AtomicLong();
+
+    private final AtomicLong totalDeploymentTime = new AtomicLong();
+
+    SchedulingLoopStatistics() {
+    }
+
+    public static synchronized SchedulingLoopStatistics getInstance() {
+        if (instance == null) {
+            instance = new SchedulingLoopStatistics();
+        }
+        return instance;
+    }
+
+    void triggerPosted(boolean coalesced) {
+        triggers.incrementAndGet();
+        if (coalesced) {
+            coalescedTriggers.incrementAndGet();
+        }
+    }
+
+    void timeoutIteration() {
+        timeoutIterations.incrementAndGet();
+    }
+
+    /**
+     * Records the delay between the first trigger of an iteration and the moment the
+     * iteration started its tasks.
+     *
+     * @param latency the delay in milliseconds
+     */
+    void tasksStartedAfterTrigger(long latency) {
+        triggeredStarts.incrementAndGet();
+        totalTriggerToStartLatency.addAndGet(latency);
+        maxTriggerToStartLatency.accumulate(latency);
+    }
+
+    void reservationCreated() {
+        reservations.incrementAndGet();
+    }
+
+    /**
+     * @param waitTime the time in milliseconds between the reservation and the start of the reserved task
+     */
+    void reservationSatisfied(long waitTime) {
+        satisfiedReservations.incrementAndGet();
+        totalReservationWaitTime.addAndGet(Math.max(0, waitTime));
+        reservedIdleNodes = 0;
+    }
+
+    void taskBackfilled() {
+        backfilledTasks.incrementAndGet();
+    }
+
+    void reservedNodesIdle(int nodes) {
+        reservedIdleNodes = nodes;
+    }
+
+    void tasksDeployed(int tasks, long deploymentTime) {
+        deployedTasks.addAndGet(tasks);
+        totalDeploymentTime.addAndGet(deploymentTime);
+    }
+
+    void taskDeploymentFailed() {
+        failedDeployments.incrementAndGet();
+    }
+
+    public long getTriggersCount() {
+        return triggers.get();
+    }
+
+    public long getCoalescedTriggersCount() {
+        return coalescedTriggers.get();
+    }
+
+    public long getTimeoutIterationsCount() {
+        return timeoutIterations.get();
+    }
+
+    /**
+     * @return the mean delay in milliseconds between a trigger and the start of tasks
+     */
+    public long getMeanTriggerToStartLatency() {
+        long starts = triggeredStarts.get();
+        return starts > 0 ? totalTriggerToStartLatency.get() / starts : 0;
+    }
+
+    /**
+     * @return the maximum delay in milliseconds between a trigger and the start of tasks
+     */
+    public long getMaxTriggerToStartLatency() {
+        return maxTriggerToStartLatency.get();
+    }
+
+    public long getReservationsCount() {
+        return reservations.get();
+    }
+
+    /**
+     * @return the mean time in milliseconds a reserved multi-node task waited for its nodes
+     */
+    public long getMeanReservationWaitTime() {
+        long satisfied = satisfiedReservations.get();
+        return satisfied > 0 ? totalReservationWaitTime.get() / satisfied : 0;
+    }
+
+    public long getBackfilledTasksCount() {
+        return backfilledTasks.get();
+    }
+
+    public int getReservedIdleNodes() {
+        return reservedIdleNodes;
+    }
+
+    public long getDeployedTasksCount() {
+        return deployedTasks.get();
+    }
+
+    public long getFailedDeploymentsCount() {
+        return failedDeployments.get();
+    }
+
+    /**
+     * @return the number of tasks started per second of deployment
+     */
+    public double getTasksStartedPerSecond() {
+        long time = totalDeploymentTime.get();
+        return time == 0 ? 0 : deployedTasks.get() * 1000d / time;
+    }
+
+}
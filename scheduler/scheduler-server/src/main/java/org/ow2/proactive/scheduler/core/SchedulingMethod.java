@@ -38,4 +38,9 @@ public interface SchedulingMethod {
      */
     int schedule();
 
+    /**
+     * Releases the resources used by the scheduling process, once the scheduling thread has stopped.
+     */
+    void shutdown();
+
 }
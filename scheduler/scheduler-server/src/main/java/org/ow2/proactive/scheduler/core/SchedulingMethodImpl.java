@@ -29,13 +29,19 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.security.PrivateKey;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Logger;
@@ -47,6 +53,7 @@ import org.objectweb.proactive.core.node.NodeFactory;
 import org.objectweb.proactive.utils.NamedThreadFactory;
 import org.ow2.proactive.authentication.crypto.Credentials;
 import org.ow2.proactive.resourcemanager.common.RMState;
+import org.ow2.proactive.resourcemanager.frontend.RMEventListener;
 import org.ow2.proactive.resourcemanager.frontend.topology.TopologyDisabledException;
 import org.ow2.proactive.scheduler.common.JobDescriptor;
 import org.ow2.proactive.scheduler.common.SchedulerConstants;
@@ -81,6 +88,7 @@ import org.ow2.proactive.threading.TimeoutThreadPoolExecutor;
 import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
 import org.ow2.proactive.utils.Criteria;
 import org.ow2.proactive.utils.NodeSet;
+import org.ow2.proactive.utils.NodeSetList;
 
 import com.google.common.collect.ImmutableList;
 
@@ -112,28 +120,88 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
 
     protected TimeoutThreadPoolExecutor threadPool;
 
+    /** Pool creating the task launchers of a scheduling loop concurrently */
+    protected ExecutorService deploymentPool;
+
+    private final int deploymentPoolSize;
+
+    /** Maximum number of groups of compatible tasks whose nodes are requested in a single call to the RM */
+    private final int getNodesBatchSize;
+
     protected PrivateKey corePrivateKey;
 
-    private TaskTerminateNotification terminateNotification;
+    private final TaskTerminateNotification terminateNotification;
+
+    /** URL of the node of the task termination notification active object, given to the started tasks */
+    private final String terminateNotificationNodeURL;
 
     private CheckEligibleTaskDescriptorScript checkEligibleTaskDescriptorScript;
 
-    private SchedulingMainLoopTimingLogger schedulingMainLoopTimingLogger;
+    private SchedulingMainLoopTimingLogger schedulingMainLoopTimingLogger = new SchedulingMainLoopTimingLogger(logger);
+
+    private final SchedulingLoopStatistics statistics = SchedulingLoopStatistics.getInstance();
+
+    /** Whether nodes are reserved for blocked multi-node tasks, see {@link MultiNodeReservation} */
+    private final boolean multiNodeBackfilling;
+
+    /** Current reservation for a blocked multi-node task, only accessed by the scheduling thread */
+    private MultiNodeReservation reservation;
 
     public SchedulingMethodImpl(SchedulingService schedulingService) throws Exception {
+        this(schedulingService,
+             NodeFactory.createLocalNode("taskTerminationNode", true, "taskTerminationVNode"),
+             Credentials.getPrivateKey(PASchedulerProperties.getAbsolutePath(PASchedulerProperties.SCHEDULER_AUTH_PRIVKEY_PATH.getValueAsString())));
+    }
+
+    private SchedulingMethodImpl(SchedulingService schedulingService, Node terminateNotificationNode,
+            PrivateKey corePrivateKey) throws Exception {
+        this(schedulingService,
+             PAActiveObject.turnActive(new TerminateNotification(schedulingService),
+                                       TaskTerminateNotification.class.getName(),
+                                       terminateNotificationNode),
+             terminateNotificationNode.getNodeInformation().getURL(),
+             corePrivateKey);
+        listenToNodeEvents(terminateNotificationNode);
+    }
+
+    SchedulingMethodImpl(SchedulingService schedulingService, TaskTerminateNotification terminateNotification,
+            String terminateNotificationNodeURL, PrivateKey corePrivateKey) {
         this.schedulingService = schedulingService;
         this.checkEligibleTaskDescriptorScript = new CheckEligibleTaskDescriptorScript();
-        terminateNotification = new TerminateNotification(schedulingService);
-        Node terminateNotificationNode = NodeFactory.createLocalNode("taskTerminationNode",
-                                                                     true,
-                                                                     "taskTerminationVNode");
-        terminateNotification = PAActiveObject.turnActive(terminateNotification,
-                                                          TaskTerminateNotification.class.getName(),
-                                                          terminateNotificationNode);
+        this.terminateNotification = terminateNotification;
+        this.terminateNotificationNodeURL = terminateNotificationNodeURL;
 
         this.threadPool = TimeoutThreadPoolExecutor.newFixedThreadPool(PASchedulerProperties.SCHEDULER_STARTTASK_THREADNUMBER.getValueAsInt(),
                                                                        new NamedThreadFactory("DoTask_Action"));
-        this.corePrivateKey = Credentials.getPrivateKey(PASchedulerProperties.getAbsolutePath(PASchedulerProperties.SCHEDULER_AUTH_PRIVKEY_PATH.getValueAsString()));
+        this.deploymentPoolSize = PASchedulerProperties.SCHEDULER_STARTTASK_DEPLOYMENT_THREADNUMBER.getValueAsInt();
+        this.deploymentPool = Executors.newFixedThreadPool(deploymentPoolSize,
+                                                           new NamedThreadFactory("TaskLauncher_Creation"));
+        this.corePrivateKey = corePrivateKey;
+        this.multiNodeBackfilling = PASchedulerProperties.SCHEDULER_MULTINODE_BACKFILLING.getValueAsBoolean();
+        this.getNodesBatchSize = Math.max(1, PASchedulerProperties.SCHEDULER_RM_GETNODES_BATCH_SIZE.getValueAsInt());
+    }
+
+    /**
+     * Wakes up the scheduling loop when nodes are added to the resource manager or become free, instead of
+     * waiting for the scheduling timeout.
+     */
+    private void listenToNodeEvents(Node node) {
+        try {
+            RMEventListener listener = PAActiveObject.turnActive(new NodeEventsListener(schedulingService),
+                                                                 NodeEventsListener.class.getName(),
+                                                                 node);
+            getRMProxiesManager().getRmProxy().setNodeEventListener(listener);
+        } catch (Exception e) {
+            logger.warn("Unable to listen to the node events, free nodes are used after the scheduling timeout", e);
+        }
+    }
+
+    /**
+     * Stops the task launcher creations which are still queued or running.
+     */
+    @Override
+    public void shutdown() {
+        deploymentPool.shutdownNow();
     }
 
     RMProxiesManager getRMProxiesManager() {
@@ -144,6 +212,30 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
         getRMProxiesManager().getUserRMProxy(job.getOwner(), job.getCredentials()).releaseNodes(nodeSet);
     }
 
+    /**
+     * Give back the nodes to the resource manager and mark them as free for the next tasks.
+     */
+    private void releaseNodes(InternalJob job, NodeSet nodeSet, Set<String> freeResources) {
+        if (giveBackNodes(job, nodeSet)) {
+            freeResources.addAll(nodeSet.getAllNodesUrls());
+        }
+    }
+
+    /**
+     * Give back the nodes to the resource manager.
+     *
+     * @return true if the nodes have been given back
+     */
+    private boolean giveBackNodes(InternalJob job, NodeSet nodeSet) {
+        try {
+            releaseNodes(job, nodeSet);
+            return true;
+        } catch (Exception e) {
+            logger.info("Unable to get back the nodeSet to the RM", e);
+            return false;
+        }
+    }
+
     /**
      * Scheduling process. For this implementation, steps are :<br>
      * <ul>
@@ -206,13 +298,16 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
             }
             schedulingMainLoopTimingLogger.end("getFreeResources");
 
+            planReservation(freeResources.size());
+
             schedulingMainLoopTimingLogger.start("getOrderedTasks");
-            // ask the policy all the tasks to be schedule according to the jobs list.
-            LinkedList<EligibleTaskDescriptor> fullListOfTaskRetrievedFromPolicy = currentPolicy.getOrderedTasks(descriptors);
+            // ask the policy a view of the tasks to be schedule according to the jobs list,
+            // the view is only evaluated as far as the tasks which can be started in this loop
+            Iterator<EligibleTaskDescriptor> tasksRetrievedFromPolicy = currentPolicy.getOrderedTasksView(descriptors);
             schedulingMainLoopTimingLogger.end("getOrderedTasks");
 
             //if there is no task to scheduled, return without starting any task
-            if (fullListOfTaskRetrievedFromPolicy == null || fullListOfTaskRetrievedFromPolicy.isEmpty()) {
+            if (tasksRetrievedFromPolicy == null || !tasksRetrievedFromPolicy.hasNext()) {
                 return 0;
             }
 
@@ -220,7 +315,7 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
             toUnlock = unlockResources(toUnlock);
             schedulingMainLoopTimingLogger.end("unlockResources");
 
-            return getNumberOfTaskStarted(currentPolicy, jobMap, freeResources, fullListOfTaskRetrievedFromPolicy);
+            return getNumberOfTaskStarted(currentPolicy, jobMap, freeResources, tasksRetrievedFromPolicy);
         } finally {
             if (toUnlock != null) {
                 schedulingService.unlockJobsToSchedule(toUnlock.values());
@@ -229,8 +324,8 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
     }
 
     private int getNumberOfTaskStarted(Policy currentPolicy, Map<JobId, JobDescriptor> jobMap,
-            Set<String> freeResources, LinkedList<EligibleTaskDescriptor> fullListOfTaskRetrievedFromPolicy) {
-        return selectAndStartTasks(currentPolicy, jobMap, freeResources, fullListOfTaskRetrievedFromPolicy);
+            Set<String> freeResources, Iterator<EligibleTaskDescriptor> tasksRetrievedFromPolicy) {
+        return selectAndStartTasks(currentPolicy, jobMap, freeResources, tasksRetrievedFromPolicy);
 
     }
 
@@ -260,17 +355,17 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
     }
 
     private int selectAndStartTasks(Policy currentPolicy, Map<JobId, JobDescriptor> jobMap, Set<String> freeResources,
-            LinkedList<EligibleTaskDescriptor> fullListOfTaskRetrievedFromPolicy) {
+            Iterator<EligibleTaskDescriptor> tasksRetrievedFromPolicy) {
         int numberOfTaskStarted = 0;
 
-        VariableBatchSizeIterator progressiveIterator = new VariableBatchSizeIterator(fullListOfTaskRetrievedFromPolicy);
+        VariableBatchSizeIterator<EligibleTaskDescriptor> progressiveIterator = new VariableBatchSizeIterator<>(tasksRetrievedFromPolicy);
 
         while (progressiveIterator.hasMoreElements() && !freeResources.isEmpty()) {
 
             LinkedList<EligibleTaskDescriptor> taskRetrievedFromPolicy = new LinkedList<>(progressiveIterator.getNextElements(freeResources.size()));
 
             if (logger.isDebugEnabled()) {
-                loggingEligibleTasksDetails(fullListOfTaskRetrievedFromPolicy, taskRetrievedFromPolicy);
+                loggingEligibleTasksDetails(taskRetrievedFromPolicy);
             }
 
             schedulingMainLoopTimingLogger.start("updateVariablesForTasksToSchedule");
@@ -300,114 +395,91 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
                     break;
                 }
 
-                //get the next compatible tasks from the whole returned policy tasks
-                LinkedList<EligibleTaskDescriptor> tasksToSchedule = new LinkedList<>();
-                int neededResourcesNumber = 0;
+                //get the next groups of compatible tasks from the whole returned policy tasks,
+                //their nodes are requested to the RM in a single call per job owner
+                List<LinkedList<EligibleTaskDescriptor>> groupsToSchedule = new ArrayList<>(getNodesBatchSize);
+                List<Integer> neededResourcesNumbers = new ArrayList<>(getNodesBatchSize);
+                int availableResourcesNumber = freeResources.size();
 
                 schedulingMainLoopTimingLogger.start("getNextcompatibleTasks");
 
-                while (!taskRetrievedFromPolicy.isEmpty() && neededResourcesNumber == 0) {
-                    //the loop will search for next compatible task until it find something
-                    neededResourcesNumber = getNextcompatibleTasks(jobMap,
-                                                                   taskRetrievedFromPolicy,
-                                                                   freeResources.size(),
-                                                                   tasksToSchedule);
-                }
+                while (!taskRetrievedFromPolicy.isEmpty() && availableResourcesNumber > 0 &&
+                       groupsToSchedule.size() < getNodesBatchSize) {
+                    LinkedList<EligibleTaskDescriptor> tasksToSchedule = new LinkedList<>();
+                    int neededResourcesNumber = 0;
+                    while (!taskRetrievedFromPolicy.isEmpty() && neededResourcesNumber == 0) {
+                        //the loop will search for next compatible task until it find something
+                        neededResourcesNumber = getNextcompatibleTasks(jobMap,
+                                                                       taskRetrievedFromPolicy,
+                                                                       availableResourcesNumber,
+                                                                       tasksToSchedule);
+                    }
 
-                schedulingMainLoopTimingLogger.end("getNextcompatibleTasks");
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("tasksToSchedule : " + tasksToSchedule);
+                    }
 
-                if (logger.isDebugEnabled()) {
-                    logger.debug("tasksToSchedule : " + tasksToSchedule);
+                    logger.debug("required number of nodes : " + neededResourcesNumber);
+                    if (neededResourcesNumber == 0 || tasksToSchedule.isEmpty()) {
+                        break;
+                    }
+                    groupsToSchedule.add(tasksToSchedule);
+                    neededResourcesNumbers.add(neededResourcesNumber);
+                    availableResourcesNumber -= neededResourcesNumber;
                 }
 
-                logger.debug("required number of nodes : " + neededResourcesNumber);
-                if (neededResourcesNumber == 0 || tasksToSchedule.isEmpty()) {
+                schedulingMainLoopTimingLogger.end("getNextcompatibleTasks");
+
+                if (groupsToSchedule.isEmpty()) {
                     break;
                 }
 
                 schedulingMainLoopTimingLogger.start("getRMNodes");
-                NodeSet nodeSet = getRMNodes(jobMap, neededResourcesNumber, tasksToSchedule, freeResources);
+                List<NodeSet> nodeSets = getRMNodes(jobMap, neededResourcesNumbers, groupsToSchedule, freeResources);
                 schedulingMainLoopTimingLogger.end("getRMNodes");
 
-                if (nodeSet != null) {
-                    freeResources.removeAll(nodeSet.getAllNodesUrls());
+                for (NodeSet nodeSet : nodeSets) {
+                    if (nodeSet != null) {
+                        freeResources.removeAll(nodeSet.getAllNodesUrls());
+                    }
                 }
 
                 //start selected tasks
-                Node node = null;
-                InternalJob currentJob = null;
-                try {
-                    while (nodeSet != null && !nodeSet.isEmpty()) {
-                        EligibleTaskDescriptor taskDescriptor = tasksToSchedule.removeFirst();
-                        currentJob = ((JobDescriptorImpl) jobMap.get(taskDescriptor.getJobId())).getInternal();
-                        InternalTask internalTask = ((EligibleTaskDescriptorImpl) taskDescriptor).getInternal();
-
-                        if (currentPolicy.isTaskExecutable(nodeSet, taskDescriptor)) {
-                            //create launcher and try to start the task
-                            node = nodeSet.get(0);
-
-                            schedulingMainLoopTimingLogger.start("createExecution");
-
-                            if (createExecution(nodeSet, node, currentJob, internalTask, taskDescriptor)) {
-                                numberOfTaskStarted++;
-                            }
-                            schedulingMainLoopTimingLogger.end("createExecution");
-
-                        }
-
-                        //if every task that should be launched have been removed
-                        if (tasksToSchedule.isEmpty()) {
-                            //get back unused nodes to the RManager
-                            if (!nodeSet.isEmpty()) {
-                                schedulingMainLoopTimingLogger.start("releaseNodes");
-                                releaseNodes(currentJob, nodeSet);
-                                freeResources.addAll(nodeSet.getAllNodesUrls());
-                                schedulingMainLoopTimingLogger.end("releaseNodes");
-                            }
-                            //and leave the loop
-                            break;
-                        }
-                    }
-                } catch (ActiveObjectCreationException e1) {
-                    //Something goes wrong with the active object creation (createLauncher)
-                    logger.warn("An exception occured while creating the task launcher.", e1);
-                    //so try to get back every remaining nodes to the resource manager
-                    try {
-                        releaseNodes(currentJob, nodeSet);
-                        freeResources.addAll(nodeSet.getAllNodesUrls());
-                    } catch (Exception e2) {
-                        logger.info("Unable to get back the nodeSet to the RM", e2);
+                for (int i = 0; i < groupsToSchedule.size(); i++) {
+                    NodeSet nodeSet = nodeSets.get(i);
+                    if (nodeSet == null || nodeSet.isEmpty()) {
+                        continue;
                     }
-                    if (--activeObjectCreationRetryTimeNumber == 0) {
-                        break;
-                    }
-                } catch (Exception e1) {
-                    //if we are here, it is that something append while launching the current task.
-                    logger.warn("An exception occured while starting task.", e1);
-                    //so try to get back every remaining nodes to the resource manager
-                    try {
-                        releaseNodes(currentJob, nodeSet);
-                        freeResources.addAll(nodeSet.getAllNodesUrls());
-                    } catch (Exception e2) {
-                        logger.info("Unable to get back the nodeSet to the RM", e2);
+                    LinkedList<EligibleTaskDescriptor> tasksToSchedule = groupsToSchedule.get(i);
+                    if (activeObjectCreationRetryTimeNumber <= 0) {
+                        //the nodes of the remaining groups are given back to the RM
+                        EligibleTaskDescriptor etd = tasksToSchedule.getFirst();
+                        releaseNodes(((JobDescriptorImpl) jobMap.get(etd.getJobId())).getInternal(),
+                                     nodeSet,
+                                     freeResources);
+                        continue;
                     }
+                    numberOfTaskStarted += deployTasks(currentPolicy, jobMap, tasksToSchedule, nodeSet, freeResources);
+                }
+                if (activeObjectCreationRetryTimeNumber <= 0) {
+                    break;
                 }
             }
             if (freeResources.isEmpty()) {
                 break;
             }
-            if (activeObjectCreationRetryTimeNumber == 0) {
+            if (activeObjectCreationRetryTimeNumber <= 0) {
                 break;
             }
         }
+        if (reservation != null) {
+            // free nodes left unused because of the reservation
+            statistics.reservedNodesIdle(freeResources.size());
+        }
         return numberOfTaskStarted;
     }
 
-    private void loggingEligibleTasksDetails(LinkedList<EligibleTaskDescriptor> fullListOfTaskRetrievedFromPolicy,
-            LinkedList<EligibleTaskDescriptor> taskRetrievedFromPolicy) {
-        logger.debug("full list of eligible tasks: " +
-                     (fullListOfTaskRetrievedFromPolicy.size() < 5 ? fullListOfTaskRetrievedFromPolicy
-                                                                   : fullListOfTaskRetrievedFromPolicy.size()));
+    private void loggingEligibleTasksDetails(LinkedList<EligibleTaskDescriptor> taskRetrievedFromPolicy) {
         logger.debug("working list of eligible tasks: " +
                      (taskRetrievedFromPolicy.size() < 5 ? taskRetrievedFromPolicy : taskRetrievedFromPolicy.size()));
     }
@@ -471,14 +543,22 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
                     //the current task would be retried on the next step
                     //we continue to start the maximum number of task in a single scheduling loop.
                     //this case will focus on starting single node task first if lot of resources are busy.
-                    //(multi-nodes starvation may occurs)
+                    //(multi-nodes starvation may occurs, unless multi-node backfilling is enabled,
+                    //in which case nodes are reserved for the task)
+                    reserveNodes(internalTask, maxResource);
                 } else {
                     //check if the task is compatible with the other previous one
                     if (referent.equals(new SchedulingTaskComparator(internalTask, currentJob))) {
-                        tlogger.debug(internalTask.getId(), "scheduling");
-                        neededResource += neededNodes;
-                        maxResource -= neededNodes;
-                        toFill.add(etd);
+                        if (isDelayingReservation(internalTask, neededNodes)) {
+                            //the task would delay the reserved multi-node task, it will be retried on the next step
+                            tlogger.debug(internalTask.getId(), "not backfilled, nodes are reserved for " +
+                                                                reservation.getTask().getId());
+                        } else {
+                            tlogger.debug(internalTask.getId(), "scheduling");
+                            neededResource += neededNodes;
+                            maxResource -= neededNodes;
+                            toFill.add(etd);
+                        }
                     } else {
                         bagOfTasks.addFirst(etd);
                         break;
@@ -489,6 +569,59 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
         return neededResource;
     }
 
+    /**
+     * Update the reservation made for a multi-node task at the beginning of a scheduling loop:
+     * release it if the task was started or is no longer pending, and plan it according to the free nodes
+     * and the running tasks.
+     *
+     * @param freeNodes the number of free nodes
+     */
+    private void planReservation(int freeNodes) {
+        if (reservation == null) {
+            return;
+        }
+        if (!reservation.isActive()) {
+            if (reservation.getTask().getStatus() == TaskStatus.RUNNING) {
+                statistics.reservationSatisfied(reservation.getTask().getStartTime() - reservation.getCreationTime());
+            }
+            tlogger.debug(reservation.getTask().getId(), "nodes reservation released");
+            reservation = null;
+            return;
+        }
+        reservation.plan(freeNodes, schedulingService.getJobs().getRunningTasks(), System.currentTimeMillis());
+    }
+
+    /**
+     * Reserve nodes for a multi-node task which cannot be started because not enough nodes are free,
+     * if multi-node backfilling is enabled and no other task holds a reservation.
+     *
+     * @param task the multi-node task
+     * @param freeNodes the number of free nodes
+     */
+    private void reserveNodes(InternalTask task, int freeNodes) {
+        if (!multiNodeBackfilling || reservation != null) {
+            return;
+        }
+        reservation = new MultiNodeReservation(task);
+        reservation.plan(freeNodes, schedulingService.getJobs().getRunningTasks(), System.currentTimeMillis());
+        statistics.reservationCreated();
+        tlogger.info(task.getId(), "reserving " + task.getNumberOfNodesNeeded() + " nodes");
+    }
+
+    /**
+     * @return true if starting the given task would delay the task holding the nodes reservation
+     */
+    private boolean isDelayingReservation(InternalTask task, int neededNodes) {
+        if (reservation == null || reservation.getTask() == task) {
+            return false;
+        }
+        if (reservation.canBackfill(task, neededNodes, System.currentTimeMillis())) {
+            statistics.taskBackfilled();
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Ask to the RM the given number of node resources.<br>
      * If there is a problem with these task selection (such as bad selectionScript) this method
@@ -512,46 +645,13 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
         InternalJob currentJob = ((JobDescriptorImpl) jobMap.get(etd.getJobId())).getInternal();
         InternalTask internalTask0 = currentJob.getIHMTasks().get(etd.getTaskId());
         try {
-
-            TopologyDescriptor descriptor = null;
-            boolean bestEffort = true;
-
-            if (internalTask0.isParallel()) {
-                descriptor = internalTask0.getParallelEnvironment().getTopologyDescriptor();
-                bestEffort = false;
-                if (descriptor == null) {
-                    logger.debug("Topology is not defined for the task " + internalTask0.getName());
-                }
-            }
-            if (descriptor == null) {
-                // descriptor is not defined, use default
-                descriptor = TopologyDescriptor.ARBITRARY;
-            }
-
             try {
                 schedulingMainLoopTimingLogger.start("setCriteria");
-                Criteria criteria = new Criteria(neededResourcesNumber);
-                criteria.setTopology(descriptor);
-                // resolve script variables (if any) in the list of selection
-                // scripts and then set it as the selection criteria.
-                criteria.setScripts(resolveScriptVariables(internalTask0.getSelectionScripts(),
-                                                           internalTask0.getRuntimeVariables()));
-                criteria.setBlackList(internalTask0.getNodeExclusion());
-                criteria.setBestEffort(bestEffort);
-                criteria.setAcceptableNodesUrls(freeResources);
-                criteria.setBindings(createBindingsForSelectionScripts(currentJob, internalTask0, schedulingService));
-                if (internalTask0.getRuntimeGenericInformation().containsKey(SchedulerConstants.NODE_ACCESS_TOKEN)) {
-                    criteria.setNodeAccessToken(internalTask0.getRuntimeGenericInformation()
-                                                             .get(SchedulerConstants.NODE_ACCESS_TOKEN));
-                }
-
-                Collection<String> computationDescriptors = new ArrayList<>(tasksToSchedule.size());
-                for (EligibleTaskDescriptor task : tasksToSchedule) {
-                    computationDescriptors.add(TaskLogger.getTaskLogRelativePath(task.getTaskId()));
-                }
-
-                criteria.setComputationDescriptors(computationDescriptors);
-
+                Criteria criteria = createCriteria(currentJob,
+                                                   internalTask0,
+                                                   neededResourcesNumber,
+                                                   tasksToSchedule,
+                                                   freeResources);
                 schedulingMainLoopTimingLogger.end("setCriteria");
 
                 schedulingMainLoopTimingLogger.start("getNodeSetWithCriteria");
@@ -591,6 +691,161 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
         }
     }
 
+    /**
+     * Ask to the RM the nodes of several groups of compatible tasks.<br>
+     * The nodes of the groups of a same job owner are requested in a single call, the RM evaluates their
+     * criteria in parallel and never gives the same node to two groups. If a criteria is rejected by the RM
+     * (such as disabled topology), the nodes of each group of the call are requested separately as in
+     * {@link #getRMNodes(Map, int, LinkedList, Set)}, so that only the corresponding tasks and jobs are stopped.
+     *
+     * @param neededResourcesNumbers the number of resources to ask for each group (must be &gt; 0).
+     * @param groupsToSchedule the groups of compatible tasks to be scheduled
+     * @return the node sets of the groups, in the same order. A node set is empty if no nodes could be found and
+     *         null if there was an exception when asking for the nodes
+     */
+    protected List<NodeSet> getRMNodes(Map<JobId, JobDescriptor> jobMap, List<Integer> neededResourcesNumbers,
+            List<LinkedList<EligibleTaskDescriptor>> groupsToSchedule, Set<String> freeResources) {
+        if (groupsToSchedule.size() == 1) {
+            return Collections.singletonList(getRMNodes(jobMap,
+                                                        neededResourcesNumbers.get(0),
+                                                        groupsToSchedule.get(0),
+                                                        freeResources));
+        }
+
+        NodeSet[] nodeSets = new NodeSet[groupsToSchedule.size()];
+        // user RM proxies are per job owner
+        Map<String, List<Integer>> groupsByOwner = new LinkedHashMap<>();
+        for (int i = 0; i < groupsToSchedule.size(); i++) {
+            InternalJob job = getJob(jobMap, groupsToSchedule.get(i).getFirst());
+            if (!groupsByOwner.containsKey(job.getOwner())) {
+                groupsByOwner.put(job.getOwner(), new ArrayList<Integer>());
+            }
+            groupsByOwner.get(job.getOwner()).add(i);
+        }
+
+        for (Map.Entry<String, List<Integer>> ownerGroups : groupsByOwner.entrySet()) {
+            schedulingMainLoopTimingLogger.start("setCriteria");
+            List<Criteria> criteria = new ArrayList<>(ownerGroups.getValue().size());
+            List<Integer> requestedGroups = new ArrayList<>(ownerGroups.getValue().size());
+            InternalJob ownerJob = null;
+            for (int i : ownerGroups.getValue()) {
+                LinkedList<EligibleTaskDescriptor> tasksToSchedule = groupsToSchedule.get(i);
+                EligibleTaskDescriptor etd = tasksToSchedule.getFirst();
+                InternalJob currentJob = getJob(jobMap, etd);
+                InternalTask internalTask0 = currentJob.getIHMTasks().get(etd.getTaskId());
+                try {
+                    criteria.add(createCriteria(currentJob,
+                                                internalTask0,
+                                                neededResourcesNumbers.get(i),
+                                                tasksToSchedule,
+                                                freeResources));
+                    requestedGroups.add(i);
+                    ownerJob = currentJob;
+                } catch (IOException | ClassNotFoundException e) {
+                    logger.warn("Failed to deserialize previous task variables before selection for task " +
+                                internalTask0.getId().toString(), e);
+                    schedulingService.simulateJobStartAndCancelIt(tasksToSchedule,
+                                                                  "Failed to deserialize previous task variables before selection for task " +
+                                                                                   internalTask0.getId().toString());
+                }
+            }
+            schedulingMainLoopTimingLogger.end("setCriteria");
+
+            if (criteria.isEmpty()) {
+                continue;
+            }
+
+            try {
+                schedulingMainLoopTimingLogger.start("getNodeSetWithCriteria");
+                NodeSetList ownerNodeSets = getRMProxiesManager().getUserRMProxy(ownerJob.getOwner(),
+                                                                                 ownerJob.getCredentials())
+                                                                 .getNodes(criteria);
+                schedulingMainLoopTimingLogger.end("getNodeSetWithCriteria");
+
+                schedulingMainLoopTimingLogger.start("waitForNodeSetWithCriteria");
+                PAFuture.waitFor(ownerNodeSets, true);
+                schedulingMainLoopTimingLogger.end("waitForNodeSetWithCriteria");
+
+                for (int j = 0; j < requestedGroups.size(); j++) {
+                    nodeSets[requestedGroups.get(j)] = ownerNodeSets.get(j);
+                }
+            } catch (RMProxyCreationException e) {
+                logger.warn("Failed to create User RM Proxy", e);
+                for (int i : requestedGroups) {
+                    //simulate jobs starts and cancel it
+                    schedulingService.simulateJobStartAndCancelIt(groupsToSchedule.get(i),
+                                                                  "Failed to create User RM Proxy : Authentication Failed to Resource Manager for user '" +
+                                                                                           ownerJob.getOwner() + "'");
+                }
+            } catch (RuntimeException e) {
+                // no node has been booked, the groups are requested separately to find the faulty one(s)
+                logger.warn("Failed to get the nodes of " + requestedGroups.size() + " groups of tasks of user " +
+                            ownerJob.getOwner() + ", requesting them separately", e);
+                for (int i : requestedGroups) {
+                    nodeSets[i] = getRMNodes(jobMap,
+                                             neededResourcesNumbers.get(i),
+                                             groupsToSchedule.get(i),
+                                             freeResources);
+                }
+            }
+        }
+        return Arrays.asList(nodeSets);
+    }
+
+    private InternalJob getJob(Map<JobId, JobDescriptor> jobMap, EligibleTaskDescriptor etd) {
+        return ((JobDescriptorImpl) jobMap.get(etd.getJobId())).getInternal();
+    }
+
+    /**
+     * Create the criteria used to ask to the RM the nodes of a group of compatible tasks
+     *
+     * @param job the job of the first task of the group
+     * @param internalTask0 the first task of the group
+     * @param neededResourcesNumber the number of resources to ask for
+     * @param tasksToSchedule the tasks of the group
+     */
+    private Criteria createCriteria(InternalJob job, InternalTask internalTask0, int neededResourcesNumber,
+            LinkedList<EligibleTaskDescriptor> tasksToSchedule, Set<String> freeResources)
+            throws IOException, ClassNotFoundException {
+        TopologyDescriptor descriptor = null;
+        boolean bestEffort = true;
+
+        if (internalTask0.isParallel()) {
+            descriptor = internalTask0.getParallelEnvironment().getTopologyDescriptor();
+            bestEffort = false;
+            if (descriptor == null) {
+                logger.debug("Topology is not defined for the task " + internalTask0.getName());
+            }
+        }
+        if (descriptor == null) {
+            // descriptor is not defined, use default
+            descriptor = TopologyDescriptor.ARBITRARY;
+        }
+
+        Criteria criteria = new Criteria(neededResourcesNumber);
+        criteria.setTopology(descriptor);
+        // resolve script variables (if any) in the list of selection
+        // scripts and then set it as the selection criteria.
+        criteria.setScripts(resolveScriptVariables(internalTask0.getSelectionScripts(),
+                                                   internalTask0.getRuntimeVariables()));
+        criteria.setBlackList(internalTask0.getNodeExclusion());
+        criteria.setBestEffort(bestEffort);
+        criteria.setAcceptableNodesUrls(freeResources);
+        criteria.setBindings(createBindingsForSelectionScripts(job, internalTask0, schedulingService));
+        if (internalTask0.getRuntimeGenericInformation().containsKey(SchedulerConstants.NODE_ACCESS_TOKEN)) {
+            criteria.setNodeAccessToken(internalTask0.getRuntimeGenericInformation()
+                                                     .get(SchedulerConstants.NODE_ACCESS_TOKEN));
+        }
+
+        Collection<String> computationDescriptors = new ArrayList<>(tasksToSchedule.size());
+        for (EligibleTaskDescriptor task : tasksToSchedule) {
+            computationDescriptors.add(TaskLogger.getTaskLogRelativePath(task.getTaskId()));
+        }
+
+        criteria.setComputationDescriptors(computationDescriptors);
+        return criteria;
+    }
+
     /**
      * Update all variables for the given scheduled tasks
      */
@@ -678,18 +933,104 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
     }
 
     /**
-     * Create launcher and try to start the task.
+     * Deploy the given tasks on the nodes obtained from the resource manager.<br>
+     * Nodes are first assigned to the tasks in the scheduling order, then the task launchers are created
+     * concurrently on the deployment pool and the tasks are started as soon as their launcher is available.
+     * A launcher creation which fails or exceeds its timeout only gives back the nodes of its own task, a creation
+     * still running keeps them until it ends.
      *
-     * @param nodeSet the node set containing every available nodes that can be used for execution
-     * @param node the node on which to start the task
-     * @param job the job that owns the task to be started
-     * @param task the task to be started
-     * @param taskDescriptor the descriptor of the task to be started
+     * @param currentPolicy the current scheduling policy
+     * @param jobMap the jobs selected by the scheduling loop
+     * @param tasksToSchedule the compatible tasks to be started
+     * @param nodeSet the nodes obtained from the resource manager for these tasks
+     * @param freeResources the free nodes urls, updated with the nodes given back to the resource manager
+     * @return the number of tasks that have been started
+     */
+    int deployTasks(Policy currentPolicy, Map<JobId, JobDescriptor> jobMap,
+            LinkedList<EligibleTaskDescriptor> tasksToSchedule, NodeSet nodeSet, Set<String> freeResources) {
+        long deploymentStart = System.currentTimeMillis();
+        List<TaskDeployment> deployments = new ArrayList<>(tasksToSchedule.size());
+        InternalJob currentJob = null;
+
+        schedulingMainLoopTimingLogger.start("assignNodes");
+        while (!nodeSet.isEmpty() && !tasksToSchedule.isEmpty()) {
+            EligibleTaskDescriptor taskDescriptor = tasksToSchedule.removeFirst();
+            currentJob = ((JobDescriptorImpl) jobMap.get(taskDescriptor.getJobId())).getInternal();
+            InternalTask internalTask = ((EligibleTaskDescriptorImpl) taskDescriptor).getInternal();
+
+            if (currentPolicy.isTaskExecutable(nodeSet, taskDescriptor) &&
+                prepareDeployment(nodeSet, currentJob, internalTask)) {
+                Node node = nodeSet.remove(0);
+                NodeSet nodes = new NodeSet();
+                //if topology is enabled and it is a multi task, give every nodes to the multi-nodes task
+                // we will need to update this code once topology will be allowed for single-node task
+                if (internalTask.isParallel()) {
+                    nodes = new NodeSet(nodeSet);
+                    nodeSet.clear();
+                }
+                deployments.add(new TaskDeployment(currentJob, internalTask, taskDescriptor, node, nodes));
+            }
+        }
+        schedulingMainLoopTimingLogger.end("assignNodes");
+
+        //get back unused nodes to the RManager
+        if (!nodeSet.isEmpty()) {
+            schedulingMainLoopTimingLogger.start("releaseNodes");
+            releaseNodes(currentJob, nodeSet, freeResources);
+            schedulingMainLoopTimingLogger.end("releaseNodes");
+        }
+
+        // create launchers
+        schedulingMainLoopTimingLogger.start("createLauncher");
+        for (TaskDeployment deployment : deployments) {
+            deployment.createLauncher(deploymentPool);
+        }
+
+        int numberOfTaskStarted = 0;
+        int startTaskTimeout = PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt();
+        for (int i = 0; i < deployments.size(); i++) {
+            TaskDeployment deployment = deployments.get(i);
+            // launchers are created by waves of the pool size, each creation is bounded by the start task timeout
+            long queueTimeout = (long) startTaskTimeout * (i / deploymentPoolSize);
+            TaskLauncher launcher;
+            try {
+                launcher = deployment.waitForLauncher(queueTimeout, startTaskTimeout);
+                activeObjectCreationRetryTimeNumber = ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER;
+            } catch (Exception e) {
+                Throwable cause = (e instanceof ExecutionException) ? e.getCause() : e;
+                if (cause instanceof ActiveObjectCreationException) {
+                    //Something goes wrong with the active object creation (createLauncher)
+                    activeObjectCreationRetryTimeNumber--;
+                }
+                tlogger.warn(deployment.getTask().getId(),
+                             "unable to create the task launcher on " +
+                                                           deployment.getNode().getNodeInformation().getURL(),
+                             cause);
+                statistics.taskDeploymentFailed();
+                if (deployment.abandon(() -> giveBackNodes(deployment.getJob(), deployment.getAllNodes()))) {
+                    releaseNodes(deployment.getJob(), deployment.getAllNodes(), freeResources);
+                }
+                continue;
+            }
+            if (startTask(deployment, launcher, freeResources)) {
+                numberOfTaskStarted++;
+            }
+        }
+        schedulingMainLoopTimingLogger.end("createLauncher");
+
+        statistics.tasksDeployed(numberOfTaskStarted, System.currentTimeMillis() - deploymentStart);
+        return numberOfTaskStarted;
+    }
+
+    /**
+     * Check that the task can be deployed and start the dataspace application of its job.
      *
+     * @param nodeSet the node set containing every available nodes that can be used for execution
+     * @param job the job that owns the task to be deployed
+     * @param task the task to be deployed
+     * @return true if a launcher can be created for the task
      */
-    protected boolean createExecution(NodeSet nodeSet, Node node, InternalJob job, InternalTask task,
-            TaskDescriptor taskDescriptor) throws Exception {
-        TaskLauncher launcher = null;
+    private boolean prepareDeployment(NodeSet nodeSet, InternalJob job, InternalTask task) {
         LiveJobs.JobData jobData = null;
         try {
             jobData = schedulingService.lockJob(job.getId());
@@ -701,109 +1042,122 @@ public final class SchedulingMethodImpl implements SchedulingMethod {
                 DataSpaceServiceStarter dsStarter = schedulingService.getInfrastructure().getDataSpaceServiceStarter();
                 job.startDataSpaceApplication(dsStarter.getNamingService(), ImmutableList.of(task));
                 job.setSynchronizationAPI(schedulingService.getSynchronizationAPI());
+                return true;
+            }
+            return false;
+        } catch (Exception e) {
+            tlogger.warn(task.getId(), "unable to prepare the deployment", e);
+            return false;
+        } finally {
+            if (jobData != null) {
+                jobData.unlock();
+            }
+        }
+    }
 
-                NodeSet nodes = new NodeSet();
-                try {
-
-                    // create launcher
-                    schedulingMainLoopTimingLogger.start("createLauncher");
-
-                    launcher = task.createLauncher(node);
-
-                    schedulingMainLoopTimingLogger.end("createLauncher");
-
-                    activeObjectCreationRetryTimeNumber = ACTIVEOBJECT_CREATION_RETRY_TIME_NUMBER;
-
-                    nodeSet.remove(0);
-
-                    //if topology is enabled and it is a multi task, give every nodes to the multi-nodes task
-                    // we will need to update this code once topology will be allowed for single-node task
-                    if (task.isParallel()) {
-                        nodes = new NodeSet(nodeSet);
-                        task.getExecuterInformation().addNodes(nodes);
-                        nodeSet.clear();
-                    }
-
-                    //set nodes in the executable container
-                    task.getExecutableContainer().setNodes(nodes);
+    /**
+     * Start the task using the launcher created on its node.
+     *
+     * @param deployment the deployment of the task to be started
+     * @param launcher the launcher created on the node of the task
+     * @param freeResources the free nodes urls, updated if the nodes of the task are given back
+     * @return true if the task has been started
+     */
+    private boolean startTask(TaskDeployment deployment, TaskLauncher launcher, Set<String> freeResources) {
+        InternalJob job = deployment.getJob();
+        InternalTask task = deployment.getTask();
+        TaskDescriptor taskDescriptor = deployment.getTaskDescriptor();
+        NodeSet nodes = deployment.getNodes();
+        LiveJobs.JobData jobData = null;
+        try {
+            jobData = schedulingService.lockJob(job.getId());
+            // the job or the task may have been killed, paused or preempted while the launcher was created
+            if (jobData == null || !isStillEligible(job, task)) {
+                tlogger.info(task.getId(), "not started, it is no longer eligible (" + task.getStatus() + ")");
+                if (deployment.abandon(() -> giveBackNodes(job, deployment.getAllNodes()))) {
+                    releaseNodes(job, deployment.getAllNodes(), freeResources);
+                }
+                return false;
+            }
 
-                    tlogger.debug(task.getId(), "deploying");
+            if (task.isParallel()) {
+                task.getExecuterInformation().addNodes(nodes);
+            }
 
-                    // Dynamically adjust the start-task-timeout according to the number dependency tasks in a merge.
-                    // above 500 parent tasks, it is worth adjusting.
-                    if (taskDescriptor.getParents().size() > 500) {
-                        dotaskActionTimeout = (int) (taskDescriptor.getParents().size() / 500.0 *
-                                                     PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt());
-                    } else {
-                        // reset the dotaskActionTimeout to its default value otherwise.
-                        dotaskActionTimeout = PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt();
-                    }
+            //set nodes in the executable container
+            task.getExecutableContainer().setNodes(nodes);
 
-                    schedulingMainLoopTimingLogger.start("areNodesRecoverable");
-                    boolean taskRecoverable = getRMProxiesManager().getRmProxy().areNodesRecoverable(nodes);
-                    schedulingMainLoopTimingLogger.end("areNodesRecoverable");
-
-                    schedulingMainLoopTimingLogger.start("terminateNotificationNodeURL");
-                    String terminateNotificationNodeURL = PAActiveObject.getActiveObjectNode(terminateNotification)
-                                                                        .getNodeInformation()
-                                                                        .getURL();
-                    TaskRecoveryData taskRecoveryData = new TaskRecoveryData(terminateNotificationNodeURL,
-                                                                             taskRecoverable);
-                    schedulingMainLoopTimingLogger.start("terminateNotificationNodeURL");
-
-                    schedulingMainLoopTimingLogger.start("submitWithTimeout");
-
-                    threadPool.submitWithTimeout(new TimedDoTaskAction(job,
-                                                                       taskDescriptor,
-                                                                       launcher,
-                                                                       schedulingService,
-                                                                       terminateNotification,
-                                                                       corePrivateKey,
-                                                                       taskRecoveryData),
-
-                                                 dotaskActionTimeout,
-                                                 TimeUnit.MILLISECONDS);
-
-                    schedulingMainLoopTimingLogger.end("submitWithTimeout");
-
-                    // we advertise here that the task is started, however
-                    // this is not entirely true: the only thing we are sure
-                    // about at this point is that we submitted to the thread
-                    // pool the action that will call the "doTask" of the task
-                    // launcher. There is thus a small gap here where the task
-                    // is seen as started whereas it is not yet started. We
-                    // cannot easily move the task started notification because
-                    // 1) it makes the job lock acquisition less predictable
-                    // (because the TimeDoTaskAction will have to compete with
-                    // the SchedulingMethodImpl)
-                    // and more importantly 2) the
-                    // SchedulingMethodImpl#createExecution may happen to be
-                    // called a second time for the task that is currently being
-                    // started by the TimedDoTaskAction.
-                    schedulingMainLoopTimingLogger.start("finalizeStarting");
-                    finalizeStarting(job, task, node, launcher);
-                    schedulingMainLoopTimingLogger.end("finalizeStarting");
-                    return true;
-                } catch (Exception t) {
-                    try {
-                        //if there was a problem, free nodeSet for multi-nodes task
-                        nodes.add(node);
-                        releaseNodes(job, nodes);
-                    } catch (Throwable ni) {
-                        //miam miam
-                    }
-                    throw t;
-                }
+            tlogger.debug(task.getId(), "deploying");
 
+            // Dynamically adjust the start-task-timeout according to the number dependency tasks in a merge.
+            // above 500 parent tasks, it is worth adjusting.
+            if (taskDescriptor.getParents().size() > 500) {
+                dotaskActionTimeout = (int) (taskDescriptor.getParents().size() / 500.0 *
+                                             PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt());
             } else {
-                return false;
+                // reset the dotaskActionTimeout to its default value otherwise.
+                dotaskActionTimeout = PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.getValueAsInt();
             }
+
+            schedulingMainLoopTimingLogger.start("areNodesRecoverable");
+            boolean taskRecoverable = getRMProxiesManager().getRmProxy().areNodesRecoverable(nodes);
+            schedulingMainLoopTimingLogger.end("areNodesRecoverable");
+
+            TaskRecoveryData taskRecoveryData = new TaskRecoveryData(terminateNotificationNodeURL, taskRecoverable);
+
+            schedulingMainLoopTimingLogger.start("submitWithTimeout");
+
+            threadPool.submitWithTimeout(new TimedDoTaskAction(job,
+                                                               taskDescriptor,
+                                                               launcher,
+                                                               schedulingService,
+                                                               terminateNotification,
+                                                               corePrivateKey,
+                                                               taskRecoveryData),
+
+                                         dotaskActionTimeout,
+                                         TimeUnit.MILLISECONDS);
+
+            schedulingMainLoopTimingLogger.end("submitWithTimeout");
+
+            // we advertise here that the task is started, however
+            // this is not entirely true: the only thing we are sure
+            // about at this point is that we submitted to the thread
+            // pool the action that will call the "doTask" of the task
+            // launcher. There is thus a small gap here where the task
+            // is seen as started whereas it is not yet started. We
+            // cannot easily move the task started notification because
+            // 1) it makes the job lock acquisition less predictable
+            // (because the TimeDoTaskAction will have to compete with
+            // the SchedulingMethodImpl)
+            // and more importantly 2) the
+            // SchedulingMethodImpl#startTask may happen to be
+            // called a second time for the task that is currently being
+            // started by the TimedDoTaskAction.
+            schedulingMainLoopTimingLogger.start("finalizeStarting");
+            finalizeStarting(job, task, deployment.getNode(), launcher);
+            schedulingMainLoopTimingLogger.end("finalizeStarting");
+            return true;
+        } catch (Exception e) {
+            //if we are here, it is that something append while launching the current task.
+            logger.warn("An exception occured while starting task.", e);
+            statistics.taskDeploymentFailed();
+            releaseNodes(job, deployment.getAllNodes(), freeResources);
+            return false;
         } finally {
             if (jobData != null) {
                 jobData.unlock();
             }
         }
+    }
 
+    /**
+     * Checks, under the lock of the job, that the task is still waiting to be started.
+     */
+    private boolean isStillEligible(InternalJob job, InternalTask task) {
+        TaskStatus status = task.getStatus();
+        return (status == TaskStatus.PENDING || status == TaskStatus.SUBMITTED) &&
+               job.getJobDescriptor().isEligible(task.getId());
     }
 
     /**
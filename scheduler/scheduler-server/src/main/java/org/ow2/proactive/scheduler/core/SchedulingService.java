@@ -248,7 +248,7 @@ public class SchedulingService {
         logger.info("Scheduler has just been resumed !");
         listener.schedulerStateUpdated(SchedulerEvent.RESUMED);
 
-        wakeUpSchedulingThread();
+        wakeUpSchedulingThread(SchedulingTrigger.SCHEDULER_STATE_CHANGED);
 
         return true;
     }
@@ -510,7 +510,7 @@ public class SchedulingService {
         try {
             return infrastructure.getClientOperationsThreadPool().submit(() -> {
                 Boolean result = jobs.restartAllInErrorTasks(jobId);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTrigger.TASK_RESTARTED);
                 return result;
             }).get();
         } catch (Exception e) {
@@ -522,7 +522,7 @@ public class SchedulingService {
         try {
             return infrastructure.getClientOperationsThreadPool().submit(() -> {
                 Boolean result = jobs.resumeJob(jobId);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTrigger.JOB_STATE_CHANGED);
                 return result;
             }).get();
         } catch (Exception e) {
@@ -538,7 +538,7 @@ public class SchedulingService {
             infrastructure.getClientOperationsThreadPool().submit(() -> {
                 jlogger.info(jobId, "request to change the priority to " + priority);
                 jobs.changeJobPriority(jobId, priority);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTrigger.JOB_STATE_CHANGED);
             }).get();
         } catch (Exception e) {
             throw handleFutureWaitException(e);
@@ -575,7 +575,7 @@ public class SchedulingService {
             } catch (Exception e) {
                 logger.error("Exception occurred, fail to get variables into the cleaning script: ", e);
             }
-            wakeUpSchedulingThread();
+            wakeUpSchedulingThread(SchedulingTrigger.TASK_RESTARTED);
         });
     }
 
@@ -606,7 +606,7 @@ public class SchedulingService {
                 TerminationData terminationData = jobs.killJob(jobId);
                 boolean jobKilled = terminationData.jobTerminated(jobId);
                 submitTerminationDataHandler(terminationData);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTrigger.JOB_STATE_CHANGED);
                 return jobKilled;
             }).get();
 
@@ -636,7 +636,7 @@ public class SchedulingService {
                 TerminationData terminationData = jobs.killTask(jobId, taskName, message);
                 boolean taskKilled = terminationData.taskTerminated(jobId, taskName);
                 submitTerminationDataHandler(terminationData);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTrigger.TASK_TERMINATED);
                 return taskKilled;
             }).get();
         } catch (ExecutionException e) {
@@ -663,7 +663,7 @@ public class SchedulingService {
                 TerminationData terminationData = jobs.restartTask(jobId, taskName, restartDelay);
                 boolean taskRestarted = terminationData.taskTerminated(jobId, taskName);
                 submitTerminationDataHandler(terminationData);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTrigger.TASK_RESTARTED);
                 return taskRestarted;
             }).get();
         } catch (ExecutionException e) {
@@ -690,7 +690,7 @@ public class SchedulingService {
                 TerminationData terminationData = jobs.finishInErrorTask(jobId, taskName);
                 boolean taskfinished = terminationData.taskTerminated(jobId, taskName);
                 submitTerminationDataHandler(terminationData);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTrigger.TASK_TERMINATED);
                 return taskfinished;
             }).get();
         } catch (ExecutionException e) {
@@ -715,7 +715,7 @@ public class SchedulingService {
 
             return infrastructure.getClientOperationsThreadPool().submit(() -> {
                 jobs.restartInErrorTask(jobId, taskName);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTrigger.TASK_RESTARTED);
                 return Boolean.TRUE;
             }).get();
         } catch (ExecutionException e) {
@@ -738,7 +738,7 @@ public class SchedulingService {
                 TerminationData terminationData = jobs.preemptTask(jobId, taskName, restartDelay);
                 boolean taskRestarted = terminationData.taskTerminated(jobId, taskName);
                 submitTerminationDataHandler(terminationData);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTrigger.TASK_RESTARTED);
                 return taskRestarted;
             }).get();
 
@@ -777,7 +777,7 @@ public class SchedulingService {
             try {
                 TerminationData terminationData = jobs.taskTerminatedWithResult(taskId, (TaskResultImpl) taskResult);
                 terminationData.handleTermination(SchedulingService.this);
-                wakeUpSchedulingThread();
+                wakeUpSchedulingThread(SchedulingTrigger.TASK_TERMINATED);
             } catch (Throwable e) {
                 logger.error("Failed to terminate task " + taskId, e);
             }
@@ -938,10 +938,27 @@ public class SchedulingService {
 
         recoverTasksState(pendingJobs, true);
 
+        scheduleFinishedJobsRemoval(finishedJobs);
+    }
+
+    /**
+     * Called when finished jobs are recovered once the scheduling service is started,
+     * see
+     * {@link org.ow2.proactive.scheduler.core.db.SchedulerStateRecoverHelper#recoverFinishedJobs(long,
+     * java.util.function.Consumer)}.
+     *
+     * @param finishedJobs the recovered finished jobs
+     */
+    public void finishedJobsRecovered(List<InternalJob> finishedJobs) {
+        recoverTasksState(finishedJobs, false);
+        scheduleFinishedJobsRemoval(finishedJobs);
+    }
+
+    private void scheduleFinishedJobsRemoval(List<InternalJob> finishedJobs) {
         if (SCHEDULER_REMOVED_JOB_DELAY > 0 || SCHEDULER_AUTO_REMOVED_JOB_DELAY > 0) {
             logger.debug("Removing non-managed jobs");
 
-            for (InternalJob job : recoveredState.getFinishedJobs()) {
+            for (InternalJob job : finishedJobs) {
                 //re-set job removed delay (if job result has been sent to user)
                 long toWait = 0;
                 if (job.isToBeRemoved()) {
@@ -1069,8 +1086,8 @@ public class SchedulingService {
         schedulingThread.sleepSchedulingThread();
     }
 
-    protected void wakeUpSchedulingThread() {
-        schedulingThread.wakeUpSchedulingThread();
+    protected void wakeUpSchedulingThread(SchedulingTrigger trigger) {
+        schedulingThread.wakeUpSchedulingThread(trigger);
     }
 
     /**
@@ -1078,6 +1095,17 @@ public class SchedulingService {
      */
     public class HousekeepingRunner implements Runnable {
 
+        /**
+         * Maximum number of jobs marked as removed but still in the database handled by a housekeeping run
+         */
+        private static final int REMOVED_JOBS_TO_DELETE_LIMIT = 1000;
+
+        /**
+         * Id of the last job marked as removed handled by the previous housekeeping run, the next run
+         * continues after it so that the jobs whose deletion keeps failing do not delay the other jobs
+         */
+        private long lastRemovedJobIdToDelete = 0;
+
         private List<Long> removeFromContext(List<JobId> jobIdList) {
             List<Long> longList = new ArrayList<>(jobIdList.size());
             for (JobId jobId : jobIdList) {
@@ -1105,15 +1133,29 @@ public class SchedulingService {
                 }
             }
 
-            wakeUpSchedulingThread();
+            wakeUpSchedulingThread(SchedulingTrigger.JOBS_REMOVED);
             return longList;
         }
 
         private void removeFromDB(List<Long> longJobIdList) {
+            boolean removeFromDb = PASchedulerProperties.JOB_REMOVE_FROM_DB.getValueAsBoolean();
             if (!longJobIdList.isEmpty()) {
-                getInfrastructure().getDBManager()
-                                   .executeHousekeepingInDB(longJobIdList,
-                                                            PASchedulerProperties.JOB_REMOVE_FROM_DB.getValueAsBoolean());
+                getInfrastructure().getDBManager().executeHousekeepingInDB(longJobIdList, removeFromDb);
+            }
+            if (removeFromDb) {
+                // jobs marked as removed whose deletion did not happen, e.g. because the scheduler was stopped
+                List<Long> removedJobIdList = getInfrastructure().getDBManager()
+                                                                 .getRemovedJobsToDelete(lastRemovedJobIdToDelete,
+                                                                                         REMOVED_JOBS_TO_DELETE_LIMIT);
+                if (!removedJobIdList.isEmpty()) {
+                    getInfrastructure().getDBManager().executeHousekeepingInDB(removedJobIdList, true);
+                }
+                if (removedJobIdList.size() < REMOVED_JOBS_TO_DELETE_LIMIT) {
+                    // all the jobs were handled, the next run starts over with the jobs which could not be deleted
+                    lastRemovedJobIdToDelete = 0;
+                } else {
+                    lastRemovedJobIdToDelete = removedJobIdList.get(removedJobIdList.size() - 1);
+                }
             }
         }
 
@@ -1128,14 +1170,12 @@ public class SchedulingService {
                 List<Long> longJobIdList = removeFromContext(jobIdList);
                 long inMemoryTimeStop = System.currentTimeMillis();
 
-                // set the removedTime and also remove if required by the JOB_REMOVE_FROM_DB setting
-                long dbTimeStart = System.currentTimeMillis();
+                // set the removedTime and also remove if required by the JOB_REMOVE_FROM_DB setting,
+                // the database is updated in the background
                 removeFromDB(longJobIdList);
-                long dbTimeStop = System.currentTimeMillis();
 
                 logger.info("HOUSEKEEPING of jobs " + longJobIdList + " performed (Hibernate context removal took " +
-                            (inMemoryTimeStop - inMemoryTimeStart) + " ms" + " and db removal took " +
-                            (dbTimeStop - dbTimeStart) + " ms)");
+                            (inMemoryTimeStop - inMemoryTimeStart) + " ms" + ", db removal queued)");
             } catch (Throwable e) {
                 logger.error("Error performing HOUSEKEEPING of jobs", e);
             }
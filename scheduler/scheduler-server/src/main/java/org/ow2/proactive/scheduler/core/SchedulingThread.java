@@ -25,25 +25,53 @@
  */
 package org.ow2.proactive.scheduler.core;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.log4j.Logger;
 import org.ow2.proactive.scheduler.common.SchedulerStatus;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 
 
+/**
+ * Thread running the scheduling loop.
+ * <p>
+ * The loop is event driven: components which make new work or new capacity available post a
+ * {@link SchedulingTrigger} through {@link #wakeUpSchedulingThread(SchedulingTrigger)}. Triggers
+ * posted while an iteration is pending or running are coalesced, so that a burst of events
+ * results in a single new iteration. Nodes added to the resource manager or becoming free are
+ * notified by a {@link NodeEventsListener}. The scheduling timeout is only used as a fallback when no
+ * event is received.
+ */
 public final class SchedulingThread extends Thread {
 
-    private static final int SCHEDULER_TIME_OUT = PASchedulerProperties.SCHEDULER_TIME_OUT.getValueAsInt();
+    private static final Logger logger = Logger.getLogger(SchedulingThread.class);
+
 
     private final SchedulingMethod schedulingMethod;
 
     private final SchedulingService service;
 
+    /** Maximum time (in milliseconds) waited for a trigger before a new iteration */
+    private final long schedulingTimeout;
+
+    private final SchedulingLoopStatistics statistics = SchedulingLoopStatistics.getInstance();
+
+    /** Triggers received since the beginning of the current (or next) iteration, guarded by this */
+    private final EnumSet<SchedulingTrigger> pendingTriggers = EnumSet.noneOf(SchedulingTrigger.class);
+
+    /** Time (in nanoseconds) when the first pending trigger was received, guarded by this */
+    private long firstPendingTriggerTime;
+
     public SchedulingThread(SchedulingMethod schedulingMethod, SchedulingService service) {
+        this(schedulingMethod, service, PASchedulerProperties.SCHEDULER_TIME_OUT.getValueAsInt());
+    }
+
+    SchedulingThread(SchedulingMethod schedulingMethod, SchedulingService service, long schedulingTimeout) {
         super("SchedulingThread");
         this.schedulingMethod = schedulingMethod;
         this.service = service;
+        this.schedulingTimeout = schedulingTimeout;
     }
 
     public void run() {
@@ -51,11 +79,16 @@ public final class SchedulingThread extends Thread {
 
         while (!isInterrupted()) {
             try {
+                long triggerTime = consumePendingTriggers();
                 tasksStarted = false;
                 if (service.status == SchedulerStatus.STARTED || service.status == SchedulerStatus.PAUSED ||
                     service.status == SchedulerStatus.STOPPED) {
                     tasksStarted = schedulingMethod.schedule() > 0;
                 }
+                if (tasksStarted && triggerTime != 0) {
+                    statistics.tasksStartedAfterTrigger(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() -
+                                                                                      triggerTime));
+                }
                 if (!tasksStarted) {
                     service.sleepSchedulingThread();
                 }
@@ -65,17 +98,54 @@ public final class SchedulingThread extends Thread {
                 service.handleException(t);
             }
         }
+        schedulingMethod.shutdown();
     }
 
+    /**
+     * Clears the pending triggers before an iteration starts.
+     *
+     * @return the time of the first trigger received, or 0 if the iteration was not triggered
+     */
+    private synchronized long consumePendingTriggers() {
+        if (pendingTriggers.isEmpty()) {
+            return 0;
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace("Scheduling loop triggered by " + pendingTriggers);
+        }
+        long triggerTime = firstPendingTriggerTime;
+        pendingTriggers.clear();
+        firstPendingTriggerTime = 0;
+        return triggerTime;
+    }
+
+    /**
+     * Waits until a trigger is posted or the scheduling timeout elapses. Returns immediately if
+     * a trigger has been received while the previous iteration was running.
+     */
     protected void sleepSchedulingThread() throws InterruptedException {
         synchronized (this) {
-            this.wait(SCHEDULER_TIME_OUT);
+            if (!pendingTriggers.isEmpty()) {
+                return;
+            }
+            this.wait(schedulingTimeout);
+            if (pendingTriggers.isEmpty()) {
+                statistics.timeoutIteration();
+            }
         }
     }
 
-    protected void wakeUpSchedulingThread() {
+    protected void wakeUpSchedulingThread(SchedulingTrigger trigger) {
         synchronized (this) {
-            this.notifyAll();
+            boolean coalesced = !pendingTriggers.isEmpty();
+            if (!coalesced) {
+                firstPendingTriggerTime = System.nanoTime();
+            }
+            pendingTriggers.add(trigger);
+            statistics.triggerPosted(coalesced);
+            if (!coalesced) {
+                this.notifyAll();
+            }
         }
     }
 
@@ -0,0 +1,57 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+/**
+ * Events which can make new work or new capacity available to the scheduling loop.
+ * They are posted to the {@link SchedulingThread}, which coalesces them so that a burst of
+ * events results in a single scheduling iteration.
+ *
+ * @author The ProActive Team
+ */
+public enum SchedulingTrigger {
+
+    /** A job has been submitted */
+    JOB_SUBMITTED,
+
+    /** A task terminated: its nodes were released and its children may have become eligible */
+    TASK_TERMINATED,
+
+    /** A task was restarted or put back to pending, e.g. after a node failure or a preemption */
+    TASK_RESTARTED,
+
+    /** A job changed its state (resumed, priority changed, killed...) */
+    JOB_STATE_CHANGED,
+
+    /** Jobs were removed, which may unlock pending dependencies or capacity */
+    JOBS_REMOVED,
+
+    /** The scheduler itself changed its state (e.g. resumed) */
+    SCHEDULER_STATE_CHANGED,
+
+    /** Nodes were added to the resource manager or became free */
+    NODES_AVAILABLE
+}
@@ -0,0 +1,221 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.core.node.Node;
+import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskLauncher;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.ow2.proactive.utils.NodeSet;
+
+
+/**
+ * Deployment of a task on the nodes assigned to it by the scheduling loop.
+ * The task launcher is created asynchronously on the deployment pool, so that the launchers of
+ * all the tasks started by a scheduling loop are created concurrently.
+ * A deployment which is abandoned while its launcher is being created keeps its nodes until the creation ends,
+ * then terminates the launcher created too late and gives back the nodes.
+ */
+class TaskDeployment {
+
+    private static final Logger logger = Logger.getLogger(TaskDeployment.class);
+
+    private enum CreationState {
+        QUEUED,
+        RUNNING,
+        ENDED
+    }
+
+    private final InternalJob job;
+
+    private final InternalTask task;
+
+    private final EligibleTaskDescriptor taskDescriptor;
+
+    /** Node on which the task launcher is created */
+    private final Node node;
+
+    /** Other nodes given to a multi-nodes task */
+    private final NodeSet nodes;
+
+    private Future<TaskLauncher> launcher;
+
+    private final CountDownLatch creationStarted = new CountDownLatch(1);
+
+    private long submitTime;
+
+    private volatile long creationStartTime;
+
+    // guarded by this
+    private CreationState creationState = CreationState.QUEUED;
+
+    // guarded by this
+    private TaskLauncher createdLauncher;
+
+    // guarded by this, the action releasing the nodes once an abandoned creation ends
+    private Runnable lateRelease;
+
+    TaskDeployment(InternalJob job, InternalTask task, EligibleTaskDescriptor taskDescriptor, Node node,
+            NodeSet nodes) {
+        this.job = job;
+        this.task = task;
+        this.taskDescriptor = taskDescriptor;
+        this.node = node;
+        this.nodes = nodes;
+    }
+
+    InternalJob getJob() {
+        return job;
+    }
+
+    InternalTask getTask() {
+        return task;
+    }
+
+    EligibleTaskDescriptor getTaskDescriptor() {
+        return taskDescriptor;
+    }
+
+    Node getNode() {
+        return node;
+    }
+
+    NodeSet getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return every node used by the deployment, to be released if the task cannot be started
+     */
+    NodeSet getAllNodes() {
+        NodeSet allNodes = new NodeSet(nodes);
+        allNodes.add(node);
+        return allNodes;
+    }
+
+    void createLauncher(ExecutorService deploymentPool) {
+        submitTime = System.currentTimeMillis();
+        launcher = deploymentPool.submit(this::doCreateLauncher);
+    }
+
+    private TaskLauncher doCreateLauncher() throws Exception {
+        synchronized (this) {
+            if (creationState != CreationState.QUEUED) {
+                return null;
+            }
+            creationState = CreationState.RUNNING;
+        }
+        creationStartTime = System.currentTimeMillis();
+        creationStarted.countDown();
+        TaskLauncher created = null;
+        try {
+            created = task.createLauncher(node);
+            return created;
+        } finally {
+            endCreation(created);
+        }
+    }
+
+    private void endCreation(TaskLauncher created) {
+        Runnable release;
+        synchronized (this) {
+            creationState = CreationState.ENDED;
+            createdLauncher = created;
+            release = lateRelease;
+        }
+        if (release != null) {
+            terminate(created);
+            release.run();
+        }
+    }
+
+    /**
+     * Waits for the task launcher to be created. The timeout of the creation is measured from the moment a
+     * thread of the deployment pool starts it, the time spent in the queue of the pool is bounded separately.
+     *
+     * @param queueTimeout the maximum time in milliseconds between the submission and the start of the creation
+     * @param timeout the maximum time in milliseconds given to the creation once started
+     * @return the task launcher
+     * @throws TimeoutException if the creation does not start or end in time, the deployment must then be
+     * abandoned
+     */
+    TaskLauncher waitForLauncher(long queueTimeout, long timeout) throws Exception {
+        long queueWait = submitTime + queueTimeout - System.currentTimeMillis();
+        if (!creationStarted.await(Math.max(queueWait, 0), TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Task launcher creation not started after " + queueTimeout + " ms");
+        }
+        long wait = creationStartTime + timeout - System.currentTimeMillis();
+        return launcher.get(Math.max(wait, 0), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abandons the deployment when its launcher could not be obtained. A creation which has not started yet
+     * will not run. A creation still running keeps the nodes of the deployment: they are given back by
+     * <code>releaseNodes</code> once the creation ends, after the launcher created too late is terminated.
+     *
+     * @param releaseNodes the action giving back the nodes of the deployment, run by a thread of the pool
+     * @return true if the nodes can be given back right away, false if <code>releaseNodes</code> will do it
+     */
+    boolean abandon(Runnable releaseNodes) {
+        TaskLauncher created;
+        synchronized (this) {
+            switch (creationState) {
+                case QUEUED:
+                    creationState = CreationState.ENDED;
+                    return true;
+                case RUNNING:
+                    lateRelease = releaseNodes;
+                    return false;
+                default:
+                    created = createdLauncher;
+            }
+        }
+        terminate(created);
+        return true;
+    }
+
+    private void terminate(TaskLauncher created) {
+        if (created == null) {
+            return;
+        }
+        try {
+            PAActiveObject.terminateActiveObject(created, true);
+        } catch (Exception e) {
+            logger.info("Unable to terminate the task launcher of task " + task.getId() + " on " +
+                        node.getNodeInformation().getURL(), e);
+        }
+    }
+
+}
@@ -64,8 +64,38 @@ public class DBTaskDataParameters {
 
     private final Set<TaskStatus> status;
 
+    /** True if the tasks are paginated with a cursor instead of an offset */
+    private final boolean cursorPagination;
+
+    /** Id of the last task of the previous page, null for the first page */
+    private final TaskData.DBTaskId cursor;
+
     DBTaskDataParameters(String tag, long from, long to, int offset, int limit, String user, boolean pending,
             boolean running, boolean finished, SortSpecifierContainer sortParams) {
+        this(tag, from, to, offset, limit, user, pending, running, finished, sortParams, false, null);
+    }
+
+    DBTaskDataParameters(String tag, long from, long to, String cursor, int limit, String user, boolean pending,
+            boolean running, boolean finished) {
+        this(tag,
+             from,
+             to,
+             0,
+             limit,
+             user,
+             pending,
+             running,
+             finished,
+             SortSpecifierContainer.EMPTY_CONTAINER,
+             true,
+             parseCursor(cursor));
+    }
+
+    private DBTaskDataParameters(String tag, long from, long to, int offset, int limit, String user, boolean pending,
+            boolean running, boolean finished, SortSpecifierContainer sortParams, boolean cursorPagination,
+            TaskData.DBTaskId cursor) {
+        this.cursorPagination = cursorPagination;
+        this.cursor = cursor;
         this.tag = tag;
         this.from = from;
         this.to = to;
@@ -154,6 +184,39 @@ public class DBTaskDataParameters {
         return sortParams;
     }
 
+    public boolean isCursorPagination() {
+        return cursorPagination;
+    }
+
+    public boolean hasCursor() {
+        return cursor != null;
+    }
+
+    public TaskData.DBTaskId getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Tasks cursors have the format of {@link org.ow2.proactive.scheduler.common.task.TaskId#toString()}:
+     * the id of the job followed by 't' and the id of the task.
+     *
+     * @return the id of the task designated by the cursor, or null if the cursor is empty
+     */
+    static TaskData.DBTaskId parseCursor(String cursor) {
+        if (Strings.isNullOrEmpty(cursor)) {
+            return null;
+        }
+        int separator = cursor.indexOf('t');
+        try {
+            TaskData.DBTaskId taskId = new TaskData.DBTaskId();
+            taskId.setJobId(Long.parseLong(cursor.substring(0, separator)));
+            taskId.setTaskId(Long.parseLong(cursor.substring(separator + 1)));
+            return taskId;
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid tasks cursor: " + cursor, e);
+        }
+    }
+
     public static class Builder {
 
         private String tag;
@@ -27,6 +27,8 @@ package org.ow2.proactive.scheduler.core.db;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.ow2.proactive.scheduler.common.task.PropertyModifier;
 
 
@@ -54,8 +56,12 @@ public class EnvironmentModifierData {
         return data;
     }
 
+    // see TaskDataVariable#getId()
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "ENVIRONMENT_MODIFIER_DATA_ID_GENERATOR")
+    @GenericGenerator(name = "ENVIRONMENT_MODIFIER_DATA_ID_GENERATOR", strategy = "enhanced-sequence", parameters = { @Parameter(name = "sequence_name", value = "hibernate_sequence"),
+                                                                                                                      @Parameter(name = "increment_size", value = "50"),
+                                                                                                                      @Parameter(name = "optimizer", value = "hilo") })
     @Column(name = "ID")
     public long getId() {
         return id;
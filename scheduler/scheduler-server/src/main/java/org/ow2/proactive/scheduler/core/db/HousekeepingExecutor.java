@@ -0,0 +1,332 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_DB_HOUSEKEEPING_BUSY_DELAY;
+import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_DB_HOUSEKEEPING_CHUNK_DELAY;
+import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_DB_HOUSEKEEPING_CHUNK_SIZE;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.stream.Collectors;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+import org.ow2.proactive.db.TransactionHelper;
+import org.ow2.proactive.scheduler.common.util.TaskResultValueStore;
+
+import com.google.common.collect.Lists;
+
+
+/**
+ * Executes the housekeeping of removed jobs in the background. The jobs are
+ * handled in chunks of {@code pa.scheduler.db.housekeeping.chunk.size} jobs,
+ * each chunk in its own transaction, so that the housekeeping never holds
+ * long locks on the tables written by the scheduling loop.
+ * <p>
+ * Two chunks are separated by a pause of {@code pa.scheduler.db.housekeeping.chunk.delay}
+ * milliseconds. While task state updates of the scheduling loop are waiting
+ * in the {@link SchedulerDBManagerBuffer}, the pause lasts
+ * {@code pa.scheduler.db.housekeeping.busy.delay} milliseconds instead, to
+ * leave the database to the scheduling loop.
+ * <p>
+ * Once the jobs of a chunk are deleted, the task result values which are not
+ * referenced anymore are deleted from the {@link TaskResultValueStore}, and the
+ * cached statistics of the jobs are invalidated. The values stored again during
+ * their grace period, possibly by results not committed yet, are checked again
+ * once the period is over.
+ */
+public class HousekeepingExecutor {
+
+    private static final Logger logger = Logger.getLogger(HousekeepingExecutor.class);
+
+    private final TransactionHelper transactionHelper;
+
+    private final SchedulerDBManagerBuffer buffer;
+
+    private final TaskResultValueStore resultValueStore;
+
+    private final SchedulerDBStatisticsCache statisticsCache;
+
+    private final int chunkSize;
+
+    private final long chunkDelay;
+
+    private final long busyDelay;
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Ids of the jobs waiting for housekeeping or being handled, a job which
+     * is already queued is not queued again.
+     */
+    private final Set<Long> queuedJobIds = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong submittedJobs = new AtomicLong();
+
+    private final AtomicLong housekeptJobs = new AtomicLong();
+
+    private final AtomicLong chunks = new AtomicLong();
+
+    private final AtomicLong failedChunks = new AtomicLong();
+
+    private final AtomicLong totalChunkTime = new AtomicLong();
+
+    private final LongAccumulator maxChunkTime = new LongAccumulator(Math::max, 0);
+
+    private final AtomicLong throttledTime = new AtomicLong();
+
+    private final AtomicLong deletedResultValues = new AtomicLong();
+
+    /**
+     * Handles of the result values to delete once they are neither referenced nor stored again
+     */
+    private final Set<String> pendingValueHandles = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean pendingValuesCheckScheduled = new AtomicBoolean();
+
+    HousekeepingExecutor(TransactionHelper transactionHelper, SchedulerDBManagerBuffer buffer,
+            TaskResultValueStore resultValueStore, SchedulerDBStatisticsCache statisticsCache) {
+        this.transactionHelper = transactionHelper;
+        this.buffer = buffer;
+        this.resultValueStore = resultValueStore;
+        this.statisticsCache = statisticsCache;
+        this.chunkSize = Math.max(SCHEDULER_DB_HOUSEKEEPING_CHUNK_SIZE.getValueAsInt(), 1);
+        this.chunkDelay = Math.max(SCHEDULER_DB_HOUSEKEEPING_CHUNK_DELAY.getValueAsInt(), 0);
+        this.busyDelay = Math.max(SCHEDULER_DB_HOUSEKEEPING_BUSY_DELAY.getValueAsInt(), chunkDelay);
+        this.executor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("HousekeepingExecutor"));
+    }
+
+    /**
+     * Queues the housekeeping of the given jobs and returns immediately.
+     *
+     * @param jobIdList the ids of the jobs, the jobs already queued are ignored
+     * @param shouldRemoveFromDb true to delete the jobs and all their data, false to only mark them as removed
+     * @return a future which completes when all the given jobs are handled
+     */
+    Future<?> submit(List<Long> jobIdList, boolean shouldRemoveFromDb) {
+        List<Long> newJobIds = jobIdList.stream().filter(queuedJobIds::add).collect(Collectors.toList());
+        if (newJobIds.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        submittedJobs.addAndGet(newJobIds.size());
+        try {
+            return executor.submit(() -> housekeep(newJobIds, shouldRemoveFromDb));
+        } catch (RejectedExecutionException e) {
+            queuedJobIds.removeAll(newJobIds);
+            throw e;
+        }
+    }
+
+    private void housekeep(List<Long> jobIdList, boolean shouldRemoveFromDb) {
+        for (List<Long> chunk : Lists.partition(jobIdList, chunkSize)) {
+            long start = System.currentTimeMillis();
+            try {
+                HousekeepingSessionWork work = new HousekeepingSessionWork(chunk, shouldRemoveFromDb);
+                transactionHelper.executeReadWriteTransaction(work);
+                statisticsCache.invalidateJobs(chunk);
+                housekeptJobs.addAndGet(chunk.size());
+                deleteResultValues(work.getUnreferencedValueHandles());
+            } catch (Exception e) {
+                failedChunks.incrementAndGet();
+                logger.error("Error during the housekeeping of jobs " + chunk, e);
+            } finally {
+                queuedJobIds.removeAll(chunk);
+            }
+            long time = System.currentTimeMillis() - start;
+            chunks.incrementAndGet();
+            totalChunkTime.addAndGet(time);
+            maxChunkTime.accumulate(time);
+            logger.debug("Housekeeping of jobs " + chunk + " took " + time + " ms");
+
+            try {
+                throttle();
+            } catch (InterruptedException e) {
+                logger.warn("Housekeeping interrupted, " + queuedJobIds.size() + " jobs are not handled");
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void deleteResultValues(Set<String> valueHandles) {
+        long unusedSince = System.currentTimeMillis() - TaskResultValueStore.UNUSED_VALUE_GRACE_PERIOD;
+        List<String> recentlyUsedHandles = new ArrayList<>();
+        for (String valueHandle : valueHandles) {
+            if (resultValueStore.deleteIfUnusedSince(valueHandle, unusedSince)) {
+                deletedResultValues.incrementAndGet();
+            } else if (resultValueStore.contains(valueHandle)) {
+                recentlyUsedHandles.add(valueHandle);
+            }
+        }
+        deleteResultValuesLater(recentlyUsedHandles);
+    }
+
+    /**
+     * Deletes the given result values once their grace period is over, if no
+     * task result references them then.
+     *
+     * @param valueHandles the handles of values which may not be referenced anymore
+     */
+    void deleteResultValuesLater(Collection<String> valueHandles) {
+        pendingValueHandles.addAll(valueHandles);
+        if (!pendingValueHandles.isEmpty() && pendingValuesCheckScheduled.compareAndSet(false, true)) {
+            try {
+                executor.schedule(this::deletePendingResultValues,
+                                  TaskResultValueStore.UNUSED_VALUE_GRACE_PERIOD,
+                                  TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                pendingValuesCheckScheduled.set(false);
+                logger.warn(pendingValueHandles.size() + " unused task result values are not deleted", e);
+            }
+        }
+    }
+
+    private void deletePendingResultValues() {
+        pendingValuesCheckScheduled.set(false);
+        long unusedSince = System.currentTimeMillis() - TaskResultValueStore.UNUSED_VALUE_GRACE_PERIOD;
+        try {
+            for (List<String> handles : Lists.partition(new ArrayList<>(pendingValueHandles), chunkSize)) {
+                Set<String> referencedHandles = loadReferencedValueHandles(handles);
+                for (String handle : handles) {
+                    if (referencedHandles.contains(handle)) {
+                        // deleted with the last job referencing it
+                        pendingValueHandles.remove(handle);
+                    } else if (resultValueStore.deleteIfUnusedSince(handle, unusedSince)) {
+                        deletedResultValues.incrementAndGet();
+                        pendingValueHandles.remove(handle);
+                    } else if (!resultValueStore.contains(handle)) {
+                        pendingValueHandles.remove(handle);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Error while deleting the unused task result values", e);
+        }
+        // the values stored again meanwhile are checked again later
+        deleteResultValuesLater(new ArrayList<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> loadReferencedValueHandles(List<String> handles) {
+        return transactionHelper.executeReadOnlyTransaction(session -> {
+            List<String> referencedHandles = session.getNamedQuery("loadReferencedTaskResultValueHandles")
+                                                    .setParameterList("handles", handles)
+                                                    .list();
+            return new HashSet<>(referencedHandles);
+        });
+    }
+
+    private void throttle() throws InterruptedException {
+        long pause = buffer.getPendingUpdatesCount() > 0 ? busyDelay : chunkDelay;
+        if (pause > 0) {
+            throttledTime.addAndGet(pause);
+            Thread.sleep(pause);
+        }
+    }
+
+    void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the number of jobs waiting for housekeeping or being handled
+     */
+    public int getQueuedJobsCount() {
+        return queuedJobIds.size();
+    }
+
+    /**
+     * @return the number of jobs queued for housekeeping
+     */
+    public long getSubmittedJobsCount() {
+        return submittedJobs.get();
+    }
+
+    /**
+     * @return the number of jobs removed or marked as removed by the housekeeping
+     */
+    public long getHousekeptJobsCount() {
+        return housekeptJobs.get();
+    }
+
+    /**
+     * @return the number of chunks of jobs handled, each one in its own transaction
+     */
+    public long getChunksCount() {
+        return chunks.get();
+    }
+
+    /**
+     * @return the number of chunks of jobs whose transaction failed
+     */
+    public long getFailedChunksCount() {
+        return failedChunks.get();
+    }
+
+    /**
+     * @return the mean time in milliseconds spent to handle a chunk of jobs
+     */
+    public long getMeanChunkTime() {
+        long count = chunks.get();
+        return count == 0 ? 0 : totalChunkTime.get() / count;
+    }
+
+    /**
+     * @return the maximum time in milliseconds spent to handle a chunk of jobs
+     */
+    public long getMaxChunkTime() {
+        return maxChunkTime.get();
+    }
+
+    /**
+     * @return the total time in milliseconds the housekeeping paused between chunks
+     */
+    public long getThrottledTime() {
+        return throttledTime.get();
+    }
+
+    /**
+     * @return the number of task result values deleted from the results store
+     */
+    public long getDeletedResultValuesCount() {
+        return deletedResultValues.get();
+    }
+
+}
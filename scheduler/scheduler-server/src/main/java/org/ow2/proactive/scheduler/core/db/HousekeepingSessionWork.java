@@ -25,8 +25,11 @@
  */
 package org.ow2.proactive.scheduler.core.db;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.hibernate.Session;
 import org.ow2.proactive.db.SessionWork;
@@ -40,13 +43,19 @@ import org.ow2.proactive.db.SessionWork;
  */
 public class HousekeepingSessionWork implements SessionWork<Void> {
 
-    private static List<Long> jobIdList;
+    private final List<Long> jobIdList;
 
-    private static boolean shouldRemoveFromDb;
+    private final boolean shouldRemoveFromDb;
+
+    /**
+     * Handles of the task result values which were referenced by the removed jobs only,
+     * they must be deleted from the store once the transaction is committed.
+     */
+    private Set<String> unreferencedValueHandles = Collections.emptySet();
 
     public HousekeepingSessionWork(List<Long> jobIdList, boolean shouldRemoveFromDb) {
-        HousekeepingSessionWork.jobIdList = jobIdList;
-        HousekeepingSessionWork.shouldRemoveFromDb = shouldRemoveFromDb;
+        this.jobIdList = jobIdList;
+        this.shouldRemoveFromDb = shouldRemoveFromDb;
     }
 
     private void deleteInconsistentData(Session session) {
@@ -68,6 +77,7 @@ public class HousekeepingSessionWork implements SessionWork<Void> {
                .executeUpdate();
     }
 
+    @SuppressWarnings("unchecked")
     private void removeFromDb(Session session) {
         session.getNamedQuery("deleteEnvironmentModifierDataInBulk")
                .setParameterList("jobIdList", jobIdList)
@@ -85,17 +95,43 @@ public class HousekeepingSessionWork implements SessionWork<Void> {
         session.getNamedQuery("deleteSelectionScriptDataInBulk")
                .setParameterList("jobIdList", jobIdList)
                .executeUpdate();
+        List<String> valueHandles = session.getNamedQuery("loadTaskResultValueHandlesInBulk")
+                                           .setParameterList("jobIdList", jobIdList)
+                                           .list();
         session.createSQLQuery("delete from TASK_RESULT_DATA where JOB_ID in :jobIdList")
                .setParameterList("jobIdList", jobIdList)
                .executeUpdate();
+        unreferencedValueHandles = findUnreferencedValueHandles(session, valueHandles);
         session.getNamedQuery("deleteTaskDataInBulk").setParameterList("jobIdList", jobIdList).executeUpdate();
+        List<String> contentHashes = session.getNamedQuery("loadJobContentHashesInBulk")
+                                            .setParameterList("jobIdList", jobIdList)
+                                            .list();
         session.createSQLQuery("delete from JOB_CONTENT where JOB_ID in :jobIdList")
                .setParameterList("jobIdList", jobIdList)
                .executeUpdate();
+        JobContentStore.deleteUnreferenced(session, contentHashes);
+        JobContentStore.deleteAllUnreferenced(session);
         session.getNamedQuery("deleteJobDataInBulk").setParameterList("jobIdList", jobIdList).executeUpdate();
         deleteInconsistentData(session);
     }
 
+    @SuppressWarnings("unchecked")
+    private Set<String> findUnreferencedValueHandles(Session session, List<String> valueHandles) {
+        if (valueHandles.isEmpty()) {
+            return Collections.emptySet();
+        }
+        // a value is shared by all the results having the same content
+        Set<String> unreferenced = new HashSet<>(valueHandles);
+        unreferenced.removeAll(session.getNamedQuery("loadReferencedTaskResultValueHandles")
+                                      .setParameterList("handles", valueHandles)
+                                      .list());
+        return unreferenced;
+    }
+
+    Set<String> getUnreferencedValueHandles() {
+        return unreferencedValueHandles;
+    }
+
     private void updateAsRemoved(Session session) {
         session.getNamedQuery("updateJobDataRemovedTimeInBulk")
                .setParameter("removedTime", System.currentTimeMillis())
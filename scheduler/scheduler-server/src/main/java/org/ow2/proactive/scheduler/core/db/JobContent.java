@@ -51,6 +51,10 @@ import org.ow2.proactive.scheduler.util.ByteCompressionUtils;
 
 /**
  * JobContent Entity class, store workflow content to database
+ * <p>
+ * The content itself is shared by the jobs submitted with the same content,
+ * see {@link JobContentStore}. Only the contents stored before it are kept
+ * compressed in this entity.
  *
  * @author ActiveEon team
  *
@@ -58,8 +62,10 @@ import org.ow2.proactive.scheduler.util.ByteCompressionUtils;
 @Entity
 @NamedQueries({ @NamedQuery(name = "deleteJobContentInBulk", query = "delete from JobContent where id in :jobIdList"),
                 @NamedQuery(name = "loadJobContent", query = "from JobContent as content where content.jobId = :id"),
+                @NamedQuery(name = "loadJobContentHashesInBulk", query = "select distinct content.contentHash from JobContent as content " +
+                                                                         "where content.jobId in :jobIdList and content.contentHash is not null"),
                 @NamedQuery(name = "countJobContent", query = "select count (*) from JobContent") })
-@Table(name = "JOB_CONTENT")
+@Table(name = "JOB_CONTENT", indexes = { @Index(name = "JOB_CONTENT_HASH", columnList = "CONTENT_HASH") })
 public class JobContent implements Serializable {
 
     private static final Logger LOGGER = Logger.getLogger(JobContent.class);
@@ -69,6 +75,9 @@ public class JobContent implements Serializable {
     @Column(name = "CONTENT", length = Integer.MAX_VALUE)
     private byte[] jobContentAsByteArray;
 
+    @Column(name = "CONTENT_HASH", length = 64)
+    private String contentHash;
+
     @Id
     @Column(name = "JOB_ID", unique = true, nullable = false)
     @GeneratedValue(generator = "keyGenerator")
@@ -104,6 +113,17 @@ public class JobContent implements Serializable {
         this.jobContentAsByteArray = jobContentAsByteArray;
     }
 
+    /**
+     * @return the digest of the {@link SharedJobContent} of this job, or null if the content is kept in this entity
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     @Transient
     public String getInitJobContent() {
         try {
@@ -0,0 +1,218 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.hibernate.Session;
+import org.ow2.proactive.db.DatabaseManagerException;
+import org.ow2.proactive.db.TransactionHelper;
+import org.ow2.proactive.scheduler.util.ByteCompressionUtils;
+
+
+/**
+ * Stores the workflow content of the submitted jobs once per distinct content.
+ * <p>
+ * The {@link JobContent} of a job only keeps the SHA-256 digest of its content,
+ * the compressed content is kept in a {@link SharedJobContent} shared by all the
+ * jobs submitted with the same content. It is decompressed only when the content
+ * of a job is loaded, e.g. to re-submit or export the workflow, and deleted with
+ * the last job which references it.
+ * <p>
+ * The reference of a job being submitted is not visible to the other transactions
+ * before its submission commits. A content is therefore saved, or its last use
+ * time updated, in its own transaction committed before the job is saved, and is
+ * never deleted before {@link #UNREFERENCED_CONTENT_GRACE_PERIOD} after its last
+ * use. The contents whose last jobs were removed during this period are deleted
+ * later by the housekeeping.
+ * <p>
+ * The job contents stored before this store existed are still read from the
+ * {@link JobContent} itself.
+ */
+public class JobContentStore {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Time (in ms) during which a content is kept after its last use, even when no
+     * job references it
+     */
+    static final long UNREFERENCED_CONTENT_GRACE_PERIOD = TimeUnit.MINUTES.toMillis(10);
+
+    private final AtomicLong submittedContents = new AtomicLong();
+
+    private final AtomicLong deduplicatedContents = new AtomicLong();
+
+    private final AtomicLong submittedBytes = new AtomicLong();
+
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    /**
+     * @return the SHA-256 digest of the given content, in hexadecimal
+     */
+    static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            return DatatypeConverter.printHexBinary(digest.digest(content.getBytes(StandardCharsets.UTF_8)))
+                                    .toLowerCase();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is provided by every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Saves the given content, unless the same content is already stored in which
+     * case only its last use time is updated. Must be called before the job
+     * referencing the content is saved.
+     * <p>
+     * When the same new content is saved concurrently, all the insertions but one
+     * fail with a constraint violation. The failed transactions are retried by the
+     * transaction helper and then find the content inserted by the other one.
+     *
+     * @param hash the digest of the content
+     * @param content the workflow content of a submitted job
+     */
+    void save(TransactionHelper transactionHelper, String hash, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        long writtenBytes = transactionHelper.executeReadWriteTransaction(session -> saveOrTouch(session, hash, bytes));
+        submittedContents.incrementAndGet();
+        submittedBytes.addAndGet(bytes.length);
+        if (writtenBytes == 0) {
+            deduplicatedContents.incrementAndGet();
+        } else {
+            storedBytes.addAndGet(writtenBytes);
+        }
+    }
+
+    /**
+     * @return the number of bytes written, 0 if the content was already stored
+     */
+    private long saveOrTouch(Session session, String hash, byte[] bytes) {
+        long now = System.currentTimeMillis();
+        int touched = session.getNamedQuery("updateSharedJobContentLastUsedTime")
+                             .setParameter("lastUsedTime", now)
+                             .setParameter("hash", hash)
+                             .executeUpdate();
+        if (touched > 0) {
+            return 0;
+        }
+        try {
+            byte[] compressedContent = ByteCompressionUtils.compress(bytes);
+            session.save(new SharedJobContent(hash, compressedContent, bytes.length, now));
+            // the constraint violation of a concurrent insertion is raised here
+            session.flush();
+            return compressedContent.length;
+        } catch (IOException e) {
+            throw new DatabaseManagerException("Could not compress the job content", e);
+        }
+    }
+
+    /**
+     * Loads and decompresses the workflow content of a job.
+     *
+     * @return the content, or null if it cannot be read
+     */
+    String load(Session session, JobContent jobContent) {
+        if (jobContent.getContentHash() == null) {
+            return jobContent.getInitJobContent();
+        }
+        SharedJobContent sharedContent = session.get(SharedJobContent.class, jobContent.getContentHash());
+        if (sharedContent == null) {
+            return null;
+        }
+        try {
+            return new String(ByteCompressionUtils.decompress(sharedContent.getCompressedContent()),
+                              StandardCharsets.UTF_8);
+        } catch (IOException | DataFormatException e) {
+            throw new DatabaseManagerException("Could not decompress the content of job " + jobContent.getJobId(), e);
+        }
+    }
+
+    /**
+     * Deletes the shared contents which are not referenced by any job anymore and
+     * were not used during the grace period.
+     *
+     * @param hashes the digests of the contents of removed jobs
+     */
+    static void deleteUnreferenced(Session session, Collection<String> hashes) {
+        if (!hashes.isEmpty()) {
+            session.getNamedQuery("deleteUnreferencedSharedJobContent")
+                   .setParameterList("hashes", hashes)
+                   .setParameter("lastUsedTime", System.currentTimeMillis() - UNREFERENCED_CONTENT_GRACE_PERIOD)
+                   .executeUpdate();
+        }
+    }
+
+    /**
+     * Deletes all the shared contents which are not referenced by any job and
+     * were not used during the grace period, i.e. the contents kept when their
+     * last job was removed and the contents of failed submissions.
+     */
+    static void deleteAllUnreferenced(Session session) {
+        session.getNamedQuery("deleteAllUnreferencedSharedJobContent")
+               .setParameter("lastUsedTime", System.currentTimeMillis() - UNREFERENCED_CONTENT_GRACE_PERIOD)
+               .executeUpdate();
+    }
+
+    /**
+     * @return the number of job contents submitted since the scheduler started
+     */
+    public long getSubmittedContentsCount() {
+        return submittedContents.get();
+    }
+
+    /**
+     * @return the number of submitted job contents which were already stored
+     */
+    public long getDeduplicatedContentsCount() {
+        return deduplicatedContents.get();
+    }
+
+    /**
+     * @return the size in bytes of the job contents submitted since the scheduler started
+     */
+    public long getSubmittedBytes() {
+        return submittedBytes.get();
+    }
+
+    /**
+     * @return the size in bytes written to the database for the job contents submitted since the scheduler started
+     */
+    public long getStoredBytes() {
+        return storedBytes.get();
+    }
+
+}
@@ -86,17 +86,22 @@ import com.google.common.collect.Lists;
                 @NamedQuery(name = "deleteJobData", query = "delete from JobData where id = :jobId"),
                 @NamedQuery(name = "findUsersWithJobs", query = "select owner, count(owner), max(submittedTime) from JobData group by owner"),
                 @NamedQuery(name = "getJobsNumberWithStatus", query = "select count(*) from JobData where status in (:status) and removedTime = -1"),
+                @NamedQuery(name = "aggregateUsageJobs", query = "select owner, count(*), sum(finishedTime) - sum(startTime) from JobData " +
+                                                                 "where finishedTime >= :from and finishedTime < :to and finishedTime > 0 group by owner"),
+                @NamedQuery(name = "getFirstFinishedTime", query = "select min(finishedTime) from JobData where finishedTime >= :from and finishedTime < :to and finishedTime > 0"),
+                @NamedQuery(name = "getJobStatus", query = "select status from JobData where id = :id"),
                 @NamedQuery(name = "getJobSubmittedTime", query = "select submittedTime from JobData where id = :id"),
                 @NamedQuery(name = "getMeanJobExecutionTime", query = "select avg(finishedTime - startTime) from JobData where startTime > 0 and finishedTime > 0"),
                 @NamedQuery(name = "getMeanJobPendingTime", query = "select avg(startTime - submittedTime) from JobData where startTime > 0 and submittedTime > 0"),
                 @NamedQuery(name = "getMeanJobSubmittingPeriod", query = "select count(*), min(submittedTime), max(submittedTime) from JobData"),
+                @NamedQuery(name = "getRemovedJobIds", query = "select id from JobData where removedTime > 0 and id > :lastJobId order by id"),
                 @NamedQuery(name = "getTotalJobsCount", query = "select count(*) from JobData where removedTime = -1"),
                 @NamedQuery(name = "loadInternalJobs", query = "from JobData as job where job.id in (:ids)"),
                 @NamedQuery(name = "loadJobs", query = "select id from JobData where status in (:status) and removedTime = -1"),
                 @NamedQuery(name = "loadJobsWithPeriod", query = "select id from JobData where status in (:status) and removedTime = -1 and submittedTime >= :minSubmittedTime"),
                 @NamedQuery(name = "loadJobDataIfNotRemoved", query = "from JobData as job where job.id in (:ids) and job.removedTime = -1"),
                 @NamedQuery(name = "readAccountJobs", query = "select count(*), sum(finishedTime) - sum(startTime) from JobData" +
-                                                              " where owner = :username and finishedTime > 0"),
+                                                              " where owner = :username and finishedTime >= :from and finishedTime > 0"),
                 @NamedQuery(name = "updateJobAndTasksState", query = "update JobData set status = :status, " +
                                                                      "numberOfFailedTasks = :numberOfFailedTasks, numberOfFaultyTasks = :numberOfFaultyTasks, " +
                                                                      "numberOfInErrorTasks = :numberOfInErrorTasks, inErrorTime = :inErrorTime, lastUpdatedTime = :lastUpdatedTime " +
@@ -128,7 +133,10 @@ import com.google.common.collect.Lists;
                                                                        "numberOfRunningTasks = :numberOfRunningTasks, lastUpdatedTime = :lastUpdatedTime where id = :jobId") })
 @Table(name = "JOB_DATA", indexes = { @Index(name = "JOB_DATA_FINISH_TIME", columnList = "FINISH_TIME"),
                                       @Index(name = "JOB_DATA_OWNER", columnList = "OWNER"),
+                                      @Index(name = "JOB_DATA_OWNER_FINISH_TIME", columnList = "OWNER,FINISH_TIME"),
+                                      @Index(name = "JOB_DATA_OWNER_REMOVE_TIME_STATUS_ID", columnList = "OWNER,REMOVE_TIME,STATUS,ID"),
                                       @Index(name = "JOB_DATA_REMOVE_TIME", columnList = "REMOVE_TIME"),
+                                      @Index(name = "JOB_DATA_REMOVE_TIME_STATUS_ID", columnList = "REMOVE_TIME,STATUS,ID"),
                                       @Index(name = "JOB_DATA_START_TIME", columnList = "START_TIME"),
                                       @Index(name = "JOB_DATA_STATUS", columnList = "STATUS"), })
 public class JobData implements Serializable {
@@ -662,7 +670,12 @@ public class JobData implements Serializable {
         JobContent content = new JobContent();
         content.setJobId(id);
         content.setJobData(this);
-        content.setInitJobContent(job.getJobContent());
+        if (job.getJobContent() == null) {
+            content.setInitJobContent(null);
+        } else {
+            // the content itself is saved by the JobContentStore
+            content.setContentHash(JobContentStore.hash(job.getJobContent()));
+        }
         getJobContent().add(content);
     }
 
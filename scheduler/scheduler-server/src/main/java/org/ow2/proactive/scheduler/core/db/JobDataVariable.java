@@ -27,6 +27,8 @@ package org.ow2.proactive.scheduler.core.db;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.ow2.proactive.scheduler.common.job.JobVariable;
 
 
@@ -56,8 +58,12 @@ public class JobDataVariable {
         return jobDataVariable;
     }
 
+    // see TaskDataVariable#getId()
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "JOB_DATA_VARIABLE_ID_GENERATOR")
+    @GenericGenerator(name = "JOB_DATA_VARIABLE_ID_GENERATOR", strategy = "enhanced-sequence", parameters = { @Parameter(name = "sequence_name", value = "hibernate_sequence"),
+                                                                                                              @Parameter(name = "increment_size", value = "50"),
+                                                                                                              @Parameter(name = "optimizer", value = "hilo") })
     @Column(name = "ID")
     public long getId() {
         return id;
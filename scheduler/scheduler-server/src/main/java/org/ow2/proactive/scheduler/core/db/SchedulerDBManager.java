@@ -27,6 +27,7 @@ package org.ow2.proactive.scheduler.core.db;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.util.ArrayList;
@@ -40,6 +41,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -51,6 +54,7 @@ import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Property;
@@ -80,6 +84,7 @@ import org.ow2.proactive.scheduler.common.task.TaskStatus;
 import org.ow2.proactive.scheduler.common.task.dataspaces.InputSelector;
 import org.ow2.proactive.scheduler.common.task.dataspaces.OutputSelector;
 import org.ow2.proactive.scheduler.common.usage.JobUsage;
+import org.ow2.proactive.scheduler.common.util.TaskResultValueStore;
 import org.ow2.proactive.scheduler.core.account.SchedulerAccount;
 import org.ow2.proactive.scheduler.core.db.TaskData.DBTaskId;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
@@ -149,6 +154,18 @@ public class SchedulerDBManager {
 
     private final TransactionHelper transactionHelper;
 
+    private final SchedulerDBManagerBuffer buffer;
+
+    private final HousekeepingExecutor housekeepingExecutor;
+
+    private final TaskResultValueStore resultValueStore;
+
+    private final SchedulerDBStatisticsCache statisticsCache;
+
+    private final UsageAggregator usageAggregator;
+
+    private final JobContentStore jobContentStore = new JobContentStore();
+
     public static SchedulerDBManager createUsingProperties() {
         if (System.getProperty(JAVA_PROPERTYNAME_NODB) != null) {
             return createInMemorySchedulerDBManager();
@@ -185,6 +202,7 @@ public class SchedulerDBManager {
         try {
             configuration.addAnnotatedClass(JobData.class);
             configuration.addAnnotatedClass(JobContent.class);
+            configuration.addAnnotatedClass(SharedJobContent.class);
             configuration.addAnnotatedClass(JobDataVariable.class);
             configuration.addAnnotatedClass(TaskData.class);
             configuration.addAnnotatedClass(TaskDataVariable.class);
@@ -194,6 +212,7 @@ public class SchedulerDBManager {
             configuration.addAnnotatedClass(EnvironmentModifierData.class);
             configuration.addAnnotatedClass(SelectorData.class);
             configuration.addAnnotatedClass(ThirdPartyCredentialData.class);
+            configuration.addAnnotatedClass(UsageData.class);
             if (drop) {
                 configuration.setProperty("hibernate.hbm2ddl.auto", "create");
             }
@@ -201,11 +220,20 @@ public class SchedulerDBManager {
             configuration.setProperty("hibernate.id.new_generator_mappings", "true");
             configuration.setProperty("hibernate.jdbc.use_streams_for_binary", "true");
             configuration.setProperty("hibernate.connection.isolation", "2");
+            configureJdbcBatching(configuration);
 
             ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().applySettings(configuration.getProperties())
                                                                                   .build();
             sessionFactory = configuration.buildSessionFactory(serviceRegistry);
             transactionHelper = new TransactionHelper(sessionFactory);
+            buffer = new SchedulerDBManagerBuffer(transactionHelper);
+            resultValueStore = TaskResultValueStore.createUsingProperties();
+            statisticsCache = new SchedulerDBStatisticsCache();
+            usageAggregator = new UsageAggregator(transactionHelper);
+            housekeepingExecutor = new HousekeepingExecutor(transactionHelper,
+                                                            buffer,
+                                                            resultValueStore,
+                                                            statisticsCache);
 
         } catch (Throwable ex) {
             logger.error("Initial SessionFactory creation failed", ex);
@@ -213,6 +241,26 @@ public class SchedulerDBManager {
         }
     }
 
+    /**
+     * Groups the inserts and updates issued when a job is submitted into JDBC batches,
+     * unless the hibernate configuration already defines its own batch size.
+     */
+    private static void configureJdbcBatching(Configuration configuration) {
+        if (configuration.getProperty(AvailableSettings.STATEMENT_BATCH_SIZE) == null) {
+            int batchSize = PASchedulerProperties.SCHEDULER_DB_JDBC_BATCH_SIZE.getValueAsInt();
+            configuration.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(Math.max(batchSize, 0)));
+        }
+        if (configuration.getProperty(AvailableSettings.ORDER_INSERTS) == null) {
+            configuration.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        }
+        if (configuration.getProperty(AvailableSettings.ORDER_UPDATES) == null) {
+            configuration.setProperty(AvailableSettings.ORDER_UPDATES, "true");
+        }
+        if (configuration.getProperty(AvailableSettings.BATCH_VERSIONED_DATA) == null) {
+            configuration.setProperty(AvailableSettings.BATCH_VERSIONED_DATA, "true");
+        }
+    }
+
     public Page<JobInfo> getJobs(final int offset, final int limit, final String user, final boolean pending,
             final boolean running, final boolean finished, final List<SortParameter<JobSortParameter>> sortParameters) {
 
@@ -280,6 +328,81 @@ public class SchedulerDBManager {
         return new Page<>(lJobs, totalNbJobs);
     }
 
+    /**
+     * Returns the jobs following the given cursor, sorted by decreasing id. Contrary to
+     * {@link #getJobs(int, int, String, boolean, boolean, boolean, List)}, the jobs are not counted and the database
+     * does not scan the previous pages.
+     *
+     * @param cursor the id of the last job of the previous page, null or empty for the first page
+     * @return the page of jobs, with the cursor of the next page or null if it is the last page
+     */
+    public Page<JobInfo> getJobsByCursor(final String cursor, final int limit, final String user,
+            final boolean pending, final boolean running, final boolean finished) {
+
+        if (!pending && !running && !finished) {
+            return new Page<>(new ArrayList<JobInfo>(0), (String) null);
+        }
+
+        final Long cursorId = parseJobsCursor(cursor);
+        final Set<JobStatus> jobStatuses = new DBJobDataParameters(0,
+                                                                   limit,
+                                                                   user,
+                                                                   pending,
+                                                                   running,
+                                                                   finished,
+                                                                   null).getStatuses();
+        List<JobInfo> lJobs = executeReadOnlyTransaction(session -> {
+            Criteria criteria = session.createCriteria(JobData.class);
+            if (limit > 0) {
+                // one more job is fetched to know whether there is a next page
+                criteria.setMaxResults(limit + 1);
+            }
+            if (user != null) {
+                criteria.add(Restrictions.eq("owner", user));
+            }
+            boolean allJobs = pending && running && finished;
+            if (!allJobs) {
+                criteria.add(Restrictions.in("status", jobStatuses));
+            }
+
+            criteria.add(Restrictions.eq("removedTime", -1L));
+
+            if (cursorId != null) {
+                criteria.add(Restrictions.lt("id", cursorId));
+            }
+            criteria.addOrder(Order.desc("id"));
+
+            List<JobData> jobsList = criteria.list();
+            return jobsList.stream().map(JobData::toJobInfo).collect(Collectors.toList());
+        });
+
+        return toCursorPage(lJobs, limit, jobInfo -> jobInfo.getJobId().value());
+    }
+
+    private static Long parseJobsCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid jobs cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Builds a page from elements fetched with one more element than the limit, the last element of the page is the
+     * cursor of the next page.
+     */
+    private static <T extends Serializable> Page<T> toCursorPage(List<T> elements, int limit,
+            Function<T, String> cursorOf) {
+        if (limit > 0 && elements.size() > limit) {
+            List<T> pageElements = new ArrayList<>(elements.subList(0, limit));
+            return new Page<>(pageElements, cursorOf.apply(pageElements.get(limit - 1)));
+        }
+        return new Page<>(elements, (String) null);
+    }
+
     public Page<TaskState> getTaskStates(final long from, final long to, final String tag, final int offset,
             final int limit, final String user, final boolean pending, final boolean running, final boolean finished,
             SortSpecifierContainer sortParams) {
@@ -300,6 +423,30 @@ public class SchedulerDBManager {
         return new Page<>(lTasks, totalNbTasks);
     }
 
+    /**
+     * Returns the tasks following the given cursor, sorted by increasing job id and task id.
+     *
+     * @param cursor the id of the last task of the previous page, null or empty for the first page
+     * @return the page of tasks, with the cursor of the next page or null if it is the last page
+     */
+    public Page<TaskState> getTaskStatesByCursor(final long from, final long to, final String tag,
+            final String cursor, final int limit, final String user, final boolean pending, final boolean running,
+            final boolean finished) {
+
+        DBTaskDataParameters parameters = new DBTaskDataParameters(tag,
+                                                                   from,
+                                                                   to,
+                                                                   cursor,
+                                                                   limit,
+                                                                   user,
+                                                                   pending,
+                                                                   running,
+                                                                   finished);
+        List<TaskState> lTasks = executeReadOnlyTransaction(TaskDBUtils.taskStateSessionWork(parameters));
+
+        return toCursorPage(lTasks, limit, taskState -> taskState.getId().toString());
+    }
+
     public Page<TaskInfo> getTasks(final long from, final long to, final String tag, final int offset, final int limit,
             final String user, final boolean pending, final boolean running, final boolean finished) {
 
@@ -319,6 +466,29 @@ public class SchedulerDBManager {
         return new Page<>(lTaskInfo, totalNbTasks);
     }
 
+    /**
+     * Returns the tasks following the given cursor, sorted by increasing job id and task id.
+     *
+     * @param cursor the id of the last task of the previous page, null or empty for the first page
+     * @return the page of tasks, with the cursor of the next page or null if it is the last page
+     */
+    public Page<TaskInfo> getTasksByCursor(final long from, final long to, final String tag, final String cursor,
+            final int limit, final String user, final boolean pending, final boolean running, final boolean finished) {
+
+        DBTaskDataParameters parameters = new DBTaskDataParameters(tag,
+                                                                   from,
+                                                                   to,
+                                                                   cursor,
+                                                                   limit,
+                                                                   user,
+                                                                   pending,
+                                                                   running,
+                                                                   finished);
+        List<TaskInfo> lTaskInfo = executeReadOnlyTransaction(TaskDBUtils.taskInfoSessionWork(parameters));
+
+        return toCursorPage(lTaskInfo, limit, taskInfo -> taskInfo.getTaskId().toString());
+    }
+
     private int getTotalNumberOfTasks(final DBTaskDataParameters params) {
 
         return executeReadOnlyTransaction(TaskDBUtils.getTotalNumberOfTasks(params));
@@ -367,10 +537,11 @@ public class SchedulerDBManager {
     }
 
     public List<JobUsage> getUsage(final String userName, final Date startDate, final Date endDate) {
-        return executeReadOnlyTransaction(session -> {
-            if (startDate == null || endDate == null) {
-                throw new DatabaseManagerException("Start and end dates can't be null.");
-            }
+        if (startDate == null || endDate == null) {
+            throw new DatabaseManagerException("Start and end dates can't be null.");
+        }
+        String statisticName = "usage:" + userName + ":" + startDate.getTime() + ":" + endDate.getTime();
+        return statisticsCache.get(statisticName, () -> executeReadOnlyTransaction(session -> {
 
             Criteria criteria = session.createCriteria(JobData.class);
             criteria.setFetchMode("tasks", FetchMode.JOIN);
@@ -384,7 +555,49 @@ public class SchedulerDBManager {
             List<JobData> jobsList = criteria.list();
 
             return jobsList.stream().map(JobData::toJobUsage).collect(Collectors.toList());
-        });
+        }));
+    }
+
+    /**
+     * @return the buffer which delays the task state updates, giving access to its statistics
+     */
+    public SchedulerDBManagerBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the store of the task result values kept out of the database
+     */
+    public TaskResultValueStore getResultValueStore() {
+        return resultValueStore;
+    }
+
+    /**
+     * @return the cache of the statistics read from the database, giving access to its hit and miss counts
+     */
+    public SchedulerDBStatisticsCache getStatisticsCache() {
+        return statisticsCache;
+    }
+
+    /**
+     * @return the store of the workflow contents, giving access to its statistics
+     */
+    public JobContentStore getJobContentStore() {
+        return jobContentStore;
+    }
+
+    /**
+     * @return the aggregator of the daily usage of the users
+     */
+    public UsageAggregator getUsageAggregator() {
+        return usageAggregator;
+    }
+
+    /**
+     * @return the executor of the housekeeping, giving access to its statistics
+     */
+    public HousekeepingExecutor getHousekeepingExecutor() {
+        return housekeepingExecutor;
     }
 
     public SessionFactory getSessionFactory() {
@@ -393,6 +606,8 @@ public class SchedulerDBManager {
 
     public void close() {
         try {
+            housekeepingExecutor.close();
+            buffer.close();
             if (sessionFactory != null) {
                 logger.info("Closing session factory");
                 sessionFactory.close();
@@ -403,22 +618,26 @@ public class SchedulerDBManager {
     }
 
     public long getFinishedJobsCount() {
-        return getJobsNumberWithStatus(FINISHED_JOB_STATUSES);
+        return statisticsCache.get("finishedJobsCount", () -> getJobsNumberWithStatus(FINISHED_JOB_STATUSES));
     }
 
     public long getPendingJobsCount() {
-        return getJobsNumberWithStatus(Arrays.asList(JobStatus.PAUSED, JobStatus.PENDING));
+        return statisticsCache.get("pendingJobsCount",
+                                   () -> getJobsNumberWithStatus(Arrays.asList(JobStatus.PAUSED,
+                                                                               JobStatus.PENDING)));
     }
 
     public long getRunningJobsCount() {
-        return getJobsNumberWithStatus(Arrays.asList(JobStatus.RUNNING, JobStatus.STALLED));
+        return statisticsCache.get("runningJobsCount",
+                                   () -> getJobsNumberWithStatus(Arrays.asList(JobStatus.RUNNING,
+                                                                               JobStatus.STALLED)));
     }
 
     public long getTotalJobsCount() {
-        return executeReadOnlyTransaction(session -> {
+        return statisticsCache.get("totalJobsCount", () -> executeReadOnlyTransaction(session -> {
             Query query = session.getNamedQuery("getTotalJobsCount");
             return (Long) query.uniqueResult();
-        });
+        }));
     }
 
     private long getJobsNumberWithStatus(final Collection<JobStatus> status) {
@@ -430,16 +649,16 @@ public class SchedulerDBManager {
     }
 
     public long getFinishedTasksCount() {
-        return executeReadOnlyTransaction(session -> {
+        return statisticsCache.get("finishedTasksCount", () -> executeReadOnlyTransaction(session -> {
             Query query = session.getNamedQuery("getFinishedTasksCount")
                                  .setParameterList("taskStatus", Arrays.asList(TaskStatus.FINISHED, TaskStatus.FAULTY));
 
             return (Long) query.uniqueResult();
-        });
+        }));
     }
 
     public long getPendingTasksCount() {
-        return executeReadOnlyTransaction(session -> {
+        return statisticsCache.get("pendingTasksCount", () -> executeReadOnlyTransaction(session -> {
             Collection<TaskStatus> taskStatus = Arrays.asList(TaskStatus.SUBMITTED,
                                                               TaskStatus.PAUSED,
                                                               TaskStatus.PENDING,
@@ -450,43 +669,43 @@ public class SchedulerDBManager {
                                  .setParameterList("taskStatus", taskStatus);
 
             return (Long) query.uniqueResult();
-        });
+        }));
     }
 
     public long getRunningTasksCount() {
-        return executeReadOnlyTransaction(session -> {
+        return statisticsCache.get("runningTasksCount", () -> executeReadOnlyTransaction(session -> {
             Query query = session.getNamedQuery("getRunningTasksCount")
                                  .setParameterList("jobStatus", NOT_FINISHED_JOB_STATUSES)
                                  .setParameterList("taskStatus", Collections.singletonList(TaskStatus.RUNNING));
 
             return (Long) query.uniqueResult();
-        });
+        }));
     }
 
     public long getTotalTasksCount() {
-        return executeReadOnlyTransaction(session -> {
+        return statisticsCache.get("totalTasksCount", () -> executeReadOnlyTransaction(session -> {
             return (Long) session.getNamedQuery("getTotalTasksCount").uniqueResult();
-        });
+        }));
     }
 
     public double getMeanJobPendingTime() {
-        return executeReadOnlyTransaction(session -> {
+        return statisticsCache.get("meanJobPendingTime", () -> executeReadOnlyTransaction(session -> {
             Query query = session.getNamedQuery("getMeanJobPendingTime");
             Double result = (Double) query.uniqueResult();
             return result == null ? 0.0d : result;
-        });
+        }));
     }
 
     public double getMeanJobExecutionTime() {
-        return executeReadOnlyTransaction(session -> {
+        return statisticsCache.get("meanJobExecutionTime", () -> executeReadOnlyTransaction(session -> {
             Query query = session.getNamedQuery("getMeanJobExecutionTime");
             Double result = (Double) query.uniqueResult();
             return result == null ? 0.0d : result;
-        });
+        }));
     }
 
     public double getMeanJobSubmittingPeriod() {
-        return executeReadOnlyTransaction(session -> {
+        return statisticsCache.get("meanJobSubmittingPeriod", () -> executeReadOnlyTransaction(session -> {
             Query query = session.getNamedQuery("getMeanJobSubmittingPeriod");
             Object[] result = (Object[]) query.uniqueResult();
             Long count = (Long) result[0];
@@ -497,13 +716,11 @@ public class SchedulerDBManager {
             } else {
                 return (maxSubmittedTime - minSubmittedTime) / (double) (count - 1);
             }
-        });
+        }));
     }
 
     public long getJobRunningTime(final String jobId) {
-        final long id = Long.parseLong(jobId);
-
-        Long result = executeReadOnlyTransaction(session -> {
+        return getJobStatistic(Long.parseLong(jobId), "jobRunningTime", (id, session) -> {
             JobData jobData = session.get(JobData.class, id);
             if (jobData == null) {
                 return null;
@@ -514,13 +731,10 @@ public class SchedulerDBManager {
                 return null;
             }
         });
-
-        return checkResult(id, result);
     }
 
     public long getJobPendingTime(final String jobId) {
-        final long id = Long.parseLong(jobId);
-        Long result = executeReadOnlyTransaction(session -> {
+        return getJobStatistic(Long.parseLong(jobId), "jobPendingTime", (id, session) -> {
             JobData jobData = session.get(JobData.class, id);
             if (jobData == null) {
                 return null;
@@ -531,13 +745,10 @@ public class SchedulerDBManager {
                 return null;
             }
         });
-
-        return checkResult(id, result);
     }
 
     public double getMeanTaskPendingTime(final String jobId) {
-        final long id = Long.parseLong(jobId);
-        Double result = executeReadOnlyTransaction(session -> {
+        return getJobStatistic(Long.parseLong(jobId), "meanTaskPendingTime", (id, session) -> {
             Query jobSubmittedTimeQuery = session.getNamedQuery("getJobSubmittedTime").setParameter("id", id);
             Long jobSubmittedTime = (Long) jobSubmittedTimeQuery.uniqueResult();
             if (jobSubmittedTime == null) {
@@ -547,13 +758,43 @@ public class SchedulerDBManager {
                                  .setParameter("id", id)
                                  .setParameter("jobSubmittedTime", jobSubmittedTime);
 
-            Double result1 = (Double) query.uniqueResult();
-            return result1 == null ? 0.0d : result1;
+            Double result = (Double) query.uniqueResult();
+            return result == null ? 0.0d : result;
+        });
+    }
+
+    /**
+     * Returns a statistic of a job. Once the job is finished the statistic does not change
+     * anymore, it is then kept in the {@link SchedulerDBStatisticsCache} until the job is removed.
+     *
+     * @param id the id of the job
+     * @param name the name of the statistic
+     * @param query the computation of the statistic, returning null if the job does not exist
+     * @throws IllegalArgumentException if the job does not exist
+     */
+    private <T> T getJobStatistic(final long id, final String name, final JobStatisticQuery<T> query) {
+        T result = statisticsCache.getFinishedJobStatistic(id, name);
+        if (result != null) {
+            return result;
+        }
+        result = executeReadOnlyTransaction(id, session -> {
+            T value = query.compute(id, session);
+            if (value != null && FINISHED_JOB_STATUSES.contains(session.getNamedQuery("getJobStatus")
+                                                                       .setParameter("id", id)
+                                                                       .uniqueResult())) {
+                statisticsCache.putFinishedJobStatistic(id, name, value);
+            }
+            return value;
         });
 
         return checkResult(id, result);
     }
 
+    @FunctionalInterface
+    private interface JobStatisticQuery<T> {
+        T compute(long jobId, Session session);
+    }
+
     private <T> T checkResult(long id, T result) {
         if (result == null) {
             throw new IllegalArgumentException("Job " + id + " doesn't exist");
@@ -563,8 +804,7 @@ public class SchedulerDBManager {
     }
 
     public double getMeanTaskRunningTime(String jobId) {
-        final long id = Long.parseLong(jobId);
-        Double result = executeReadOnlyTransaction(session -> {
+        return getJobStatistic(Long.parseLong(jobId), "meanTaskRunningTime", (id, session) -> {
             Query jobQuery = session.getNamedQuery("checkJobExistence").setParameter("id", id);
             if (jobQuery.uniqueResult() == null) {
                 return null;
@@ -575,13 +815,10 @@ public class SchedulerDBManager {
             Double uniqueResult = (Double) query.uniqueResult();
             return uniqueResult == null ? 0.0d : uniqueResult;
         });
-
-        return checkResult(id, result);
     }
 
     public int getTotalNumberOfHostsUsed(String jobId) {
-        final long id = Long.parseLong(jobId);
-        int result = executeReadOnlyTransaction(session -> {
+        return getJobStatistic(Long.parseLong(jobId), "totalNumberOfHostsUsed", (id, session) -> {
             Query jobQuery = session.getNamedQuery("checkJobExistence").setParameter("id", id);
             if (jobQuery.uniqueResult() == null) {
                 return null;
@@ -591,42 +828,47 @@ public class SchedulerDBManager {
 
             return ((Long) query.uniqueResult()).intValue();
         });
-
-        return checkResult(id, result);
     }
 
+    /**
+     * Reads the account of a user from the daily usage aggregates, and from the jobs which
+     * finished since the last aggregated day or are not finished.
+     */
     public SchedulerAccount readAccount(final String username) {
+        final long notAggregatedTime = usageAggregator.aggregate();
         return executeReadOnlyTransaction(session -> {
-            Query tasksQuery = session.getNamedQuery("readAccountTasks").setParameter("username", username);
+            Query usageQuery = session.getNamedQuery("readAccountUsage").setParameter("username", username);
 
-            int taskCount;
-            long taskDuration;
+            Object[] usageResult = (Object[]) usageQuery.uniqueResult();
+            int taskCount = numberOrZero(usageResult[0]).intValue();
+            long taskDuration = numberOrZero(usageResult[1]).longValue();
+            int jobCount = numberOrZero(usageResult[2]).intValue();
+            long jobDuration = numberOrZero(usageResult[3]).longValue();
 
-            Object[] taskResult = (Object[]) tasksQuery.uniqueResult();
-            taskCount = ((Number) taskResult[0]).intValue();
-            if (taskResult[1] != null) {
-                taskDuration = ((Number) taskResult[1]).longValue();
-            } else {
-                taskDuration = 0L;
-            }
+            Query tasksQuery = session.getNamedQuery("readAccountTasks")
+                                      .setParameter("username", username)
+                                      .setParameter("from", notAggregatedTime);
 
-            int jobCount;
-            long jobDuration;
+            Object[] taskResult = (Object[]) tasksQuery.uniqueResult();
+            taskCount += numberOrZero(taskResult[0]).intValue();
+            taskDuration += numberOrZero(taskResult[1]).longValue();
 
-            Query jobQuery = session.getNamedQuery("readAccountJobs").setParameter("username", username);
+            Query jobQuery = session.getNamedQuery("readAccountJobs")
+                                    .setParameter("username", username)
+                                    .setParameter("from", notAggregatedTime);
 
             Object[] jobResult = (Object[]) jobQuery.uniqueResult();
-            jobCount = ((Number) jobResult[0]).intValue();
-            if (jobResult[1] != null) {
-                jobDuration = ((Number) jobResult[1]).longValue();
-            } else {
-                jobDuration = 0L;
-            }
+            jobCount += numberOrZero(jobResult[0]).intValue();
+            jobDuration += numberOrZero(jobResult[1]).longValue();
 
             return new SchedulerAccount(username, taskCount, taskDuration, jobCount, jobDuration);
         });
     }
 
+    private static Number numberOrZero(Object value) {
+        return value == null ? 0L : (Number) value;
+    }
+
     private void removeJobScripts(Session session, long jobId) {
         // This query competes with "deleteJobData" query.
         // So Oracle 12c can stuck in deadlock.
@@ -674,8 +916,29 @@ public class SchedulerDBManager {
         });
     }
 
-    public void executeHousekeepingInDB(final List<Long> jobIdList, final boolean shouldRemoveFromDb) {
-        executeReadWriteTransaction(new HousekeepingSessionWork(jobIdList, shouldRemoveFromDb));
+    /**
+     * Queues the housekeeping of the given jobs, which is executed in the background by chunks of jobs.
+     *
+     * @param shouldRemoveFromDb true to delete the jobs and all their data, false to only mark them as removed
+     * @return a future which completes when all the given jobs are handled
+     */
+    public Future<?> executeHousekeepingInDB(final List<Long> jobIdList, final boolean shouldRemoveFromDb) {
+        return housekeepingExecutor.submit(jobIdList, shouldRemoveFromDb);
+    }
+
+    /**
+     * Returns the jobs marked as removed which are still in the database, e.g. because the scheduler
+     * stopped before their housekeeping.
+     *
+     * @param lastJobId only the jobs whose id is greater than this id are returned
+     * @param limit the maximum number of job ids to return
+     * @return the ids of the jobs, in ascending order
+     */
+    public List<Long> getRemovedJobsToDelete(final long lastJobId, final int limit) {
+        return executeReadOnlyTransaction(session -> session.getNamedQuery("getRemovedJobIds")
+                                                            .setParameter("lastJobId", lastJobId)
+                                                            .setMaxResults(limit)
+                                                            .list());
     }
 
     public void removeJob(final JobId jobId, final long removedTime, final boolean removeData) {
@@ -689,9 +952,13 @@ public class SchedulerDBManager {
                 session.createSQLQuery("delete from TASK_DATA_JOINED_BRANCHES where JOB_ID = :jobId")
                        .setParameter("jobId", id)
                        .executeUpdate();
+                List<String> contentHashes = session.getNamedQuery("loadJobContentHashesInBulk")
+                                                    .setParameterList("jobIdList", Collections.singletonList(id))
+                                                    .list();
                 session.createSQLQuery("delete from JOB_CONTENT where JOB_ID = :jobId")
                        .setParameter("jobId", id)
                        .executeUpdate();
+                JobContentStore.deleteUnreferenced(session, contentHashes);
 
                 session.getNamedQuery("deleteJobDataVariable").setParameter("jobId", id).executeUpdate();
 
@@ -707,6 +974,7 @@ public class SchedulerDBManager {
             }
             return null;
         });
+        statisticsCache.invalidateJobs(Collections.singletonList(jobId(jobId)));
     }
 
     public List<InternalJob> loadNotFinishedJobs(boolean fullState) {
@@ -721,17 +989,7 @@ public class SchedulerDBManager {
         return executeReadOnlyTransaction(session -> {
             logger.info("Loading Jobs from database");
 
-            Query query;
-            if (period >= 0L) {
-                query = session.getNamedQuery("loadJobsWithPeriod")
-                               .setParameter("minSubmittedTime", System.currentTimeMillis() - period)
-                               .setParameterList("status", status)
-                               .setReadOnly(true);
-            } else {
-                query = session.getNamedQuery("loadJobs").setParameterList("status", status).setReadOnly(true);
-            }
-
-            List<Long> ids = query.list();
+            List<Long> ids = createJobIdsQuery(session, status, period).list();
 
             logger.info(ids.size() + " Jobs to fetch from database");
 
@@ -739,12 +997,57 @@ public class SchedulerDBManager {
         });
     }
 
+    /**
+     * @return the ids of the jobs which are not finished and not removed
+     */
+    public List<Long> loadNotFinishedJobIds() {
+        return loadJobIds(NOT_FINISHED_JOB_STATUSES, -1);
+    }
+
+    /**
+     * @param period if positive, only the jobs submitted during this period (in milliseconds) are considered
+     * @return the ids of the jobs which are finished and not removed
+     */
+    public List<Long> loadFinishedJobIds(long period) {
+        return loadJobIds(FINISHED_JOB_STATUSES, period);
+    }
+
+    private List<Long> loadJobIds(final Collection<JobStatus> status, final long period) {
+        return executeReadOnlyTransaction(session -> createJobIdsQuery(session, status, period).list());
+    }
+
+    private Query createJobIdsQuery(Session session, Collection<JobStatus> status, long period) {
+        if (period >= 0L) {
+            return session.getNamedQuery("loadJobsWithPeriod")
+                          .setParameter("minSubmittedTime", System.currentTimeMillis() - period)
+                          .setParameterList("status", status)
+                          .setReadOnly(true);
+        } else {
+            return session.getNamedQuery("loadJobs").setParameterList("status", status).setReadOnly(true);
+        }
+    }
+
+    /**
+     * Loads a page of jobs, in its own transaction. Unlike the other load methods this one
+     * is meant to be called concurrently, in order to load many jobs in parallel.
+     *
+     * @param fullState whether the tasks are loaded with their full state
+     * @param ids the ids of the jobs to load, at most {@code pa.scheduler.db.recovery.load.jobs.batch_size}
+     * @return the loaded jobs
+     */
+    public List<InternalJob> loadJobsPage(final boolean fullState, final List<Long> ids) {
+        return executeReadOnlyTransaction(ids, session -> {
+            List<InternalJob> result = new ArrayList<>(ids.size());
+            batchLoadJobs(session, fullState, session.getNamedQuery("loadInternalJobs"), ids, result);
+            return result;
+        });
+    }
+
     public List<InternalJob> loadJobWithTasksIfNotRemoved(final JobId... jobIds) {
-        return executeReadOnlyTransaction(session -> {
+        final List<Long> ids = Arrays.stream(jobIds).map(SchedulerDBManager::jobId).collect(Collectors.toList());
+        return executeReadOnlyTransaction(ids, session -> {
             Query jobQuery = session.getNamedQuery("loadJobDataIfNotRemoved").setReadOnly(true);
 
-            List<Long> ids = Arrays.stream(jobIds).map(SchedulerDBManager::jobId).collect(Collectors.toList());
-
             List<InternalJob> result = new ArrayList<>(jobIds.length);
             batchLoadJobs(session, false, jobQuery, ids, result);
             return result;
@@ -752,10 +1055,8 @@ public class SchedulerDBManager {
     }
 
     public List<InternalJob> loadJobs(final boolean fullState, final JobId... jobIds) {
-        return executeReadOnlyTransaction(session -> {
-            final List<Long> ids = Stream.of(jobIds).map(SchedulerDBManager::jobId).collect(Collectors.toList());
-            return loadInternalJobs(fullState, session, ids);
-        });
+        final List<Long> ids = Stream.of(jobIds).map(SchedulerDBManager::jobId).collect(Collectors.toList());
+        return executeReadOnlyTransaction(ids, session -> loadInternalJobs(fullState, session, ids));
     }
 
     @SuppressWarnings("unchecked")
@@ -769,7 +1070,8 @@ public class SchedulerDBManager {
     }
 
     public List<InternalJob> loadInternalJob(Long id) {
-        return executeReadOnlyTransaction(session -> loadInternalJobs(false, session, Collections.singletonList(id)));
+        return executeReadOnlyTransaction(id,
+                                          session -> loadInternalJobs(false, session, Collections.singletonList(id)));
     }
 
     // Executed in a transaction from the caller
@@ -897,19 +1199,21 @@ public class SchedulerDBManager {
     }
 
     public void jobTaskStarted(final InternalJob job, final InternalTask task, final boolean taskStatusToPending) {
-        executeReadWriteTransaction((SessionWork<Void>) session -> {
-            long jobId = jobId(job);
+        long jobId = jobId(job);
+        DBTaskId taskId = taskId(task);
+        SessionWork<Void> jobUpdate = jobDataTaskStartedUpdate(jobId, job.getJobInfo());
+        SessionWork<Void> taskUpdate = taskDataTaskStartedUpdate(taskId, task);
+
+        if (buffer.isEnabled() && !taskStatusToPending) {
+            // the task status and executer information are needed to recover the running task after a crash,
+            // they are written right away, only the job counters are delayed
+            executeReadWriteTransaction(jobId, taskId.getTaskId(), taskUpdate);
+            buffer.addPendingJobUpdate(jobId, SchedulerDBManagerBuffer.UpdateType.TASK_STARTED, jobUpdate);
+            return;
+        }
 
-            JobInfo jobInfo = job.getJobInfo();
-
-            session.getNamedQuery("updateJobDataTaskStarted")
-                   .setParameter("status", jobInfo.getStatus())
-                   .setParameter("startTime", jobInfo.getStartTime())
-                   .setParameter("numberOfPendingTasks", jobInfo.getNumberOfPendingTasks())
-                   .setParameter("numberOfRunningTasks", jobInfo.getNumberOfRunningTasks())
-                   .setParameter("lastUpdatedTime", new Date().getTime())
-                   .setParameter("jobId", jobId)
-                   .executeUpdate();
+        executeReadWriteTransaction(jobId, (SessionWork<Void>) session -> {
+            jobUpdate.doInTransaction(session);
 
             if (taskStatusToPending) {
                 JobData job1 = session.load(JobData.class, jobId);
@@ -919,133 +1223,182 @@ public class SchedulerDBManager {
                        .executeUpdate();
             }
 
-            DBTaskId taskId = taskId(task);
+            taskUpdate.doInTransaction(session);
+            return null;
+        });
+    }
+
+    /**
+     * The returned update uses the values of the job when this method is called,
+     * so that it can be buffered.
+     */
+    private SessionWork<Void> jobDataTaskStartedUpdate(long jobId, JobInfo jobInfo) {
+        JobStatus status = jobInfo.getStatus();
+        long startTime = jobInfo.getStartTime();
+        int numberOfPendingTasks = jobInfo.getNumberOfPendingTasks();
+        int numberOfRunningTasks = jobInfo.getNumberOfRunningTasks();
+        long lastUpdatedTime = new Date().getTime();
+
+        return session -> {
+            session.getNamedQuery("updateJobDataTaskStarted")
+                   .setParameter("status", status)
+                   .setParameter("startTime", startTime)
+                   .setParameter("numberOfPendingTasks", numberOfPendingTasks)
+                   .setParameter("numberOfRunningTasks", numberOfRunningTasks)
+                   .setParameter("lastUpdatedTime", lastUpdatedTime)
+                   .setParameter("jobId", jobId)
+                   .executeUpdate();
+            return null;
+        };
+    }
 
-            TaskInfo taskInfo = task.getTaskInfo();
+    /**
+     * The returned update uses the values of the task when this method is called,
+     * so that it can be buffered.
+     */
+    private SessionWork<Void> taskDataTaskStartedUpdate(DBTaskId taskId, InternalTask task) {
+        TaskInfo taskInfo = task.getTaskInfo();
+        TaskStatus taskStatus = taskInfo.getStatus();
+        long startTime = taskInfo.getStartTime();
+        long finishedTime = taskInfo.getFinishedTime();
+        String executionHostName = taskInfo.getExecutionHostName();
 
-            ExecuterInformationData executerInfo = new ExecuterInformationData(taskId.getTaskId(),
-                                                                               task.getExecuterInformation());
+        ExecuterInformationData executerInfo = new ExecuterInformationData(taskId.getTaskId(),
+                                                                           task.getExecuterInformation());
 
+        return session -> {
             session.getNamedQuery("updateTaskDataTaskStarted")
-                   .setParameter("taskStatus", taskInfo.getStatus())
-                   .setParameter("startTime", taskInfo.getStartTime())
-                   .setParameter("finishedTime", taskInfo.getFinishedTime())
-                   .setParameter("executionHostName", taskInfo.getExecutionHostName())
+                   .setParameter("taskStatus", taskStatus)
+                   .setParameter("startTime", startTime)
+                   .setParameter("finishedTime", finishedTime)
+                   .setParameter("executionHostName", executionHostName)
                    .setParameter("executerInformationData", executerInfo)
                    .setParameter("taskId", taskId)
                    .executeUpdate();
             return null;
-        });
+        };
     }
 
     public void taskRestarted(final InternalJob job, final InternalTask task, final TaskResultImpl result) {
-        executeReadWriteTransaction((SessionWork<Void>) session -> {
-            long jobId = jobId(job);
-
-            JobInfo jobInfo = job.getJobInfo();
-
-            session.getNamedQuery("updateJobDataTaskRestarted")
-                   .setParameter("status", jobInfo.getStatus())
-                   .setParameter("numberOfPendingTasks", jobInfo.getNumberOfPendingTasks())
-                   .setParameter("numberOfRunningTasks", jobInfo.getNumberOfRunningTasks())
-                   .setParameter("numberOfFailedTasks", jobInfo.getNumberOfFailedTasks())
-                   .setParameter("numberOfFaultyTasks", jobInfo.getNumberOfFaultyTasks())
-                   .setParameter("numberOfInErrorTasks", jobInfo.getNumberOfInErrorTasks())
-                   .setParameter("lastUpdatedTime", new Date().getTime())
-                   .setParameter("jobId", jobId)
-                   .executeUpdate();
+        final String valueHandle = storeResultValue(result);
+        try {
+            executeReadWriteTransaction(jobId(job), (SessionWork<Void>) session -> {
+                long jobId = jobId(job);
+
+                JobInfo jobInfo = job.getJobInfo();
+
+                session.getNamedQuery("updateJobDataTaskRestarted")
+                       .setParameter("status", jobInfo.getStatus())
+                       .setParameter("numberOfPendingTasks", jobInfo.getNumberOfPendingTasks())
+                       .setParameter("numberOfRunningTasks", jobInfo.getNumberOfRunningTasks())
+                       .setParameter("numberOfFailedTasks", jobInfo.getNumberOfFailedTasks())
+                       .setParameter("numberOfFaultyTasks", jobInfo.getNumberOfFaultyTasks())
+                       .setParameter("numberOfInErrorTasks", jobInfo.getNumberOfInErrorTasks())
+                       .setParameter("lastUpdatedTime", new Date().getTime())
+                       .setParameter("jobId", jobId)
+                       .executeUpdate();
 
-            DBTaskId taskId = taskId(task);
+                DBTaskId taskId = taskId(task);
 
-            TaskInfo taskInfo = task.getTaskInfo();
+                TaskInfo taskInfo = task.getTaskInfo();
 
-            session.getNamedQuery("updateTaskDataTaskRestarted")
-                   .setParameter("taskStatus", taskInfo.getStatus())
-                   .setParameter("numberOfExecutionLeft", taskInfo.getNumberOfExecutionLeft())
-                   .setParameter("numberOfExecutionOnFailureLeft", taskInfo.getNumberOfExecutionOnFailureLeft())
-                   .setParameter("taskId", taskId)
-                   .executeUpdate();
+                session.getNamedQuery("updateTaskDataTaskRestarted")
+                       .setParameter("taskStatus", taskInfo.getStatus())
+                       .setParameter("numberOfExecutionLeft", taskInfo.getNumberOfExecutionLeft())
+                       .setParameter("numberOfExecutionOnFailureLeft", taskInfo.getNumberOfExecutionOnFailureLeft())
+                       .setParameter("taskId", taskId)
+                       .executeUpdate();
 
-            if (result != null) {
-                saveTaskResult(taskId, result, session);
-            }
+                if (result != null) {
+                    saveTaskResult(taskId, result, valueHandle, session);
+                }
 
-            return null;
-        });
+                return null;
+            });
+        } catch (RuntimeException e) {
+            discardResultValue(valueHandle);
+            throw e;
+        }
     }
 
     @SuppressWarnings("unchecked")
     public void updateAfterWorkflowTaskFinished(final InternalJob job, final ChangedTasksInfo changesInfo,
             final TaskResultImpl result) {
-        executeReadWriteTransaction((SessionWork<Void>) session -> {
-            long jobId = jobId(job);
-
-            JobInfo jobInfo = job.getJobInfo();
-            session.getNamedQuery("updateJobDataAfterWorkflowTaskFinished")
-                   .setParameter("status", jobInfo.getStatus())
-                   .setParameter("finishedTime", jobInfo.getFinishedTime())
-                   .setParameter("numberOfPendingTasks", jobInfo.getNumberOfPendingTasks())
-                   .setParameter("numberOfFinishedTasks", jobInfo.getNumberOfFinishedTasks())
-                   .setParameter("numberOfRunningTasks", jobInfo.getNumberOfRunningTasks())
-                   .setParameter("numberOfFailedTasks", jobInfo.getNumberOfFailedTasks())
-                   .setParameter("numberOfFaultyTasks", jobInfo.getNumberOfFaultyTasks())
-                   .setParameter("numberOfInErrorTasks", jobInfo.getNumberOfInErrorTasks())
-                   .setParameter("totalNumberOfTasks", jobInfo.getTotalNumberOfTasks())
-                   .setParameter("lastUpdatedTime", new Date().getTime())
-                   .setParameter("resultMap", ObjectByteConverter.mapOfSerializableToByteArray(job.getResultMap()))
-                   .setParameter("jobId", jobId)
-                   .executeUpdate();
+        final String valueHandle = storeResultValue(result);
+        try {
+            executeReadWriteTransaction(jobId(job), (SessionWork<Void>) session -> {
+                long jobId = jobId(job);
+
+                JobInfo jobInfo = job.getJobInfo();
+                session.getNamedQuery("updateJobDataAfterWorkflowTaskFinished")
+                       .setParameter("status", jobInfo.getStatus())
+                       .setParameter("finishedTime", jobInfo.getFinishedTime())
+                       .setParameter("numberOfPendingTasks", jobInfo.getNumberOfPendingTasks())
+                       .setParameter("numberOfFinishedTasks", jobInfo.getNumberOfFinishedTasks())
+                       .setParameter("numberOfRunningTasks", jobInfo.getNumberOfRunningTasks())
+                       .setParameter("numberOfFailedTasks", jobInfo.getNumberOfFailedTasks())
+                       .setParameter("numberOfFaultyTasks", jobInfo.getNumberOfFaultyTasks())
+                       .setParameter("numberOfInErrorTasks", jobInfo.getNumberOfInErrorTasks())
+                       .setParameter("totalNumberOfTasks", jobInfo.getTotalNumberOfTasks())
+                       .setParameter("lastUpdatedTime", new Date().getTime())
+                       .setParameter("resultMap", ObjectByteConverter.mapOfSerializableToByteArray(job.getResultMap()))
+                       .setParameter("jobId", jobId)
+                       .executeUpdate();
 
-            JobData jobRuntimeData = session.load(JobData.class, jobId);
+                JobData jobRuntimeData = session.load(JobData.class, jobId);
 
-            List<DBTaskId> taskIds = new ArrayList<>(changesInfo.getSkippedTasks().size() +
-                                                     changesInfo.getUpdatedTasks().size());
-            for (TaskId id : changesInfo.getSkippedTasks()) {
-                taskIds.add(taskId(id));
-            }
-            for (TaskId id : changesInfo.getUpdatedTasks()) {
-                taskIds.add(taskId(id));
-            }
+                List<DBTaskId> taskIds = new ArrayList<>(changesInfo.getSkippedTasks().size() +
+                                                         changesInfo.getUpdatedTasks().size());
+                for (TaskId id : changesInfo.getSkippedTasks()) {
+                    taskIds.add(taskId(id));
+                }
+                for (TaskId id : changesInfo.getUpdatedTasks()) {
+                    taskIds.add(taskId(id));
+                }
 
-            Query tasksQuery = session.getNamedQuery("findTaskData").setParameterList("ids", taskIds);
-            List<TaskData> tasksToUpdate = tasksQuery.list();
-            Set<TaskId> newTasks = changesInfo.getNewTasks();
+                Query tasksQuery = session.getNamedQuery("findTaskData").setParameterList("ids", taskIds);
+                List<TaskData> tasksToUpdate = tasksQuery.list();
+                Set<TaskId> newTasks = changesInfo.getNewTasks();
 
-            for (TaskData taskData : tasksToUpdate) {
-                InternalTask task = job.getIHMTasks().get(taskData.createTaskId(job));
-                taskData.updateMutableAttributes(task);
-                session.update(taskData);
-                saveSingleTaskDependencies(session, task, taskData);
-            }
+                for (TaskData taskData : tasksToUpdate) {
+                    InternalTask task = job.getIHMTasks().get(taskData.createTaskId(job));
+                    taskData.updateMutableAttributes(task);
+                    session.update(taskData);
+                    saveSingleTaskDependencies(session, task, taskData);
+                }
 
-            int counter = 0;
-            for (TaskId newTaskId : newTasks) {
-                InternalTask task = job.getIHMTasks().get(newTaskId);
-                if (task.getExecutableContainer() == null) {
-                    InternalTask from = task.getReplicatedFrom();
-                    ExecutableContainer container = from.getExecutableContainer();
-                    if (container == null) {
-                        container = loadExecutableContainer(session, from);
+                int counter = 0;
+                for (TaskId newTaskId : newTasks) {
+                    InternalTask task = job.getIHMTasks().get(newTaskId);
+                    if (task.getExecutableContainer() == null) {
+                        InternalTask from = task.getReplicatedFrom();
+                        ExecutableContainer container = from.getExecutableContainer();
+                        if (container == null) {
+                            container = loadExecutableContainer(session, from);
+                        }
+                        task.setExecutableContainer(container);
+                    }
+                    TaskData taskData = saveNewTask(session, jobRuntimeData, task);
+                    saveSingleTaskDependencies(session, task, taskData);
+                    if (++counter % 50 == 0) {
+                        session.flush();
+                        session.clear();
                     }
-                    task.setExecutableContainer(container);
-                }
-                TaskData taskData = saveNewTask(session, jobRuntimeData, task);
-                saveSingleTaskDependencies(session, task, taskData);
-                if (++counter % 50 == 0) {
-                    session.flush();
-                    session.clear();
                 }
-            }
 
-            DBTaskId taskId = taskId(result.getTaskId());
-            saveTaskResult(taskId, result, session);
+                DBTaskId taskId = taskId(result.getTaskId());
+                saveTaskResult(taskId, result, valueHandle, session);
 
-            if (FINISHED_JOB_STATUSES.contains(job.getStatus())) {
-                removeJobRuntimeData(session, jobId);
-            }
+                if (FINISHED_JOB_STATUSES.contains(job.getStatus())) {
+                    removeJobRuntimeData(session, jobId);
+                }
 
-            return null;
-        }, false);
+                return null;
+            }, false);
+        } catch (RuntimeException e) {
+            discardResultValue(valueHandle);
+            throw e;
+        }
     }
 
     public void updateAfterJobKilled(InternalJob job, Set<TaskId> tasksToUpdate) {
@@ -1058,7 +1411,7 @@ public class SchedulerDBManager {
     }
 
     public void killJob(InternalJob job) {
-        executeReadWriteTransaction((SessionWork<Void>) session -> {
+        executeReadWriteTransaction(jobId(job), (SessionWork<Void>) session -> {
             long jobId = jobId(job);
 
             JobInfo jobInfo = job.getJobInfo();
@@ -1139,7 +1492,7 @@ public class SchedulerDBManager {
     }
 
     public void updateJobAndTasksState(final InternalJob job) {
-        executeReadWriteTransaction((SessionWork<Void>) session -> {
+        executeReadWriteTransaction(jobId(job), (SessionWork<Void>) session -> {
 
             for (TaskState task : job.getTasks()) {
                 updateTaskData(task, session);
@@ -1152,7 +1505,7 @@ public class SchedulerDBManager {
     }
 
     public void pauseJobAndTasks(final InternalJob job) {
-        executeReadWriteTransaction((SessionWork<Void>) session -> {
+        executeReadWriteTransaction(jobId(job), (SessionWork<Void>) session -> {
             pauseTasks(job, session);
 
             updateJobState(job, session);
@@ -1162,7 +1515,7 @@ public class SchedulerDBManager {
     }
 
     public void updateJobAndRestartAllInErrorTasks(InternalJob job) {
-        executeReadWriteTransaction((SessionWork<Void>) session -> {
+        executeReadWriteTransaction(jobId(job), (SessionWork<Void>) session -> {
             restartAllInErrorTasks(job, session);
 
             updateJobState(job, session);
@@ -1180,7 +1533,7 @@ public class SchedulerDBManager {
     }
 
     public void unpauseJobAndTasks(final InternalJob job) {
-        executeReadWriteTransaction((SessionWork<Void>) session -> {
+        executeReadWriteTransaction(jobId(job), (SessionWork<Void>) session -> {
             unpauseTasks(job, session);
 
             updateJobState(job, session);
@@ -1213,7 +1566,7 @@ public class SchedulerDBManager {
     }
 
     public void updateJobAndTaskState(final InternalJob job, final InternalTask task) {
-        executeReadWriteTransaction((SessionWork<Void>) session -> {
+        executeReadWriteTransaction(jobId(job), (SessionWork<Void>) session -> {
 
             updateTaskData(task, session);
 
@@ -1224,10 +1577,21 @@ public class SchedulerDBManager {
     }
 
     public void updateTaskSchedulingTime(final InternalJob job, final long scheduledTime) {
+        if (buffer.isEnabled()) {
+            for (TaskState task : job.getTasks()) {
+                updateScheduledTime(jobId(job), task.getId().longValue(), scheduledTime);
+            }
+            return;
+        }
+
         executeReadWriteTransaction((SessionWork<Void>) session -> {
 
             for (TaskState task : job.getTasks()) {
-                updateScheduledTime(job.getId().longValue(), task.getId().longValue(), scheduledTime);
+                updateStartOrEndOrScheduledTime(session,
+                                                jobId(job),
+                                                task.getId().longValue(),
+                                                "scheduledTime",
+                                                scheduledTime);
             }
 
             return null;
@@ -1235,7 +1599,7 @@ public class SchedulerDBManager {
     }
 
     public void updateTaskState(final TaskState task) {
-        executeReadWriteTransaction((SessionWork<Void>) session -> {
+        executeReadWriteTransaction(jobId(task.getJobId()), (SessionWork<Void>) session -> {
             updateTaskData(task, session);
 
             return null;
@@ -1258,31 +1622,62 @@ public class SchedulerDBManager {
     }
 
     public void updateStartTime(long jobId, long taskId, long newStartTime) {
-        updateStartOrEndOrScheduledTime(jobId, taskId, "startTime", newStartTime);
+        updateStartOrEndOrScheduledTime(jobId, taskId, SchedulerDBManagerBuffer.UpdateType.START_TIME, newStartTime);
     }
 
     public void updateFinishedTime(long jobId, long taskId, long newFinishedTime) {
-        updateStartOrEndOrScheduledTime(jobId, taskId, "finishedTime", newFinishedTime);
+        updateStartOrEndOrScheduledTime(jobId,
+                                        taskId,
+                                        SchedulerDBManagerBuffer.UpdateType.FINISHED_TIME,
+                                        newFinishedTime);
     }
 
     public void updateScheduledTime(long jobId, long taskId, long newScheduledTime) {
-        updateStartOrEndOrScheduledTime(jobId, taskId, "scheduledTime", newScheduledTime);
-    }
+        updateStartOrEndOrScheduledTime(jobId,
+                                        taskId,
+                                        SchedulerDBManagerBuffer.UpdateType.SCHEDULED_TIME,
+                                        newScheduledTime);
+    }
+
+    private void updateStartOrEndOrScheduledTime(final long jobId, final long taskId,
+            final SchedulerDBManagerBuffer.UpdateType updateType, final long time) {
+        String fieldName;
+        switch (updateType) {
+            case START_TIME:
+                fieldName = "startTime";
+                break;
+            case FINISHED_TIME:
+                fieldName = "finishedTime";
+                break;
+            case SCHEDULED_TIME:
+                fieldName = "scheduledTime";
+                break;
+            default:
+                throw new IllegalArgumentException("Unexpected update type: " + updateType);
+        }
 
-    private void updateStartOrEndOrScheduledTime(final long jobId, final long taskId, final String fieldName,
-            final long time) {
-        executeReadWriteTransaction((SessionWork<Void>) session -> {
+        SessionWork<Void> update = session -> {
+            updateStartOrEndOrScheduledTime(session, jobId, taskId, fieldName, time);
+            return null;
+        };
 
-            Query query = session.createQuery("update TaskData task set task." + fieldName + " = :newTime " + // NOSONAR
-                                              "where task.id.jobId = :jobId and task.id.taskId= :taskId")
-                                 .setParameter("newTime", time)
-                                 .setParameter("jobId", jobId)
-                                 .setParameter("taskId", taskId);
+        if (buffer.isEnabled()) {
+            buffer.addPendingUpdate(jobId, taskId, updateType, update);
+            statisticsCache.invalidate();
+        } else {
+            executeReadWriteTransaction(update);
+        }
+    }
 
-            query.executeUpdate();
+    private void updateStartOrEndOrScheduledTime(Session session, final long jobId, final long taskId,
+            final String fieldName, final long time) {
+        Query query = session.createQuery("update TaskData task set task." + fieldName + " = :newTime " + // NOSONAR
+                                          "where task.id.jobId = :jobId and task.id.taskId= :taskId")
+                             .setParameter("newTime", time)
+                             .setParameter("jobId", jobId)
+                             .setParameter("taskId", taskId);
 
-            return null;
-        });
+        query.executeUpdate();
     }
 
     public void updateAfterTaskFinished(final InternalJob job, final InternalTask finishedTask,
@@ -1292,72 +1687,108 @@ public class SchedulerDBManager {
 
     private void updateAfterTaskFinished(final InternalJob job, final InternalTask finishedTask,
             final TaskResultImpl result, final Set<TaskId> tasksToUpdate) {
-        executeReadWriteTransaction((SessionWork<Void>) session -> {
-            long jobId = jobId(job);
-
-            JobInfo jobInfo = job.getJobInfo();
-
-            session.getNamedQuery("updateJobDataAfterTaskFinished")
-                   .setParameter("status", jobInfo.getStatus())
-                   .setParameter("finishedTime", jobInfo.getFinishedTime())
-                   .setParameter("numberOfPendingTasks", jobInfo.getNumberOfPendingTasks())
-                   .setParameter("numberOfFinishedTasks", jobInfo.getNumberOfFinishedTasks())
-                   .setParameter("numberOfRunningTasks", jobInfo.getNumberOfRunningTasks())
-                   .setParameter("numberOfFailedTasks", jobInfo.getNumberOfFailedTasks())
-                   .setParameter("numberOfFaultyTasks", jobInfo.getNumberOfFaultyTasks())
-                   .setParameter("numberOfInErrorTasks", jobInfo.getNumberOfInErrorTasks())
-                   .setParameter("lastUpdatedTime", new Date().getTime())
-                   .setParameter("resultMap", ObjectByteConverter.mapOfSerializableToByteArray(job.getResultMap()))
-                   .setParameter("jobId", jobId)
-                   .executeUpdate();
+        final String valueHandle = storeResultValue(result);
+        try {
+            executeReadWriteTransaction(jobId(job), (SessionWork<Void>) session -> {
+                long jobId = jobId(job);
+
+                JobInfo jobInfo = job.getJobInfo();
+
+                session.getNamedQuery("updateJobDataAfterTaskFinished")
+                       .setParameter("status", jobInfo.getStatus())
+                       .setParameter("finishedTime", jobInfo.getFinishedTime())
+                       .setParameter("numberOfPendingTasks", jobInfo.getNumberOfPendingTasks())
+                       .setParameter("numberOfFinishedTasks", jobInfo.getNumberOfFinishedTasks())
+                       .setParameter("numberOfRunningTasks", jobInfo.getNumberOfRunningTasks())
+                       .setParameter("numberOfFailedTasks", jobInfo.getNumberOfFailedTasks())
+                       .setParameter("numberOfFaultyTasks", jobInfo.getNumberOfFaultyTasks())
+                       .setParameter("numberOfInErrorTasks", jobInfo.getNumberOfInErrorTasks())
+                       .setParameter("lastUpdatedTime", new Date().getTime())
+                       .setParameter("resultMap", ObjectByteConverter.mapOfSerializableToByteArray(job.getResultMap()))
+                       .setParameter("jobId", jobId)
+                       .executeUpdate();
 
-            Query taskUpdateQuery = session.getNamedQuery("updateTaskDataAfterJobFinished");
+                Query taskUpdateQuery = session.getNamedQuery("updateTaskDataAfterJobFinished");
 
-            if (finishedTask != null) {
-                tasksToUpdate.add(finishedTask.getId());
-            }
+                if (finishedTask != null) {
+                    tasksToUpdate.add(finishedTask.getId());
+                }
 
-            for (TaskId id : tasksToUpdate) {
-                InternalTask task = job.getIHMTasks().get(id);
-                DBTaskId taskId = taskId(task.getId());
+                for (TaskId id : tasksToUpdate) {
+                    InternalTask task = job.getIHMTasks().get(id);
+                    DBTaskId taskId = taskId(task.getId());
 
-                TaskInfo taskInfo = task.getTaskInfo();
+                    TaskInfo taskInfo = task.getTaskInfo();
 
-                taskUpdateQuery.setParameter("taskStatus", taskInfo.getStatus())
-                               .setParameter("numberOfExecutionLeft", taskInfo.getNumberOfExecutionLeft())
-                               .setParameter("numberOfExecutionOnFailureLeft",
-                                             taskInfo.getNumberOfExecutionOnFailureLeft())
-                               .setParameter("finishedTime", taskInfo.getFinishedTime())
-                               .setParameter("executionDuration", taskInfo.getExecutionDuration())
-                               .setParameter("taskId", taskId)
-                               .executeUpdate();
-            }
+                    taskUpdateQuery.setParameter("taskStatus", taskInfo.getStatus())
+                                   .setParameter("numberOfExecutionLeft", taskInfo.getNumberOfExecutionLeft())
+                                   .setParameter("numberOfExecutionOnFailureLeft",
+                                                 taskInfo.getNumberOfExecutionOnFailureLeft())
+                                   .setParameter("finishedTime", taskInfo.getFinishedTime())
+                                   .setParameter("executionDuration", taskInfo.getExecutionDuration())
+                                   .setParameter("taskId", taskId)
+                                   .executeUpdate();
+                }
 
-            if (result != null) {
-                DBTaskId taskId = taskId(finishedTask.getId());
-                saveTaskResult(taskId, result, session);
-            }
+                if (result != null) {
+                    DBTaskId taskId = taskId(finishedTask.getId());
+                    saveTaskResult(taskId, result, valueHandle, session);
+                }
 
-            if (FINISHED_JOB_STATUSES.contains(job.getStatus())) {
-                session.flush();
-                session.clear();
+                if (FINISHED_JOB_STATUSES.contains(job.getStatus())) {
+                    session.flush();
+                    session.clear();
 
-                removeJobRuntimeData(session, jobId);
-            }
+                    removeJobRuntimeData(session, jobId);
+                }
 
-            return null;
-        });
+                return null;
+            });
+        } catch (RuntimeException e) {
+            discardResultValue(valueHandle);
+            throw e;
+        }
     }
 
-    private TaskResultData saveTaskResult(TaskData.DBTaskId taskId, TaskResultImpl result, Session session) {
+    private TaskResultData saveTaskResult(TaskData.DBTaskId taskId, TaskResultImpl result, String valueHandle,
+            Session session) {
         TaskData taskRuntimeData = session.load(TaskData.class, taskId);
 
-        TaskResultData resultData = TaskResultData.createTaskResultData(taskRuntimeData, result);
+        TaskResultData resultData = TaskResultData.createTaskResultData(taskRuntimeData, result, valueHandle);
         session.save(resultData);
 
         return resultData;
     }
 
+    /**
+     * Writes the value of the given result to the results store, if the store accepts it. Called before the
+     * transaction saving the result, so that a rollback or a retry of the transaction never leaves a value the
+     * database does not know of.
+     *
+     * @return the handle of the value, or null if the value is kept in the database
+     */
+    private String storeResultValue(TaskResultImpl result) {
+        if (result == null || !resultValueStore.accepts(result.getSerializedValue())) {
+            return null;
+        }
+        try {
+            return resultValueStore.store(result.getSerializedValue());
+        } catch (IOException e) {
+            logger.warn("Failed to store the value of task result " + result.getTaskId() +
+                        " out of the database, the value is kept in the database", e);
+            return null;
+        }
+    }
+
+    /**
+     * Deletes the stored value of a result whose transaction failed, once no other result references it.
+     */
+    private void discardResultValue(String valueHandle) {
+        if (valueHandle != null) {
+            housekeepingExecutor.deleteResultValuesLater(Collections.singleton(valueHandle));
+        }
+    }
+
     public void jobSetToBeRemoved(final JobId jobId) {
         executeReadWriteTransaction((SessionWork<Void>) session -> {
             long id = jobId(jobId);
@@ -1377,7 +1808,7 @@ public class SchedulerDBManager {
             throw new IllegalArgumentException("TaskIds list is empty");
         }
 
-        return executeReadOnlyTransaction(session -> {
+        return executeReadOnlyTransaction(jobId(jobId), session -> {
             JobData job = session.get(JobData.class, jobId(jobId));
 
             if (job == null) {
@@ -1422,7 +1853,7 @@ public class SchedulerDBManager {
     }
 
     public JobResult loadJobResult(final JobId jobId) {
-        return executeReadOnlyTransaction((SessionWork<JobResult>) session -> {
+        return executeReadOnlyTransaction(jobId(jobId), (SessionWork<JobResult>) session -> {
             long id = jobId(jobId);
 
             JobData job = session.get(JobData.class, id);
@@ -1466,7 +1897,7 @@ public class SchedulerDBManager {
             boolean nextTask = !dbTaskId.equals(currentTaskId);
             if (nextTask) {
                 TaskId taskId = TaskIdImpl.createTaskId(jobId, taskName, dbTaskId.getTaskId());
-                jobResult.addTaskResult(taskName, resultData.toTaskResult(taskId), preciousResult);
+                jobResult.addTaskResult(taskName, resultData.toTaskResult(taskId, resultValueStore), preciousResult);
                 currentTaskId = dbTaskId;
             }
 
@@ -1483,7 +1914,7 @@ public class SchedulerDBManager {
     }
 
     public TaskResult loadTaskResult(final JobId jobId, final String taskName, final int index) {
-        return executeReadOnlyTransaction(session -> {
+        return executeReadOnlyTransaction(jobId(jobId), session -> {
             long id = jobId(jobId);
 
             Object[] taskSearchResult = (Object[]) session.getNamedQuery("loadTasksResultByJobAndTaskName")
@@ -1512,7 +1943,7 @@ public class SchedulerDBManager {
      * @return a list of task results
      */
     public List<TaskResult> loadTaskResultAllAttempts(final JobId jobId, final String taskName) {
-        return executeReadOnlyTransaction(session -> {
+        return executeReadOnlyTransaction(jobId(jobId), session -> {
             long id = jobId(jobId);
 
             Object[] taskSearchResult = (Object[]) session.getNamedQuery("loadTasksResultByJobAndTaskName")
@@ -1532,8 +1963,37 @@ public class SchedulerDBManager {
         });
     }
 
+    /**
+     * Returns the handle, in the {@link TaskResultValueStore}, of the value of the last result of a task.
+     *
+     * @param jobId    job id
+     * @param taskName task name
+     * @return the handle of the value, or null if the task has no result or if its value is stored in the database
+     */
+    public String loadTaskResultValueHandle(final JobId jobId, final String taskName) {
+        return executeReadOnlyTransaction(jobId(jobId), session -> {
+            long id = jobId(jobId);
+
+            Object[] taskSearchResult = (Object[]) session.getNamedQuery("loadTasksResultByJobAndTaskName")
+                                                          .setParameter("taskName", taskName)
+                                                          .setParameter("job", session.load(JobData.class, id))
+                                                          .uniqueResult();
+
+            if (taskSearchResult == null) {
+                throw new DatabaseManagerException("Failed to load result for task '" + taskName + ", job: " + jobId);
+            }
+
+            TaskData task = session.load(TaskData.class, (DBTaskId) taskSearchResult[0]);
+            TaskResultData result = (TaskResultData) session.getNamedQuery("loadTasksResultByTask")
+                                                            .setParameter("task", task)
+                                                            .setMaxResults(1)
+                                                            .uniqueResult();
+            return result == null ? null : result.getValueHandle();
+        });
+    }
+
     public TaskResult loadTaskResult(final TaskId taskId, final int index) {
-        return executeReadOnlyTransaction(session -> loadTaskResult(session, taskId, index));
+        return executeReadOnlyTransaction(jobId(taskId.getJobId()), session -> loadTaskResult(session, taskId, index));
     }
 
     /**
@@ -1544,7 +2004,8 @@ public class SchedulerDBManager {
      * @return a list of task results
      */
     public List<TaskResult> loadTaskResultAllAttempts(final TaskId taskId) {
-        return executeReadOnlyTransaction(session -> loadTaskResultAllAttempts(session, taskId));
+        return executeReadOnlyTransaction(jobId(taskId.getJobId()),
+                                          session -> loadTaskResultAllAttempts(session, taskId));
     }
 
     @SuppressWarnings("unchecked")
@@ -1560,7 +2021,7 @@ public class SchedulerDBManager {
         if (results.isEmpty()) {
             return null;
         } else {
-            return results.get(0).toTaskResult(taskId);
+            return results.get(0).toTaskResult(taskId, resultValueStore);
         }
     }
 
@@ -1572,11 +2033,16 @@ public class SchedulerDBManager {
         Query query = session.getNamedQuery("loadTasksResultByTaskAsc").setParameter("task", task);
 
         return ((List<TaskResultData>) query.list()).stream()
-                                                    .map(resultData -> resultData.toTaskResult(taskId))
+                                                    .map(resultData -> resultData.toTaskResult(taskId, resultValueStore))
                                                     .collect(Collectors.toList());
     }
 
     public void newJobSubmitted(final InternalJob job) {
+        String jobContent = job.getTaskFlowJob().getJobContent();
+        if (jobContent != null) {
+            // committed first, so that the content is not deleted before the job references it
+            jobContentStore.save(transactionHelper, JobContentStore.hash(jobContent), jobContent);
+        }
         executeReadWriteTransaction(session -> {
             JobData jobRuntimeData = JobData.createJobData(job);
             session.save(jobRuntimeData);
@@ -1599,30 +2065,57 @@ public class SchedulerDBManager {
                 job.getIHMTasks().put(task.getId(), task);
             }
 
-            List<InternalTask> tasks = job.getITasks();
-            List<TaskData> taskRuntimeDataList = new ArrayList<>(tasks.size());
-            for (InternalTask task : tasks) {
-                taskRuntimeDataList.add(saveNewTask(session, jobRuntimeData, task));
-            }
-            saveTaskDependencies(session, tasks, taskRuntimeDataList);
+            saveNewTasks(session, jobRuntimeData, job.getITasks());
 
             return jobRuntimeData;
         });
     }
 
+    /**
+     * Saves the tasks of a newly submitted job. Dependencies and joined branches are set
+     * before the tasks are saved and if branches are resolved from the tasks of the job
+     * rather than reloaded from the session, so that the whole job is written with batched
+     * inserts followed by one update per if branch.
+     */
+    private void saveNewTasks(Session session, JobData jobRuntimeData, List<InternalTask> tasks) {
+        Map<DBTaskId, TaskData> taskRuntimeDataById = new HashMap<>(tasks.size() * 2);
+        List<InternalTask> tasksWithIfBranch = new ArrayList<>();
+
+        for (InternalTask task : tasks) {
+            TaskData taskRuntimeData = createTaskData(jobRuntimeData, task);
+            setTaskDependencies(task, taskRuntimeData);
+            session.save(taskRuntimeData);
+
+            taskRuntimeDataById.put(taskRuntimeData.getId(), taskRuntimeData);
+            if (task.getIfBranch() != null) {
+                tasksWithIfBranch.add(task);
+            }
+        }
+
+        for (InternalTask task : tasksWithIfBranch) {
+            TaskData ifBranch = taskRuntimeDataById.get(taskId(task.getIfBranch()));
+            if (ifBranch == null) {
+                ifBranch = getTaskReference(session, task.getIfBranch());
+            }
+            taskRuntimeDataById.get(taskId(task)).setIfBranch(ifBranch);
+        }
+    }
+
     private TaskData getTaskReference(Session session, InternalTask task) {
         return session.get(TaskData.class, taskId(task));
     }
 
-    private void saveTaskDependencies(Session session, List<InternalTask> tasks, List<TaskData> taskRuntimeDataList) {
-        for (int i = 0; i < tasks.size(); i++) {
-            InternalTask task = tasks.get(i);
-            TaskData taskRuntimeData = taskRuntimeDataList.get(i);
-            saveSingleTaskDependencies(session, task, taskRuntimeData);
+    private void saveSingleTaskDependencies(Session session, InternalTask task, TaskData taskRuntimeData) {
+        setTaskDependencies(task, taskRuntimeData);
+
+        if (task.getIfBranch() != null) {
+            taskRuntimeData.setIfBranch(getTaskReference(session, task.getIfBranch()));
+        } else {
+            taskRuntimeData.setIfBranch(null);
         }
     }
 
-    private void saveSingleTaskDependencies(Session session, InternalTask task, TaskData taskRuntimeData) {
+    private void setTaskDependencies(InternalTask task, TaskData taskRuntimeData) {
         if (task.hasDependences()) {
             List<DBTaskId> dependencies = task.getDependences()
                                               .stream()
@@ -1634,12 +2127,6 @@ public class SchedulerDBManager {
             taskRuntimeData.setDependentTasks(Collections.emptyList());
         }
 
-        if (task.getIfBranch() != null) {
-            taskRuntimeData.setIfBranch(getTaskReference(session, task.getIfBranch()));
-        } else {
-            taskRuntimeData.setIfBranch(null);
-        }
-
         if (task.getJoinedBranches() != null && !task.getJoinedBranches().isEmpty()) {
             List<DBTaskId> joinedBranches = task.getJoinedBranches()
                                                 .stream()
@@ -1652,11 +2139,15 @@ public class SchedulerDBManager {
     }
 
     private TaskData saveNewTask(Session session, JobData jobRuntimeData, InternalTask task) {
+        TaskData taskRuntimeData = createTaskData(jobRuntimeData, task);
+        session.save(taskRuntimeData);
+        return taskRuntimeData;
+    }
+
+    private TaskData createTaskData(JobData jobRuntimeData, InternalTask task) {
         // TODO: use double dispatch to prevent branching
         if (isScriptTask(task)) {
-            TaskData taskRuntimeData = TaskData.createTaskData(jobRuntimeData, (InternalScriptTask) task);
-            session.save(taskRuntimeData);
-            return taskRuntimeData;
+            return TaskData.createTaskData(jobRuntimeData, (InternalScriptTask) task);
         } else {
             throw new IllegalArgumentException("Unexpected task class: " + task.getClass());
         }
@@ -1696,7 +2187,7 @@ public class SchedulerDBManager {
     }
 
     public ExecutableContainer loadExecutableContainer(final InternalTask task) {
-        return executeReadOnlyTransaction(session -> loadExecutableContainer(session, task));
+        return transactionHelper.executeReadOnlyTransaction(session -> loadExecutableContainer(session, task));
     }
 
     public List<SchedulerUserInfo> loadUsersWithJobs() {
@@ -1716,17 +2207,70 @@ public class SchedulerDBManager {
     }
 
     public <T> T executeReadWriteTransaction(SessionWork<T> sessionWork) {
-        return transactionHelper.executeReadWriteTransaction(sessionWork);
+        try {
+            return transactionHelper.executeReadWriteTransaction(sessionWork);
+        } finally {
+            statisticsCache.invalidate();
+        }
     }
 
     private <T> T executeReadWriteTransaction(SessionWork<T> sessionWork, boolean readOnlyEntities) {
-        return transactionHelper.executeReadWriteTransaction(sessionWork, readOnlyEntities);
+        try {
+            return transactionHelper.executeReadWriteTransaction(sessionWork, readOnlyEntities);
+        } finally {
+            statisticsCache.invalidate();
+        }
     }
 
+    /**
+     * Executes a read-write transaction which updates the state of the given job, after having
+     * written the buffered updates of this job in the same transaction.
+     */
+    private <T> T executeReadWriteTransaction(long jobId, SessionWork<T> sessionWork) {
+        return executeReadWriteTransaction(jobId, sessionWork, true);
+    }
+
+    private <T> T executeReadWriteTransaction(long jobId, SessionWork<T> sessionWork, boolean readOnlyEntities) {
+        try {
+            return buffer.executeReadWriteTransaction(jobId, sessionWork, readOnlyEntities);
+        } finally {
+            statisticsCache.invalidate();
+        }
+    }
+
+    /**
+     * Executes a read-write transaction which updates the state of the given task, after having
+     * written the buffered updates of this task in the same transaction.
+     */
+    private <T> T executeReadWriteTransaction(long jobId, long taskId, SessionWork<T> sessionWork) {
+        try {
+            return buffer.executeReadWriteTransaction(jobId, taskId, sessionWork, true);
+        } finally {
+            statisticsCache.invalidate();
+        }
+    }
+
+    /**
+     * Executes a read-only transaction, after having written all the buffered updates.
+     */
     public <T> T executeReadOnlyTransaction(SessionWork<T> sessionWork) {
+        buffer.flushPendingUpdatesBeforeRead();
         return transactionHelper.executeReadOnlyTransaction(sessionWork);
     }
 
+    /**
+     * Executes a read-only transaction which only reads the state of the given jobs, after having
+     * written the buffered updates of these jobs.
+     */
+    private <T> T executeReadOnlyTransaction(Collection<Long> jobIds, SessionWork<T> sessionWork) {
+        buffer.flushPendingUpdatesBeforeRead(jobIds);
+        return transactionHelper.executeReadOnlyTransaction(sessionWork);
+    }
+
+    private <T> T executeReadOnlyTransaction(long jobId, SessionWork<T> sessionWork) {
+        return executeReadOnlyTransaction(Collections.singleton(jobId), sessionWork);
+    }
+
     private static TaskData.DBTaskId taskId(InternalTask task) {
         return taskId(task.getId());
     }
@@ -1793,7 +2337,7 @@ public class SchedulerDBManager {
     }
 
     public Set<String> thirdPartyCredentialsKeySet(final String username) {
-        return executeReadOnlyTransaction((SessionWork<Set<String>>) session -> {
+        return transactionHelper.executeReadOnlyTransaction((SessionWork<Set<String>>) session -> {
             Query query = session.getNamedQuery("findThirdPartyCredentialsKeySetByUsername").setParameter("username",
                                                                                                           username);
             List<String> keys = query.list();
@@ -1813,7 +2357,7 @@ public class SchedulerDBManager {
     }
 
     public Map<String, HybridEncryptedData> thirdPartyCredentialsMap(final String username) {
-        return executeReadOnlyTransaction(session -> {
+        return transactionHelper.executeReadOnlyTransaction(session -> {
             Query query = session.getNamedQuery("findThirdPartyCredentialsMapByUsername").setParameter("username",
                                                                                                        username);
             List<Object[]> rows = query.list();
@@ -1830,7 +2374,7 @@ public class SchedulerDBManager {
     }
 
     public boolean hasThirdPartyCredentials(final String jobOwner) {
-        return executeReadOnlyTransaction(session -> {
+        return transactionHelper.executeReadOnlyTransaction(session -> {
             Long count = (Long) session.getNamedQuery("hasThirdPartyCredentials")
                                        .setParameter("username", jobOwner)
                                        .uniqueResult();
@@ -1840,7 +2384,7 @@ public class SchedulerDBManager {
     }
 
     public String loadInitalJobContent(final JobId jobId) {
-        return executeReadOnlyTransaction(session -> {
+        return transactionHelper.executeReadOnlyTransaction(session -> {
             long id = jobId(jobId);
 
             Query query = session.getNamedQuery("loadJobContent").setLong("id", id);
@@ -1849,7 +2393,7 @@ public class SchedulerDBManager {
             }
 
             JobContent jobContent = (JobContent) query.uniqueResult();
-            final String initJobContent = jobContent.getInitJobContent();
+            final String initJobContent = jobContentStore.load(session, jobContent);
             if (initJobContent == null) {
                 throw new DatabaseManagerException("Job content should not be null for job id: " + jobId.value());
             }
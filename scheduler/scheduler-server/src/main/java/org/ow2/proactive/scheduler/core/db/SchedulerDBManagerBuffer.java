@@ -0,0 +1,529 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_DB_TASK_UPDATES_DELAY;
+import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_DB_TASK_UPDATES_MAX_PENDING;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.log4j.Logger;
+import org.hibernate.Session;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+import org.ow2.proactive.db.SessionWork;
+import org.ow2.proactive.db.TransactionHelper;
+
+
+/**
+ * Delays the task state updates made on the hot path of the scheduling loop
+ * (job counters of started tasks, scheduled time, start and finished times)
+ * in order to write them in batches. Successive updates of the same kind for
+ * the same job or task are coalesced: only the latest one is written.
+ * <p>
+ * The pending updates of a job are written in the same transaction as, and
+ * before, the updates which matter for recovery (task started, termination,
+ * restart, job state changes), see {@link #executeReadWriteTransaction(long, SessionWork, boolean)}.
+ * The other pending updates are written when the delay defined by
+ * {@code pa.scheduler.db.task.updates.delay} elapses, when more than
+ * {@code pa.scheduler.db.task.updates.max.pending} updates are pending, or
+ * before the jobs they belong to are read. Updates which could not be written
+ * are kept for a later write, up to {@value #MAXIMUM_WRITE_ATTEMPTS} attempts.
+ */
+public class SchedulerDBManagerBuffer {
+
+    private static final Logger logger = Logger.getLogger(SchedulerDBManagerBuffer.class);
+
+    private static final long JOB_UPDATE = -1;
+
+    static final int MAXIMUM_WRITE_ATTEMPTS = 3;
+
+    private final TransactionHelper transactionHelper;
+
+    private final int delay;
+
+    private final int maximumPendingUpdates;
+
+    /**
+     * The pending updates per job id. Updates are kept in the order of their
+     * last modification, a coalesced update is moved to the end.
+     */
+    private final Map<Long, PendingJobUpdates> pendingUpdates = new LinkedHashMap<>();
+
+    private final Object pendingUpdatesLock = new Object();
+
+    private int pendingUpdatesCount;
+
+    /**
+     * Transactions writing the pending updates of a single job share this
+     * lock, a flush of all the pending updates holds it exclusively. An
+     * update taken from the buffer can thus never be written after a more
+     * recent update of the same job.
+     */
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    private final ScheduledExecutorService flushExecutor;
+
+    private ScheduledFuture<?> scheduledFlush;
+
+    private final AtomicLong bufferedUpdates = new AtomicLong();
+
+    private final AtomicLong coalescedUpdates = new AtomicLong();
+
+    private final AtomicLong flushes = new AtomicLong();
+
+    private final AtomicLong totalFlushLag = new AtomicLong();
+
+    private final LongAccumulator maxFlushLag = new LongAccumulator(Math::max, 0);
+
+    SchedulerDBManagerBuffer(TransactionHelper transactionHelper) {
+        this.transactionHelper = transactionHelper;
+        this.delay = Math.max(SCHEDULER_DB_TASK_UPDATES_DELAY.getValueAsInt(), 0);
+        this.maximumPendingUpdates = Math.max(SCHEDULER_DB_TASK_UPDATES_MAX_PENDING.getValueAsInt(), 1);
+        if (delay > 0) {
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("SchedulerDBManagerBuffer"));
+        } else {
+            flushExecutor = null;
+        }
+    }
+
+    /**
+     * @return whether updates are delayed, otherwise they must be written synchronously
+     */
+    boolean isEnabled() {
+        return flushExecutor != null;
+    }
+
+    /**
+     * Adds an update to write later, replacing the pending update of the same
+     * type for the same task, if any.
+     *
+     * @param jobId the job of the update
+     * @param taskId the task of the update, or a negative value for an update of the job itself
+     * @param type the type of update
+     * @param update the update, it must not depend on state which could change before it is written
+     */
+    void addPendingUpdate(long jobId, long taskId, UpdateType type, SessionWork<Void> update) {
+        bufferedUpdates.incrementAndGet();
+        boolean flushNow;
+        synchronized (pendingUpdatesLock) {
+            PendingJobUpdates jobUpdates = pendingUpdates.get(jobId);
+            if (jobUpdates == null) {
+                jobUpdates = new PendingJobUpdates(jobId);
+                pendingUpdates.put(jobId, jobUpdates);
+            }
+            if (jobUpdates.add(new UpdateKey(taskId, type), update)) {
+                pendingUpdatesCount++;
+            } else {
+                coalescedUpdates.incrementAndGet();
+            }
+            flushNow = pendingUpdatesCount >= maximumPendingUpdates;
+            if (flushNow) {
+                cancelScheduledFlush();
+            }
+            scheduleFlush(flushNow);
+        }
+    }
+
+    void addPendingJobUpdate(long jobId, UpdateType type, SessionWork<Void> update) {
+        addPendingUpdate(jobId, JOB_UPDATE, type, update);
+    }
+
+    /**
+     * Executes the given work in a read-write transaction, after having
+     * written the pending updates of the given job in the same transaction.
+     */
+    <T> T executeReadWriteTransaction(long jobId, SessionWork<T> sessionWork, boolean readOnlyEntities) {
+        if (!isEnabled()) {
+            return transactionHelper.executeReadWriteTransaction(sessionWork, readOnlyEntities);
+        }
+        flushLock.readLock().lock();
+        try {
+            List<PendingJobUpdates> updatesToWrite;
+            synchronized (pendingUpdatesLock) {
+                updatesToWrite = takePendingUpdates(Collections.singleton(jobId));
+            }
+            return writeWith(updatesToWrite, sessionWork, readOnlyEntities);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Executes the given work in a read-write transaction, after having
+     * written the pending updates of the given task in the same transaction.
+     * The pending updates of the other tasks of the job stay in the buffer.
+     */
+    <T> T executeReadWriteTransaction(long jobId, long taskId, SessionWork<T> sessionWork, boolean readOnlyEntities) {
+        if (!isEnabled()) {
+            return transactionHelper.executeReadWriteTransaction(sessionWork, readOnlyEntities);
+        }
+        flushLock.readLock().lock();
+        try {
+            List<PendingJobUpdates> updatesToWrite = new ArrayList<>(1);
+            synchronized (pendingUpdatesLock) {
+                PendingJobUpdates jobUpdates = pendingUpdates.get(jobId);
+                PendingJobUpdates taskUpdates = jobUpdates == null ? null : jobUpdates.takeTaskUpdates(taskId);
+                if (taskUpdates != null) {
+                    updatesToWrite.add(taskUpdates);
+                    pendingUpdatesCount -= taskUpdates.updates.size();
+                    if (jobUpdates.updates.isEmpty()) {
+                        pendingUpdates.remove(jobId);
+                    }
+                }
+            }
+            return writeWith(updatesToWrite, sessionWork, readOnlyEntities);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the pending updates of the given jobs so that they are visible to
+     * the next read of these jobs. This is a no-op when called by a thread
+     * which is writing pending updates.
+     */
+    void flushPendingUpdatesBeforeRead(Collection<Long> jobIds) {
+        if (!isEnabled() || getPendingUpdatesCount() == 0 || flushLock.getReadHoldCount() > 0) {
+            return;
+        }
+        flushLock.readLock().lock();
+        try {
+            List<PendingJobUpdates> updatesToWrite;
+            synchronized (pendingUpdatesLock) {
+                updatesToWrite = takePendingUpdates(jobIds);
+            }
+            if (!updatesToWrite.isEmpty()) {
+                writeWith(updatesToWrite, session -> null, false);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Pending task updates of jobs " + jobIds + " could not be written in database", e);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes all the pending updates so that they are visible to the next read
+     * of the database. This is a no-op when called by a thread which is
+     * writing pending updates.
+     */
+    void flushPendingUpdatesBeforeRead() {
+        if (isEnabled() && getPendingUpdatesCount() > 0 && flushLock.getReadHoldCount() == 0) {
+            flushPendingUpdates();
+        }
+    }
+
+    /**
+     * Executes the given work after having written the given pending updates
+     * in the same transaction. The pending updates are put back in the buffer
+     * if the transaction fails.
+     */
+    private <T> T writeWith(List<PendingJobUpdates> updatesToWrite, SessionWork<T> sessionWork,
+            boolean readOnlyEntities) {
+        if (updatesToWrite.isEmpty()) {
+            return transactionHelper.executeReadWriteTransaction(sessionWork, readOnlyEntities);
+        }
+        T result;
+        try {
+            result = transactionHelper.executeReadWriteTransaction(session -> {
+                for (PendingJobUpdates jobUpdates : updatesToWrite) {
+                    jobUpdates.write(session);
+                }
+                return sessionWork.doInTransaction(session);
+            }, readOnlyEntities);
+        } catch (RuntimeException e) {
+            putBack(updatesToWrite);
+            throw e;
+        }
+        for (PendingJobUpdates jobUpdates : updatesToWrite) {
+            flushed(jobUpdates.firstUpdateTime);
+        }
+        return result;
+    }
+
+    /**
+     * Writes all the pending updates, in a single transaction.
+     */
+    void flushPendingUpdates() {
+        flushLock.writeLock().lock();
+        try {
+            List<PendingJobUpdates> updatesToWrite;
+            synchronized (pendingUpdatesLock) {
+                cancelScheduledFlush();
+                if (pendingUpdates.isEmpty()) {
+                    return;
+                }
+                updatesToWrite = new ArrayList<>(pendingUpdates.values());
+                pendingUpdates.clear();
+                pendingUpdatesCount = 0;
+            }
+            logger.debug("Write pending updates of " + updatesToWrite.size() + " jobs in database");
+            try {
+                transactionHelper.executeReadWriteTransaction((SessionWork<Void>) session -> {
+                    for (PendingJobUpdates jobUpdates : updatesToWrite) {
+                        jobUpdates.write(session);
+                    }
+                    return null;
+                });
+                for (PendingJobUpdates jobUpdates : updatesToWrite) {
+                    flushed(jobUpdates.firstUpdateTime);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Pending task updates could not be written at once, writing them job by job", e);
+                for (PendingJobUpdates jobUpdates : updatesToWrite) {
+                    try {
+                        writeWith(Collections.singletonList(jobUpdates), session -> null, false);
+                    } catch (RuntimeException jobException) {
+                        logger.error("Pending task updates of job " + jobUpdates.jobId +
+                                     " could not be written in database", jobException);
+                    }
+                }
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the pending updates and stops the background flush.
+     */
+    void close() {
+        if (isEnabled()) {
+            flushPendingUpdates();
+            flushExecutor.shutdownNow();
+        }
+    }
+
+    // called with pendingUpdatesLock held
+    private List<PendingJobUpdates> takePendingUpdates(Collection<Long> jobIds) {
+        List<PendingJobUpdates> taken = new ArrayList<>(jobIds.size());
+        for (Long jobId : jobIds) {
+            PendingJobUpdates jobUpdates = pendingUpdates.remove(jobId);
+            if (jobUpdates != null) {
+                pendingUpdatesCount -= jobUpdates.updates.size();
+                taken.add(jobUpdates);
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Puts back in the buffer pending updates which could not be written. An
+     * update which was replaced in the meantime by a more recent one is not
+     * put back, the others are written before the updates added meanwhile.
+     */
+    private void putBack(List<PendingJobUpdates> failedUpdates) {
+        synchronized (pendingUpdatesLock) {
+            for (PendingJobUpdates failed : failedUpdates) {
+                if (++failed.writeAttempts >= MAXIMUM_WRITE_ATTEMPTS) {
+                    logger.error("Dropping " + failed.updates.size() + " pending task updates of job " + failed.jobId +
+                                 " which could not be written in database after " + failed.writeAttempts +
+                                 " attempts");
+                    continue;
+                }
+                PendingJobUpdates added = pendingUpdates.get(failed.jobId);
+                if (added != null) {
+                    failed.updates.keySet().removeAll(added.updates.keySet());
+                    failed.updates.putAll(added.updates);
+                    pendingUpdatesCount -= added.updates.size();
+                }
+                pendingUpdates.put(failed.jobId, failed);
+                pendingUpdatesCount += failed.updates.size();
+            }
+            scheduleFlush(false);
+        }
+    }
+
+    // called with pendingUpdatesLock held
+    private void scheduleFlush(boolean now) {
+        if (now || scheduledFlush == null || scheduledFlush.isDone()) {
+            scheduledFlush = flushExecutor.schedule(this::flushPendingUpdates, now ? 0 : delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void cancelScheduledFlush() {
+        if (scheduledFlush != null && !scheduledFlush.isDone()) {
+            scheduledFlush.cancel(false);
+        }
+    }
+
+    private void flushed(long firstUpdateTime) {
+        long lag = System.currentTimeMillis() - firstUpdateTime;
+        flushes.incrementAndGet();
+        totalFlushLag.addAndGet(lag);
+        maxFlushLag.accumulate(lag);
+    }
+
+    /**
+     * @return the number of updates given to the buffer
+     */
+    public long getBufferedUpdatesCount() {
+        return bufferedUpdates.get();
+    }
+
+    /**
+     * @return the number of updates which replaced a pending update and were not written
+     */
+    public long getCoalescedUpdatesCount() {
+        return coalescedUpdates.get();
+    }
+
+    /**
+     * @return the number of times the pending updates of a job were written
+     */
+    public long getFlushesCount() {
+        return flushes.get();
+    }
+
+    /**
+     * @return the mean time in milliseconds between the first pending update of a job and its write
+     */
+    public long getMeanFlushLag() {
+        long count = flushes.get();
+        return count == 0 ? 0 : totalFlushLag.get() / count;
+    }
+
+    /**
+     * @return the maximum time in milliseconds between the first pending update of a job and its write
+     */
+    public long getMaxFlushLag() {
+        return maxFlushLag.get();
+    }
+
+    /**
+     * @return the number of updates waiting to be written
+     */
+    public int getPendingUpdatesCount() {
+        synchronized (pendingUpdatesLock) {
+            return pendingUpdatesCount;
+        }
+    }
+
+    enum UpdateType {
+        TASK_STARTED,
+        START_TIME,
+        FINISHED_TIME,
+        SCHEDULED_TIME
+    }
+
+    private static final class PendingJobUpdates {
+
+        private final long jobId;
+
+        private final long firstUpdateTime;
+
+        private final Map<UpdateKey, SessionWork<Void>> updates = new LinkedHashMap<>();
+
+        private int writeAttempts;
+
+        private PendingJobUpdates(long jobId) {
+            this(jobId, System.currentTimeMillis());
+        }
+
+        private PendingJobUpdates(long jobId, long firstUpdateTime) {
+            this.jobId = jobId;
+            this.firstUpdateTime = firstUpdateTime;
+        }
+
+        /**
+         * @return true if the update was added, false if it replaced a pending update
+         */
+        private boolean add(UpdateKey key, SessionWork<Void> update) {
+            boolean replaced = updates.remove(key) != null;
+            updates.put(key, update);
+            return !replaced;
+        }
+
+        /**
+         * @return the pending updates of the given task removed from these updates, or null if there is none
+         */
+        private PendingJobUpdates takeTaskUpdates(long taskId) {
+            PendingJobUpdates taskUpdates = null;
+            Iterator<Map.Entry<UpdateKey, SessionWork<Void>>> iterator = updates.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<UpdateKey, SessionWork<Void>> update = iterator.next();
+                if (update.getKey().taskId == taskId) {
+                    if (taskUpdates == null) {
+                        taskUpdates = new PendingJobUpdates(jobId, firstUpdateTime);
+                    }
+                    taskUpdates.updates.put(update.getKey(), update.getValue());
+                    iterator.remove();
+                }
+            }
+            return taskUpdates;
+        }
+
+        private void write(Session session) {
+            logger.trace("Write " + updates.size() + " pending updates of job " + jobId);
+            for (SessionWork<Void> update : updates.values()) {
+                update.doInTransaction(session);
+            }
+        }
+    }
+
+    private static final class UpdateKey {
+
+        private final long taskId;
+
+        private final UpdateType type;
+
+        private UpdateKey(long taskId, UpdateType type) {
+            this.taskId = taskId;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            UpdateKey updateKey = (UpdateKey) o;
+            return taskId == updateKey.taskId && type == updateKey.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(taskId) + type.hashCode();
+        }
+    }
+
+}
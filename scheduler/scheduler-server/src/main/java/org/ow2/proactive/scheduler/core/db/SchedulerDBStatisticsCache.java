@@ -0,0 +1,189 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_DB_STATISTICS_CACHE_FINISHED_JOBS;
+import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_DB_STATISTICS_CACHE_TTL;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+
+/**
+ * Caches the statistics computed by the {@link SchedulerDBManager}, which are polled
+ * by the dashboards and the JMX clients many times per second.
+ * <p>
+ * The statistics of the whole scheduler (jobs and tasks counts, mean times) are kept
+ * at most {@code pa.scheduler.db.statistics.cache.ttl} milliseconds, and are
+ * invalidated each time the scheduler writes a job or task update to the database.
+ * <p>
+ * The statistics of a finished job do not change anymore, they are kept until the job
+ * is removed, for at most {@code pa.scheduler.db.statistics.cache.finished.jobs} jobs.
+ */
+public class SchedulerDBStatisticsCache {
+
+    private final boolean enabled;
+
+    private final Cache<String, Object> statistics;
+
+    private final Cache<Long, Map<String, Object>> finishedJobsStatistics;
+
+    /**
+     * Incremented by each invalidation, a statistic computed while an invalidation happens
+     * may be outdated and is not cached.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    SchedulerDBStatisticsCache() {
+        this(SCHEDULER_DB_STATISTICS_CACHE_TTL.getValueAsInt(),
+             SCHEDULER_DB_STATISTICS_CACHE_FINISHED_JOBS.getValueAsInt());
+    }
+
+    SchedulerDBStatisticsCache(long timeToLive, int maxFinishedJobs) {
+        this.enabled = timeToLive > 0;
+        this.statistics = CacheBuilder.newBuilder()
+                                      .expireAfterWrite(Math.max(timeToLive, 0), TimeUnit.MILLISECONDS)
+                                      .build();
+        this.finishedJobsStatistics = CacheBuilder.newBuilder().maximumSize(Math.max(maxFinishedJobs, 0)).build();
+    }
+
+    /**
+     * Returns the cached value of a statistic of the scheduler, or computes and caches it.
+     *
+     * @param name the name of the statistic, including its parameters
+     * @param query the computation of the statistic, it must not return null
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String name, Supplier<T> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        T value = (T) statistics.getIfPresent(name);
+        if (value != null) {
+            hits.incrementAndGet();
+            return value;
+        }
+        misses.incrementAndGet();
+        long invalidationsBefore = invalidations.get();
+        value = query.get();
+        if (invalidations.get() == invalidationsBefore) {
+            statistics.put(name, value);
+            if (invalidations.get() != invalidationsBefore) {
+                // invalidated while being cached
+                statistics.invalidate(name);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return the cached value of a statistic of a finished job, or null if it is not cached
+     */
+    @SuppressWarnings("unchecked")
+    <T> T getFinishedJobStatistic(long jobId, String name) {
+        if (!enabled) {
+            return null;
+        }
+        Map<String, Object> jobStatistics = finishedJobsStatistics.getIfPresent(jobId);
+        T value = jobStatistics == null ? null : (T) jobStatistics.get(name);
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    void putFinishedJobStatistic(long jobId, String name, Object value) {
+        if (enabled) {
+            try {
+                finishedJobsStatistics.get(jobId, ConcurrentHashMap::new).put(name, value);
+            } catch (Exception e) {
+                // the map factory cannot fail
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Invalidates the statistics of the scheduler after a write to the database.
+     */
+    void invalidate() {
+        if (enabled) {
+            // counted first, so that a statistic computed before the write cannot be cached afterwards
+            invalidations.incrementAndGet();
+            statistics.invalidateAll();
+        }
+    }
+
+    /**
+     * Invalidates the statistics of the scheduler and of the given jobs, once the jobs are removed.
+     */
+    void invalidateJobs(Collection<Long> jobIds) {
+        finishedJobsStatistics.invalidateAll(jobIds);
+        invalidate();
+    }
+
+    /**
+     * @return the number of statistics read from the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of statistics computed because they were not cached
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of times the statistics of the scheduler were invalidated by a write
+     */
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    /**
+     * @return the number of finished jobs whose statistics are cached
+     */
+    public long getFinishedJobsCount() {
+        return finishedJobsStatistics.size();
+    }
+
+}
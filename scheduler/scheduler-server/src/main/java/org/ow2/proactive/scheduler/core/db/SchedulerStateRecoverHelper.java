@@ -25,18 +25,24 @@
  */
 package org.ow2.proactive.scheduler.core.db;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import org.apache.log4j.Logger;
+import org.objectweb.proactive.utils.NamedThreadFactory;
 import org.ow2.proactive.scheduler.common.job.JobId;
 import org.ow2.proactive.scheduler.common.job.JobStatus;
 import org.ow2.proactive.scheduler.common.task.TaskStatus;
@@ -48,6 +54,8 @@ import org.ow2.proactive.scheduler.task.internal.InternalTask;
 import org.ow2.proactive.scheduler.util.JobLogger;
 import org.ow2.proactive.utils.NodeSet;
 
+import com.google.common.collect.Lists;
+
 
 public class SchedulerStateRecoverHelper {
 
@@ -57,6 +65,12 @@ public class SchedulerStateRecoverHelper {
 
     public static final String FAIL_TO_RECOVER_RUNNING_TASK_STRING = "Fail to recover running task ";
 
+    public static final String SCHEDULER_STATE_RECOVERY_STARTED = "Recovering the Scheduler state";
+
+    private static final int LOAD_JOBS_NBTHREAD = PASchedulerProperties.SCHEDULER_PARALLEL_SCHEDULER_STATE_RECOVER_LOAD_NBTHREAD.getValueAsInt();
+
+    private static final int RECOVERY_LOAD_JOBS_PAGE_SIZE = PASchedulerProperties.SCHEDULER_DB_RECOVERY_LOAD_JOBS_BATCH_SIZE.getValueAsInt();
+
     private final SchedulerDBManager dbManager;
 
     private final Map<JobId, TaskStatusCounter> jobsToUpdate = new HashMap<>();
@@ -70,18 +84,50 @@ public class SchedulerStateRecoverHelper {
     }
 
     public RecoveredSchedulerState recover(long loadJobPeriod, RMProxy rmProxy) {
-        List<InternalJob> notFinishedJobs = dbManager.loadNotFinishedJobs(true);
+        return recover(loadJobPeriod, rmProxy, false);
+    }
+
+    /**
+     * Recovers the scheduler state from the database. Jobs are loaded by pages on several threads
+     * and each page is recovered as soon as it is loaded.
+     *
+     * @param loadJobPeriod if positive, only the finished jobs submitted during this period are recovered
+     * @param rmProxy the proxy used to check whether running tasks can be recovered
+     * @param finishedJobsLazily if true, finished jobs are not loaded: they must be recovered later on
+     *                           with {@link #recoverFinishedJobs(long, Consumer)}
+     * @return the recovered state
+     */
+    public RecoveredSchedulerState recover(long loadJobPeriod, RMProxy rmProxy, boolean finishedJobsLazily) {
+        logger.info(SCHEDULER_STATE_RECOVERY_STARTED);
+
+        ExecutorService loadJobsThreadPool = createLoadJobsThreadPool();
+        try {
+            return recover(loadJobPeriod, rmProxy, finishedJobsLazily, loadJobsThreadPool);
+        } finally {
+            loadJobsThreadPool.shutdownNow();
+        }
+    }
 
+    private RecoveredSchedulerState recover(long loadJobPeriod, RMProxy rmProxy, boolean finishedJobsLazily,
+            ExecutorService loadJobsThreadPool) {
         Vector<InternalJob> pendingJobs = new Vector<>();
         Vector<InternalJob> runningJobs = new Vector<>();
 
         ExecutorService recoverRunningTasksThreadPool = Executors.newFixedThreadPool(PASchedulerProperties.SCHEDULER_PARALLEL_SCHEDULER_STATE_RECOVER_NBTHREAD.getValueAsInt());
 
-        for (InternalJob job : notFinishedJobs) {
-            recoverJob(rmProxy, pendingJobs, runningJobs, job, recoverRunningTasksThreadPool);
-        }
+        List<InternalJob> notFinishedJobs = new ArrayList<>();
 
-        recoverRunningTasksThreadPool.shutdown();
+        try {
+            loadJobsByPages(dbManager.loadNotFinishedJobIds(), true, loadJobsThreadPool, jobs -> {
+                for (InternalJob job : jobs) {
+                    recoverJob(rmProxy, pendingJobs, runningJobs, job, recoverRunningTasksThreadPool);
+                }
+                notFinishedJobs.addAll(jobs);
+            });
+            logger.info(SchedulerDBManager.ALL_REQUIRED_JOBS_HAVE_BEEN_FETCHED);
+        } finally {
+            recoverRunningTasksThreadPool.shutdown();
+        }
 
         boolean terminatedWithoutTimeout;
 
@@ -100,43 +146,126 @@ public class SchedulerStateRecoverHelper {
 
         Vector<InternalJob> finishedJobs = new Vector<>();
 
-        for (Iterator<InternalJob> iterator = runningJobs.iterator(); iterator.hasNext();) {
-            InternalJob job = iterator.next();
-            try {
-                List<InternalTask> tasksList = copyAndSort(job.getITasks());
-
-                //simulate the running execution to recreate the tree.
-                for (InternalTask task : tasksList) {
-                    job.recoverTask(task.getId());
-                }
-
-                if (job.getStatus() == JobStatus.PAUSED) {
-                    job.setStatus(JobStatus.STALLED);
-                    job.setPaused();
-
-                    //update the count of pending and running task.
-                    job.setNumberOfPendingTasks(job.getNumberOfPendingTasks() + job.getNumberOfRunningTasks());
-                    job.setNumberOfRunningTasks(0);
-                }
-            } catch (Exception e) {
-                logger.error("Failed to recover job " + job.getId() + " " + job.getName() +
-                             " job might be in a inconsistent state", e);
-                jobLogger.error(job.getId(), "Failed to recover job, job might be in an inconsistent state", e);
+        // jobs are independent from each other, they are rebuilt on the threads which loaded them
+        List<Future<InternalJob>> notRecoveredJobs = new ArrayList<>(runningJobs.size());
+        for (InternalJob job : runningJobs) {
+            notRecoveredJobs.add(loadJobsThreadPool.submit(() -> recoverRunningJob(job) ? null : job));
+        }
+        for (Future<InternalJob> notRecoveredJob : notRecoveredJobs) {
+            InternalJob job = waitFor(notRecoveredJob);
+            if (job != null) {
                 // partially cancel job (not tasks) and move it to finished jobs to avoid running it
-                iterator.remove();
+                runningJobs.remove(job);
                 job.setStatus(JobStatus.CANCELED);
                 finishedJobs.add(job);
                 dbManager.updateJobAndTasksState(job);
             }
         }
 
-        finishedJobs.addAll(dbManager.loadFinishedJobs(false, loadJobPeriod));
+        if (!finishedJobsLazily) {
+            loadJobsByPages(dbManager.loadFinishedJobIds(loadJobPeriod),
+                            false,
+                            loadJobsThreadPool,
+                            finishedJobs::addAll);
+        }
+
         logger.info("[Recovering counters] " + " Pending: " + pendingJobs.size() + " Running: " + runningJobs.size() +
-                    " Finished: " + finishedJobs.size());
+                    " Finished: " + (finishedJobsLazily ? "recovered lazily" : finishedJobs.size()));
 
         return new RecoveredSchedulerState(pendingJobs, runningJobs, finishedJobs);
     }
 
+    /**
+     * Loads the finished jobs by pages and hands over each page to the given consumer, in submission order.
+     * Used to recover the finished jobs once the scheduler is started, see {@link #recover(long, RMProxy, boolean)}.
+     *
+     * @param loadJobPeriod if positive, only the finished jobs submitted during this period are recovered
+     * @param finishedJobsConsumer the consumer of the pages of finished jobs
+     */
+    public void recoverFinishedJobs(long loadJobPeriod, Consumer<List<InternalJob>> finishedJobsConsumer) {
+        ExecutorService loadJobsThreadPool = createLoadJobsThreadPool();
+        try {
+            List<Long> finishedJobIds = dbManager.loadFinishedJobIds(loadJobPeriod);
+            logger.info("Recovering " + finishedJobIds.size() + " finished jobs");
+            loadJobsByPages(finishedJobIds, false, loadJobsThreadPool, finishedJobsConsumer);
+            logger.info("Finished jobs recovered");
+        } finally {
+            loadJobsThreadPool.shutdownNow();
+        }
+    }
+
+    private ExecutorService createLoadJobsThreadPool() {
+        return Executors.newFixedThreadPool(LOAD_JOBS_NBTHREAD, new NamedThreadFactory("SchedulerStateRecoveryThreadPool"));
+    }
+
+    /**
+     * Pages are loaded in parallel but consumed in order, on the calling thread. The number of pages
+     * loaded in advance is bounded so that the memory used by the recovery does not depend on the
+     * number of jobs in the database.
+     */
+    private void loadJobsByPages(List<Long> jobIds, boolean fullState, ExecutorService loadJobsThreadPool,
+            Consumer<List<InternalJob>> pageConsumer) {
+        List<List<Long>> pages = Lists.partition(jobIds, RECOVERY_LOAD_JOBS_PAGE_SIZE);
+        int maxPagesInAdvance = 2 * LOAD_JOBS_NBTHREAD;
+
+        Deque<Future<List<InternalJob>>> loadingPages = new ArrayDeque<>(maxPagesInAdvance);
+        Iterator<List<Long>> nextPages = pages.iterator();
+        int loadedJobs = 0;
+
+        while (nextPages.hasNext() || !loadingPages.isEmpty()) {
+            while (nextPages.hasNext() && loadingPages.size() < maxPagesInAdvance) {
+                List<Long> page = nextPages.next();
+                loadingPages.add(loadJobsThreadPool.submit(() -> dbManager.loadJobsPage(fullState, page)));
+            }
+            List<InternalJob> jobs = waitFor(loadingPages.poll());
+            pageConsumer.accept(jobs);
+            loadedJobs += jobs.size();
+            logger.info("Fetched " + loadedJobs + " internal Jobs");
+        }
+    }
+
+    private <T> T waitFor(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            logger.error("Interrupted while waiting for the Scheduler state to be recovered", e);
+            Thread.currentThread().interrupt();
+            throw new SchedulerStateNotRecoveredException(e);
+        } catch (ExecutionException e) {
+            logger.error("Failed to recover the Scheduler state", e.getCause());
+            throw new SchedulerStateNotRecoveredException(e);
+        }
+    }
+
+    /**
+     * @return false if the job could not be recovered, it must then be canceled
+     */
+    private boolean recoverRunningJob(InternalJob job) {
+        try {
+            List<InternalTask> tasksList = copyAndSort(job.getITasks());
+
+            //simulate the running execution to recreate the tree.
+            for (InternalTask task : tasksList) {
+                job.recoverTask(task.getId());
+            }
+
+            if (job.getStatus() == JobStatus.PAUSED) {
+                job.setStatus(JobStatus.STALLED);
+                job.setPaused();
+
+                //update the count of pending and running task.
+                job.setNumberOfPendingTasks(job.getNumberOfPendingTasks() + job.getNumberOfRunningTasks());
+                job.setNumberOfRunningTasks(0);
+            }
+            return true;
+        } catch (Exception e) {
+            logger.error("Failed to recover job " + job.getId() + " " + job.getName() +
+                         " job might be in a inconsistent state", e);
+            jobLogger.error(job.getId(), "Failed to recover job, job might be in an inconsistent state", e);
+            return false;
+        }
+    }
+
     private void applyJobUpdates(List<InternalJob> notFinishedJobs) {
         for (InternalJob job : notFinishedJobs) {
             if (this.jobsToUpdate.containsKey(job.getId())) {
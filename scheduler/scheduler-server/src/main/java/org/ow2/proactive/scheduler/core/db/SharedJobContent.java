@@ -0,0 +1,105 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.Type;
+
+
+/**
+ * Compressed workflow content shared by all the jobs submitted with the same
+ * content, identified by the SHA-256 digest of the content.
+ */
+@Entity
+@NamedQueries({ @NamedQuery(name = "deleteUnreferencedSharedJobContent", query = "delete from SharedJobContent where hash in :hashes " +
+                                                                                 "and lastUsedTime < :lastUsedTime " +
+                                                                                 "and hash not in (select content.contentHash from JobContent content where content.contentHash in :hashes)"),
+                @NamedQuery(name = "deleteAllUnreferencedSharedJobContent", query = "delete from SharedJobContent where lastUsedTime < :lastUsedTime " +
+                                                                                    "and hash not in (select content.contentHash from JobContent content where content.contentHash is not null)"),
+                @NamedQuery(name = "updateSharedJobContentLastUsedTime", query = "update SharedJobContent set lastUsedTime = :lastUsedTime where hash = :hash"),
+                @NamedQuery(name = "countSharedJobContent", query = "select count (*) from SharedJobContent") })
+@Table(name = "SHARED_JOB_CONTENT")
+public class SharedJobContent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "HASH", length = 64)
+    private String hash;
+
+    @Lob
+    @Type(type = "org.hibernate.type.BinaryType")
+    @Column(name = "CONTENT", length = Integer.MAX_VALUE)
+    private byte[] compressedContent;
+
+    @Column(name = "CONTENT_SIZE")
+    private int size;
+
+    @Column(name = "LAST_USED_TIME")
+    private long lastUsedTime;
+
+    public SharedJobContent() {
+    }
+
+    SharedJobContent(String hash, byte[] compressedContent, int size, long lastUsedTime) {
+        this.hash = hash;
+        this.compressedContent = compressedContent;
+        this.size = size;
+        this.lastUsedTime = lastUsedTime;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public byte[] getCompressedContent() {
+        return compressedContent;
+    }
+
+    /**
+     * @return the size in bytes of the uncompressed content
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the last time a job was submitted with this content
+     */
+    public long getLastUsedTime() {
+        return lastUsedTime;
+    }
+
+}
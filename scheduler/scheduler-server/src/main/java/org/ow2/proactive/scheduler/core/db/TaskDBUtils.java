@@ -46,6 +46,10 @@ import org.ow2.proactive.scheduler.common.task.TaskStatus;
  */
 public class TaskDBUtils {
 
+    /** Order of the tasks paginated with a cursor, it must match the cursor condition */
+    private static final SortSpecifierContainer CURSOR_SORT_PARAMS = new SortSpecifierContainer("id.jobId,ascending;" +
+                                                                                                "id.taskId,ascending");
+
     public static SessionWork<Integer> getTotalNumberOfTasks(final DBTaskDataParameters params) {
         return session -> {
             Set<TaskStatus> taskStatuses = params.getStatuses();
@@ -117,10 +121,17 @@ public class TaskDBUtils {
                                hasTag,
                                hasDateFrom,
                                hasDateTo,
-                               params.getSortParams(),
+                               params.isCursorPagination() ? CURSOR_SORT_PARAMS : params.getSortParams(),
                                queryPrefix);
-        query.setMaxResults(params.getLimit());
-        query.setFirstResult(params.getOffset());
+        if (params.isCursorPagination()) {
+            // one more task is fetched to know whether there is a next page
+            if (params.getLimit() > 0) {
+                query.setMaxResults(params.getLimit() + 1);
+            }
+        } else {
+            query.setMaxResults(params.getLimit());
+            query.setFirstResult(params.getOffset());
+        }
 
         return query.list();
     }
@@ -129,7 +140,12 @@ public class TaskDBUtils {
             boolean hasUser, boolean hasTag, boolean hasDateFrom, boolean hasDateTo, SortSpecifierContainer sortParams,
             String queryPrefix) {
         StringBuilder queryString = new StringBuilder(queryPrefix);
-        queryString.append(getQueryFilteringExpression(hasUser, hasTag, hasDateFrom, hasDateTo, sortParams));
+        queryString.append(getQueryFilteringExpression(hasUser,
+                                                       hasTag,
+                                                       hasDateFrom,
+                                                       hasDateTo,
+                                                       params.hasCursor(),
+                                                       sortParams));
         Query query = session.createQuery(queryString.toString());
 
         setQueryParameters(taskStatuses, hasUser, hasTag, hasDateFrom, hasDateTo, query, params);
@@ -138,7 +154,7 @@ public class TaskDBUtils {
     }
 
     private static StringBuilder getQueryFilteringExpression(boolean hasUser, boolean hasTag, boolean hasDateFrom,
-            boolean hasDateTo, SortSpecifierContainer sortParams) {
+            boolean hasDateTo, boolean hasCursor, SortSpecifierContainer sortParams) {
         StringBuilder result = new StringBuilder();
 
         result.append("T.jobData.removedTime = -1 ");
@@ -167,6 +183,11 @@ public class TaskDBUtils {
 
         result.append("and taskStatus in (:taskStatus) ");
 
+        if (hasCursor) {
+            result.append("and ( T.id.jobId > :cursorJobId " +
+                          "or ( T.id.jobId = :cursorJobId and T.id.taskId > :cursorTaskId ) ) ");
+        }
+
         if (!sortParams.getSortParameters().isEmpty()) {
             result.append("order by ");
             List<SortSpecifierContainer.SortSpecifierItem> items = sortParams.getSortParameters();
@@ -202,6 +223,11 @@ public class TaskDBUtils {
             query.setParameter("taskTag", params.getTag());
         }
 
+        if (params.hasCursor()) {
+            query.setParameter("cursorJobId", params.getCursor().getJobId());
+            query.setParameter("cursorTaskId", params.getCursor().getTaskId());
+        }
+
     }
 
 }
@@ -102,6 +102,9 @@ import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
 @Entity
 @NamedQueries({ @NamedQuery(name = "deleteTaskDataInBulk", query = "delete from TaskData where jobData.id in :jobIdList"),
                 @NamedQuery(name = "countTaskData", query = "select count (*) from TaskData"),
+                @NamedQuery(name = "aggregateUsageTasks", query = "select task.jobData.owner, count(*), sum(task.finishedTime) - sum(task.startTime) " +
+                                                                  "from TaskData task where task.finishedTime > 0 and task.jobData.finishedTime >= :from " +
+                                                                  "and task.jobData.finishedTime < :to group by task.jobData.owner"),
                 @NamedQuery(name = "countTaskDataNotFinished", query = "select count (*) from TaskData where taskStatus <> org.ow2.proactive.scheduler.common.task.TaskStatus.FINISHED"),
                 @NamedQuery(name = "getFinishedTasksCount", query = "select count(*) from TaskData task where taskStatus in (:taskStatus) and task.jobData.removedTime = -1"),
                 @NamedQuery(name = "getMeanTaskPendingTime", query = "select avg(startTime - :jobSubmittedTime) from TaskData task where task.jobData.id = :id and task.startTime > 0"),
@@ -121,7 +124,8 @@ import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
                                                             "left outer join fetch task.envModifiers  " +
                                                             "where task.id.jobId in (:ids)"),
                 @NamedQuery(name = "readAccountTasks", query = "select count(*), sum(task.finishedTime) - sum(task.startTime) from TaskData task " +
-                                                               "where task.finishedTime > 0 and task.jobData.owner = :username"),
+                                                               "where task.finishedTime > 0 and task.jobData.owner = :username " +
+                                                               "and (task.jobData.finishedTime >= :from or task.jobData.finishedTime <= 0)"),
                 @NamedQuery(name = "updateTaskData", query = "update TaskData task set task.taskStatus = :taskStatus, " +
                                                              "task.numberOfExecutionLeft = :numberOfExecutionLeft, " +
                                                              "task.numberOfExecutionOnFailureLeft = :numberOfExecutionOnFailureLeft, " +
@@ -179,7 +183,9 @@ import org.ow2.proactive.topology.descriptor.TopologyDescriptor;
                                        @Index(name = "TASK_DATA_SCRIPT_ID", columnList = "SCRIPT_ID"),
                                        @Index(name = "TASK_DATA_START_TIME", columnList = "START_TIME"),
                                        @Index(name = "TASK_DATA_STATUS", columnList = "STATUS"),
+                                       @Index(name = "TASK_DATA_STATUS_ID", columnList = "STATUS,TASK_ID_JOB,TASK_ID_TASK"),
                                        @Index(name = "TASK_DATA_TAG", columnList = "TAG"),
+                                       @Index(name = "TASK_DATA_TAG_STATUS_ID", columnList = "TAG,STATUS,TASK_ID_JOB,TASK_ID_TASK"),
                                        @Index(name = "TASK_DATA_TASK_ID_JOB", columnList = "TASK_ID_JOB"),
                                        @Index(name = "TASK_DATA_TASK_ID_TASK", columnList = "TASK_ID_TASK"),
                                        @Index(name = "TASK_DATA_TASK_NAME", columnList = "TASK_NAME") })
@@ -27,6 +27,8 @@ package org.ow2.proactive.scheduler.core.db;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.ow2.proactive.scheduler.common.task.TaskVariable;
 
 
@@ -60,8 +62,18 @@ public class TaskDataVariable {
         return taskDataVariable;
     }
 
+    /*
+     * Identifiers are allocated by blocks of 50 from the shared hibernate sequence, so that
+     * the variables of a large job are inserted in JDBC batches without one sequence call
+     * per row. The hilo optimizer keeps the database increment of the existing sequence:
+     * each value read is the high part of a block which cannot overlap identifiers that
+     * were allocated one by one before.
+     */
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "TASK_DATA_VARIABLE_ID_GENERATOR")
+    @GenericGenerator(name = "TASK_DATA_VARIABLE_ID_GENERATOR", strategy = "enhanced-sequence", parameters = { @Parameter(name = "sequence_name", value = "hibernate_sequence"),
+                                                                                                               @Parameter(name = "increment_size", value = "50"),
+                                                                                                               @Parameter(name = "optimizer", value = "hilo") })
     @Column(name = "ID")
     public long getId() {
         return id;
@@ -25,6 +25,7 @@
  */
 package org.ow2.proactive.scheduler.core.db;
 
+import java.io.IOException;
 import java.util.Map;
 
 import javax.persistence.*;
@@ -34,9 +35,11 @@ import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.Type;
 import org.hibernate.type.SerializableToBlobType;
+import org.ow2.proactive.db.DatabaseManagerException;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.common.task.TaskLogs;
 import org.ow2.proactive.scheduler.common.task.flow.FlowAction;
+import org.ow2.proactive.scheduler.common.util.TaskResultValueStore;
 import org.ow2.proactive.scheduler.task.TaskResultImpl;
 
 
@@ -49,8 +52,11 @@ import org.ow2.proactive.scheduler.task.TaskResultImpl;
                 @NamedQuery(name = "loadTasksResultByTaskAsc", query = "from TaskResultData result where result.taskRuntimeData = :task order by result.resultTime"),
                 @NamedQuery(name = "loadTasksResults", query = "select taskResult, " + "task.id, " + "task.taskName, " +
                                                                "task.preciousResult from TaskResultData as taskResult join taskResult.taskRuntimeData as task " + "where task.id in (:tasksIds) order by task.id, taskResult.resultTime desc"),
+                @NamedQuery(name = "loadTaskResultValueHandlesInBulk", query = "select distinct valueHandle from TaskResultData where taskRuntimeData.jobData.id in :jobIdList and valueHandle is not null"),
+                @NamedQuery(name = "loadReferencedTaskResultValueHandles", query = "select distinct valueHandle from TaskResultData where valueHandle in :handles"),
                 @NamedQuery(name = "countTaskResultData", query = "select count (*) from TaskResultData") })
-@Table(name = "TASK_RESULT_DATA", indexes = { @Index(name = "TASK_RESULT_DATA_RUNTIME_DATA", columnList = "JOB_ID,TASK_ID") })
+@Table(name = "TASK_RESULT_DATA", indexes = { @Index(name = "TASK_RESULT_DATA_RUNTIME_DATA", columnList = "JOB_ID,TASK_ID"),
+                                              @Index(name = "TASK_RESULT_DATA_VALUE_HANDLE", columnList = "VALUE_HANDLE") })
 public class TaskResultData {
 
     private long id;
@@ -61,6 +67,8 @@ public class TaskResultData {
 
     private byte[] serializedValue;
 
+    private String valueHandle;
+
     private byte[] serializedException;
 
     private Boolean isRaw;
@@ -75,10 +83,10 @@ public class TaskResultData {
 
     private Map<String, String> metadata;
 
-    TaskResultImpl toTaskResult(TaskId taskId) {
+    TaskResultImpl toTaskResult(TaskId taskId, TaskResultValueStore valueStore) {
 
         TaskResultImpl result = new TaskResultImpl(taskId,
-                                                   getSerializedValue(),
+                                                   loadSerializedValue(valueStore),
                                                    getSerializedException(),
                                                    getLogs(),
                                                    getMetadata(),
@@ -99,7 +107,24 @@ public class TaskResultData {
         return result;
     }
 
-    static TaskResultData createTaskResultData(TaskData taskRuntimeData, TaskResultImpl result) {
+    private byte[] loadSerializedValue(TaskResultValueStore valueStore) {
+        if (valueHandle == null) {
+            return getSerializedValue();
+        }
+        try {
+            return valueStore.read(valueHandle);
+        } catch (IOException e) {
+            throw new DatabaseManagerException("Failed to read the value " + valueHandle + " of task result " + id, e);
+        }
+    }
+
+    /**
+     * Creates the database representation of a task result. When the value of the result was written
+     * to the {@link TaskResultValueStore}, only its handle is kept in the database.
+     *
+     * @param valueHandle the handle of the stored value, or null to keep the value in the database
+     */
+    static TaskResultData createTaskResultData(TaskData taskRuntimeData, TaskResultImpl result, String valueHandle) {
         TaskResultData resultData = new TaskResultData();
         resultData.setTaskRuntimeData(taskRuntimeData);
         resultData.setLogs(result.getOutput());
@@ -107,7 +132,8 @@ public class TaskResultData {
         resultData.setMetadata(result.getMetadata());
         resultData.setPropagatedVariables(result.getPropagatedVariables());
         resultData.setSerializedException(result.getSerializedException());
-        resultData.setSerializedValue(result.getSerializedValue());
+        resultData.setValueHandle(valueHandle);
+        resultData.setSerializedValue(valueHandle == null ? result.getSerializedValue() : null);
         resultData.setResultTime(System.currentTimeMillis());
         resultData.setRaw(result.isRaw());
 
@@ -186,6 +212,19 @@ public class TaskResultData {
         this.serializedValue = serializedValue;
     }
 
+    /**
+     * @return the handle of the value in the {@link TaskResultValueStore}, or null if the value is
+     * stored in the database
+     */
+    @Column(name = "VALUE_HANDLE", length = 64)
+    public String getValueHandle() {
+        return valueHandle;
+    }
+
+    public void setValueHandle(String valueHandle) {
+        this.valueHandle = valueHandle;
+    }
+
     @Lob
     @Column(name = "RESULT_EXCEPTION", length = Integer.MAX_VALUE)
     public byte[] getSerializedException() {
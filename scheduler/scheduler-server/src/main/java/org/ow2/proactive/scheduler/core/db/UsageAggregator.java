@@ -0,0 +1,164 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.hibernate.Session;
+import org.ow2.proactive.db.SessionWork;
+import org.ow2.proactive.db.TransactionHelper;
+
+
+/**
+ * Maintains the {@link UsageData} aggregates, one per user and per day, from the
+ * jobs which finished during this day.
+ * <p>
+ * The days are aggregated in order, once they ended for at least
+ * {@link #AGGREGATION_DELAY} milliseconds, so that a job finishing during an
+ * aggregated day cannot be written to the database afterwards. The usage of a
+ * user is then the sum of its aggregates, and of its jobs which finished since
+ * the last aggregated day or are not finished.
+ * <p>
+ * The aggregates are kept when the jobs are removed from the database, the usage
+ * of a user thus includes all its jobs which finished before the last aggregated day.
+ */
+public class UsageAggregator {
+
+    private static final Logger logger = Logger.getLogger(UsageAggregator.class);
+
+    public static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    public static final long AGGREGATION_DELAY = TimeUnit.HOURS.toMillis(1);
+
+    private final TransactionHelper transactionHelper;
+
+    /**
+     * First day which is not aggregated yet, in number of days since the epoch, or -1 if not read from the database yet
+     */
+    private volatile long firstDayToAggregate = -1;
+
+    private final AtomicLong aggregatedDays = new AtomicLong();
+
+    UsageAggregator(TransactionHelper transactionHelper) {
+        this.transactionHelper = transactionHelper;
+    }
+
+    /**
+     * Aggregates the usage of the days which ended for at least {@link #AGGREGATION_DELAY} milliseconds.
+     *
+     * @return the time from which the finished jobs are not aggregated
+     */
+    long aggregate() {
+        return aggregate(System.currentTimeMillis() - AGGREGATION_DELAY);
+    }
+
+    /**
+     * Aggregates the usage of the days which ended before the given time, one transaction per day.
+     *
+     * @param time no job may finish before this time anymore
+     * @return the time from which the finished jobs are not aggregated
+     */
+    public synchronized long aggregate(long time) {
+        if (firstDayToAggregate < 0) {
+            Long lastAggregatedDay = transactionHelper.executeReadOnlyTransaction(this::getLastAggregatedDay);
+            firstDayToAggregate = lastAggregatedDay == null ? 0 : lastAggregatedDay + 1;
+        }
+        long endDay = Math.floorDiv(time, DAY);
+        while (firstDayToAggregate < endDay) {
+            long from = firstDayToAggregate * DAY;
+            long to = endDay * DAY;
+            Long firstFinishedTime = transactionHelper.executeReadOnlyTransaction(session -> getFirstFinishedTime(session,
+                                                                                                                  from,
+                                                                                                                  to));
+            if (firstFinishedTime == null) {
+                firstDayToAggregate = endDay;
+            } else {
+                long day = Math.floorDiv(firstFinishedTime, DAY);
+                transactionHelper.executeReadWriteTransaction((SessionWork<Void>) session -> {
+                    aggregateDay(session, day);
+                    return null;
+                });
+                aggregatedDays.incrementAndGet();
+                firstDayToAggregate = day + 1;
+            }
+        }
+        return firstDayToAggregate * DAY;
+    }
+
+    private Long getLastAggregatedDay(Session session) {
+        return (Long) session.getNamedQuery("getLastAggregatedUsageDay").uniqueResult();
+    }
+
+    private Long getFirstFinishedTime(Session session, long from, long to) {
+        return (Long) session.getNamedQuery("getFirstFinishedTime")
+                             .setParameter("from", from)
+                             .setParameter("to", to)
+                             .uniqueResult();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void aggregateDay(Session session, long day) {
+        Map<String, UsageData> usages = new HashMap<>();
+
+        List<Object[]> jobs = session.getNamedQuery("aggregateUsageJobs")
+                                     .setParameter("from", day * DAY)
+                                     .setParameter("to", (day + 1) * DAY)
+                                     .list();
+        for (Object[] row : jobs) {
+            UsageData usage = usages.computeIfAbsent((String) row[0], owner -> new UsageData(owner, day));
+            usage.jobCount = ((Number) row[1]).intValue();
+            usage.jobDuration = row[2] == null ? 0L : ((Number) row[2]).longValue();
+        }
+
+        List<Object[]> tasks = session.getNamedQuery("aggregateUsageTasks")
+                                      .setParameter("from", day * DAY)
+                                      .setParameter("to", (day + 1) * DAY)
+                                      .list();
+        for (Object[] row : tasks) {
+            UsageData usage = usages.computeIfAbsent((String) row[0], owner -> new UsageData(owner, day));
+            usage.taskCount = ((Number) row[1]).intValue();
+            usage.taskDuration = row[2] == null ? 0L : ((Number) row[2]).longValue();
+        }
+
+        for (UsageData usage : usages.values()) {
+            session.save(usage);
+        }
+        logger.debug("Aggregated the usage of " + usages.size() + " users for day " + day);
+    }
+
+    /**
+     * @return the number of days aggregated since the scheduler started
+     */
+    public long getAggregatedDaysCount() {
+        return aggregatedDays.get();
+    }
+
+}
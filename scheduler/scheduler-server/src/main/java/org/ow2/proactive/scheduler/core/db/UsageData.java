@@ -0,0 +1,101 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import java.io.Serializable;
+
+import javax.persistence.*;
+
+
+/**
+ * Usage of the scheduler by a user during a day: the jobs which finished during
+ * this day (UTC) and their finished tasks. These aggregates are maintained by the
+ * {@link UsageAggregator}, so that the accounts do not have to scan the whole
+ * job history.
+ */
+@Entity
+@NamedQueries({ @NamedQuery(name = "getLastAggregatedUsageDay", query = "select max(day) from UsageData"),
+                @NamedQuery(name = "readAccountUsage", query = "select sum(taskCount), sum(taskDuration), sum(jobCount), sum(jobDuration) " +
+                                                               "from UsageData where owner = :username"),
+                @NamedQuery(name = "countUsageData", query = "select count (*) from UsageData") })
+@Table(name = "USAGE_DATA")
+public class UsageData implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "OWNER")
+    String owner;
+
+    /**
+     * Number of days since the epoch
+     */
+    @Id
+    @Column(name = "USAGE_DAY")
+    long day;
+
+    @Column(name = "JOB_COUNT")
+    int jobCount;
+
+    @Column(name = "JOB_DURATION")
+    long jobDuration;
+
+    @Column(name = "TASK_COUNT")
+    int taskCount;
+
+    @Column(name = "TASK_DURATION")
+    long taskDuration;
+
+    public UsageData() {
+    }
+
+    UsageData(String owner, long day) {
+        this.owner = owner;
+        this.day = day;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        UsageData that = (UsageData) o;
+
+        return day == that.day && (owner != null ? owner.equals(that.owner) : that.owner == null);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = owner != null ? owner.hashCode() : 0;
+        result = 31 * result + (int) (day ^ (day >>> 32));
+        return result;
+    }
+
+}
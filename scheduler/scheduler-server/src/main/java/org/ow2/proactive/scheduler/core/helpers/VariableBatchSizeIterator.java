@@ -25,25 +25,32 @@
  */
 package org.ow2.proactive.scheduler.core.helpers;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 
+/**
+ * Consumes an iterator by batches of variable size. The underlying iterator is only read as far
+ * as the batches requested, so it can be a lazily evaluated view.
+ */
 public class VariableBatchSizeIterator<T> {
-    final private List<T> rawList;
-
-    private int offset;
+    final private Iterator<T> rawIterator;
 
     public VariableBatchSizeIterator(List<T> list) {
-        this.rawList = list;
-        this.offset = 0;
+        this(list.iterator());
+    }
+
+    public VariableBatchSizeIterator(Iterator<T> iterator) {
+        this.rawIterator = iterator;
     }
 
     public boolean hasMoreElements() {
-        return offset < rawList.size();
+        return rawIterator.hasNext();
     }
 
     /**
-     * Get a view with up to the 'limit' next elements in the list, since the last call to this method
+     * Get up to the 'limit' next elements, since the last call to this method
      * @param limit
      * @return
      */
@@ -51,9 +58,10 @@ public class VariableBatchSizeIterator<T> {
         if (limit < 0) {
             throw new IllegalArgumentException("limit cannot be negative. Given: " + limit);
         }
-        int upperIndexExclusive = Math.min(rawList.size(), offset + limit);
-        List<T> subList = rawList.subList(offset, upperIndexExclusive);
-        offset = upperIndexExclusive;
-        return subList;
+        List<T> nextElements = new ArrayList<>(Math.min(limit, 1024));
+        while (nextElements.size() < limit && rawIterator.hasNext()) {
+            nextElements.add(rawIterator.next());
+        }
+        return nextElements;
     }
 }
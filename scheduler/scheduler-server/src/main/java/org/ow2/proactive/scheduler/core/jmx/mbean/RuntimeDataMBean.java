@@ -122,6 +122,275 @@ public interface RuntimeDataMBean {
      */
     int getJobSubmittingPeriod();
 
+    /**
+     * Returns the number of events which triggered the scheduling loop.
+     *
+     * @return the number of scheduling loop triggers.
+     */
+    long getSchedulingTriggersCount();
+
+    /**
+     * Returns the number of scheduling loop triggers merged into an already pending wake-up.
+     *
+     * @return the number of coalesced scheduling loop triggers.
+     */
+    long getCoalescedSchedulingTriggersCount();
+
+    /**
+     * Returns the mean time between an event triggering the scheduling loop and the start of tasks.
+     *
+     * @return the mean trigger to start latency in milliseconds.
+     */
+    long getMeanTriggerToStartLatency();
+
+    /**
+     * Returns the maximum time between an event triggering the scheduling loop and the start of tasks.
+     *
+     * @return the maximum trigger to start latency in milliseconds.
+     */
+    long getMaxTriggerToStartLatency();
+
+    /**
+     * Returns how multi-node tasks which cannot be started are handled: "backfilling" when nodes are
+     * reserved for them, "skip" otherwise.
+     *
+     * @return the multi-node scheduling mode.
+     */
+    String getMultiNodeSchedulingMode();
+
+    /**
+     * Returns the number of node reservations made for multi-node tasks.
+     *
+     * @return the number of node reservations.
+     */
+    long getMultiNodeReservationsCount();
+
+    /**
+     * Returns the mean time a reserved multi-node task waited before being started.
+     *
+     * @return the mean reservation wait time in milliseconds.
+     */
+    long getMeanMultiNodeReservationWaitTime();
+
+    /**
+     * Returns the number of tasks started while a reservation was active, without delaying it.
+     *
+     * @return the number of backfilled tasks.
+     */
+    long getBackfilledTasksCount();
+
+    /**
+     * Returns the number of free nodes left unused by the last scheduling loop because of a reservation.
+     *
+     * @return the number of reserved idle nodes.
+     */
+    int getReservedIdleNodesCount();
+
+    /**
+     * Returns the number of tasks started per second of task deployment in the scheduling loop.
+     *
+     * @return the task deployment throughput.
+     */
+    double getTasksStartedPerSecond();
+
+    /**
+     * Returns the number of tasks whose launcher could not be created or started.
+     *
+     * @return the number of failed task deployments.
+     */
+    long getFailedTaskDeploymentsCount();
+
+    /**
+     * Returns the number of task state updates which were buffered before being written to the database.
+     *
+     * @return the number of buffered task state updates.
+     */
+    long getBufferedTaskUpdatesCount();
+
+    /**
+     * Returns the number of buffered task state updates which replaced a pending update of the same task.
+     *
+     * @return the number of coalesced task state updates.
+     */
+    long getCoalescedTaskUpdatesCount();
+
+    /**
+     * Returns the number of buffered task state updates waiting to be written to the database.
+     *
+     * @return the number of pending task state updates.
+     */
+    int getPendingTaskUpdatesCount();
+
+    /**
+     * Returns the number of times the buffered task state updates of a job were written to the database.
+     *
+     * @return the number of task state update flushes.
+     */
+    long getTaskUpdateFlushesCount();
+
+    /**
+     * Returns the mean time between the first buffered update of a job and its write to the database.
+     *
+     * @return the mean flush lag in milliseconds.
+     */
+    long getMeanTaskUpdateFlushLag();
+
+    /**
+     * Returns the maximum time between the first buffered update of a job and its write to the database.
+     *
+     * @return the maximum flush lag in milliseconds.
+     */
+    long getMaxTaskUpdateFlushLag();
+
+    /**
+     * Returns the number of finished jobs which are kept in memory as summaries, without their tasks.
+     *
+     * @return the number of finished job summaries.
+     */
+    long getFinishedJobSummariesCount();
+
+    /**
+     * Returns the number of task states which are not kept in memory because their finished job is
+     * summarized. This is the memory saved by the finished job summaries.
+     *
+     * @return the number of task states not kept in memory.
+     */
+    long getSummarizedTasksCount();
+
+    /**
+     * Returns the number of full finished job states held by the cache of finished jobs.
+     *
+     * @return the number of cached finished jobs.
+     */
+    int getCachedFinishedJobsCount();
+
+    /**
+     * Returns the number of task states held by the cache of finished jobs.
+     *
+     * @return the number of cached task states.
+     */
+    long getCachedFinishedJobsTasksCount();
+
+    /**
+     * Returns the number of requests for a finished job state which were served by the cache.
+     *
+     * @return the number of cache hits.
+     */
+    long getFinishedJobsCacheHitsCount();
+
+    /**
+     * Returns the number of requests for a finished job state which needed to load it from the database.
+     *
+     * @return the number of cache misses.
+     */
+    long getFinishedJobsCacheMissesCount();
+
+    /**
+     * Returns the number of jobs waiting for the housekeeping or being handled by it.
+     *
+     * @return the number of queued jobs.
+     */
+    int getHousekeepingQueuedJobsCount();
+
+    /**
+     * Returns the number of jobs removed, or marked as removed, by the housekeeping.
+     *
+     * @return the number of housekept jobs.
+     */
+    long getHousekeptJobsCount();
+
+    /**
+     * Returns the number of chunks of jobs handled by the housekeeping, each one in its own transaction.
+     *
+     * @return the number of housekeeping chunks.
+     */
+    long getHousekeepingChunksCount();
+
+    /**
+     * Returns the number of chunks of jobs whose housekeeping transaction failed.
+     *
+     * @return the number of failed housekeeping chunks.
+     */
+    long getHousekeepingFailedChunksCount();
+
+    /**
+     * Returns the mean time spent by the housekeeping to handle a chunk of jobs.
+     *
+     * @return the mean time in milliseconds.
+     */
+    long getMeanHousekeepingChunkTime();
+
+    /**
+     * Returns the maximum time spent by the housekeeping to handle a chunk of jobs.
+     *
+     * @return the maximum time in milliseconds.
+     */
+    long getMaxHousekeepingChunkTime();
+
+    /**
+     * Returns the time the housekeeping paused between two chunks to leave the database to the scheduling loop.
+     *
+     * @return the total pause time in milliseconds.
+     */
+    long getHousekeepingThrottledTime();
+
+    /**
+     * Returns the number of task result values deleted from the results store by the housekeeping.
+     *
+     * @return the number of deleted task result values.
+     */
+    long getHousekeepingDeletedResultValuesCount();
+
+    /**
+     * Returns the number of statistics read from the cache instead of the database.
+     *
+     * @return the number of statistics cache hits.
+     */
+    long getStatisticsCacheHitCount();
+
+    /**
+     * Returns the number of statistics read from the database because they were not cached.
+     *
+     * @return the number of statistics cache misses.
+     */
+    long getStatisticsCacheMissCount();
+
+    /**
+     * Returns the number of times the cached statistics were invalidated by a write to the database.
+     *
+     * @return the number of statistics cache invalidations.
+     */
+    long getStatisticsCacheInvalidationCount();
+
+    /**
+     * Returns the number of finished jobs whose statistics are cached.
+     *
+     * @return the number of finished jobs in the statistics cache.
+     */
+    long getStatisticsCacheFinishedJobsCount();
+
+    /**
+     * Returns the number of submitted jobs whose workflow content was already stored for another job.
+     *
+     * @return the number of deduplicated job contents.
+     */
+    long getJobContentDeduplicatedCount();
+
+    /**
+     * Returns the size of the workflow contents of the jobs submitted since the scheduler started.
+     *
+     * @return the size in bytes of the submitted job contents.
+     */
+    long getJobContentSubmittedBytes();
+
+    /**
+     * Returns the size written to the database for the workflow contents of the jobs submitted since the scheduler started,
+     * after deduplication and compression.
+     *
+     * @return the size in bytes of the stored job contents.
+     */
+    long getJobContentStoredBytes();
+
     /**
      * Returns the Key Performance Indicator related to the average of pending
      * time for a job.
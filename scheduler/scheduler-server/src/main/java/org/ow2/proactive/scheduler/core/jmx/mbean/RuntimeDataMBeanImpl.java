@@ -35,8 +35,11 @@ import org.ow2.proactive.scheduler.common.NotificationData;
 import org.ow2.proactive.scheduler.common.SchedulerEvent;
 import org.ow2.proactive.scheduler.common.SchedulerUsers;
 import org.ow2.proactive.scheduler.common.job.UserIdentification;
+import org.ow2.proactive.scheduler.core.FinishedJobsStatistics;
+import org.ow2.proactive.scheduler.core.SchedulingLoopStatistics;
 import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
 import org.ow2.proactive.scheduler.core.jmx.SchedulerJMXHelper;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.utils.Tools;
 
 
@@ -182,6 +185,272 @@ public final class RuntimeDataMBeanImpl extends StandardMBean implements Runtime
         return (int) dbManager.getMeanJobSubmittingPeriod();
     }
 
+    /**
+     * @return current number of scheduling loop triggers
+     */
+    public long getSchedulingTriggersCount() {
+        return SchedulingLoopStatistics.getInstance().getTriggersCount();
+    }
+
+    /**
+     * @return current number of coalesced scheduling loop triggers
+     */
+    public long getCoalescedSchedulingTriggersCount() {
+        return SchedulingLoopStatistics.getInstance().getCoalescedTriggersCount();
+    }
+
+    /**
+     * @return current mean trigger to start latency in milliseconds
+     */
+    public long getMeanTriggerToStartLatency() {
+        return SchedulingLoopStatistics.getInstance().getMeanTriggerToStartLatency();
+    }
+
+    /**
+     * @return current maximum trigger to start latency in milliseconds
+     */
+    public long getMaxTriggerToStartLatency() {
+        return SchedulingLoopStatistics.getInstance().getMaxTriggerToStartLatency();
+    }
+
+    /**
+     * @return current multi-node scheduling mode
+     */
+    public String getMultiNodeSchedulingMode() {
+        return PASchedulerProperties.SCHEDULER_MULTINODE_BACKFILLING.getValueAsBoolean() ? "backfilling" : "skip";
+    }
+
+    /**
+     * @return current number of node reservations made for multi-node tasks
+     */
+    public long getMultiNodeReservationsCount() {
+        return SchedulingLoopStatistics.getInstance().getReservationsCount();
+    }
+
+    /**
+     * @return current mean wait time of reserved multi-node tasks in milliseconds
+     */
+    public long getMeanMultiNodeReservationWaitTime() {
+        return SchedulingLoopStatistics.getInstance().getMeanReservationWaitTime();
+    }
+
+    /**
+     * @return current number of backfilled tasks
+     */
+    public long getBackfilledTasksCount() {
+        return SchedulingLoopStatistics.getInstance().getBackfilledTasksCount();
+    }
+
+    /**
+     * @return current number of free nodes kept idle for a reservation
+     */
+    public int getReservedIdleNodesCount() {
+        return SchedulingLoopStatistics.getInstance().getReservedIdleNodes();
+    }
+
+    /**
+     * @return number of tasks started per second of deployment
+     */
+    public double getTasksStartedPerSecond() {
+        return SchedulingLoopStatistics.getInstance().getTasksStartedPerSecond();
+    }
+
+    /**
+     * @return total number of failed task deployments
+     */
+    public long getFailedTaskDeploymentsCount() {
+        return SchedulingLoopStatistics.getInstance().getFailedDeploymentsCount();
+    }
+
+    /**
+     * @return total number of buffered task state updates
+     */
+    public long getBufferedTaskUpdatesCount() {
+        return dbManager.getBuffer().getBufferedUpdatesCount();
+    }
+
+    /**
+     * @return total number of coalesced task state updates
+     */
+    public long getCoalescedTaskUpdatesCount() {
+        return dbManager.getBuffer().getCoalescedUpdatesCount();
+    }
+
+    /**
+     * @return current number of task state updates waiting to be written
+     */
+    public int getPendingTaskUpdatesCount() {
+        return dbManager.getBuffer().getPendingUpdatesCount();
+    }
+
+    /**
+     * @return total number of flushes of buffered task state updates
+     */
+    public long getTaskUpdateFlushesCount() {
+        return dbManager.getBuffer().getFlushesCount();
+    }
+
+    /**
+     * @return current mean flush lag of buffered task state updates in milliseconds
+     */
+    public long getMeanTaskUpdateFlushLag() {
+        return dbManager.getBuffer().getMeanFlushLag();
+    }
+
+    /**
+     * @return current maximum flush lag of buffered task state updates in milliseconds
+     */
+    public long getMaxTaskUpdateFlushLag() {
+        return dbManager.getBuffer().getMaxFlushLag();
+    }
+
+    /**
+     * @return current number of finished jobs kept in memory as summaries
+     */
+    public long getFinishedJobSummariesCount() {
+        return FinishedJobsStatistics.getInstance().getSummarizedJobsCount();
+    }
+
+    /**
+     * @return current number of task states not kept in memory thanks to the finished job summaries
+     */
+    public long getSummarizedTasksCount() {
+        return FinishedJobsStatistics.getInstance().getSummarizedTasksCount();
+    }
+
+    /**
+     * @return current number of finished jobs held by the cache
+     */
+    public int getCachedFinishedJobsCount() {
+        return FinishedJobsStatistics.getInstance().getCachedJobsCount();
+    }
+
+    /**
+     * @return current number of task states held by the cache of finished jobs
+     */
+    public long getCachedFinishedJobsTasksCount() {
+        return FinishedJobsStatistics.getInstance().getCachedTasksCount();
+    }
+
+    /**
+     * @return total number of finished job states served by the cache
+     */
+    public long getFinishedJobsCacheHitsCount() {
+        return FinishedJobsStatistics.getInstance().getCacheHitsCount();
+    }
+
+    /**
+     * @return total number of finished job states loaded from the database
+     */
+    public long getFinishedJobsCacheMissesCount() {
+        return FinishedJobsStatistics.getInstance().getCacheMissesCount();
+    }
+
+    /**
+     * @return current number of jobs waiting for the housekeeping
+     */
+    public int getHousekeepingQueuedJobsCount() {
+        return dbManager.getHousekeepingExecutor().getQueuedJobsCount();
+    }
+
+    /**
+     * @return total number of jobs handled by the housekeeping
+     */
+    public long getHousekeptJobsCount() {
+        return dbManager.getHousekeepingExecutor().getHousekeptJobsCount();
+    }
+
+    /**
+     * @return total number of chunks of jobs handled by the housekeeping
+     */
+    public long getHousekeepingChunksCount() {
+        return dbManager.getHousekeepingExecutor().getChunksCount();
+    }
+
+    /**
+     * @return total number of failed housekeeping chunks
+     */
+    public long getHousekeepingFailedChunksCount() {
+        return dbManager.getHousekeepingExecutor().getFailedChunksCount();
+    }
+
+    /**
+     * @return current mean time in milliseconds to handle a housekeeping chunk
+     */
+    public long getMeanHousekeepingChunkTime() {
+        return dbManager.getHousekeepingExecutor().getMeanChunkTime();
+    }
+
+    /**
+     * @return current maximum time in milliseconds to handle a housekeeping chunk
+     */
+    public long getMaxHousekeepingChunkTime() {
+        return dbManager.getHousekeepingExecutor().getMaxChunkTime();
+    }
+
+    /**
+     * @return total time in milliseconds the housekeeping paused between chunks
+     */
+    public long getHousekeepingThrottledTime() {
+        return dbManager.getHousekeepingExecutor().getThrottledTime();
+    }
+
+    /**
+     * @return number of task result values deleted from the results store by the housekeeping
+     */
+    public long getHousekeepingDeletedResultValuesCount() {
+        return dbManager.getHousekeepingExecutor().getDeletedResultValuesCount();
+    }
+
+    /**
+     * @return total number of statistics read from the cache
+     */
+    public long getStatisticsCacheHitCount() {
+        return dbManager.getStatisticsCache().getHitCount();
+    }
+
+    /**
+     * @return total number of statistics read from the database because they were not cached
+     */
+    public long getStatisticsCacheMissCount() {
+        return dbManager.getStatisticsCache().getMissCount();
+    }
+
+    /**
+     * @return total number of invalidations of the cached statistics
+     */
+    public long getStatisticsCacheInvalidationCount() {
+        return dbManager.getStatisticsCache().getInvalidationCount();
+    }
+
+    /**
+     * @return current number of finished jobs whose statistics are cached
+     */
+    public long getStatisticsCacheFinishedJobsCount() {
+        return dbManager.getStatisticsCache().getFinishedJobsCount();
+    }
+
+    /**
+     * @return total number of submitted job contents which were already stored
+     */
+    public long getJobContentDeduplicatedCount() {
+        return dbManager.getJobContentStore().getDeduplicatedContentsCount();
+    }
+
+    /**
+     * @return total size in bytes of the submitted job contents
+     */
+    public long getJobContentSubmittedBytes() {
+        return dbManager.getJobContentStore().getSubmittedBytes();
+    }
+
+    /**
+     * @return total size in bytes of the job contents written to the database
+     */
+    public long getJobContentStoredBytes() {
+        return dbManager.getJobContentStore().getStoredBytes();
+    }
+
     // UTILITY METHODS
 
     /**
@@ -36,12 +36,14 @@ import org.ow2.proactive.resourcemanager.authentication.RMAuthentication;
 import org.ow2.proactive.resourcemanager.common.RMState;
 import org.ow2.proactive.resourcemanager.exception.RMException;
 import org.ow2.proactive.resourcemanager.frontend.RMConnection;
+import org.ow2.proactive.resourcemanager.frontend.RMEventListener;
 import org.ow2.proactive.scheduler.common.task.TaskId;
 import org.ow2.proactive.scheduler.synchronization.Synchronization;
 import org.ow2.proactive.scheduler.task.utils.VariablesMap;
 import org.ow2.proactive.scripting.Script;
 import org.ow2.proactive.utils.Criteria;
 import org.ow2.proactive.utils.NodeSet;
+import org.ow2.proactive.utils.NodeSetList;
 
 
 /**
@@ -62,6 +64,9 @@ public class RMProxy {
 
     private Credentials creds;
 
+    /** Listener of the node events, registered again when the proxy reconnects to the resource manager */
+    private RMEventListener nodeEventListener;
+
     RMProxy(URI rmURL, Credentials creds) throws RMException, RMProxyCreationException {
         this.rmURL = rmURL;
         this.creds = creds;
@@ -72,6 +77,26 @@ public class RMProxy {
         RMAuthentication auth = RMConnection.join(rmURL.toString());
         proxyActiveObject = RMProxyActiveObject.createAOProxy(auth, creds);
         currentRMConnection = new RMProxiesManager.Connection(rmURL, auth);
+        if (nodeEventListener != null) {
+            registerNodeEventListener();
+        }
+    }
+
+    /**
+     * Registers a listener of the nodes added to the resource manager or changing state.
+     * The listener is registered again when the proxy reconnects to the resource manager.
+     */
+    public synchronized void setNodeEventListener(RMEventListener listener) {
+        this.nodeEventListener = listener;
+        registerNodeEventListener();
+    }
+
+    private void registerNodeEventListener() {
+        try {
+            proxyActiveObject.addNodeEventListener(nodeEventListener).getBooleanValue();
+        } catch (RuntimeException e) {
+            logger.warn("Cannot listen to the node events of the RM, free nodes are used after a timeout", e);
+        }
     }
 
     public synchronized void terminate() {
@@ -122,6 +147,10 @@ public class RMProxy {
         return nodeSet;
     }
 
+    public NodeSetList getNodes(List<Criteria> criteria) throws RMProxyCreationException {
+        return proxyActiveObject.getNodes(criteria);
+    }
+
     public void releaseNodes(NodeSet nodeSet) {
         releaseNodes(nodeSet, null, null, null, null, null, null);
     }
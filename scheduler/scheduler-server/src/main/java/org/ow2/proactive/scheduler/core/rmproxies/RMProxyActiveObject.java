@@ -46,6 +46,8 @@ import org.objectweb.proactive.extensions.annotation.ActiveObject;
 import org.ow2.proactive.authentication.crypto.Credentials;
 import org.ow2.proactive.resourcemanager.authentication.RMAuthentication;
 import org.ow2.proactive.resourcemanager.common.RMState;
+import org.ow2.proactive.resourcemanager.common.event.RMEventType;
+import org.ow2.proactive.resourcemanager.frontend.RMEventListener;
 import org.ow2.proactive.resourcemanager.frontend.ResourceManager;
 import org.ow2.proactive.scheduler.common.SchedulerConstants;
 import org.ow2.proactive.scheduler.common.task.TaskId;
@@ -67,6 +69,7 @@ import org.ow2.proactive.scripting.ScriptLoader;
 import org.ow2.proactive.scripting.ScriptResult;
 import org.ow2.proactive.utils.Criteria;
 import org.ow2.proactive.utils.NodeSet;
+import org.ow2.proactive.utils.NodeSetList;
 
 
 @ActiveObject
@@ -113,6 +116,17 @@ public class RMProxyActiveObject {
         return rm.disconnect();
     }
 
+    /**
+     * Registers a listener of the nodes added to the resource manager or changing state
+     */
+    @ImmediateService
+    public BooleanWrapper addNodeEventListener(RMEventListener listener) {
+        PAFuture.waitFor(rm.getMonitoring().addRMEventListener(listener,
+                                                               RMEventType.NODE_ADDED,
+                                                               RMEventType.NODE_STATE_CHANGED));
+        return new BooleanWrapper(true);
+    }
+
     @ImmediateService
     public BooleanWrapper isActive() {
         return rm.isActive();
@@ -128,6 +142,11 @@ public class RMProxyActiveObject {
         return rm.getNodes(criteria);
     }
 
+    @ImmediateService
+    public NodeSetList getNodes(List<Criteria> criteria) {
+        return rm.getNodes(criteria);
+    }
+
     @ImmediateService
     public BooleanWrapper releaseNode(Node node) {
         return rm.releaseNode(node);
@@ -27,6 +27,7 @@ package org.ow2.proactive.scheduler.descriptor;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -717,6 +718,26 @@ public class JobDescriptorImpl implements JobDescriptor {
         return new Vector<TaskDescriptor>(eligibleTasks.values());
     }
 
+    /**
+     * @param taskId the id of a task of this job
+     * @return true if the task is eligible, i.e. waiting to be started
+     */
+    public boolean isEligible(TaskId taskId) {
+        return eligibleTasks.containsKey(taskId);
+    }
+
+    /**
+     * To get a live, read-only view of the eligible tasks.
+     * The view reflects the tasks becoming eligible or being started, paused or terminated
+     * while it is being iterated, without copying the eligible tasks.
+     *
+     * @return a live view of the eligible tasks.
+     */
+    @XmlTransient
+    public Collection<EligibleTaskDescriptor> getEligibleTasksView() {
+        return Collections.unmodifiableCollection(eligibleTasks.values());
+    }
+
     /**
      * {@inheritDoc}
      */
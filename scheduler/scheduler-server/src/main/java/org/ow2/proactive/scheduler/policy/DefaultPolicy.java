@@ -28,6 +28,7 @@ package org.ow2.proactive.scheduler.policy;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -37,6 +38,8 @@ import org.ow2.proactive.scheduler.common.job.JobPriority;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
 import org.ow2.proactive.scheduler.descriptor.JobDescriptorImpl;
 
+import com.google.common.collect.Iterators;
+
 
 /**
  * Implementation of the policy according that :
@@ -82,6 +85,43 @@ public class DefaultPolicy extends Policy {
         return toReturn;
     }
 
+    /**
+     * This method returns a live view of the tasks using FIFO policy according to the jobs priorities.
+     * Only the jobs are sorted, the tasks are read lazily from the eligible tasks of each job.
+     *
+     * @see org.ow2.proactive.scheduler.policy.Policy#getOrderedTasksView(java.util.List)
+     */
+    @Override
+    public Iterator<EligibleTaskDescriptor> getOrderedTasksView(List<JobDescriptor> jobs) {
+        if (!isOrderedTasksViewConsistent()) {
+            return super.getOrderedTasksView(jobs);
+        }
+
+        Collections.sort(jobs, FIFO_BY_PRIORITY_COMPARATOR);
+
+        return Iterators.concat(Iterators.transform(jobs.iterator(),
+                                                    jd -> ((JobDescriptorImpl) jd).getEligibleTasksView()
+                                                                                  .iterator()));
+    }
+
+    /**
+     * A subclass which overrides {@link #getOrderedTasks(List)} without overriding
+     * {@link #getOrderedTasksView(List)} would not see its ordering applied by the live view,
+     * in that case the view must be built from the list returned by {@link #getOrderedTasks(List)}.
+     *
+     * @return true if both methods are defined by the same class.
+     */
+    protected final boolean isOrderedTasksViewConsistent() {
+        try {
+            Class<?> orderedTasksClass = getClass().getMethod("getOrderedTasks", List.class).getDeclaringClass();
+            Class<?> orderedTasksViewClass = getClass().getMethod("getOrderedTasksView", List.class)
+                                                       .getDeclaringClass();
+            return orderedTasksClass == orderedTasksViewClass;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     public static final Comparator<JobDescriptor> FIFO_BY_PRIORITY_COMPARATOR = new Comparator<JobDescriptor>() {
         @Override
         public int compare(JobDescriptor job1, JobDescriptor job2) {
@@ -28,6 +28,7 @@ package org.ow2.proactive.scheduler.policy;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -39,6 +40,8 @@ import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
 import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptorImpl;
 import org.ow2.proactive.scheduler.descriptor.JobDescriptorImpl;
 
+import com.google.common.collect.Iterators;
+
 
 /**
  * ExtendedSchedulerPolicy class provides:
@@ -73,39 +76,62 @@ public class ExtendedSchedulerPolicy extends DefaultPolicy {
             Collection<TaskDescriptor> tasks = jobDesc.getEligibleTasks();
             Collection<EligibleTaskDescriptor> eligibleTasks = (Collection) tasks;
             for (EligibleTaskDescriptor candidate : eligibleTasks) {
-                String startAt = getStartAtValue(jobDesc, candidate);
-                if (startAt == null) {
+                if (isInExecutionCycle(now, jobDesc, candidate)) {
                     executionCycleTasks.add(candidate);
-                } else {
-                    try {
-                        if (now.after(ISO8601DateUtil.toDate(startAt))) {
-                            executionCycleTasks.add(candidate);
-
-                        } else {
-                            if (logger.isTraceEnabled()) {
-                                logger.trace(String.format("Task [jobId:\"%s\", taskId:\"%s\"] is scheduled to be executed at %s." +
-                                                           " It will not be scheduled for this execution cycle at %s.",
-                                                           jobDesc.getJobId(),
-                                                           candidate.getTaskId(),
-                                                           startAt,
-                                                           ISO8601DateUtil.parse(now)));
-                            }
-                        }
-                    } catch (IllegalArgumentException e) {
-                        logger.error(String.format("An error occurred while processing 'startAt' generic info.%n" +
-                                                   "Task ([job-id:\"%s\", task-id:\"%s\"]) will be scheduled immediately for execution.",
-                                                   jobDesc.getJobId().toString(),
-                                                   candidate.getTaskId().toString()),
-                                     e);
-                        executionCycleTasks.add(candidate);
-                    }
-
                 }
             }
         }
         return executionCycleTasks;
     }
 
+    /*
+     * Same filtering as getOrderedTasks, applied lazily on the live eligible tasks of each job.
+     */
+    @Override
+    public Iterator<EligibleTaskDescriptor> getOrderedTasksView(List<JobDescriptor> jobDescList) {
+        if (!isOrderedTasksViewConsistent()) {
+            return super.getOrderedTasksView(jobDescList);
+        }
+
+        Date now = new Date();
+        Collections.sort(jobDescList, FIFO_BY_PRIORITY_COMPARATOR);
+
+        return Iterators.concat(Iterators.transform(jobDescList.iterator(),
+                                                    jobDesc -> Iterators.filter(((JobDescriptorImpl) jobDesc).getEligibleTasksView()
+                                                                                                              .iterator(),
+                                                                                candidate -> isInExecutionCycle(now,
+                                                                                                                jobDesc,
+                                                                                                                candidate))));
+    }
+
+    private boolean isInExecutionCycle(Date now, JobDescriptor jobDesc, EligibleTaskDescriptor candidate) {
+        String startAt = getStartAtValue(jobDesc, candidate);
+        if (startAt == null) {
+            return true;
+        }
+        try {
+            if (now.after(ISO8601DateUtil.toDate(startAt))) {
+                return true;
+            }
+            if (logger.isTraceEnabled()) {
+                logger.trace(String.format("Task [jobId:\"%s\", taskId:\"%s\"] is scheduled to be executed at %s." +
+                                           " It will not be scheduled for this execution cycle at %s.",
+                                           jobDesc.getJobId(),
+                                           candidate.getTaskId(),
+                                           startAt,
+                                           ISO8601DateUtil.parse(now)));
+            }
+            return false;
+        } catch (IllegalArgumentException e) {
+            logger.error(String.format("An error occurred while processing 'startAt' generic info.%n" +
+                                       "Task ([job-id:\"%s\", task-id:\"%s\"]) will be scheduled immediately for execution.",
+                                       jobDesc.getJobId().toString(),
+                                       candidate.getTaskId().toString()),
+                         e);
+            return true;
+        }
+    }
+
     /*
      * START_AT property defined at task level always has the precedence over the same property
      * defined job level.
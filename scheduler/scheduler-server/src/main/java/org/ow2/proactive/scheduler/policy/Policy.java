@@ -29,6 +29,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
@@ -93,6 +95,27 @@ public abstract class Policy implements Serializable {
      */
     public abstract LinkedList<EligibleTaskDescriptor> getOrderedTasks(List<JobDescriptor> jobs);
 
+    /**
+     * Return the tasks that have to be scheduled as an iterator, in the desired scheduling order.
+     * <p>
+     * The scheduling loop only consumes as many tasks as there are free resources, so policies
+     * which do not need a global view of the tasks can return a lazily evaluated iterator backed by
+     * the eligible tasks each job descriptor maintains incrementally, instead of building and sorting
+     * the complete list on each loop.
+     * <p>
+     * The default implementation iterates over the list returned by {@link #getOrderedTasks(List)}.
+     *
+     * @param jobs the list of pending or running job descriptors.
+     * @return an iterator over every tasks that are ready to be scheduled.
+     */
+    public Iterator<EligibleTaskDescriptor> getOrderedTasksView(List<JobDescriptor> jobs) {
+        LinkedList<EligibleTaskDescriptor> orderedTasks = getOrderedTasks(jobs);
+        if (orderedTasks == null) {
+            return Collections.emptyIterator();
+        }
+        return orderedTasks.iterator();
+    }
+
     /**
      * After the selection process, overriding this method allows to do some filtering on the task scheduled
      * This is useful, for example, when stateless selection scripts cannot completely determine if a node is eligible for execution.
@@ -30,13 +30,17 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
@@ -51,17 +55,17 @@ import org.objectweb.proactive.EndActive;
 import org.objectweb.proactive.InitActive;
 import org.objectweb.proactive.RunActive;
 import org.objectweb.proactive.Service;
+import org.objectweb.proactive.annotation.ImmediateService;
+import org.objectweb.proactive.api.PAActiveObject;
 import org.objectweb.proactive.core.body.request.Request;
 import org.objectweb.proactive.core.mop.MethodCallExecutionFailedException;
 import org.objectweb.proactive.extensions.annotation.ActiveObject;
 import org.objectweb.proactive.utils.StackTraceUtil;
 import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
 import org.ow2.proactive.scheduler.util.TaskLogger;
 
 import groovy.lang.GroovyShell;
-import jdbm.PrimaryHashMap;
-import jdbm.RecordManager;
-import jdbm.RecordManagerFactory;
 
 
 /**
@@ -71,9 +75,15 @@ import jdbm.RecordManagerFactory;
  *
  * All requests are <b>synchronous</b> (this is done by returning primitive objects or throwing checked exception)
  *
- * Internally, HashMap are used to implement Channels. Channels are persisted thanks to <a href="https://code.google.com/archive/p/jdbm2/">JDBM2</a>
+ * Internally, HashMap are used to implement Channels. Channels are stored and persisted by a {@link ChannelStore}
  *
  * A custom {@link RunActive#runActivity(Body) runActivity} is implemented to handle wait Methods.
+ *
+ * Read and write methods are immediate services, so that operations on different channels are served
+ * concurrently. Channels are thread-safe, and the writes of a channel are serialized by a write lock of the channel,
+ * so that each write is atomic. Wait methods are served by the active object thread: a wait request whose predicate
+ * is met is served under the write lock of its channel, and the writes wake up the active object thread so that the
+ * pending wait requests are tested again.
  * @author ActiveEon Team
  * @since 26/03/2018
  */
@@ -94,33 +104,34 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
 
     private static final String WITH_VALUE = ", with value ";
 
-    /** Path to jdbm database main file */
-    private File statusFile;
-
-    /** Location of the jdbm database */
+    /** Location of the database */
     private File statusFileDirectory;
 
-    /** Name of the JDBM Database file used by this service */
+    /** Name of the database files used by this service */
     private static final String DEFAULT_STORE_SESSION_NAME = "SchedulerStore";
 
-    /** Schema used inside the JDBM database */
-    private static final String STATUS_RECORD_NAME = "STORE";
-
-    /** HashMap storing the in-memory channels */
-    private HashMap<String, Channel> inMemoryChannels;
-
-    /** JDBM map storing the persistent channels */
-    private PrimaryHashMap<String, Channel> persistedChannels;
+    /** Store of the in-memory and persistent channels, null once closed (read by immediate services) */
+    private volatile ChannelStore store;
 
     /** Queue used to memorize and handle wait requests to the active object */
     private Queue<TimedOutRequest> waitUntilQueue = new ArrayDeque<>();
 
+    /** Write locks of the channels, taken before the lock of the channel itself or of the store */
+    private final Map<String, Object> writeLocks = new ConcurrentHashMap<>();
+
+    /** Whether wait requests may be pending, in which case the writes wake up the active object thread */
+    private volatile boolean waitRequestsPending = false;
+
+    /** Whether a wake up request is queued and not served yet */
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean(false);
+
+    /** Stub of this active object, used by the immediate services to wake up the active object thread */
+    private volatile AOSynchronization stubOnThis;
+
     /** Groovy related configuration */
 
     private GroovyShell shell;
 
-    private RecordManager recordManager;
-
     private boolean isStarted = false;
 
     @java.lang.SuppressWarnings("unused")
@@ -132,8 +143,6 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
     public AOSynchronization(String statusFileDirectoryPath) {
         initializeGroovyCompiler();
         initializeStatusFile(statusFileDirectoryPath);
-        inMemoryChannels = new HashMap<>();
-
     }
 
     private void initializeGroovyCompiler() {
@@ -154,11 +163,10 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
             throw new IllegalArgumentException("Provided directory path exists and is not a directory " +
                                                statusFileDirectory);
         }
-        this.statusFile = new File(statusFileDirectory, DEFAULT_STORE_SESSION_NAME);
     }
 
     /**
-     * Initialize the Record Manager.
+     * Initialize the channel store.
      *
      * Load the persisted channel from disk at configured location.
      *
@@ -169,26 +177,25 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
     private void init(boolean firstAttempt) {
         close();
         try {
-            logger.info("Loading Record Manager from file : " + statusFile);
-            recordManager = RecordManagerFactory.createRecordManager(statusFile.getCanonicalPath());
-            persistedChannels = recordManager.hashMap(STATUS_RECORD_NAME);
-            // While printing the content of persistedChannels, InvalidClassException or jdbm Error can be triggered
-            logger.info("Content of persisted store : " + persistedChannels);
-
-            recordManager.commit();
+            logger.info("Loading channel store from directory : " + statusFileDirectory);
+            store = new ChannelStore(statusFileDirectory,
+                                     DEFAULT_STORE_SESSION_NAME,
+                                     PASchedulerProperties.SCHEDULER_SYNCHRONIZATION_DATABASE_COMMIT_PERIOD.getValueAsInt());
+            store.open();
+            logger.info("Content of persisted store : " + store.getPersistedChannels());
             if (!firstAttempt) {
                 logger.info("Loading of job database successful after clean.");
             }
         } catch (Throwable e) {
             if (firstAttempt) {
-                logger.error("Error occurred when loading channels database " + statusFile.getAbsolutePath() +
+                logger.error("Error occurred when loading channels database " + statusFileDirectory.getAbsolutePath() +
                              ", now cleaning it and retrying.", e);
                 cleanDataBase();
                 init(false);
             } else {
                 close();
                 throw new IllegalStateException("Error when loading database (even after cleaning it): " +
-                                                statusFile.getAbsolutePath(), e);
+                                                statusFileDirectory.getAbsolutePath(), e);
             }
         }
         isStarted = true;
@@ -222,44 +229,84 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
     }
 
     public boolean close() {
-        inMemoryChannels.clear();
-        if (recordManager != null) {
-            try {
-                logger.info("Closing Record Manager");
-                recordManager.close();
-                recordManager = null;
-            } catch (IOException e) {
-                logger.warn("Error when closing Record Manager", e);
-            }
+        ChannelStore currentStore = store;
+        if (currentStore != null) {
+            // detach the store first so that immediate services fail cleanly instead of using a closed store
+            store = null;
+            logger.info("Closing channel store");
+            currentStore.close();
         }
         return true;
     }
 
+    /**
+     * Returns the channel store, captured once so that a concurrent {@link #close()} cannot make it null
+     * in the middle of an operation.
+     *
+     * @throws IllegalStateException if the store is closed
+     */
+    private ChannelStore openStore() {
+        ChannelStore currentStore = store;
+        if (currentStore == null) {
+            throw new IllegalStateException("Synchronization channel store is closed");
+        }
+        return currentStore;
+    }
+
+    /**
+     * @return the lock serializing the writes of the given channel
+     */
+    private Object writeLock(String channel) {
+        return writeLocks.computeIfAbsent(channel, name -> new Object());
+    }
+
+    /**
+     * Wakes up the active object thread after a write, so that it tests the predicates of the pending wait
+     * requests again. A single wake up request is queued at a time.
+     */
+    private void wakeUpWaitRequests() {
+        if (waitRequestsPending && stubOnThis != null && wakeUpQueued.compareAndSet(false, true)) {
+            stubOnThis.channelsModified();
+        }
+    }
+
+    /**
+     * Served by the active object thread after channels have been modified by immediate services, the pending
+     * wait requests are then tested again.
+     */
+    public void channelsModified() {
+        wakeUpQueued.set(false);
+    }
+
     private Channel getChannel(String name) throws InvalidChannelException {
-        if (inMemoryChannels.containsKey(name)) {
-            return inMemoryChannels.get(name);
-        } else if (persistedChannels.containsKey(name)) {
-            return persistedChannels.get(name);
+        Channel channel = openStore().getChannel(name);
+        if (channel == null) {
+            throw new InvalidChannelException("Channel " + name + " does not exist");
         }
-        throw new InvalidChannelException("Channel " + name + " does not exist");
+        return channel;
     }
 
     @Override
     @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
     public boolean createChannel(String originator, TaskId taskid, String name, boolean isPersistent)
             throws IOException {
+        synchronized (writeLock(name)) {
+            return createChannelUnderWriteLock(originator, taskid, name, isPersistent);
+        }
+    }
+
+    private boolean createChannelUnderWriteLock(String originator, TaskId taskid, String name, boolean isPersistent)
+            throws IOException {
         try {
             boolean alreadyExistingChannel = deleteChannel(originator, taskid, name);
             Channel newChannel = new Channel();
+            openStore().createChannel(name, newChannel, isPersistent);
             if (isPersistent) {
-                persistedChannels.put(name, newChannel);
                 logWithContextAndPersist(taskid,
                                          null,
                                          "Created new persistent channel " + QUOTE + name + QUOTE,
                                          Level.INFO);
-                recordManager.commit();
             } else {
-                inMemoryChannels.put(name, newChannel);
                 logWithContextAndPersist(taskid,
                                          null,
                                          "Created new memory channel " + QUOTE + name + QUOTE,
@@ -273,21 +320,26 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
 
     @Override
     public boolean deleteChannel(String originator, TaskId taskid, String name) throws IOException {
+        synchronized (writeLock(name)) {
+            return deleteChannelUnderWriteLock(taskid, name);
+        }
+    }
+
+    private boolean deleteChannelUnderWriteLock(TaskId taskid, String name) throws IOException {
         try {
-            if (persistedChannels.containsKey(name)) {
-                persistedChannels.remove(name);
+            ChannelStore currentStore = openStore();
+            boolean isPersistent = currentStore.isPersistent(name);
+            if (!currentStore.deleteChannel(name)) {
+                return false;
+            } else if (isPersistent) {
                 logWithContextAndPersist(taskid,
                                          null,
                                          "Deleted persistent channel " + QUOTE + name + QUOTE,
                                          Level.INFO);
-                recordManager.commit();
                 return true;
-            } else if (inMemoryChannels.containsKey(name)) {
-                inMemoryChannels.remove(name);
+            } else {
                 logWithContextAndPersist(taskid, null, "Deleted memory channel " + QUOTE + name + QUOTE, Level.INFO);
                 return true;
-            } else {
-                return false;
             }
         } catch (InvalidChannelException e) {
             throw new IllegalStateException(e);
@@ -295,14 +347,15 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
     }
 
     @Override
+    @ImmediateService
     public boolean channelExists(String originator, TaskId taskid, String name) {
-        return inMemoryChannels.containsKey(name) || persistedChannels.containsKey(name);
+        return openStore().containsChannel(name);
     }
 
     @Override
     public boolean createChannelIfAbsent(String originator, TaskId taskid, String name, boolean isPersistent)
             throws IOException {
-        if (inMemoryChannels.containsKey(name) || persistedChannels.containsKey(name)) {
+        if (openStore().containsChannel(name)) {
             return false;
         } else {
             return createChannel(originator, taskid, name, isPersistent);
@@ -315,390 +368,480 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
      * @throws IOException if an error occurs when persisting channel
      */
     private void commitIfNeeded(String channel) throws IOException {
-        if (persistedChannels.containsKey(channel)) {
-            // Record Manager mark as dirty (uncommited) entries which have be modified via a put call
-            // Thus, such operation as persistedChannels.get(channel).dosomething() will not be committed
-            // by the following trick, we mark the entry as dirty and commit
-            persistedChannels.put(channel, persistedChannels.get(channel));
-            recordManager.commit();
+        if (channel != null) {
+            openStore().channelModified(channel);
         }
     }
 
     @Override
+    @ImmediateService
     public boolean containsKey(String originator, TaskId taskid, String channel, String key)
             throws InvalidChannelException {
         return getChannel(channel).containsKey(key);
     }
 
     @Override
+    @ImmediateService
     public int size(String originator, TaskId taskid, String channel) throws InvalidChannelException {
         return getChannel(channel).size();
     }
 
     @Override
+    @ImmediateService
     public boolean isEmpty(String originator, TaskId taskid, String channel) throws InvalidChannelException {
         return getChannel(channel).isEmpty();
     }
 
     @Override
+    @ImmediateService
     public boolean containsValue(String originator, TaskId taskid, String channel, Serializable value)
             throws InvalidChannelException {
         return getChannel(channel).containsValue(value);
     }
 
     @Override
+    @ImmediateService
     public Serializable get(String originator, TaskId taskid, String channel, String key)
             throws InvalidChannelException {
         return getChannel(channel).get(key);
     }
 
     @Override
+    @ImmediateService
     public Serializable put(String originator, TaskId taskid, String channel, String key, Serializable value)
             throws InvalidChannelException, IOException {
-        Serializable answer = getChannel(channel).put(key, value);
-        logWithContextAndPersist(taskid,
-                                 channel,
-                                 "Put " + value + ON_KEY + QUOTE + key + QUOTE + PREVIOUS_VALUE_WAS + answer + "",
-                                 Level.DEBUG);
-        return answer;
+        synchronized (writeLock(channel)) {
+            Serializable answer = getChannel(channel).put(key, value);
+            logWithContextAndPersist(taskid,
+                                     channel,
+                                     "Put " + value + ON_KEY + QUOTE + key + QUOTE + PREVIOUS_VALUE_WAS + answer + "",
+                                     Level.DEBUG);
+            return answer;
+        }
     }
 
     @Override
+    @ImmediateService
     public Serializable remove(String originator, TaskId taskid, String channel, String key)
             throws InvalidChannelException, IOException {
-        Serializable answer = getChannel(channel).remove(key);
-        logWithContextAndPersist(taskid,
-                                 channel,
-                                 "Removed key " + QUOTE + key + QUOTE + PREVIOUS_VALUE_WAS + answer,
-                                 Level.DEBUG);
-        return answer;
+        synchronized (writeLock(channel)) {
+            Serializable answer = getChannel(channel).remove(key);
+            logWithContextAndPersist(taskid,
+                                     channel,
+                                     "Removed key " + QUOTE + key + QUOTE + PREVIOUS_VALUE_WAS + answer,
+                                     Level.DEBUG);
+            return answer;
+        }
     }
 
     @Override
+    @ImmediateService
     public void putAll(String originator, TaskId taskid, String channel,
             Map<? extends String, ? extends Serializable> m) throws InvalidChannelException, IOException {
-        getChannel(channel).putAll(m);
-        logWithContextAndPersist(taskid, channel, "PutAll called, with new entries: " + m, Level.DEBUG);
+        synchronized (writeLock(channel)) {
+            getChannel(channel).putAll(m);
+            logWithContextAndPersist(taskid, channel, "PutAll called, with new entries: " + m, Level.DEBUG);
+        }
     }
 
     @Override
+    @ImmediateService
     public void clear(String originator, TaskId taskid, String channel) throws InvalidChannelException, IOException {
-        getChannel(channel).clear();
-        logWithContextAndPersist(taskid, channel, "Cleared channel", Level.DEBUG);
+        synchronized (writeLock(channel)) {
+            getChannel(channel).clear();
+            logWithContextAndPersist(taskid, channel, "Cleared channel", Level.DEBUG);
+        }
     }
 
     @Override
+    @ImmediateService
     public Set<String> keySet(String originator, TaskId taskid, String channel) throws InvalidChannelException {
-        return getChannel(channel).keySet();
+        Channel chosenChannel = getChannel(channel);
+        synchronized (chosenChannel) {
+            return new HashSet<>(chosenChannel.keySet());
+        }
     }
 
     @Override
+    @ImmediateService
     public Collection<Serializable> values(String originator, TaskId taskid, String channel)
             throws InvalidChannelException {
-        return getChannel(channel).values();
+        Channel chosenChannel = getChannel(channel);
+        synchronized (chosenChannel) {
+            return new ArrayList<>(chosenChannel.values());
+        }
     }
 
     @Override
+    @ImmediateService
     public Set<Map.Entry<String, Serializable>> entrySet(String originator, TaskId taskid, String channel)
             throws InvalidChannelException {
-        return getChannel(channel).entrySet();
+        Channel chosenChannel = getChannel(channel);
+        synchronized (chosenChannel) {
+            return new HashMap<>(chosenChannel).entrySet();
+        }
     }
 
     @Override
+    @ImmediateService
     public Serializable getOrDefault(String originator, TaskId taskid, String channel, String key,
             Serializable defaultValue) throws InvalidChannelException {
         return getChannel(channel).getOrDefault(key, defaultValue);
     }
 
     @Override
+    @ImmediateService
     @SuppressWarnings("unchecked")
     public void forEach(String originator, TaskId taskid, String channel, String action)
             throws CompilationException, ClosureEvaluationException, InvalidChannelException {
-        try {
-            Channel chosenChannel = getChannel(channel);
-            chosenChannel.forEach(evaluateClosure(action, BiConsumer.class));
-            logWithContextAndPersist(taskid, channel, "Run forEach, new content is: " + chosenChannel, Level.DEBUG);
-        } catch (InvalidChannelException | CompilationException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE + StackTraceUtil.getStackTrace(e));
+        synchronized (writeLock(channel)) {
+            try {
+                Channel chosenChannel = getChannel(channel);
+                chosenChannel.forEach(evaluateClosure(action, BiConsumer.class));
+                logWithContextAndPersist(taskid, channel, "Run forEach, new content is: " + chosenChannel, Level.DEBUG);
+            } catch (InvalidChannelException | CompilationException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE +
+                                                     StackTraceUtil.getStackTrace(e));
+            }
         }
-
     }
 
     @Override
+    @ImmediateService
     @SuppressWarnings("unchecked")
     public void replaceAll(String originator, TaskId taskid, String channel, String function)
             throws InvalidChannelException, CompilationException, IOException {
-        try {
-            Channel chosenChannel = getChannel(channel);
-            chosenChannel.replaceAll(evaluateClosure(function, BiFunction.class));
-            logWithContextAndPersist(taskid, channel, "Run replaceAll, new content is: " + chosenChannel, Level.DEBUG);
-        } catch (InvalidChannelException | CompilationException | IOException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE + StackTraceUtil.getStackTrace(e));
+        synchronized (writeLock(channel)) {
+            try {
+                Channel chosenChannel = getChannel(channel);
+                chosenChannel.replaceAll(evaluateClosure(function, BiFunction.class));
+                logWithContextAndPersist(taskid,
+                                         channel,
+                                         "Run replaceAll, new content is: " + chosenChannel,
+                                         Level.DEBUG);
+            } catch (InvalidChannelException | CompilationException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE +
+                                                     StackTraceUtil.getStackTrace(e));
+            }
         }
     }
 
     @Override
+    @ImmediateService
     public Serializable putIfAbsent(String originator, TaskId taskid, String channel, String key, Serializable value)
             throws InvalidChannelException, IOException {
-        Serializable answer = getChannel(channel).putIfAbsent(key, value);
-        logWithContextAndPersist(taskid,
-                                 channel,
-                                 "Put " + value + ON_KEY + QUOTE + key + QUOTE + PREVIOUS_VALUE_WAS + answer,
-                                 Level.DEBUG);
-        return answer;
+        synchronized (writeLock(channel)) {
+            Serializable answer = getChannel(channel).putIfAbsent(key, value);
+            logWithContextAndPersist(taskid,
+                                     channel,
+                                     "Put " + value + ON_KEY + QUOTE + key + QUOTE + PREVIOUS_VALUE_WAS + answer,
+                                     Level.DEBUG);
+            return answer;
+        }
     }
 
     @Override
+    @ImmediateService
     public boolean remove(String originator, TaskId taskid, String channel, String key, Serializable value)
             throws InvalidChannelException, IOException {
-        boolean answer = getChannel(channel).remove(key, value);
-        logWithContextAndPersist(taskid,
-                                 channel,
-                                 "Tried to remove key " + QUOTE + key + QUOTE + " with expected value " + value +
-                                          ", success=" + answer,
-                                 Level.DEBUG);
-        return answer;
+        synchronized (writeLock(channel)) {
+            boolean answer = getChannel(channel).remove(key, value);
+            logWithContextAndPersist(taskid,
+                                     channel,
+                                     "Tried to remove key " + QUOTE + key + QUOTE + " with expected value " + value +
+                                              ", success=" + answer,
+                                     Level.DEBUG);
+            return answer;
+        }
     }
 
     @Override
+    @ImmediateService
     public boolean replace(String originator, TaskId taskid, String channel, String key, Serializable oldValue,
             Serializable newValue) throws InvalidChannelException, IOException {
-        boolean answer = getChannel(channel).replace(key, oldValue, newValue);
-        logWithContextAndPersist(taskid,
-                                 channel,
-                                 "Tried to replace key " + QUOTE + key + QUOTE + " with expected old value " +
-                                          oldValue + " and new value " + newValue + ", success=" + answer,
-                                 Level.DEBUG);
-        return answer;
-
+        synchronized (writeLock(channel)) {
+            boolean answer = getChannel(channel).replace(key, oldValue, newValue);
+            logWithContextAndPersist(taskid,
+                                     channel,
+                                     "Tried to replace key " + QUOTE + key + QUOTE + " with expected old value " +
+                                              oldValue + " and new value " + newValue + ", success=" + answer,
+                                     Level.DEBUG);
+            return answer;
+        }
     }
 
     @Override
+    @ImmediateService
     public Serializable replace(String originator, TaskId taskid, String channel, String key, Serializable value)
             throws InvalidChannelException, IOException {
-        Serializable answer = getChannel(channel).replace(key, value);
-        logWithContextAndPersist(taskid,
-                                 channel,
-                                 "Replaced key " + QUOTE + key + QUOTE + WITH_VALUE + value + ", old value was " +
-                                          answer,
-                                 Level.DEBUG);
-        return answer;
+        synchronized (writeLock(channel)) {
+            Serializable answer = getChannel(channel).replace(key, value);
+            logWithContextAndPersist(taskid,
+                                     channel,
+                                     "Replaced key " + QUOTE + key + QUOTE + WITH_VALUE + value + ", old value was " +
+                                              answer,
+                                     Level.DEBUG);
+            return answer;
+        }
     }
 
     @Override
+    @ImmediateService
     @SuppressWarnings("unchecked")
     public Serializable computeIfAbsent(String originator, TaskId taskid, String channel, String key,
             String mappingFunction) throws InvalidChannelException, CompilationException, IOException {
-        Serializable answer;
-        try {
-            Channel chosenChannel = getChannel(channel);
-            answer = chosenChannel.computeIfAbsent(key,
-                                                   (Function<? super String, ? extends Serializable>) evaluateClosure(mappingFunction,
-                                                                                                                      Function.class));
-            logWithContextAndPersist(taskid,
-                                     channel,
-                                     "Run computeIfAbsent" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
-                                     Level.DEBUG);
-        } catch (InvalidChannelException | CompilationException | IOException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE + StackTraceUtil.getStackTrace(e));
+        synchronized (writeLock(channel)) {
+            Serializable answer;
+            try {
+                Channel chosenChannel = getChannel(channel);
+                answer = chosenChannel.computeIfAbsent(key,
+                                                       (Function<? super String, ? extends Serializable>) evaluateClosure(mappingFunction,
+                                                                                                                          Function.class));
+                logWithContextAndPersist(taskid,
+                                         channel,
+                                         "Run computeIfAbsent" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
+                                         Level.DEBUG);
+            } catch (InvalidChannelException | CompilationException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE +
+                                                     StackTraceUtil.getStackTrace(e));
+            }
+            return answer;
         }
-        return answer;
     }
 
     @Override
+    @ImmediateService
     @SuppressWarnings("unchecked")
     public Serializable computeIfPresent(String originator, TaskId taskid, String channel, String key,
             String remappingFunction) throws InvalidChannelException, CompilationException, IOException {
-        Serializable answer;
-        try {
-            Channel chosenChannel = getChannel(channel);
-            answer = chosenChannel.computeIfPresent(key,
-                                                    (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(remappingFunction,
-                                                                                                                                               BiFunction.class));
-            logWithContextAndPersist(taskid,
-                                     channel,
-                                     "Run computeIfPresent" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
-                                     Level.DEBUG);
-        } catch (InvalidChannelException | CompilationException | IOException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE + StackTraceUtil.getStackTrace(e));
+        synchronized (writeLock(channel)) {
+            Serializable answer;
+            try {
+                Channel chosenChannel = getChannel(channel);
+                answer = chosenChannel.computeIfPresent(key,
+                                                        (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(remappingFunction,
+                                                                                                                                                   BiFunction.class));
+                logWithContextAndPersist(taskid,
+                                         channel,
+                                         "Run computeIfPresent" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
+                                         Level.DEBUG);
+            } catch (InvalidChannelException | CompilationException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE +
+                                                     StackTraceUtil.getStackTrace(e));
+            }
+            return answer;
         }
-        return answer;
     }
 
     @Override
+    @ImmediateService
     @SuppressWarnings("unchecked")
     public Serializable compute(String originator, TaskId taskid, String channel, String key, String remappingFunction)
             throws InvalidChannelException, CompilationException, IOException {
-        Serializable answer;
-        try {
-            answer = getChannel(channel).compute(key,
-                                                 (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(remappingFunction,
-                                                                                                                                            BiFunction.class));
-            logWithContextAndPersist(taskid,
-                                     channel,
-                                     "Run compute" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
-                                     Level.DEBUG);
-        } catch (InvalidChannelException | CompilationException | IOException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE + StackTraceUtil.getStackTrace(e));
-        }
+        synchronized (writeLock(channel)) {
+            Serializable answer;
+            try {
+                answer = getChannel(channel).compute(key,
+                                                     (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(remappingFunction,
+                                                                                                                                                BiFunction.class));
+                logWithContextAndPersist(taskid,
+                                         channel,
+                                         "Run compute" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
+                                         Level.DEBUG);
+            } catch (InvalidChannelException | CompilationException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE +
+                                                     StackTraceUtil.getStackTrace(e));
+            }
 
-        return answer;
+            return answer;
+        }
     }
 
     @Override
+    @ImmediateService
     @SuppressWarnings("unchecked")
     public Serializable merge(String originator, TaskId taskid, String channel, String key, Serializable value,
             String remappingFunction) throws InvalidChannelException, CompilationException, IOException {
-        Serializable answer;
-        try {
-            answer = getChannel(channel).merge(key,
-                                               value,
-                                               (BiFunction<? super Serializable, ? super Serializable, ? extends Serializable>) evaluateClosure(remappingFunction,
-                                                                                                                                                BiFunction.class));
-            logWithContextAndPersist(taskid,
-                                     channel,
-                                     "Run merge" + ON_KEY + QUOTE + key + QUOTE + WITH_VALUE + value + RESULT_IS +
-                                              answer,
-                                     Level.DEBUG);
-        } catch (InvalidChannelException | CompilationException | IOException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE + StackTraceUtil.getStackTrace(e));
+        synchronized (writeLock(channel)) {
+            Serializable answer;
+            try {
+                answer = getChannel(channel).merge(key,
+                                                   value,
+                                                   (BiFunction<? super Serializable, ? super Serializable, ? extends Serializable>) evaluateClosure(remappingFunction,
+                                                                                                                                                    BiFunction.class));
+                logWithContextAndPersist(taskid,
+                                         channel,
+                                         "Run merge" + ON_KEY + QUOTE + key + QUOTE + WITH_VALUE + value + RESULT_IS +
+                                                  answer,
+                                         Level.DEBUG);
+            } catch (InvalidChannelException | CompilationException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE +
+                                                     StackTraceUtil.getStackTrace(e));
+            }
+            return answer;
         }
-        return answer;
     }
 
     @Override
+    @ImmediateService
     @SuppressWarnings("unchecked")
     public PredicateActionResult conditionalCompute(String originator, TaskId taskid, String channel, String key,
             String predicate, String thenRemappingFunction)
             throws InvalidChannelException, CompilationException, IOException {
-        PredicateActionResult answer;
-        try {
-            Channel chosenChannel = getChannel(channel);
-            Serializable value = chosenChannel.get(key);
-
-            if (evaluateClosure(predicate, BiPredicate.class).test(key, value)) {
-                answer = new PredicateActionResult(true,
-                                                   chosenChannel.compute(key,
-                                                                         (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(thenRemappingFunction,
-                                                                                                                                                                    BiFunction.class)));
-            } else {
-                answer = new PredicateActionResult(false, value);
+        synchronized (writeLock(channel)) {
+            PredicateActionResult answer;
+            try {
+                Channel chosenChannel = getChannel(channel);
+                // the channel is locked so that concurrent readers see the result of the whole operation
+                synchronized (chosenChannel) {
+                    Serializable value = chosenChannel.get(key);
+
+                    if (evaluateClosure(predicate, BiPredicate.class).test(key, value)) {
+                        answer = new PredicateActionResult(true,
+                                                           chosenChannel.compute(key,
+                                                                                 (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(thenRemappingFunction,
+                                                                                                                                                                            BiFunction.class)));
+                    } else {
+                        answer = new PredicateActionResult(false, value);
+                    }
+                }
+                logWithContextAndPersist(taskid,
+                                         channel,
+                                         "Run conditionalCompute" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
+                                         Level.DEBUG);
+
+            } catch (InvalidChannelException | CompilationException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE +
+                                                     StackTraceUtil.getStackTrace(e));
             }
-            logWithContextAndPersist(taskid,
-                                     channel,
-                                     "Run conditionalCompute" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
-                                     Level.DEBUG);
-
-        } catch (InvalidChannelException | CompilationException | IOException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE + StackTraceUtil.getStackTrace(e));
+            return answer;
         }
-        return answer;
     }
 
     @Override
+    @ImmediateService
     @SuppressWarnings("unchecked")
     public PredicateActionResult conditionalCompute(String originator, TaskId taskid, String channel, String key,
             String predicate, String thenRemappingFunction, String elseRemappingFunction)
             throws InvalidChannelException, CompilationException, IOException {
-        PredicateActionResult answer;
-        try {
-            Channel chosenChannel = getChannel(channel);
-            Serializable value = chosenChannel.get(key);
-            if (evaluateClosure(predicate, BiPredicate.class).test(key, value)) {
-                answer = new PredicateActionResult(true,
-                                                   chosenChannel.compute(key,
-                                                                         (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(thenRemappingFunction,
-                                                                                                                                                                    BiFunction.class)));
-            } else {
-                answer = new PredicateActionResult(false,
-                                                   chosenChannel.compute(key,
-                                                                         (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(elseRemappingFunction,
-                                                                                                                                                                    BiFunction.class)));
+        synchronized (writeLock(channel)) {
+            PredicateActionResult answer;
+            try {
+                Channel chosenChannel = getChannel(channel);
+                // the channel is locked so that concurrent readers see the result of the whole operation
+                synchronized (chosenChannel) {
+                    Serializable value = chosenChannel.get(key);
+                    if (evaluateClosure(predicate, BiPredicate.class).test(key, value)) {
+                        answer = new PredicateActionResult(true,
+                                                           chosenChannel.compute(key,
+                                                                                 (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(thenRemappingFunction,
+                                                                                                                                                                            BiFunction.class)));
+                    } else {
+                        answer = new PredicateActionResult(false,
+                                                           chosenChannel.compute(key,
+                                                                                 (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(elseRemappingFunction,
+                                                                                                                                                                            BiFunction.class)));
+                    }
+                }
+                logWithContextAndPersist(taskid,
+                                         channel,
+                                         "Run conditionalCompute" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
+                                         Level.DEBUG);
+            } catch (InvalidChannelException | CompilationException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE +
+                                                     StackTraceUtil.getStackTrace(e));
             }
-            logWithContextAndPersist(taskid,
-                                     channel,
-                                     "Run conditionalCompute" + ON_KEY + QUOTE + key + QUOTE + RESULT_IS + answer,
-                                     Level.DEBUG);
-        } catch (InvalidChannelException | CompilationException | IOException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE + StackTraceUtil.getStackTrace(e));
+            return answer;
         }
-        return answer;
     }
 
     @Override
+    @ImmediateService
     @SuppressWarnings("unchecked")
     public void conditionalReplaceAll(String originator, TaskId taskid, String channel, String predicate,
             String thenRemappingFunction) throws InvalidChannelException, CompilationException, IOException {
-        String currentKey;
-        try {
-            Channel chosenChannel = getChannel(channel);
-            for (Map.Entry<String, Serializable> entry : chosenChannel.entrySet()) {
-                currentKey = entry.getKey();
-                if (evaluateClosure(predicate, BiPredicate.class).test(currentKey, entry.getValue())) {
-
-                    chosenChannel.compute(currentKey, evaluateClosure(thenRemappingFunction, BiFunction.class));
+        synchronized (writeLock(channel)) {
+            String currentKey;
+            try {
+                Channel chosenChannel = getChannel(channel);
+                // the channel is locked so that concurrent readers see the result of the whole operation
+                synchronized (chosenChannel) {
+                    for (Map.Entry<String, Serializable> entry : chosenChannel.entrySet()) {
+                        currentKey = entry.getKey();
+                        if (evaluateClosure(predicate, BiPredicate.class).test(currentKey, entry.getValue())) {
+
+                            chosenChannel.compute(currentKey, evaluateClosure(thenRemappingFunction, BiFunction.class));
+                        }
+                    }
                 }
+                logWithContextAndPersist(taskid,
+                                         channel,
+                                         "Run conditionalReplaceAll, new content is: " + chosenChannel,
+                                         Level.DEBUG);
+
+            } catch (InvalidChannelException | CompilationException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE +
+                                                     StackTraceUtil.getStackTrace(e));
             }
-            logWithContextAndPersist(taskid,
-                                     channel,
-                                     "Run conditionalReplaceAll, new content is: " + chosenChannel,
-                                     Level.DEBUG);
-
-        } catch (InvalidChannelException | CompilationException | IOException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE + StackTraceUtil.getStackTrace(e));
         }
     }
 
     @Override
+    @ImmediateService
     @SuppressWarnings("unchecked")
     public void conditionalReplaceAll(String originator, TaskId taskid, String channel, String predicate,
             String thenRemappingFunction, String elseRemappingFunction)
             throws InvalidChannelException, CompilationException, IOException {
-        String currentKey;
-        try {
-            Channel chosenChannel = getChannel(channel);
-            for (Map.Entry<String, Serializable> entry : chosenChannel.entrySet()) {
-                currentKey = entry.getKey();
-                if (evaluateClosure(predicate, BiPredicate.class).test(currentKey, entry.getValue())) {
-
-                    chosenChannel.compute(currentKey,
-                                          (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(thenRemappingFunction,
-                                                                                                                                     BiFunction.class));
-                } else {
-                    chosenChannel.compute(currentKey,
-                                          (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(elseRemappingFunction,
-                                                                                                                                     BiFunction.class));
-
+        synchronized (writeLock(channel)) {
+            String currentKey;
+            try {
+                Channel chosenChannel = getChannel(channel);
+                // the channel is locked so that concurrent readers see the result of the whole operation
+                synchronized (chosenChannel) {
+                    for (Map.Entry<String, Serializable> entry : chosenChannel.entrySet()) {
+                        currentKey = entry.getKey();
+                        if (evaluateClosure(predicate, BiPredicate.class).test(currentKey, entry.getValue())) {
+
+                            chosenChannel.compute(currentKey,
+                                                  (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(thenRemappingFunction,
+                                                                                                                                             BiFunction.class));
+                        } else {
+                            chosenChannel.compute(currentKey,
+                                                  (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(elseRemappingFunction,
+                                                                                                                                             BiFunction.class));
+
+                        }
+                    }
                 }
+                logWithContextAndPersist(taskid,
+                                         channel,
+                                         "Run conditionalReplaceAll, new content is: " + chosenChannel,
+                                         Level.DEBUG);
+
+            } catch (InvalidChannelException | CompilationException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE +
+                                                     StackTraceUtil.getStackTrace(e));
             }
-
-            logWithContextAndPersist(taskid,
-                                     channel,
-                                     "Run conditionalReplaceAll, new content is: " + chosenChannel,
-                                     Level.DEBUG);
-
-        } catch (InvalidChannelException | CompilationException | IOException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClosureEvaluationException(EXCEPTION_WHEN_EVALUATING_CLOSURE + StackTraceUtil.getStackTrace(e));
         }
     }
 
@@ -732,14 +875,17 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         PredicateActionResult answer;
         try {
             Channel chosenChannel = getChannel(channel);
-            Serializable value = chosenChannel.get(key);
-            if (evaluateClosure(predicate, BiPredicate.class).test(key, value)) {
-                answer = new PredicateActionResult(true,
-                                                   chosenChannel.compute(key,
-                                                                         (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(thenRemappingFunction,
-                                                                                                                                                                    BiFunction.class)));
-            } else {
-                throw new IllegalStateException("Predicate " + predicate + " is not met");
+            // served under the write lock of the channel, the channel is locked for concurrent readers
+            synchronized (chosenChannel) {
+                Serializable value = chosenChannel.get(key);
+                if (evaluateClosure(predicate, BiPredicate.class).test(key, value)) {
+                    answer = new PredicateActionResult(true,
+                                                       chosenChannel.compute(key,
+                                                                             (BiFunction<? super String, ? super Serializable, ? extends Serializable>) evaluateClosure(thenRemappingFunction,
+                                                                                                                                                                        BiFunction.class)));
+                } else {
+                    throw new IllegalStateException("Predicate " + predicate + " is not met");
+                }
             }
 
             logWithContextAndPersist(taskid,
@@ -770,6 +916,10 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         } catch (IOException e) {
             logWithContext(taskId, channel, "Error when persisting channel content", e, Level.ERROR);
             throw e;
+        } finally {
+            if (channel != null) {
+                wakeUpWaitRequests();
+            }
         }
     }
 
@@ -825,17 +975,21 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
                 NewRequestWithWaitTime requestWithWaitTime = waitForNewRequest(service);
                 Request request = requestWithWaitTime.getNewRequest();
 
-                if (request != null && request.getMethodName().startsWith("wait") &&
-                    !testWaitFunction(service, request)) {
-                    // If the predicate is not met, delay the wait method execution
-                    TimedOutRequest timedOutRequest = new TimedOutRequest(request,
-                                                                          extractWaitRequestTimeoutParameter(request));
-                    logger.trace("New pending wait request : " + timedOutRequest);
-                    waitUntilQueue.add(new TimedOutRequest(request, extractWaitRequestTimeoutParameter(request)));
+                if (request != null && request.getMethodName().startsWith("wait")) {
+                    // set before testing the predicate, so that a concurrent write wakes up this thread
+                    waitRequestsPending = true;
+                    if (!serveIfPredicateMet(service, request)) {
+                        // If the predicate is not met, delay the wait method execution
+                        long timeout = extractWaitRequestTimeoutParameter(request);
+                        TimedOutRequest timedOutRequest = new TimedOutRequest(request, timeout);
+                        logger.trace("New pending wait request : " + timedOutRequest);
+                        waitUntilQueue.add(timedOutRequest);
+                    }
                 } else if (request != null) {
                     service.serve(request);
                 }
                 unblockWaitMethods(service, requestWithWaitTime.getWaitTime());
+                waitRequestsPending = !waitUntilQueue.isEmpty();
 
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -900,9 +1054,8 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
             TimedOutRequest waitRequest = iterator.next();
             waitRequest.substractTime(timeSpentWaiting);
             logger.trace("Updated timeouted request: " + waitRequest);
-            if (testWaitFunction(service, waitRequest.getRequest())) {
-                // predicate is met, serve the request
-                service.serve(waitRequest.getRequest());
+            if (serveIfPredicateMet(service, waitRequest.getRequest())) {
+                // predicate is met, the request is served
                 iterator.remove();
             } else if (waitRequest.getRemainingTimeout() <= 0) {
                 // predicate is not met and timeout expired, serve the request with a timeout exception
@@ -915,6 +1068,24 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         }
     }
 
+    /**
+     * Serves a wait request if its predicate is met. The write lock of the channel is held from the test of the
+     * predicate to the end of the request, so that a concurrent write cannot invalidate the predicate in between.
+     *
+     * @param service active object service
+     * @param request wait request to process
+     * @return true if the request was served
+     */
+    private boolean serveIfPredicateMet(Service service, Request request) {
+        synchronized (writeLock((String) request.getParameter(2))) {
+            if (testWaitFunction(service, request)) {
+                service.serve(request);
+                return true;
+            }
+            return false;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T evaluateClosure(String closureDefinition, Class<T> type) throws CompilationException {
         try {
@@ -968,6 +1139,7 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
     @Override
     public void initActivity(Body body) {
         logger.info("Starting Synchronization service");
+        stubOnThis = (AOSynchronization) PAActiveObject.getStubOnThis();
         init(true);
         logger.info("Synchronization service is started");
     }
@@ -977,8 +1149,121 @@ public class AOSynchronization implements RunActive, InitActive, EndActive, Sync
         close();
     }
 
+    /**
+     * A channel, every method is synchronized so that a channel can be accessed concurrently
+     */
     public static class Channel extends HashMap<String, Serializable> {
         private static final long serialVersionUID = 1L;
+
+        @Override
+        public synchronized int size() {
+            return super.size();
+        }
+
+        @Override
+        public synchronized boolean isEmpty() {
+            return super.isEmpty();
+        }
+
+        @Override
+        public synchronized Serializable get(Object key) {
+            return super.get(key);
+        }
+
+        @Override
+        public synchronized boolean containsKey(Object key) {
+            return super.containsKey(key);
+        }
+
+        @Override
+        public synchronized Serializable put(String key, Serializable value) {
+            return super.put(key, value);
+        }
+
+        @Override
+        public synchronized void putAll(Map<? extends String, ? extends Serializable> m) {
+            super.putAll(m);
+        }
+
+        @Override
+        public synchronized Serializable remove(Object key) {
+            return super.remove(key);
+        }
+
+        @Override
+        public synchronized void clear() {
+            super.clear();
+        }
+
+        @Override
+        public synchronized boolean containsValue(Object value) {
+            return super.containsValue(value);
+        }
+
+        @Override
+        public synchronized Serializable getOrDefault(Object key, Serializable defaultValue) {
+            return super.getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public synchronized Serializable putIfAbsent(String key, Serializable value) {
+            return super.putIfAbsent(key, value);
+        }
+
+        @Override
+        public synchronized boolean remove(Object key, Object value) {
+            return super.remove(key, value);
+        }
+
+        @Override
+        public synchronized boolean replace(String key, Serializable oldValue, Serializable newValue) {
+            return super.replace(key, oldValue, newValue);
+        }
+
+        @Override
+        public synchronized Serializable replace(String key, Serializable value) {
+            return super.replace(key, value);
+        }
+
+        @Override
+        public synchronized Serializable computeIfAbsent(String key,
+                Function<? super String, ? extends Serializable> mappingFunction) {
+            return super.computeIfAbsent(key, mappingFunction);
+        }
+
+        @Override
+        public synchronized Serializable computeIfPresent(String key,
+                BiFunction<? super String, ? super Serializable, ? extends Serializable> remappingFunction) {
+            return super.computeIfPresent(key, remappingFunction);
+        }
+
+        @Override
+        public synchronized Serializable compute(String key,
+                BiFunction<? super String, ? super Serializable, ? extends Serializable> remappingFunction) {
+            return super.compute(key, remappingFunction);
+        }
+
+        @Override
+        public synchronized Serializable merge(String key, Serializable value,
+                BiFunction<? super Serializable, ? super Serializable, ? extends Serializable> remappingFunction) {
+            return super.merge(key, value, remappingFunction);
+        }
+
+        @Override
+        public synchronized void forEach(BiConsumer<? super String, ? super Serializable> action) {
+            super.forEach(action);
+        }
+
+        @Override
+        public synchronized void replaceAll(
+                BiFunction<? super String, ? super Serializable, ? extends Serializable> function) {
+            super.replaceAll(function);
+        }
+
+        @Override
+        public synchronized String toString() {
+            return super.toString();
+        }
     }
 
     private static final class NewRequestWithWaitTime {
@@ -0,0 +1,434 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.synchronization;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.apache.log4j.Logger;
+import org.objectweb.proactive.utils.NamedThreadFactory;
+import org.ow2.proactive.scheduler.synchronization.AOSynchronization.Channel;
+
+import jdbm.PrimaryHashMap;
+import jdbm.RecordManager;
+import jdbm.RecordManagerFactory;
+
+
+/**
+ * Storage of the channels of the {@link AOSynchronization} service.
+ *
+ * Channels are kept in concurrent maps, so that independent channels can be accessed concurrently.
+ *
+ * Persistent channels are written to disk by a committer thread: all the channels modified during a commit period
+ * are appended together to a journal, which is synced once per commit (group commit). The journal is compacted
+ * into a snapshot when it grows too much. A commit period of 0 commits every modification before returning.
+ *
+ * At startup the snapshot is loaded and the journal is replayed. Each record is checksummed, so that a record
+ * partially written during a crash is ignored.
+ *
+ * @author ActiveEon Team
+ */
+public class ChannelStore {
+
+    private static final Logger logger = Logger.getLogger(ChannelStore.class);
+
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    static final String JOURNAL_SUFFIX = ".journal";
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    /** Schema used inside the legacy JDBM database */
+    private static final String LEGACY_RECORD_NAME = "STORE";
+
+    /** The journal is never compacted below this size */
+    private static final long MIN_COMPACTION_SIZE = 16L * 1024 * 1024;
+
+    private final File directory;
+
+    private final String name;
+
+    private final File snapshotFile;
+
+    private final File journalFile;
+
+    private final long commitPeriod;
+
+    private final Map<String, Channel> inMemoryChannels = new ConcurrentHashMap<>();
+
+    private final Map<String, Channel> persistedChannels = new ConcurrentHashMap<>();
+
+    /** Persistent channels modified or deleted since the last commit */
+    private final Set<String> dirtyChannels = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService committer;
+
+    private FileOutputStream journal;
+
+    private long journalSize;
+
+    private long snapshotSize;
+
+    /**
+     * @param directory directory containing the store files
+     * @param name prefix of the store files
+     * @param commitPeriod maximum delay (in milliseconds) before a modification of a persistent channel is written
+     *                     to disk, 0 to write every modification before returning
+     */
+    public ChannelStore(File directory, String name, long commitPeriod) {
+        this.directory = directory;
+        this.name = name;
+        this.snapshotFile = new File(directory, name + SNAPSHOT_SUFFIX);
+        this.journalFile = new File(directory, name + JOURNAL_SUFFIX);
+        this.commitPeriod = commitPeriod;
+    }
+
+    /**
+     * Loads the persisted channels and starts committing the modified ones.
+     *
+     * @throws IOException if the persisted channels cannot be loaded
+     */
+    public synchronized void open() throws IOException {
+        inMemoryChannels.clear();
+        persistedChannels.clear();
+        dirtyChannels.clear();
+
+        if (snapshotFile.exists() || journalFile.exists()) {
+            if (snapshotFile.exists()) {
+                readRecords(snapshotFile);
+            }
+            if (journalFile.exists()) {
+                readRecords(journalFile);
+            }
+        } else {
+            loadLegacyDatabase();
+        }
+        // the journal is always compacted at startup, dropping any partially written record
+        writeSnapshot();
+        journal = new FileOutputStream(journalFile, true);
+
+        if (commitPeriod > 0) {
+            committer = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("SynchronizationStoreCommitter"));
+            committer.scheduleWithFixedDelay(this::commitQuietly, commitPeriod, commitPeriod, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Loaded " + persistedChannels.size() + " persistent channels from " + directory);
+    }
+
+    /**
+     * @return the channel of the given name or null if it does not exist
+     */
+    public Channel getChannel(String channelName) {
+        Channel channel = inMemoryChannels.get(channelName);
+        if (channel == null) {
+            channel = persistedChannels.get(channelName);
+        }
+        return channel;
+    }
+
+    public boolean containsChannel(String channelName) {
+        return inMemoryChannels.containsKey(channelName) || persistedChannels.containsKey(channelName);
+    }
+
+    public boolean isPersistent(String channelName) {
+        return persistedChannels.containsKey(channelName);
+    }
+
+    public Map<String, Channel> getPersistedChannels() {
+        return persistedChannels;
+    }
+
+    /**
+     * Adds a new channel, a channel with the same name must have been deleted before.
+     */
+    public void createChannel(String channelName, Channel channel, boolean isPersistent) throws IOException {
+        if (isPersistent) {
+            persistedChannels.put(channelName, channel);
+            markDirty(channelName);
+        } else {
+            inMemoryChannels.put(channelName, channel);
+        }
+    }
+
+    /**
+     * @return true if the channel existed
+     */
+    public boolean deleteChannel(String channelName) throws IOException {
+        if (persistedChannels.remove(channelName) != null) {
+            markDirty(channelName);
+            return true;
+        }
+        return inMemoryChannels.remove(channelName) != null;
+    }
+
+    /**
+     * Notifies the store that the content of a channel has been modified, so that it is persisted if needed
+     */
+    public void channelModified(String channelName) throws IOException {
+        if (persistedChannels.containsKey(channelName)) {
+            markDirty(channelName);
+        }
+    }
+
+    private void markDirty(String channelName) throws IOException {
+        dirtyChannels.add(channelName);
+        if (commitPeriod <= 0) {
+            commit();
+        }
+    }
+
+    /**
+     * Writes the modified persistent channels to the journal, with a single sync to disk
+     */
+    public synchronized void commit() throws IOException {
+        if (journal == null || dirtyChannels.isEmpty()) {
+            return;
+        }
+        List<String> committedChannels = new ArrayList<>(dirtyChannels.size());
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        DataOutputStream batchOutput = new DataOutputStream(batch);
+        for (String channelName : dirtyChannels) {
+            // removed before reading the channel, so that a concurrent modification is committed next time
+            dirtyChannels.remove(channelName);
+            committedChannels.add(channelName);
+            writeRecord(batchOutput, channelName, serialize(persistedChannels.get(channelName)));
+        }
+        batchOutput.flush();
+        try {
+            batch.writeTo(journal);
+            journal.flush();
+            journal.getFD().sync();
+        } catch (IOException e) {
+            // committed again with the next batch
+            dirtyChannels.addAll(committedChannels);
+            throw e;
+        }
+        journalSize += batch.size();
+        if (logger.isTraceEnabled()) {
+            logger.trace("Committed channels " + committedChannels);
+        }
+        if (journalSize > Math.max(MIN_COMPACTION_SIZE, 2 * snapshotSize)) {
+            journal.close();
+            try {
+                writeSnapshot();
+            } finally {
+                journal = new FileOutputStream(journalFile, true);
+            }
+        }
+    }
+
+    private void commitQuietly() {
+        try {
+            commit();
+        } catch (Throwable e) {
+            logger.error("Error when persisting channels, the commit will be retried", e);
+        }
+    }
+
+    /**
+     * Commits pending modifications and closes the store
+     */
+    public synchronized void close() {
+        if (committer != null) {
+            committer.shutdownNow();
+            committer = null;
+        }
+        if (journal != null) {
+            try {
+                commit();
+            } catch (IOException e) {
+                logger.error("Error when persisting channels before closing the store", e);
+            }
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.warn("Error when closing the channels journal", e);
+            }
+            journal = null;
+        }
+        inMemoryChannels.clear();
+    }
+
+    /**
+     * Writes all persistent channels to a new snapshot and empties the journal
+     */
+    private void writeSnapshot() throws IOException {
+        File tmpFile = new File(directory, name + SNAPSHOT_SUFFIX + TMP_SUFFIX);
+        try (FileOutputStream fileOutput = new FileOutputStream(tmpFile);
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileOutput))) {
+            for (Map.Entry<String, Channel> entry : persistedChannels.entrySet()) {
+                writeRecord(output, entry.getKey(), serialize(entry.getValue()));
+            }
+            output.flush();
+            fileOutput.getFD().sync();
+        }
+        Files.move(tmpFile.toPath(),
+                   snapshotFile.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+        snapshotSize = snapshotFile.length();
+        // a crash here replays the journal on the snapshot, which is idempotent
+        new FileOutputStream(journalFile).close();
+        journalSize = 0;
+    }
+
+    private static void writeRecord(DataOutputStream output, String channelName, byte[] content) throws IOException {
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        DataOutputStream recordOutput = new DataOutputStream(record);
+        recordOutput.writeUTF(channelName);
+        if (content == null) {
+            // deleted channel
+            recordOutput.writeInt(-1);
+        } else {
+            recordOutput.writeInt(content.length);
+            recordOutput.write(content);
+        }
+        recordOutput.flush();
+        CRC32 crc = new CRC32();
+        crc.update(record.toByteArray());
+        output.writeInt(record.size());
+        output.writeLong(crc.getValue());
+        record.writeTo(output);
+    }
+
+    private void readRecords(File file) throws IOException {
+        long validLength = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int recordLength;
+                try {
+                    recordLength = input.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (recordLength < 0 || recordLength > file.length() - validLength - 12) {
+                    throw new EOFException("Invalid record length " + recordLength);
+                }
+                long checksum = input.readLong();
+                byte[] record = new byte[recordLength];
+                input.readFully(record);
+                CRC32 crc = new CRC32();
+                crc.update(record);
+                if (crc.getValue() != checksum) {
+                    throw new IOException("Invalid checksum");
+                }
+                applyRecord(record);
+                validLength += 12 + recordLength;
+            }
+        } catch (IOException e) {
+            if (file.equals(journalFile)) {
+                logger.warn("Ignoring the end of the channels journal after " + validLength + " bytes (" +
+                            (file.length() - validLength) + " bytes), it was not completely written");
+            } else {
+                throw new IOException("Corrupted channels snapshot " + file, e);
+            }
+        }
+    }
+
+    private void applyRecord(byte[] record) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(record));
+        String channelName = input.readUTF();
+        int contentLength = input.readInt();
+        if (contentLength < 0) {
+            persistedChannels.remove(channelName);
+        } else {
+            byte[] content = new byte[contentLength];
+            input.readFully(content);
+            persistedChannels.put(channelName, deserialize(content));
+        }
+    }
+
+    private static byte[] serialize(Channel channel) throws IOException {
+        if (channel == null) {
+            return null;
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(content)) {
+            // channels are modified by other threads under their lock
+            synchronized (channel) {
+                output.writeObject(channel);
+            }
+        }
+        return content.toByteArray();
+    }
+
+    private static Channel deserialize(byte[] content) throws IOException {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(content))) {
+            return (Channel) input.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Imports the channels of the JDBM database used by previous versions, then deletes it
+     */
+    private void loadLegacyDatabase() throws IOException {
+        File[] legacyFiles = directory.listFiles((dir, fileName) -> fileName.startsWith(name) &&
+                                                                    !fileName.endsWith(SNAPSHOT_SUFFIX) &&
+                                                                    !fileName.endsWith(JOURNAL_SUFFIX) &&
+                                                                    !fileName.endsWith(TMP_SUFFIX));
+        if (legacyFiles == null || legacyFiles.length == 0) {
+            return;
+        }
+        logger.info("Importing channels from JDBM database " + new File(directory, name));
+        RecordManager recordManager = RecordManagerFactory.createRecordManager(new File(directory,
+                                                                                        name).getCanonicalPath());
+        try {
+            PrimaryHashMap<String, Channel> legacyChannels = recordManager.hashMap(LEGACY_RECORD_NAME);
+            persistedChannels.putAll(legacyChannels);
+        } finally {
+            recordManager.close();
+        }
+        writeSnapshot();
+        for (File file : legacyFiles) {
+            if (!file.delete()) {
+                logger.warn("Could not delete JDBM database file " + file);
+            }
+        }
+    }
+}
@@ -327,7 +327,7 @@ public class SchedulerStateRecoverHelperTest {
 
         SchedulerDBManager dbManager = Mockito.mock(SchedulerDBManager.class);
         SchedulerStateRecoverHelper stateRecoverHelper = new SchedulerStateRecoverHelper(dbManager);
-        Mockito.when(dbManager.loadNotFinishedJobs(true)).thenReturn(ImmutableList.of(job));
+        mockJobsLoading(dbManager, ImmutableList.of(job), ImmutableList.<InternalJob> of(), -1);
 
         stateRecoverHelper.recover(-1);
     }
@@ -407,8 +407,7 @@ public class SchedulerStateRecoverHelperTest {
 
             SchedulerDBManager dbManager = Mockito.mock(SchedulerDBManager.class);
             SchedulerStateRecoverHelper stateRecoverHelper = supplier.get(dbManager);
-            Mockito.when(dbManager.loadNotFinishedJobs(true)).thenReturn(notFinishedJobs);
-            Mockito.when(dbManager.loadFinishedJobs(false, loadJobPeriod)).thenReturn(finishedJobs);
+            mockJobsLoading(dbManager, notFinishedJobs, finishedJobs, loadJobPeriod);
 
             RecoveredSchedulerState recoveredState = stateRecoverHelper.recover(loadJobPeriod);
 
@@ -442,6 +441,36 @@ public class SchedulerStateRecoverHelperTest {
 
     }
 
+    /**
+     * Jobs are identified by their index in the list of all the loaded jobs,
+     * not finished jobs first.
+     */
+    private static void mockJobsLoading(SchedulerDBManager dbManager, List<InternalJob> notFinishedJobs,
+            List<InternalJob> finishedJobs, long loadJobPeriod) {
+        List<InternalJob> jobs = new ArrayList<>(notFinishedJobs);
+        jobs.addAll(finishedJobs);
+
+        Mockito.when(dbManager.loadNotFinishedJobIds()).thenReturn(jobIndexes(0, notFinishedJobs.size()));
+        Mockito.when(dbManager.loadFinishedJobIds(loadJobPeriod))
+               .thenReturn(jobIndexes(notFinishedJobs.size(), jobs.size()));
+        Mockito.when(dbManager.loadJobsPage(Mockito.anyBoolean(), Mockito.anyListOf(Long.class)))
+               .thenAnswer(invocation -> {
+                   List<InternalJob> page = new ArrayList<>();
+                   for (Long index : (List<Long>) invocation.getArguments()[1]) {
+                       page.add(jobs.get(index.intValue()));
+                   }
+                   return page;
+               });
+    }
+
+    private static List<Long> jobIndexes(int from, int to) {
+        List<Long> indexes = new ArrayList<>(to - from);
+        for (long index = from; index < to; index++) {
+            indexes.add(index);
+        }
+        return indexes;
+    }
+
     private interface SchedulerStateRecoverHelperSupplier {
 
         SchedulerStateRecoverHelper get(SchedulerDBManager dbManager);
@@ -26,6 +26,7 @@
 package functionaltests.db.schedulerdb;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
@@ -46,6 +47,7 @@ import org.ow2.proactive.scheduler.common.task.dataspaces.InputAccessMode;
 import org.ow2.proactive.scheduler.common.task.dataspaces.OutputAccessMode;
 import org.ow2.proactive.scheduler.common.task.flow.FlowScript;
 import org.ow2.proactive.scheduler.core.db.JobContent;
+import org.ow2.proactive.scheduler.core.db.SharedJobContent;
 import org.ow2.proactive.scheduler.core.db.JobData;
 import org.ow2.proactive.scheduler.core.db.TaskData;
 import org.ow2.proactive.scheduler.core.db.TaskResultData;
@@ -76,6 +78,7 @@ public class TestJobRemove extends BaseSchedulerDBTest {
 
         checkAllEntitiesDeleted(JobData.class.getName(),
                                 JobContent.class.getName(),
+                                SharedJobContent.class.getName(),
                                 TaskData.class.getName(),
                                 TaskResultData.class.getName());
 
@@ -136,6 +139,7 @@ public class TestJobRemove extends BaseSchedulerDBTest {
 
             checkAllEntitiesDeleted(JobData.class.getName(),
                                     JobContent.class.getName(),
+                                    SharedJobContent.class.getName(),
                                     TaskData.class.getName(),
                                     TaskResultData.class.getName());
 
@@ -177,6 +181,70 @@ public class TestJobRemove extends BaseSchedulerDBTest {
         checkAllEntitiesDeleted();
     }
 
+    @Test
+    public void testHousekeepingInBackground() throws Exception {
+        List<Long> jobIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TaskFlowJob jobDef = new TaskFlowJob();
+            jobDef.addTask(createDefaultTask("task"));
+            InternalJob job = defaultSubmitJob(jobDef);
+            dbManager.removeJob(job.getId(), System.currentTimeMillis(), false);
+            jobIds.add(job.getId().longValue());
+        }
+        Assert.assertEquals(jobIds, dbManager.getRemovedJobsToDelete(0, 10));
+        Assert.assertEquals(jobIds.subList(1, 2), dbManager.getRemovedJobsToDelete(jobIds.get(0), 1));
+
+        dbManager.executeHousekeepingInDB(jobIds, true).get(30, TimeUnit.SECONDS);
+
+        Assert.assertTrue(dbManager.getRemovedJobsToDelete(0, 10).isEmpty());
+        Assert.assertEquals(3, dbManager.getHousekeepingExecutor().getHousekeptJobsCount());
+        Assert.assertEquals(0, dbManager.getHousekeepingExecutor().getQueuedJobsCount());
+        Assert.assertEquals(0, dbManager.getHousekeepingExecutor().getFailedChunksCount());
+
+        Session session = dbManager.getSessionFactory().openSession();
+        try {
+            Assert.assertEquals(0, session.createCriteria(JobData.class).list().size());
+            Assert.assertEquals(0, session.createCriteria(TaskData.class).list().size());
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    public void testSharedJobContentRemovedWithLastJob() throws Exception {
+        String content = "<job name=\"shared\"><taskFlow/></job>";
+        List<InternalJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            TaskFlowJob jobDef = new TaskFlowJob();
+            jobDef.addTask(createDefaultTask("task"));
+            jobDef.setJobContent(content);
+            jobs.add(defaultSubmitJob(jobDef));
+        }
+        Assert.assertEquals(1, dbManager.getJobContentStore().getDeduplicatedContentsCount());
+        Assert.assertEquals(content, dbManager.loadInitalJobContent(jobs.get(1).getId()));
+
+        dbManager.removeJob(jobs.get(0).getId(), 0, true);
+        Assert.assertEquals(content, dbManager.loadInitalJobContent(jobs.get(1).getId()));
+
+        dbManager.removeJob(jobs.get(1).getId(), 0, true);
+        // kept during the grace period, a concurrent submission may be reusing it
+        checkAllEntitiesDeleted(SharedJobContent.class.getName());
+
+        Session session = dbManager.getSessionFactory().openSession();
+        try {
+            session.beginTransaction();
+            session.createQuery("update SharedJobContent set lastUsedTime = 0").executeUpdate();
+            session.getTransaction().commit();
+        } finally {
+            session.close();
+        }
+        InternalJob housekeptJob = defaultSubmitJob(new TaskFlowJob());
+        dbManager.removeJob(housekeptJob.getId(), System.currentTimeMillis(), false);
+        dbManager.executeHousekeepingInDB(Collections.singletonList(housekeptJob.getId().longValue()), true)
+                 .get(30, TimeUnit.SECONDS);
+        checkAllEntitiesDeleted();
+    }
+
     @Test
     public void testFullDataRemove2() throws Exception {
         removeScenario(1);
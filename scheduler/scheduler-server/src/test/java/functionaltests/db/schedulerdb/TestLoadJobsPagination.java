@@ -34,6 +34,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.ow2.proactive.db.SortOrder;
 import org.ow2.proactive.db.SortParameter;
+import org.ow2.proactive.scheduler.common.Page;
 import org.ow2.proactive.scheduler.common.JobSortParameter;
 import org.ow2.proactive.scheduler.common.job.JobInfo;
 import org.ow2.proactive.scheduler.common.job.JobPriority;
@@ -41,6 +42,7 @@ import org.ow2.proactive.scheduler.common.job.JobStatus;
 import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
 import org.ow2.proactive.scheduler.common.task.JavaTask;
 import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskInfo;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.task.TaskResultImpl;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
@@ -317,6 +319,42 @@ public class TestLoadJobsPagination extends BaseSchedulerDBTest {
         checkJobs(jobs);
     }
 
+    @Test
+    public void testCursorPagination() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            defaultSubmitJob(createJob(), i % 2 == 0 ? "user1" : "user2");
+        }
+
+        Page<JobInfo> page = dbManager.getJobsByCursor(null, 2, null, true, true, true);
+        checkJobs(page.getList(), 5, 4);
+        Assert.assertEquals("4", page.getNextCursor());
+
+        page = dbManager.getJobsByCursor(page.getNextCursor(), 2, null, true, true, true);
+        checkJobs(page.getList(), 3, 2);
+        Assert.assertEquals("2", page.getNextCursor());
+
+        page = dbManager.getJobsByCursor(page.getNextCursor(), 2, null, true, true, true);
+        checkJobs(page.getList(), 1);
+        Assert.assertNull(page.getNextCursor());
+
+        page = dbManager.getJobsByCursor(null, 2, "user1", true, true, true);
+        checkJobs(page.getList(), 5, 3);
+        page = dbManager.getJobsByCursor(page.getNextCursor(), 2, "user1", true, true, true);
+        checkJobs(page.getList(), 1);
+        Assert.assertNull(page.getNextCursor());
+
+        checkJobs(dbManager.getJobsByCursor(null, 10, null, false, true, true).getList());
+
+        Page<TaskInfo> tasks = dbManager.getTasksByCursor(0, 0, null, null, 3, null, true, true, true);
+        Assert.assertEquals(3, tasks.getList().size());
+        Assert.assertEquals(tasks.getList().get(2).getTaskId().toString(), tasks.getNextCursor());
+
+        tasks = dbManager.getTasksByCursor(0, 0, null, tasks.getNextCursor(), 3, null, true, true, true);
+        Assert.assertEquals(2, tasks.getList().size());
+        Assert.assertEquals("4", tasks.getList().get(0).getJobId().value());
+        Assert.assertNull(tasks.getNextCursor());
+    }
+
     private List<SortParameter<JobSortParameter>> sortParameters(SortParameter<JobSortParameter>... params) {
         return Arrays.asList(params);
     }
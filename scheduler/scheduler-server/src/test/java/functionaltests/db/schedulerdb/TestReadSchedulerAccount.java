@@ -32,6 +32,7 @@ import org.ow2.proactive.scheduler.common.task.ForkEnvironment;
 import org.ow2.proactive.scheduler.common.task.JavaTask;
 import org.ow2.proactive.scheduler.common.task.NativeTask;
 import org.ow2.proactive.scheduler.core.account.SchedulerAccount;
+import org.ow2.proactive.scheduler.core.db.UsageAggregator;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.task.TaskResultImpl;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
@@ -90,7 +91,31 @@ public class TestReadSchedulerAccount extends BaseSchedulerDBTest {
         checkAccount(user2);
     }
 
-    private void singleJobScenario(AccountData accountData) throws Exception {
+    @Test
+    public void testReadAccountFromUsageAggregates() throws Exception {
+        AccountData user1 = new AccountData(TEST_USER_NAME1);
+        AccountData user2 = new AccountData(TEST_USER_NAME2);
+
+        singleJobScenario(user1);
+        InternalJob removedJob = singleJobScenario(user2);
+        singleJobScenario(user1);
+
+        // aggregate the usage of the current day, as if it were over
+        long notAggregatedTime = dbManager.getUsageAggregator()
+                                          .aggregate(System.currentTimeMillis() + 2 * UsageAggregator.DAY);
+        Assert.assertTrue(notAggregatedTime > System.currentTimeMillis());
+        Assert.assertEquals(1, dbManager.getUsageAggregator().getAggregatedDaysCount());
+
+        checkAccount(invalidUser);
+        checkAccount(user1);
+        checkAccount(user2);
+
+        // the aggregates are kept when the jobs are removed
+        dbManager.removeJob(removedJob.getId(), System.currentTimeMillis(), true);
+        checkAccount(user2);
+    }
+
+    private InternalJob singleJobScenario(AccountData accountData) throws Exception {
         TaskFlowJob jobDef1 = new TaskFlowJob();
         JavaTask javaTask = new JavaTask();
         javaTask.setExecutableClassName(TestDummyExecutable.class.getName());
@@ -153,6 +178,8 @@ public class TestReadSchedulerAccount extends BaseSchedulerDBTest {
 
         checkAccount(invalidUser);
         checkAccount(accountData);
+
+        return job1;
     }
 
     private long finishTask(InternalJob job, String taskName) throws Exception {
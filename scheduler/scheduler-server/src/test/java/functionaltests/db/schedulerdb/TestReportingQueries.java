@@ -31,6 +31,7 @@ import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
 import org.ow2.proactive.scheduler.common.task.ForkEnvironment;
 import org.ow2.proactive.scheduler.common.task.JavaTask;
 import org.ow2.proactive.scheduler.common.task.NativeTask;
+import org.ow2.proactive.scheduler.core.db.SchedulerDBStatisticsCache;
 import org.ow2.proactive.scheduler.job.InternalJob;
 import org.ow2.proactive.scheduler.task.TaskResultImpl;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
@@ -158,6 +159,45 @@ public class TestReportingQueries extends BaseSchedulerDBTest {
         checkMeanSubmittingPeriod(job1, job2, job3);
     }
 
+    @Test
+    public void testStatisticsCache() throws Exception {
+        SchedulerDBStatisticsCache statisticsCache = dbManager.getStatisticsCache();
+
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+
+        checkJobAndTasksNumbers(1, 0, 0, 1, 1, 0, 0, 1);
+        long misses = statisticsCache.getMissCount();
+        long hits = statisticsCache.getHitCount();
+        checkJobAndTasksNumbers(1, 0, 0, 1, 1, 0, 0, 1);
+        Assert.assertEquals(misses, statisticsCache.getMissCount());
+        Assert.assertEquals(hits + 8, statisticsCache.getHitCount());
+
+        job.start();
+        startTask(job, job.getTask("task1"));
+        dbManager.jobTaskStarted(job, job.getTask("task1"), true);
+        checkJobAndTasksNumbers(0, 1, 0, 1, 0, 1, 0, 1);
+        finishTask(job, "task1");
+        checkJobAndTasksNumbers(0, 0, 1, 1, 0, 0, 1, 1);
+
+        String jobId = job.getJobInfo().getJobId().value();
+        checkJobRunningTime(job);
+        hits = statisticsCache.getHitCount();
+        checkJobRunningTime(job);
+        Assert.assertEquals(hits + 1, statisticsCache.getHitCount());
+        Assert.assertEquals(1, statisticsCache.getFinishedJobsCount());
+
+        dbManager.removeJob(job.getId(), System.currentTimeMillis(), true);
+        Assert.assertEquals(0, statisticsCache.getFinishedJobsCount());
+        checkJobAndTasksNumbers(0, 0, 0, 0, 0, 0, 0, 0);
+        try {
+            dbManager.getJobRunningTime(jobId);
+            Assert.fail();
+        } catch (RuntimeException e) {
+        }
+    }
+
     private void checkNumberOfHosts(InternalJob job, int expected) {
         Assert.assertEquals(expected, dbManager.getTotalNumberOfHostsUsed(job.getJobInfo().getJobId().value()));
     }
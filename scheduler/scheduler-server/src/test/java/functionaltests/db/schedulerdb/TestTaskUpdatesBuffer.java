@@ -0,0 +1,144 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package functionaltests.db.schedulerdb;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.core.db.SchedulerDBManagerBuffer;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.task.TaskResultImpl;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+
+
+public class TestTaskUpdatesBuffer extends BaseSchedulerDBTest {
+
+    private static String previousDelay;
+
+    @BeforeClass
+    public static void setLongDelay() {
+        previousDelay = PASchedulerProperties.SCHEDULER_DB_TASK_UPDATES_DELAY.getValueAsStringOrNull();
+        // long enough for the updates to stay buffered during the test
+        PASchedulerProperties.SCHEDULER_DB_TASK_UPDATES_DELAY.updateProperty("600000");
+    }
+
+    @AfterClass
+    public static void restoreDelay() {
+        if (previousDelay == null) {
+            PASchedulerProperties.SCHEDULER_DB_TASK_UPDATES_DELAY.unSet();
+        } else {
+            PASchedulerProperties.SCHEDULER_DB_TASK_UPDATES_DELAY.updateProperty(previousDelay);
+        }
+    }
+
+    @Test
+    public void testStartedTasksAreCoalescedAndFlushedBeforeRead() throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        jobDef.addTask(createDefaultTask("task2"));
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+        SchedulerDBManagerBuffer buffer = dbManager.getBuffer();
+
+        job.start();
+        dbManager.jobTaskStarted(job, startTask(job, job.getTask("task1")), false);
+        dbManager.jobTaskStarted(job, startTask(job, job.getTask("task2")), false);
+
+        // one update of the job counters, coalesced, the tasks are written right away
+        Assert.assertEquals(1, buffer.getPendingUpdatesCount());
+        Assert.assertEquals(1, buffer.getCoalescedUpdatesCount());
+        Assert.assertEquals(TaskStatus.RUNNING, loadTaskStatusWithoutFlush(job.getTask("task1")));
+        Assert.assertEquals(TaskStatus.RUNNING, loadTaskStatusWithoutFlush(job.getTask("task2")));
+
+        job = loadInternalJob(true, job.getId());
+
+        Assert.assertEquals(0, buffer.getPendingUpdatesCount());
+        Assert.assertEquals(1, buffer.getFlushesCount());
+        Assert.assertEquals(2, job.getNumberOfRunningTasks());
+        Assert.assertEquals(TaskStatus.RUNNING, job.getTask("task1").getStatus());
+        Assert.assertEquals(TaskStatus.RUNNING, job.getTask("task2").getStatus());
+    }
+
+    @Test
+    public void testPendingUpdatesAreWrittenWithTaskTermination() throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        InternalJob job = defaultSubmitJobAndLoadInternal(true, jobDef);
+        SchedulerDBManagerBuffer buffer = dbManager.getBuffer();
+
+        job.start();
+        InternalTask task = startTask(job, job.getTask("task1"));
+        dbManager.jobTaskStarted(job, task, false);
+        Assert.assertEquals(1, buffer.getPendingUpdatesCount());
+
+        task.setStatus(TaskStatus.FINISHED);
+        task.setFinishedTime(System.currentTimeMillis());
+        dbManager.updateAfterTaskFinished(job, task, new TaskResultImpl(null, new TestResult(0, "1"), null, 0));
+
+        Assert.assertEquals(0, buffer.getPendingUpdatesCount());
+        Assert.assertEquals(1, buffer.getFlushesCount());
+
+        task = loadInternalJob(true, job.getId()).getTask("task1");
+        Assert.assertEquals(TaskStatus.FINISHED, task.getStatus());
+        Assert.assertTrue(task.getStartTime() > 0);
+        Assert.assertNotNull(task.getExecutionHostName());
+    }
+
+    @Test
+    public void testReadingAJobDoesNotFlushUpdatesOfOtherJobs() throws Exception {
+        TaskFlowJob jobDef = new TaskFlowJob();
+        jobDef.addTask(createDefaultTask("task1"));
+        InternalJob startedJob = defaultSubmitJobAndLoadInternal(true, jobDef);
+        InternalJob otherJob = defaultSubmitJobAndLoadInternal(true, jobDef);
+        SchedulerDBManagerBuffer buffer = dbManager.getBuffer();
+
+        startedJob.start();
+        dbManager.jobTaskStarted(startedJob, startTask(startedJob, startedJob.getTask("task1")), false);
+        Assert.assertEquals(1, buffer.getPendingUpdatesCount());
+
+        loadInternalJob(true, otherJob.getId());
+        Assert.assertEquals(1, buffer.getPendingUpdatesCount());
+
+        startedJob = loadInternalJob(true, startedJob.getId());
+        Assert.assertEquals(0, buffer.getPendingUpdatesCount());
+        Assert.assertEquals(1, startedJob.getNumberOfRunningTasks());
+    }
+
+    private TaskStatus loadTaskStatusWithoutFlush(InternalTask task) {
+        String query = "select taskStatus from TaskData where id.jobId = :jobId and id.taskId = :taskId";
+        long jobId = task.getJobId().longValue();
+        long taskId = task.getId().longValue();
+        return dbManager.getTransactionHelper()
+                        .executeReadOnlyTransaction(session -> (TaskStatus) session.createQuery(query)
+                                                                                   .setParameter("jobId", jobId)
+                                                                                   .setParameter("taskId", taskId)
+                                                                                   .uniqueResult());
+    }
+
+}
@@ -112,7 +112,8 @@ public class JobRemoveHandlerTest extends ProActiveTestClean {
         Mockito.verify(dbManager, Mockito.times(1)).loadJobWithTasksIfNotRemoved(jobId);
         Mockito.verify(dbManager, Mockito.times(1)).removeJob(org.mockito.Matchers.any(JobId.class),
                                                               org.mockito.Matchers.anyLong(),
-                                                              org.mockito.Matchers.anyBoolean());
+                                                              org.mockito.Matchers.eq(false));
+        Mockito.verify(dbManager, Mockito.times(1)).executeHousekeepingInDB(Collections.singletonList(id), true);
         Mockito.verify(listener, Mockito.times(1)).jobStateUpdated(org.mockito.Matchers.anyString(),
                                                                    org.mockito.Matchers.any(NotificationData.class));
     }
@@ -0,0 +1,142 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.objectweb.proactive.core.node.Node;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.ow2.proactive.utils.NodeSet;
+
+
+public class MultiNodeReservationTest {
+
+    private static final long NOW = 1000000L;
+
+    @Test
+    public void testShortTaskIsBackfilledBeforeShadowTime() {
+        MultiNodeReservation reservation = new MultiNodeReservation(task(4, 0, 0));
+        // 2 free nodes, 2 nodes released in 1000ms
+        reservation.plan(2, Collections.singletonList(runningTask(2, NOW - 1000, 2000)), NOW);
+
+        assertThat(reservation.canBackfill(task(1, 500, 0), 1, NOW), is(true));
+        assertThat(reservation.canBackfill(task(1, 5000, 0), 1, NOW), is(false));
+    }
+
+    @Test
+    public void testExtraNodesOfRunningMultiNodeTaskAreCounted() {
+        MultiNodeReservation reservation = new MultiNodeReservation(task(4, 0, 0));
+        // no free node, a multi-node task releases its 4 nodes in 1000ms
+        reservation.plan(0, Collections.singletonList(runningTask(4, NOW - 1000, 2000)), NOW);
+
+        assertThat(reservation.canBackfill(task(1, 500, 0), 1, NOW), is(true));
+        assertThat(reservation.canBackfill(task(1, 5000, 0), 1, NOW), is(false));
+    }
+
+    @Test
+    public void testTaskWithoutWalltimeIsNotBackfilled() {
+        MultiNodeReservation reservation = new MultiNodeReservation(task(4, 0, 0));
+        reservation.plan(2, Collections.singletonList(runningTask(2, NOW - 1000, 2000)), NOW);
+
+        assertThat(reservation.canBackfill(task(1, 0, 0), 1, NOW), is(false));
+    }
+
+    @Test
+    public void testExtraNodesCanBeUsedByAnyTask() {
+        MultiNodeReservation reservation = new MultiNodeReservation(task(4, 0, 0));
+        // 3 free nodes, 2 nodes released in 1000ms: one node is not needed by the reservation
+        reservation.plan(3, Collections.singletonList(runningTask(2, NOW - 1000, 2000)), NOW);
+
+        assertThat(reservation.canBackfill(task(1, 0, 0), 1, NOW), is(true));
+        assertThat(reservation.canBackfill(task(1, 0, 0), 1, NOW), is(false));
+    }
+
+    @Test
+    public void testUnknownShadowTimeKeepsFreeNodes() {
+        MultiNodeReservation reservation = new MultiNodeReservation(task(4, 0, 0));
+        // running tasks without walltime, the reservation cannot be estimated
+        reservation.plan(2,
+                         Arrays.asList(runningTask(1, NOW - 1000, 0), runningTask(1, NOW - 1000, 0)),
+                         NOW);
+
+        assertThat(reservation.canBackfill(task(1, 0, 0), 1, NOW), is(false));
+        assertThat(reservation.canBackfill(task(1, 100, 0), 1, NOW), is(false));
+    }
+
+    @Test
+    public void testReservationIsActiveWhileTaskIsPending() {
+        InternalTask reservedTask = task(4, 0, 0);
+        MultiNodeReservation reservation = new MultiNodeReservation(reservedTask);
+
+        when(reservedTask.getStatus()).thenReturn(TaskStatus.PENDING);
+        assertThat(reservation.isActive(), is(true));
+
+        when(reservedTask.getStatus()).thenReturn(TaskStatus.RUNNING);
+        assertThat(reservation.isActive(), is(false));
+    }
+
+    private InternalTask task(int nodes, long wallTime, long startTime) {
+        InternalTask task = mock(InternalTask.class);
+        when(task.getNumberOfNodesNeeded()).thenReturn(nodes);
+        when(task.getWallTime()).thenReturn(wallTime);
+        when(task.getStartTime()).thenReturn(startTime);
+        return task;
+    }
+
+    private RunningTaskData runningTask(int nodes, long startTime, long wallTime) {
+        RunningTaskData taskData = mock(RunningTaskData.class);
+        // as for a multi-node task, the first node is in the node set and the others are extra nodes
+        NodeSet nodeSet = new NodeSet();
+        nodeSet.add(node(0));
+        List<Node> extraNodes = new ArrayList<>();
+        for (int i = 1; i < nodes; i++) {
+            extraNodes.add(node(i));
+        }
+        nodeSet.setExtraNodes(extraNodes);
+        InternalTask task = task(nodes, wallTime, startTime);
+        when(taskData.getTask()).thenReturn(task);
+        when(taskData.getNodes()).thenReturn(nodeSet);
+        return taskData;
+    }
+
+    private Node node(int index) {
+        Node node = mock(Node.class, RETURNS_DEEP_STUBS);
+        when(node.getNodeInformation().getURL()).thenReturn("node" + index);
+        return node;
+    }
+
+}
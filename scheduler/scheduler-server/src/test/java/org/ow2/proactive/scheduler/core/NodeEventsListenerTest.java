@@ -0,0 +1,82 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.resourcemanager.common.NodeState;
+import org.ow2.proactive.resourcemanager.common.event.RMEventType;
+import org.ow2.proactive.resourcemanager.common.event.RMNodeDescriptor;
+import org.ow2.proactive.resourcemanager.common.event.RMNodeEvent;
+
+
+public class NodeEventsListenerTest {
+
+    private SchedulingService schedulingService;
+
+    private NodeEventsListener listener;
+
+    @Before
+    public void init() {
+        schedulingService = mock(SchedulingService.class);
+        listener = new NodeEventsListener(schedulingService);
+    }
+
+    @Test
+    public void testAddedFreeNodeWakesUpSchedulingLoop() {
+        listener.nodeEvent(nodeEvent(RMEventType.NODE_ADDED, NodeState.FREE));
+
+        verify(schedulingService).wakeUpSchedulingThread(SchedulingTrigger.NODES_AVAILABLE);
+    }
+
+    @Test
+    public void testFreedNodeWakesUpSchedulingLoop() {
+        listener.nodeEvent(nodeEvent(RMEventType.NODE_STATE_CHANGED, NodeState.FREE));
+
+        verify(schedulingService).wakeUpSchedulingThread(SchedulingTrigger.NODES_AVAILABLE);
+    }
+
+    @Test
+    public void testOtherNodeEventsAreIgnored() {
+        listener.nodeEvent(nodeEvent(RMEventType.NODE_STATE_CHANGED, NodeState.BUSY));
+        listener.nodeEvent(nodeEvent(RMEventType.NODE_ADDED, NodeState.DEPLOYING));
+        listener.nodeEvent(nodeEvent(RMEventType.NODE_REMOVED, NodeState.FREE));
+
+        verify(schedulingService, never()).wakeUpSchedulingThread(SchedulingTrigger.NODES_AVAILABLE);
+    }
+
+    private RMNodeEvent nodeEvent(RMEventType eventType, NodeState state) {
+        RMNodeDescriptor node = new RMNodeDescriptor();
+        node.setNodeURL("node");
+        node.setState(state);
+        return new RMNodeEvent(node, eventType, null, "test");
+    }
+
+}
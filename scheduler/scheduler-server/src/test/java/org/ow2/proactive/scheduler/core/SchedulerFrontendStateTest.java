@@ -26,6 +26,8 @@
 package org.ow2.proactive.scheduler.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doReturn;
@@ -35,6 +37,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_FINISHED_JOBS_LRU_CACHE_SIZE;
+import static org.ow2.proactive.scheduler.core.properties.PASchedulerProperties.SCHEDULER_FINISHED_JOBS_SUMMARIES;
 
 import java.util.Collections;
 import java.util.List;
@@ -191,4 +194,42 @@ public class SchedulerFrontendStateTest extends ProActiveTestClean {
 
         verify(dbManager, times(3)).loadInternalJob(anyLong());
     }
+
+    @Test
+    public void testFinishedJobsSummaries() throws Exception {
+        SCHEDULER_FINISHED_JOBS_SUMMARIES.updateProperty("true");
+        try {
+            SchedulerJMXHelper mockJMX = mock(SchedulerJMXHelper.class);
+            when(mockJMX.getSchedulerRuntimeMBean()).thenReturn(new RuntimeDataMBeanImpl(null));
+
+            JobIdImpl jobId = new JobIdImpl(20l, "job name20");
+            InternalJob internalJob = spy(new InternalTaskFlowJob());
+            JobInfoImpl jobInfo = mock(JobInfoImpl.class);
+            doReturn(jobInfo).when(internalJob).getJobInfo();
+            doReturn(jobId).when(jobInfo).getJobId();
+            doReturn(jobId).when(internalJob).getId();
+
+            SchedulerStateImpl<ClientJobState> schedulerStateImpl = new SchedulerStateImpl<>();
+            schedulerStateImpl.setFinishedJobs(new Vector(Lists.newArrayList(new ClientJobState(internalJob))));
+            schedulerStateImpl.setRunningJobs(new Vector());
+            schedulerStateImpl.setPendingJobs(new Vector());
+
+            SchedulerDBManager dbManager = mock(SchedulerDBManager.class);
+            doReturn(Collections.singletonList(internalJob)).when(dbManager).loadInternalJob(20l);
+
+            SchedulerFrontendState schedulerFrontendState = new SchedulerFrontendState(schedulerStateImpl,
+                                                                                       mockJMX,
+                                                                                       dbManager);
+
+            assertTrue(schedulerStateImpl.getFinishedJobs().get(0).isSummary());
+            assertEquals(schedulerFrontendState.getIdentifiedJob(jobId).getJobId(), jobId);
+
+            assertFalse(schedulerFrontendState.getClientJobState(jobId).isSummary());
+            assertFalse(schedulerFrontendState.getClientJobState(jobId).isSummary());
+
+            verify(dbManager, times(1)).loadInternalJob(20l);
+        } finally {
+            SCHEDULER_FINISHED_JOBS_SUMMARIES.updateProperty("false");
+        }
+    }
 }
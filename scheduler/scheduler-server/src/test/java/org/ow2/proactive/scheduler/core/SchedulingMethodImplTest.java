@@ -0,0 +1,288 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.proactive.ActiveObjectCreationException;
+import org.objectweb.proactive.core.node.Node;
+import org.ow2.proactive.authentication.crypto.Credentials;
+import org.ow2.proactive.scheduler.common.JobDescriptor;
+import org.ow2.proactive.scheduler.common.TaskTerminateNotification;
+import org.ow2.proactive.scheduler.common.job.JobId;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.common.task.TaskStatus;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scheduler.core.rmproxies.RMProxiesManager;
+import org.ow2.proactive.scheduler.core.rmproxies.RMProxy;
+import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptor;
+import org.ow2.proactive.scheduler.descriptor.EligibleTaskDescriptorImpl;
+import org.ow2.proactive.scheduler.descriptor.JobDescriptorImpl;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.policy.Policy;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
+import org.ow2.proactive.scheduler.task.TaskLauncher;
+import org.ow2.proactive.scheduler.task.containers.ExecutableContainer;
+import org.ow2.proactive.scheduler.task.internal.InternalTask;
+import org.ow2.proactive.threading.TimeoutThreadPoolExecutor;
+import org.ow2.proactive.utils.NodeSet;
+
+
+public class SchedulingMethodImplTest {
+
+    private static final int START_TASK_TIMEOUT = 500;
+
+    private final JobId jobId = new JobIdImpl(1, "job");
+
+    private SchedulingService schedulingService;
+
+    private RMProxy userRMProxy;
+
+    private Policy policy;
+
+    private InternalJob job;
+
+    private Map<JobId, JobDescriptor> jobMap;
+
+    private SchedulingMethodImpl schedulingMethod;
+
+    @Before
+    public void init() throws Exception {
+        PASchedulerProperties.SCHEDULER_STARTTASK_TIMEOUT.updateProperty(Integer.toString(START_TASK_TIMEOUT));
+        PASchedulerProperties.SCHEDULER_STARTTASK_DEPLOYMENT_THREADNUMBER.updateProperty("2");
+
+        schedulingService = mock(SchedulingService.class);
+        SchedulingInfrastructure infrastructure = mock(SchedulingInfrastructure.class);
+        RMProxiesManager rmProxiesManager = mock(RMProxiesManager.class);
+        userRMProxy = mock(RMProxy.class);
+        when(schedulingService.getInfrastructure()).thenReturn(infrastructure);
+        when(schedulingService.lockJob(jobId)).thenReturn(mock(LiveJobs.JobData.class));
+        when(infrastructure.getRMProxiesManager()).thenReturn(rmProxiesManager);
+        when(infrastructure.getDataSpaceServiceStarter()).thenReturn(mock(DataSpaceServiceStarter.class));
+        when(rmProxiesManager.getRmProxy()).thenReturn(mock(RMProxy.class));
+        when(rmProxiesManager.getUserRMProxy(anyString(), any(Credentials.class))).thenReturn(userRMProxy);
+
+        policy = mock(Policy.class);
+        when(policy.isTaskExecutable(any(NodeSet.class), any(EligibleTaskDescriptor.class))).thenReturn(true);
+
+        job = mock(InternalJob.class);
+        when(job.getId()).thenReturn(jobId);
+        when(job.getOwner()).thenReturn("user");
+        JobDescriptorImpl jobDescriptor = mock(JobDescriptorImpl.class);
+        when(jobDescriptor.getInternal()).thenReturn(job);
+        when(jobDescriptor.isEligible(any(TaskId.class))).thenReturn(true);
+        when(job.getJobDescriptor()).thenReturn(jobDescriptor);
+        jobMap = new HashMap<>();
+        jobMap.put(jobId, jobDescriptor);
+
+        schedulingMethod = new SchedulingMethodImpl(schedulingService,
+                                                    mock(TaskTerminateNotification.class),
+                                                    "taskTerminationNode",
+                                                    null);
+        schedulingMethod.threadPool.shutdown();
+        schedulingMethod.threadPool = mock(TimeoutThreadPoolExecutor.class);
+    }
+
+    @After
+    public void shutdown() {
+        schedulingMethod.shutdown();
+    }
+
+    @Test
+    public void testLaunchersAreCreatedInParallel() throws Exception {
+        // each creation waits for the other one, they only succeed if they run at the same time
+        CyclicBarrier bothCreating = new CyclicBarrier(2);
+        InternalTask task1 = task("task1", node -> {
+            bothCreating.await(5, TimeUnit.SECONDS);
+            return mock(TaskLauncher.class);
+        });
+        InternalTask task2 = task("task2", node -> {
+            bothCreating.await(5, TimeUnit.SECONDS);
+            return mock(TaskLauncher.class);
+        });
+        Set<String> freeResources = new HashSet<>();
+
+        int started = schedulingMethod.deployTasks(policy,
+                                                   jobMap,
+                                                   tasksToSchedule(task1, task2),
+                                                   nodeSet("node1", "node2"),
+                                                   freeResources);
+
+        assertThat(started, is(2));
+        verify(schedulingService, times(2)).taskStarted(any(InternalJob.class),
+                                                        any(InternalTask.class),
+                                                        any(TaskLauncher.class));
+        verify(userRMProxy, never()).releaseNodes(any(NodeSet.class));
+        assertThat(freeResources.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testNodesAreKeptUntilTimedOutLauncherCreationEnds() throws Exception {
+        CountDownLatch creationBlocked = new CountDownLatch(1);
+        InternalTask task = task("task", node -> {
+            creationBlocked.await();
+            return mock(TaskLauncher.class);
+        });
+        Set<String> freeResources = new HashSet<>();
+
+        int started = schedulingMethod.deployTasks(policy,
+                                                   jobMap,
+                                                   tasksToSchedule(task),
+                                                   nodeSet("node"),
+                                                   freeResources);
+
+        assertThat(started, is(0));
+        // the launcher may still be created on the node, it is not given back yet
+        verify(userRMProxy, never()).releaseNodes(any(NodeSet.class));
+        assertThat(freeResources, not(hasItem("node")));
+
+        creationBlocked.countDown();
+
+        verify(userRMProxy, timeout(5000)).releaseNodes(any(NodeSet.class));
+        // the task is not started and stays pending for the next scheduling loop
+        verify(schedulingService, never()).taskStarted(any(InternalJob.class),
+                                                       any(InternalTask.class),
+                                                       any(TaskLauncher.class));
+        verify(task, never()).setStatus(any(TaskStatus.class));
+    }
+
+    @Test
+    public void testNodesAreReleasedWhenLauncherCreationFails() throws Exception {
+        InternalTask failingTask = task("failing", node -> {
+            throw new ActiveObjectCreationException("node is down");
+        });
+        InternalTask task = task("task", node -> mock(TaskLauncher.class));
+        Set<String> freeResources = new HashSet<>();
+
+        int started = schedulingMethod.deployTasks(policy,
+                                                   jobMap,
+                                                   tasksToSchedule(failingTask, task),
+                                                   nodeSet("node1", "node2"),
+                                                   freeResources);
+
+        assertThat(started, is(1));
+        verify(userRMProxy).releaseNodes(any(NodeSet.class));
+        assertThat(freeResources, hasItem("node1"));
+        assertThat(freeResources, not(hasItem("node2")));
+        verify(schedulingService, never()).taskStarted(any(InternalJob.class),
+                                                       any(InternalTask.class),
+                                                       any(TaskLauncher.class));
+    }
+
+    @Test
+    public void testTaskKilledDuringLauncherCreationIsNotStarted() throws Exception {
+        AtomicReference<TaskStatus> status = new AtomicReference<>(TaskStatus.PENDING);
+        InternalTask task = task("task", node -> {
+            // the task is killed while its launcher is created outside of the job lock
+            status.set(TaskStatus.ABORTED);
+            return mock(TaskLauncher.class);
+        });
+        doAnswer(invocation -> status.get()).when(task).getStatus();
+        Set<String> freeResources = new HashSet<>();
+
+        int started = schedulingMethod.deployTasks(policy,
+                                                   jobMap,
+                                                   tasksToSchedule(task),
+                                                   nodeSet("node"),
+                                                   freeResources);
+
+        assertThat(started, is(0));
+        verify(schedulingService, never()).taskStarted(any(InternalJob.class),
+                                                       any(InternalTask.class),
+                                                       any(TaskLauncher.class));
+        verify(userRMProxy).releaseNodes(any(NodeSet.class));
+        assertThat(freeResources, hasItem("node"));
+    }
+
+    private interface LauncherCreation {
+        TaskLauncher create(Node node) throws Exception;
+    }
+
+    private InternalTask task(String name, LauncherCreation launcherCreation) throws Exception {
+        InternalTask task = mock(InternalTask.class);
+        when(task.getId()).thenReturn(TaskIdImpl.createTaskId(jobId, name, 0));
+        when(task.getJobId()).thenReturn(jobId);
+        when(task.getNumberOfNodesNeeded()).thenReturn(1);
+        when(task.getStatus()).thenReturn(TaskStatus.PENDING);
+        when(task.getExecutableContainer()).thenReturn(mock(ExecutableContainer.class));
+        when(task.createLauncher(any(Node.class))).thenAnswer(invocation -> {
+            return launcherCreation.create((Node) invocation.getArguments()[0]);
+        });
+        return task;
+    }
+
+    private LinkedList<EligibleTaskDescriptor> tasksToSchedule(InternalTask... tasks) {
+        LinkedList<EligibleTaskDescriptor> tasksToSchedule = new LinkedList<>();
+        for (InternalTask task : tasks) {
+            EligibleTaskDescriptorImpl taskDescriptor = mock(EligibleTaskDescriptorImpl.class);
+            when(taskDescriptor.getJobId()).thenReturn(jobId);
+            when(taskDescriptor.getTaskId()).thenReturn(task.getId());
+            when(taskDescriptor.getInternal()).thenReturn(task);
+            when(taskDescriptor.getParents()).thenReturn(new Vector<>());
+            tasksToSchedule.add(taskDescriptor);
+        }
+        return tasksToSchedule;
+    }
+
+    private NodeSet nodeSet(String... urls) {
+        NodeSet nodeSet = new NodeSet();
+        for (String url : urls) {
+            Node node = mock(Node.class, RETURNS_DEEP_STUBS);
+            when(node.getNodeInformation().getURL()).thenReturn(url);
+            nodeSet.add(node);
+        }
+        return nodeSet;
+    }
+
+}
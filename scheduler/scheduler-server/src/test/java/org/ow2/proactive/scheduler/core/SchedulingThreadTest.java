@@ -0,0 +1,90 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+
+public class SchedulingThreadTest {
+
+    private static final long SCHEDULING_TIMEOUT = 100;
+
+    @Mock
+    private SchedulingMethod schedulingMethod;
+
+    @Mock
+    private SchedulingService schedulingService;
+
+    private SchedulingThread schedulingThread;
+
+    private SchedulingLoopStatistics statistics;
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        schedulingThread = new SchedulingThread(schedulingMethod, schedulingService, SCHEDULING_TIMEOUT);
+        statistics = SchedulingLoopStatistics.getInstance();
+    }
+
+    @Test
+    public void testTriggerReceivedBeforeSleepIsNotLost() throws InterruptedException {
+        long timeoutIterations = statistics.getTimeoutIterationsCount();
+
+        schedulingThread.wakeUpSchedulingThread(SchedulingTrigger.JOB_SUBMITTED);
+        schedulingThread.sleepSchedulingThread();
+
+        assertThat(statistics.getTimeoutIterationsCount(), is(timeoutIterations));
+    }
+
+    @Test
+    public void testTriggersAreCoalesced() {
+        long triggers = statistics.getTriggersCount();
+        long coalescedTriggers = statistics.getCoalescedTriggersCount();
+
+        schedulingThread.wakeUpSchedulingThread(SchedulingTrigger.JOB_SUBMITTED);
+        schedulingThread.wakeUpSchedulingThread(SchedulingTrigger.TASK_TERMINATED);
+        schedulingThread.wakeUpSchedulingThread(SchedulingTrigger.TASK_TERMINATED);
+
+        assertThat(statistics.getTriggersCount(), is(triggers + 3));
+        assertThat(statistics.getCoalescedTriggersCount(), is(coalescedTriggers + 2));
+    }
+
+    @Test
+    public void testSleepTimesOutWithoutTrigger() throws InterruptedException {
+        long timeoutIterations = statistics.getTimeoutIterationsCount();
+
+        schedulingThread.sleepSchedulingThread();
+
+        assertThat(statistics.getTimeoutIterationsCount(), is(timeoutIterations + 1));
+    }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.core.db;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collections;
+
+import org.hibernate.Session;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.ow2.proactive.db.SessionWork;
+import org.ow2.proactive.db.TransactionHelper;
+import org.ow2.proactive.scheduler.core.db.SchedulerDBManagerBuffer.UpdateType;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+
+
+public class SchedulerDBManagerBufferTest {
+
+    private static String previousDelay;
+
+    private final Session session = mock(Session.class);
+
+    private TransactionHelper transactionHelper;
+
+    private SchedulerDBManagerBuffer buffer;
+
+    @BeforeClass
+    public static void setLongDelay() {
+        previousDelay = PASchedulerProperties.SCHEDULER_DB_TASK_UPDATES_DELAY.getValueAsStringOrNull();
+        // long enough for the updates to stay buffered during the test
+        PASchedulerProperties.SCHEDULER_DB_TASK_UPDATES_DELAY.updateProperty("600000");
+    }
+
+    @AfterClass
+    public static void restoreDelay() {
+        if (previousDelay == null) {
+            PASchedulerProperties.SCHEDULER_DB_TASK_UPDATES_DELAY.unSet();
+        } else {
+            PASchedulerProperties.SCHEDULER_DB_TASK_UPDATES_DELAY.updateProperty(previousDelay);
+        }
+    }
+
+    @Before
+    public void init() {
+        transactionHelper = mock(TransactionHelper.class);
+        buffer = new SchedulerDBManagerBuffer(transactionHelper);
+    }
+
+    @After
+    public void close() {
+        databaseUp();
+        buffer.close();
+    }
+
+    @Test
+    public void testUpdatesAreKeptWhenFlushFails() {
+        SessionWork<Void> jobUpdate = update();
+        SessionWork<Void> taskUpdate = update();
+        buffer.addPendingJobUpdate(1, UpdateType.TASK_STARTED, jobUpdate);
+        buffer.addPendingUpdate(2, 1, UpdateType.START_TIME, taskUpdate);
+
+        databaseDown();
+        buffer.flushPendingUpdates();
+
+        assertThat(buffer.getPendingUpdatesCount(), is(2));
+
+        databaseUp();
+        buffer.flushPendingUpdates();
+
+        assertThat(buffer.getPendingUpdatesCount(), is(0));
+        verify(jobUpdate).doInTransaction(session);
+        verify(taskUpdate).doInTransaction(session);
+    }
+
+    @Test
+    public void testFailedUpdateIsNotKeptWhenReplacedDuringFlush() {
+        SessionWork<Void> oldUpdate = update();
+        SessionWork<Void> newUpdate = update();
+        buffer.addPendingUpdate(1, 1, UpdateType.START_TIME, oldUpdate);
+
+        // the update is replaced while the pending updates are written
+        databaseDown();
+        doAnswer(invocation -> {
+            buffer.addPendingUpdate(1, 1, UpdateType.START_TIME, newUpdate);
+            throw new IllegalStateException("database is down");
+        }).when(transactionHelper).executeReadWriteTransaction(any(SessionWork.class));
+        buffer.flushPendingUpdates();
+
+        assertThat(buffer.getPendingUpdatesCount(), is(1));
+
+        databaseUp();
+        buffer.flushPendingUpdates();
+
+        verify(oldUpdate, never()).doInTransaction(session);
+        verify(newUpdate).doInTransaction(session);
+    }
+
+    @Test
+    public void testUpdatesAreDroppedAfterMaximumAttempts() {
+        buffer.addPendingUpdate(1, 1, UpdateType.START_TIME, update());
+
+        databaseDown();
+        for (int i = 1; i < SchedulerDBManagerBuffer.MAXIMUM_WRITE_ATTEMPTS; i++) {
+            buffer.flushPendingUpdates();
+            assertThat(buffer.getPendingUpdatesCount(), is(1));
+        }
+        buffer.flushPendingUpdates();
+
+        assertThat(buffer.getPendingUpdatesCount(), is(0));
+    }
+
+    @Test
+    public void testReadOnlyFlushesUpdatesOfReadJobs() {
+        SessionWork<Void> readJobUpdate = update();
+        SessionWork<Void> otherJobUpdate = update();
+        buffer.addPendingUpdate(1, 1, UpdateType.START_TIME, readJobUpdate);
+        buffer.addPendingUpdate(2, 1, UpdateType.START_TIME, otherJobUpdate);
+
+        databaseUp();
+        buffer.flushPendingUpdatesBeforeRead(Collections.singleton(1L));
+
+        assertThat(buffer.getPendingUpdatesCount(), is(1));
+        verify(readJobUpdate).doInTransaction(session);
+        verify(otherJobUpdate, never()).doInTransaction(session);
+    }
+
+    @Test
+    public void testTaskTransactionWritesUpdatesOfTheTaskOnly() {
+        SessionWork<Void> jobUpdate = update();
+        SessionWork<Void> taskUpdate = update();
+        SessionWork<Void> otherTaskUpdate = update();
+        buffer.addPendingJobUpdate(1, UpdateType.TASK_STARTED, jobUpdate);
+        buffer.addPendingUpdate(1, 1, UpdateType.SCHEDULED_TIME, taskUpdate);
+        buffer.addPendingUpdate(1, 2, UpdateType.SCHEDULED_TIME, otherTaskUpdate);
+
+        databaseUp();
+        SessionWork<Void> taskStarted = update();
+        buffer.executeReadWriteTransaction(1, 1, taskStarted, true);
+
+        assertThat(buffer.getPendingUpdatesCount(), is(2));
+        verify(taskUpdate).doInTransaction(session);
+        verify(taskStarted).doInTransaction(session);
+        verify(jobUpdate, never()).doInTransaction(session);
+        verify(otherTaskUpdate, never()).doInTransaction(session);
+    }
+
+    @SuppressWarnings("unchecked")
+    private SessionWork<Void> update() {
+        return mock(SessionWork.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void databaseUp() {
+        doAnswer(this::doInTransaction).when(transactionHelper).executeReadWriteTransaction(any(SessionWork.class));
+        doAnswer(this::doInTransaction).when(transactionHelper).executeReadWriteTransaction(any(SessionWork.class),
+                                                                                              anyBoolean());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void databaseDown() {
+        IllegalStateException databaseDown = new IllegalStateException("database is down");
+        doThrow(databaseDown).when(transactionHelper).executeReadWriteTransaction(any(SessionWork.class));
+        doThrow(databaseDown).when(transactionHelper).executeReadWriteTransaction(any(SessionWork.class), anyBoolean());
+    }
+
+    private Object doInTransaction(InvocationOnMock invocation) {
+        return ((SessionWork<?>) invocation.getArguments()[0]).doInTransaction(session);
+    }
+
+}
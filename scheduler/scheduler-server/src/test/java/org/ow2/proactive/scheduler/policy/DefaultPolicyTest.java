@@ -26,10 +26,12 @@
 package org.ow2.proactive.scheduler.policy;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -45,6 +47,8 @@ import org.ow2.proactive.scheduler.task.internal.InternalScriptTask;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
 import org.ow2.tests.ProActiveTestClean;
 
+import com.google.common.collect.Lists;
+
 
 public class DefaultPolicyTest extends ProActiveTestClean {
 
@@ -97,6 +101,52 @@ public class DefaultPolicyTest extends ProActiveTestClean {
         assertEquals(job3.getJobId(), orderedTasks.get(2).getJobId());
     }
 
+    @Test
+    public void ordered_tasks_view_follows_priorities() throws Exception {
+        JobDescriptorImpl jobHigh = createSingleTaskJob(JobPriority.HIGH);
+        JobDescriptorImpl jobLow = createSingleTaskJob(JobPriority.LOW);
+        JobDescriptorImpl jobNormal = createSingleTaskJob(JobPriority.NORMAL);
+
+        List<JobDescriptor> jobs = submitJobs(jobHigh, jobLow, jobNormal);
+
+        List<EligibleTaskDescriptor> orderedTasks = Lists.newArrayList(new DefaultPolicy().getOrderedTasksView(jobs));
+
+        assertEquals(3, orderedTasks.size());
+        assertEquals(jobHigh.getJobId(), orderedTasks.get(0).getJobId());
+        assertEquals(jobNormal.getJobId(), orderedTasks.get(1).getJobId());
+        assertEquals(jobLow.getJobId(), orderedTasks.get(2).getJobId());
+    }
+
+    @Test
+    public void ordered_tasks_view_reflects_started_tasks() throws Exception {
+        JobDescriptorImpl job1 = createSingleTaskJob();
+        JobDescriptorImpl job2 = createSingleTaskJob();
+
+        List<JobDescriptor> jobs = submitJobs(job1, job2);
+
+        Iterator<EligibleTaskDescriptor> orderedTasks = new DefaultPolicy().getOrderedTasksView(jobs);
+        EligibleTaskDescriptor first = orderedTasks.next();
+        job2.start(job2.getEligibleTasksView().iterator().next().getTaskId());
+
+        assertEquals(job1.getJobId(), first.getJobId());
+        assertFalse(orderedTasks.hasNext());
+    }
+
+    @Test
+    public void ordered_tasks_view_uses_overridden_ordered_tasks() throws Exception {
+        JobDescriptorImpl job = createSingleTaskJob();
+        List<JobDescriptor> jobs = submitJobs(job);
+
+        DefaultPolicy policy = new DefaultPolicy() {
+            @Override
+            public LinkedList<EligibleTaskDescriptor> getOrderedTasks(List<JobDescriptor> jobs) {
+                return new LinkedList<>();
+            }
+        };
+
+        assertFalse(policy.getOrderedTasksView(jobs).hasNext());
+    }
+
     private JobDescriptorImpl createSingleTaskJob(JobPriority jobPriority) {
         InternalTaskFlowJob taskFlowJob = new InternalTaskFlowJob("test", jobPriority, OnTaskError.CANCEL_JOB, "");
         taskFlowJob.setId(JobIdImpl.makeJobId(Integer.toString(jobId++)));
@@ -50,6 +50,8 @@ import org.ow2.proactive.scheduler.task.internal.InternalScriptTask;
 import org.ow2.proactive.scheduler.task.internal.InternalTask;
 import org.ow2.tests.ProActiveTestClean;
 
+import com.google.common.collect.Lists;
+
 
 /**
  * Unit tests for ExtendedSchedulerPolicy class.
@@ -87,6 +89,14 @@ public class ExtendedSchedulerPolicyTest extends ProActiveTestClean {
         assertTrue(orderedTasks != null && orderedTasks.size() == 2);
     }
 
+    @Test
+    public void testOrderedTasksViewFiltersTaskStartLater() {
+        List<JobDescriptor> jobDescList = asModifiableList(createJobDescWithTwoTasks(null, now, later));
+        List<EligibleTaskDescriptor> orderedTasks = Lists.newArrayList(policy.getOrderedTasksView(jobDescList));
+        assertTrue(orderedTasks.size() == 1);
+        assertEquals(now, startAtValue(orderedTasks.get(0)));
+    }
+
     @Test
     public void testJobStartAtLater() throws Exception {
         List<JobDescriptor> jobDescList = asModifiableList(createJobDescWithTwoTasks(later, null, null));
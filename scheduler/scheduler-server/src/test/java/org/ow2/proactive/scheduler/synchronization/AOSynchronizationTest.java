@@ -26,15 +26,19 @@
 package org.ow2.proactive.scheduler.synchronization;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.apache.log4j.BasicConfigurator;
@@ -105,6 +109,8 @@ public class AOSynchronizationTest extends ProActiveTestClean {
 
     public static final String FUNCTION_RETURN_SEVEN = "{k -> 7}";
 
+    public static final String BIFUNCTION_SLOW_INCREMENT_ONE = "{k, x -> Thread.sleep(3000); x + 1}";
+
     private AOSynchronization synchronizationInternal;
 
     private Synchronization synchronization;
@@ -198,6 +204,36 @@ public class AOSynchronizationTest extends ProActiveTestClean {
         Assert.assertEquals(2, (int) synchronization.get(CHANNEL2, "b"));
     }
 
+    @Test
+    public void testReadAfterCloseFailsWithClearError() throws IOException, InvalidChannelException {
+        initChannel();
+        synchronizationInternal.close();
+        try {
+            synchronization.size(CHANNEL1);
+            fail("IllegalStateException should be thrown");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("closed"));
+        }
+    }
+
+    @Test
+    public void testWritesOnDifferentChannelsAreConcurrent() throws Exception {
+        initChannel(CHANNEL1);
+        initChannel(CHANNEL2);
+
+        Future<Serializable> slowCompute = executor.submit(() -> synchronization.compute(CHANNEL1,
+                                                                                         "a",
+                                                                                         BIFUNCTION_SLOW_INCREMENT_ONE));
+        // let the slow compute start
+        Thread.sleep(500);
+        synchronization.put(CHANNEL2, "a", 5);
+
+        // the write on the second channel did not wait for the compute on the first one
+        assertFalse(slowCompute.isDone());
+        Assert.assertEquals(5, (int) synchronization.get(CHANNEL2, "a"));
+        Assert.assertEquals(2, (int) slowCompute.get(10, TimeUnit.SECONDS));
+    }
+
     @Test
     public void testForEach() throws IOException, InvalidChannelException, CompilationException {
         initChannel();
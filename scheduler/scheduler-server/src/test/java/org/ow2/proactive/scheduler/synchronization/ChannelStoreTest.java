@@ -0,0 +1,160 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.scheduler.synchronization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ow2.proactive.scheduler.synchronization.AOSynchronization.Channel;
+
+
+/**
+ * @author ActiveEon Team
+ */
+public class ChannelStoreTest {
+
+    private static final String STORE_NAME = "SchedulerStore";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+
+    private ChannelStore store;
+
+    @Before
+    public void init() throws IOException {
+        directory = folder.newFolder();
+        store = openStore(0);
+    }
+
+    @After
+    public void cleanUp() {
+        store.close();
+    }
+
+    private ChannelStore openStore(long commitPeriod) throws IOException {
+        ChannelStore channelStore = new ChannelStore(directory, STORE_NAME, commitPeriod);
+        channelStore.open();
+        return channelStore;
+    }
+
+    /**
+     * Simulates a crash: the store is not closed and its pending modifications are lost
+     */
+    private ChannelStore reopenStoreAfterCrash() throws IOException {
+        return openStore(0);
+    }
+
+    @Test
+    public void testPersistentChannelsAreRecovered() throws IOException {
+        Channel persistent = new Channel();
+        store.createChannel("persistent", persistent, true);
+        store.createChannel("memory", new Channel(), false);
+        persistent.put("a", 1);
+        store.channelModified("persistent");
+
+        ChannelStore recoveredStore = reopenStoreAfterCrash();
+        try {
+            assertEquals(1, recoveredStore.getChannel("persistent").get("a"));
+            assertNull(recoveredStore.getChannel("memory"));
+        } finally {
+            recoveredStore.close();
+        }
+    }
+
+    @Test
+    public void testDeletedChannelsAreNotRecovered() throws IOException {
+        store.createChannel("persistent", new Channel(), true);
+        assertTrue(store.deleteChannel("persistent"));
+        assertFalse(store.deleteChannel("persistent"));
+
+        ChannelStore recoveredStore = reopenStoreAfterCrash();
+        try {
+            assertFalse(recoveredStore.containsChannel("persistent"));
+        } finally {
+            recoveredStore.close();
+        }
+    }
+
+    @Test
+    public void testModificationsAreCommittedTogether() throws IOException {
+        store.close();
+        store = openStore(Long.MAX_VALUE);
+        Channel channel1 = new Channel();
+        Channel channel2 = new Channel();
+        store.createChannel("channel1", channel1, true);
+        store.createChannel("channel2", channel2, true);
+        channel1.put("a", 1);
+        store.channelModified("channel1");
+        channel2.put("b", 2);
+        store.channelModified("channel2");
+        File journal = new File(directory, STORE_NAME + ChannelStore.JOURNAL_SUFFIX);
+        assertEquals(0, journal.length());
+
+        store.commit();
+        assertTrue(journal.length() > 0);
+
+        ChannelStore recoveredStore = reopenStoreAfterCrash();
+        try {
+            assertEquals(1, recoveredStore.getChannel("channel1").get("a"));
+            assertEquals(2, recoveredStore.getChannel("channel2").get("b"));
+        } finally {
+            recoveredStore.close();
+        }
+    }
+
+    @Test
+    public void testPartiallyWrittenRecordIsIgnored() throws IOException {
+        Channel channel = new Channel();
+        store.createChannel("persistent", channel, true);
+        channel.put("a", 1);
+        store.channelModified("persistent");
+        File journal = new File(directory, STORE_NAME + ChannelStore.JOURNAL_SUFFIX);
+        try (FileOutputStream output = new FileOutputStream(journal, true)) {
+            // beginning of a record whose content was not written
+            output.write(new byte[] { 0, 0, 1, 0, 0, 0, 0 });
+        }
+
+        ChannelStore recoveredStore = reopenStoreAfterCrash();
+        try {
+            assertEquals(1, recoveredStore.getChannel("persistent").get("a"));
+        } finally {
+            recoveredStore.close();
+        }
+    }
+}
@@ -29,8 +29,12 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 import performancetests.metrics.GetResultMetricTest;
+import performancetests.metrics.JobSubmissionPersistenceTimeTest;
+import performancetests.metrics.JobsPaginationTimeTest;
 import performancetests.metrics.ParallelTaskSchedulingTest;
 import performancetests.metrics.SchedulerEfficiencyMetricsTest;
+import performancetests.metrics.SelectionManagerThroughputTest;
+import performancetests.metrics.SynchronizationThroughputTest;
 import performancetests.metrics.TaskCreationTimeTest;
 import performancetests.metrics.TaskSchedulingTimeTest;
 import performancetests.recovery.JobRecoveryTest;
@@ -44,7 +48,9 @@ import performancetests.recovery.NodeRecoveryTest;
 
                       // Metrics
                       TaskCreationTimeTest.class, GetResultMetricTest.class, SchedulerEfficiencyMetricsTest.class,
-                      ParallelTaskSchedulingTest.class,
+                      ParallelTaskSchedulingTest.class, SelectionManagerThroughputTest.class,
+                      SynchronizationThroughputTest.class, JobSubmissionPersistenceTimeTest.class,
+                      JobsPaginationTimeTest.class,
 
                       // Test which computes average metrics
                       TaskSchedulingTimeTest.class
@@ -0,0 +1,156 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performancetests.metrics;
+
+import static performancetests.recovery.PerformanceTestBase.FAILURE;
+import static performancetests.recovery.PerformanceTestBase.SUCCESS;
+import static performancetests.recovery.PerformanceTestBase.makeCSVString;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.log4j.Logger;
+import org.hibernate.cfg.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
+import org.ow2.proactive.scheduler.common.task.ScriptTask;
+import org.ow2.proactive.scheduler.common.task.TaskVariable;
+import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
+import org.ow2.proactive.scheduler.job.InternalJob;
+import org.ow2.proactive.scheduler.job.InternalJobFactory;
+import org.ow2.proactive.scripting.SimpleScript;
+import org.ow2.proactive.scripting.TaskScript;
+
+import functionaltests.db.schedulerdb.BaseSchedulerDBTest;
+
+
+/**
+ * Performance test measures the time spent to persist a newly submitted job,
+ * i.e. the time to execute SchedulerDBManager::newJobSubmitted(job) for a parameter sweep job
+ * where each task has a variable and depends on a single initial task.
+ * By default the job is persisted in an in-memory HSQLDB database, another database (e.g. PostgreSQL)
+ * can be used by giving a hibernate configuration file with the "performancetests.db.configuration" property.
+ */
+@RunWith(Parameterized.class)
+public class JobSubmissionPersistenceTimeTest {
+
+    private static final Logger LOGGER = Logger.getLogger(JobSubmissionPersistenceTimeTest.class);
+
+    private static final String USER_NAME = "admin";
+
+    private static final String DB_CONFIGURATION_PROPERTY = "performancetests.db.configuration";
+
+    /**
+     * @return an array of parameters which is used by JUnit to create objects of JobSubmissionPersistenceTimeTest,
+     * where first value represents number of tasks in the job, and the second represents limit for the time to
+     * persist the job (in milliseconds). The lower the time the better.
+     */
+    @Parameterized.Parameters
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][] { { 1000, 5000 }, { 10000, 30000 }, { 100000, 300000 } });
+    }
+
+    private final int taskNumber;
+
+    private final long timeLimit;
+
+    private SchedulerDBManager dbManager;
+
+    private String database;
+
+    public JobSubmissionPersistenceTimeTest(int taskNumber, long timeLimit) {
+        this.taskNumber = taskNumber;
+        this.timeLimit = timeLimit;
+    }
+
+    @Before
+    public void init() {
+        CentralPAPropertyRepository.PA_CLASSLOADING_USEHTTP.setValue(false);
+        String configurationFile = System.getProperty(DB_CONFIGURATION_PROPERTY);
+        if (configurationFile == null) {
+            dbManager = SchedulerDBManager.createInMemorySchedulerDBManager();
+            database = "hsqldb-in-memory";
+        } else {
+            database = new File(configurationFile).getName();
+            dbManager = new SchedulerDBManager(new Configuration().configure(new File(configurationFile)), true);
+        }
+    }
+
+    @After
+    public void cleanUp() {
+        if (dbManager != null) {
+            dbManager.close();
+        }
+    }
+
+    @Test(timeout = 3600000)
+    public void jobSubmissionPersistenceTime() throws Exception {
+        InternalJob job = InternalJobFactory.createJob(createJob(taskNumber), BaseSchedulerDBTest.getDefaultCredentials());
+        job.setOwner(USER_NAME);
+        job.submitAction();
+
+        final long start = System.currentTimeMillis();
+
+        dbManager.newJobSubmitted(job);
+
+        final long anActualTime = System.currentTimeMillis() - start;
+
+        LOGGER.info(makeCSVString(JobSubmissionPersistenceTimeTest.class.getSimpleName(),
+                                  taskNumber,
+                                  database,
+                                  timeLimit,
+                                  anActualTime,
+                                  ((anActualTime < timeLimit) ? SUCCESS : FAILURE)));
+    }
+
+    private static TaskFlowJob createJob(int taskNumber) throws Exception {
+        TaskFlowJob job = new TaskFlowJob();
+        job.setName(String.format("SWEEP_%d", taskNumber));
+
+        ScriptTask init = new ScriptTask();
+        init.setName("init");
+        init.setScript(new TaskScript(new SimpleScript("print('init')", "groovy")));
+        job.addTask(init);
+
+        for (int i = 1; i < taskNumber; i++) {
+            ScriptTask task = new ScriptTask();
+            task.setName("process_" + i);
+            task.setScript(new TaskScript(new SimpleScript("print(variables.get('index'))", "groovy")));
+            task.setVariables(Collections.singletonMap("index", new TaskVariable("index", String.valueOf(i))));
+            task.addDependence(init);
+            job.addTask(task);
+        }
+        return job;
+    }
+
+}
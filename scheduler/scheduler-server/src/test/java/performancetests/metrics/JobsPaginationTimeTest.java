@@ -0,0 +1,203 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performancetests.metrics;
+
+import static performancetests.recovery.PerformanceTestBase.FAILURE;
+import static performancetests.recovery.PerformanceTestBase.SUCCESS;
+import static performancetests.recovery.PerformanceTestBase.makeCSVString;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.ow2.proactive.db.SortOrder;
+import org.ow2.proactive.db.SortParameter;
+import org.ow2.proactive.scheduler.common.JobSortParameter;
+import org.ow2.proactive.scheduler.common.Page;
+import org.ow2.proactive.scheduler.common.job.JobInfo;
+import org.ow2.proactive.scheduler.common.job.JobPriority;
+import org.ow2.proactive.scheduler.common.job.JobStatus;
+import org.ow2.proactive.scheduler.common.task.OnTaskError;
+import org.ow2.proactive.scheduler.core.db.JobData;
+import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
+
+
+/**
+ * Performance test compares the time spent to fetch the last page of the jobs with an offset,
+ * i.e. SchedulerDBManager::getJobs(offset, ...), and with a cursor,
+ * i.e. SchedulerDBManager::getJobsByCursor(cursor, ...), in a database seeded with the given number of jobs.
+ * By default the jobs are stored in an in-memory HSQLDB database, another database (e.g. PostgreSQL)
+ * can be used by giving a hibernate configuration file with the "performancetests.db.configuration" property.
+ */
+@RunWith(Parameterized.class)
+public class JobsPaginationTimeTest {
+
+    private static final Logger LOGGER = Logger.getLogger(JobsPaginationTimeTest.class);
+
+    private static final String USER_NAME = "admin";
+
+    private static final String DB_CONFIGURATION_PROPERTY = "performancetests.db.configuration";
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final int SEEDING_BATCH_SIZE = 10000;
+
+    private static final List<SortParameter<JobSortParameter>> SORT_BY_ID_DESC = Collections.singletonList(new SortParameter<>(JobSortParameter.ID,
+                                                                                                                              SortOrder.DESC));
+
+    /**
+     * @return an array of parameters which is used by JUnit to create objects of JobsPaginationTimeTest,
+     * where first value represents number of jobs in the database, and the second represents limit for the time to
+     * fetch the last page with a cursor (in milliseconds). The lower the time the better.
+     */
+    @Parameterized.Parameters
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][] { { 100000, 1000 }, { 1000000, 1000 } });
+    }
+
+    private final int jobsNumber;
+
+    private final long timeLimit;
+
+    private SchedulerDBManager dbManager;
+
+    private String database;
+
+    public JobsPaginationTimeTest(int jobsNumber, long timeLimit) {
+        this.jobsNumber = jobsNumber;
+        this.timeLimit = timeLimit;
+    }
+
+    @Before
+    public void init() {
+        CentralPAPropertyRepository.PA_CLASSLOADING_USEHTTP.setValue(false);
+        String configurationFile = System.getProperty(DB_CONFIGURATION_PROPERTY);
+        if (configurationFile == null) {
+            dbManager = SchedulerDBManager.createInMemorySchedulerDBManager();
+            database = "hsqldb-in-memory";
+        } else {
+            database = new File(configurationFile).getName();
+            dbManager = new SchedulerDBManager(new Configuration().configure(new File(configurationFile)), true);
+        }
+    }
+
+    @After
+    public void cleanUp() {
+        if (dbManager != null) {
+            dbManager.close();
+        }
+    }
+
+    @Test(timeout = 3600000)
+    public void jobsPaginationTime() throws Exception {
+        long lastPageFirstId = seedJobs() - (jobsNumber - PAGE_SIZE);
+
+        long start = System.currentTimeMillis();
+
+        Page<JobInfo> offsetPage = dbManager.getJobs(jobsNumber - PAGE_SIZE,
+                                                     PAGE_SIZE,
+                                                     USER_NAME,
+                                                     true,
+                                                     true,
+                                                     true,
+                                                     SORT_BY_ID_DESC);
+
+        final long offsetTime = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+
+        Page<JobInfo> cursorPage = dbManager.getJobsByCursor(String.valueOf(lastPageFirstId + 1),
+                                                             PAGE_SIZE,
+                                                             USER_NAME,
+                                                             true,
+                                                             true,
+                                                             true);
+
+        final long cursorTime = System.currentTimeMillis() - start;
+
+        Assert.assertEquals(offsetPage.getList().size(), cursorPage.getList().size());
+        Assert.assertEquals(offsetPage.getList().get(0).getJobId(), cursorPage.getList().get(0).getJobId());
+
+        LOGGER.info(makeCSVString(JobsPaginationTimeTest.class.getSimpleName(),
+                                  jobsNumber,
+                                  database,
+                                  offsetTime,
+                                  timeLimit,
+                                  cursorTime,
+                                  ((cursorTime < timeLimit) ? SUCCESS : FAILURE)));
+    }
+
+    /**
+     * Inserts the jobs rows directly, without their tasks, to seed the database quickly.
+     *
+     * @return the id of the last inserted job
+     */
+    private long seedJobs() {
+        long lastId = 0;
+        StatelessSession session = dbManager.getSessionFactory().openStatelessSession();
+        try {
+            Transaction transaction = session.beginTransaction();
+            for (int i = 0; i < jobsNumber; i++) {
+                lastId = (Long) session.insert(createJobData(i));
+                if ((i + 1) % SEEDING_BATCH_SIZE == 0) {
+                    transaction.commit();
+                    transaction = session.beginTransaction();
+                }
+            }
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+        return lastId;
+    }
+
+    private static JobData createJobData(int index) {
+        JobData jobData = new JobData();
+        jobData.setJobName("job_" + index);
+        jobData.setOwner(USER_NAME);
+        jobData.setPriority(JobPriority.NORMAL);
+        jobData.setStatus(index % 10 == 0 ? JobStatus.PENDING : JobStatus.FINISHED);
+        jobData.setOnTaskErrorString(OnTaskError.NONE);
+        jobData.setMaxNumberOfExecution(1);
+        jobData.setSubmittedTime(System.currentTimeMillis());
+        jobData.setRemovedTime(-1L);
+        return jobData;
+    }
+
+}
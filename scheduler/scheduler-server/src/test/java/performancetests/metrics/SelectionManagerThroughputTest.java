@@ -0,0 +1,147 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performancetests.metrics;
+
+import static performancetests.recovery.PerformanceTestBase.FAILURE;
+import static performancetests.recovery.PerformanceTestBase.SUCCESS;
+import static performancetests.recovery.PerformanceTestBase.makeCSVString;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.ow2.proactive.resourcemanager.core.RMCore;
+import org.ow2.proactive.resourcemanager.rmnode.RMNode;
+import org.ow2.proactive.resourcemanager.selection.SelectionManager;
+import org.ow2.proactive.resourcemanager.selection.SelectionManagerTest;
+import org.ow2.proactive.resourcemanager.selection.statistics.ProbablisticSelectionManager;
+import org.ow2.proactive.scripting.ScriptResult;
+import org.ow2.proactive.scripting.SelectionScript;
+
+
+/**
+ * Performance test measures the throughput of the selection knowledge base, i.e. the number of
+ * predictions and script results processed per second by the selection manager, depending on
+ * the number of selection threads using it concurrently.
+ * Scripts are not executed, so that only the knowledge base is measured.
+ */
+@RunWith(Parameterized.class)
+public class SelectionManagerThroughputTest {
+
+    private static final Logger LOGGER = Logger.getLogger(SelectionManagerThroughputTest.class);
+
+    private static final int NODES = 1000;
+
+    private static final int SCRIPTS = 100;
+
+    private static final long DURATION = 10000; // in milliseconds
+
+    /**
+     * @return an array of parameters which is used by JUnit to create objects of SelectionManagerThroughputTest,
+     * where first value represents number of selection threads, and the second represents the minimum
+     * throughput expected (operations per second). The higher the throughput the better.
+     */
+    @Parameterized.Parameters
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][] { { 1, 100000 }, { 4, 200000 }, { 16, 200000 }, { 50, 200000 } });
+    }
+
+    private final int threads;
+
+    private final long minThroughput;
+
+    public SelectionManagerThroughputTest(int threads, long minThroughput) {
+        this.threads = threads;
+        this.minThroughput = minThroughput;
+    }
+
+    @Test(timeout = 600000)
+    public void selectionThroughput() throws Exception {
+        RMCore rmCore = SelectionManagerTest.newMockedRMCore();
+        SelectionManager selectionManager = new ProbablisticSelectionManager(rmCore);
+
+        List<RMNode> nodes = new ArrayList<>(NODES);
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(SelectionManagerTest.createMockeNode("user", "node-" + i, "node-" + i));
+        }
+        List<SelectionScript> scripts = new ArrayList<>(SCRIPTS);
+        for (int i = 0; i < SCRIPTS; i++) {
+            scripts.add(new SelectionScript("selected = " + i, "groovy", i % 2 == 0));
+        }
+        Map<String, Serializable> bindings = Collections.emptyMap();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> futures = new ArrayList<>(threads);
+        final long end = System.currentTimeMillis() + DURATION;
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long operations = 0;
+                while (System.currentTimeMillis() < end) {
+                    SelectionScript script = scripts.get(random.nextInt(SCRIPTS));
+                    RMNode node = nodes.get(random.nextInt(NODES));
+                    if (!selectionManager.isPassed(script, bindings, node)) {
+                        selectionManager.processScriptResult(script,
+                                                             bindings,
+                                                             new ScriptResult<>(random.nextBoolean()),
+                                                             node);
+                    }
+                    operations++;
+                }
+                return operations;
+            }));
+        }
+
+        long operations = 0;
+        for (Future<Long> future : futures) {
+            operations += future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        long throughput = operations * 1000 / DURATION;
+
+        LOGGER.info(makeCSVString(SelectionManagerThroughputTest.class.getSimpleName(),
+                                  threads,
+                                  minThroughput,
+                                  throughput,
+                                  ((throughput > minThroughput) ? SUCCESS : FAILURE)));
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package performancetests.metrics;
+
+import static performancetests.recovery.PerformanceTestBase.FAILURE;
+import static performancetests.recovery.PerformanceTestBase.SUCCESS;
+import static performancetests.recovery.PerformanceTestBase.makeCSVString;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.objectweb.proactive.api.PAActiveObject;
+import org.objectweb.proactive.core.config.CentralPAPropertyRepository;
+import org.ow2.proactive.scheduler.common.task.TaskId;
+import org.ow2.proactive.scheduler.job.JobIdImpl;
+import org.ow2.proactive.scheduler.synchronization.AOSynchronization;
+import org.ow2.proactive.scheduler.synchronization.Synchronization;
+import org.ow2.proactive.scheduler.synchronization.SynchronizationWrapper;
+import org.ow2.proactive.scheduler.task.TaskIdImpl;
+
+
+/**
+ * Performance test measures the throughput of the Synchronization API, i.e. the number of operations per second
+ * served by the synchronization service, when it is used as a shared counter by concurrent tasks.
+ * Each task increments a counter of a persistent channel and reads a counter, either on a single channel shared
+ * by all tasks, or on a channel per task.
+ */
+@RunWith(Parameterized.class)
+public class SynchronizationThroughputTest {
+
+    private static final Logger LOGGER = Logger.getLogger(SynchronizationThroughputTest.class);
+
+    private static final TaskId TASK_ID = TaskIdImpl.createTaskId(new JobIdImpl(0, "Job"), "Task", 0);
+
+    private static final String INCREMENT = "{k, x -> x + 1}";
+
+    private static final String COUNTER = "counter";
+
+    private static final long DURATION = 10000; // in milliseconds
+
+    /**
+     * @return an array of parameters which is used by JUnit to create objects of SynchronizationThroughputTest,
+     * where first value represents number of concurrent tasks, the second whether they share a single channel,
+     * and the third the minimum throughput expected (operations per second). The higher the throughput the better.
+     */
+    @Parameterized.Parameters
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][] { { 1, true, 500 }, { 16, true, 1000 }, { 16, false, 2000 },
+                                              { 64, false, 2000 } });
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final int tasks;
+
+    private final boolean sharedChannel;
+
+    private final long minThroughput;
+
+    private AOSynchronization synchronizationInternal;
+
+    public SynchronizationThroughputTest(int tasks, boolean sharedChannel, long minThroughput) {
+        this.tasks = tasks;
+        this.sharedChannel = sharedChannel;
+        this.minThroughput = minThroughput;
+    }
+
+    @Before
+    public void init() throws Exception {
+        CentralPAPropertyRepository.PA_CLASSLOADING_USEHTTP.setValue(false);
+        File storeDirectory = folder.newFolder();
+        synchronizationInternal = PAActiveObject.newActive(AOSynchronization.class,
+                                                           new Object[] { storeDirectory.getAbsolutePath() });
+    }
+
+    @After
+    public void cleanUp() {
+        synchronizationInternal.close();
+        PAActiveObject.terminateActiveObject(synchronizationInternal, true);
+    }
+
+    @Test(timeout = 600000)
+    public void synchronizationThroughput() throws Exception {
+        Synchronization synchronization = new SynchronizationWrapper("user", TASK_ID, synchronizationInternal);
+        int channels = sharedChannel ? 1 : tasks;
+        for (int i = 0; i < channels; i++) {
+            synchronization.createChannel(channelName(i), true);
+            synchronization.put(channelName(i), COUNTER, 0);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(tasks);
+        List<Future<Long>> futures = new ArrayList<>(tasks);
+        final long end = System.currentTimeMillis() + DURATION;
+        for (int i = 0; i < tasks; i++) {
+            final String channel = channelName(sharedChannel ? 0 : i);
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long operations = 0;
+                while (System.currentTimeMillis() < end) {
+                    synchronization.compute(channel, COUNTER, INCREMENT);
+                    synchronization.get(channelName(random.nextInt(channels)), COUNTER);
+                    operations += 2;
+                }
+                return operations;
+            }));
+        }
+
+        long operations = 0;
+        for (Future<Long> future : futures) {
+            operations += future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        long throughput = operations * 1000 / DURATION;
+
+        LOGGER.info(makeCSVString(SynchronizationThroughputTest.class.getSimpleName(),
+                                  tasks,
+                                  sharedChannel,
+                                  minThroughput,
+                                  throughput,
+                                  ((throughput > minThroughput) ? SUCCESS : FAILURE)));
+    }
+
+    private static String channelName(int index) {
+        return "channel" + index;
+    }
+
+}
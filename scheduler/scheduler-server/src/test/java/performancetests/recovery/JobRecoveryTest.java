@@ -41,7 +41,7 @@ import org.objectweb.proactive.core.config.ProActiveConfiguration;
 import org.ow2.proactive.resourcemanager.RMFactory;
 import org.ow2.proactive.scheduler.common.job.JobId;
 import org.ow2.proactive.scheduler.core.SchedulingService;
-import org.ow2.proactive.scheduler.core.db.SchedulerDBManager;
+import org.ow2.proactive.scheduler.core.db.SchedulerStateRecoverHelper;
 import org.ow2.proactive.scheduler.descriptor.JobDescriptorImpl;
 
 import functionaltests.nodesrecovery.NodesRecoveryProcessHelper;
@@ -173,15 +173,19 @@ public class JobRecoveryTest extends PerformanceTestBase {
         final long time = endedToRecover() - startedToRecover();
         if (time < 0) {
             throw new RuntimeException(String.format("First occurence of %s goes after %s",
-                                                     SchedulerDBManager.ALL_REQUIRED_JOBS_HAVE_BEEN_FETCHED,
+                                                     SchedulerStateRecoverHelper.SCHEDULER_STATE_RECOVERY_STARTED,
                                                      SchedulingService.SCHEDULING_SERVICE_RECOVER_TASKS_STATE_FINISHED));
         } else {
             return time;
         }
     }
 
+    /**
+     * Recovery starts before the jobs are loaded from the database, as they are loaded by pages
+     * and recovered while the next pages are being loaded.
+     */
     static long startedToRecover() {
-        return LogProcessor.getDateOfLine(LogProcessor.getFirstLineThatMatch(SchedulerDBManager.ALL_REQUIRED_JOBS_HAVE_BEEN_FETCHED))
+        return LogProcessor.getDateOfLine(LogProcessor.getFirstLineThatMatch(SchedulerStateRecoverHelper.SCHEDULER_STATE_RECOVERY_STARTED))
                            .getTime();
     }
 
@@ -233,6 +233,12 @@ public abstract class AbstractSmartProxy<T extends JobTracker> implements Schedu
         return getScheduler().getJobs(offset, limit, filterCriteria, sortParameters);
     }
 
+    @Override
+    public Page<JobInfo> getJobsByCursor(String cursor, int limit, JobFilterCriteria filterCriteria)
+            throws NotConnectedException, PermissionException {
+        return getScheduler().getJobsByCursor(cursor, limit, filterCriteria);
+    }
+
     @Override
     public List<JobInfo> getJobsInfoList(List<String> jobsId) throws PermissionException, NotConnectedException {
         return getScheduler().getJobsInfoList(jobsId);
@@ -548,6 +548,16 @@ public class SmartProxyImpl extends AbstractSmartProxy<JobTrackerImpl> implement
         return schedulerProxy.getTaskResult(jobId, taskName);
     }
 
+    @Override
+    public String getTaskResultValueHandle(String jobId, String taskName)
+            throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
+        if (schedulerProxy == null) {
+            throw new NotConnectedException("Not connected to the scheduler.");
+        }
+
+        return schedulerProxy.getTaskResultValueHandle(jobId, taskName);
+    }
+
     public TaskResult getTaskResult(JobId jobId, String taskName)
             throws NotConnectedException, UnknownJobException, UnknownTaskException, PermissionException {
         if (schedulerProxy == null) {
@@ -823,6 +833,28 @@ public class SmartProxyImpl extends AbstractSmartProxy<JobTrackerImpl> implement
                                             sortParams);
     }
 
+    @Override
+    public Page<TaskId> getTaskIdsByCursor(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        return schedulerProxy.getTaskIdsByCursor(taskTag, from, to, mytasks, running, pending, finished, cursor, limit);
+    }
+
+    @Override
+    public Page<TaskState> getTaskStatesByCursor(String taskTag, long from, long to, boolean mytasks, boolean running,
+            boolean pending, boolean finished, String cursor, int limit)
+            throws NotConnectedException, PermissionException {
+        return schedulerProxy.getTaskStatesByCursor(taskTag,
+                                                    from,
+                                                    to,
+                                                    mytasks,
+                                                    running,
+                                                    pending,
+                                                    finished,
+                                                    cursor,
+                                                    limit);
+    }
+
     @Override
     public JobInfo getJobInfo(String jobId) throws UnknownJobException, NotConnectedException, PermissionException {
         return schedulerProxy.getJobInfo(jobId);